@@ -0,0 +1,112 @@
+package com.redhat.service.smartevents.executor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the results of a run of the benchmarks, written with <code>-rf json</code>, with the ones of a baseline run on
+ * the same machine. A benchmark regresses when its allocations per operation (reported with <code>-prof gc</code>) grow by
+ * more than the allocation tolerance or its throughput drops by more than the throughput tolerance. Benchmarks that are
+ * not in the baseline are only listed.
+ * <p>
+ * Usage: <code>BaselineComparison &lt;baseline.json&gt; &lt;results.json&gt; [allocation tolerance] [throughput
+ * tolerance]</code>, the tolerances are fractions. The allocations are deterministic and default to 0.1, the throughput
+ * of short runs varies much more and defaults to 0.5. Exits with status 1 if any benchmark regressed.
+ */
+public class BaselineComparison {
+
+    static final double DEFAULT_ALLOCATION_TOLERANCE = 0.1;
+    static final double DEFAULT_THROUGHPUT_TOLERANCE = 0.5;
+
+    private static final String ALLOCATION_METRIC = "\u00b7gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [allocation tolerance] [throughput tolerance]");
+            System.exit(2);
+        }
+        double allocationTolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_ALLOCATION_TOLERANCE;
+        double throughputTolerance = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_THROUGHPUT_TOLERANCE;
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> regressions = compare(
+                read(mapper.readTree(new File(args[0]))),
+                read(mapper.readTree(new File(args[1]))),
+                allocationTolerance,
+                throughputTolerance);
+        regressions.forEach(System.out::println);
+        if (!regressions.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return a line for every regression
+     */
+    static List<String> compare(Map<String, Result> baseline, Map<String, Result> results, double allocationTolerance, double throughputTolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result expected = baseline.get(entry.getKey());
+            Result actual = entry.getValue();
+            if (expected == null) {
+                System.out.printf("%s: %.2f %s, not in the baseline%n", entry.getKey(), actual.score, actual.unit);
+                continue;
+            }
+            if (actual.score < expected.score * (1 - throughputTolerance)) {
+                regressions.add(String.format("%s: throughput %.2f %s, baseline %.2f %s", entry.getKey(), actual.score, actual.unit, expected.score, expected.unit));
+            }
+            if (expected.allocated >= 0 && actual.allocated > expected.allocated * (1 + allocationTolerance)) {
+                regressions.add(String.format("%s: %.0f B/op allocated, baseline %.0f B/op", entry.getKey(), actual.allocated, expected.allocated));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @return the results keyed by the name of the benchmark and its parameters
+     */
+    static Map<String, Result> read(JsonNode json) {
+        Map<String, Result> results = new TreeMap<>();
+        for (JsonNode benchmark : json) {
+            JsonNode allocation = benchmark.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            results.put(toKey(benchmark), new Result(
+                    benchmark.path("primaryMetric").path("score").asDouble(),
+                    benchmark.path("primaryMetric").path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? -1 : allocation.path("score").asDouble()));
+        }
+        return results;
+    }
+
+    private static String toKey(JsonNode benchmark) {
+        StringBuilder key = new StringBuilder(benchmark.path("benchmark").asText());
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = benchmark.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        params.forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    static class Result {
+
+        private final double score;
+        private final String unit;
+        // -1 if the run was not profiled
+        private final double allocated;
+
+        Result(double score, String unit, double allocated) {
+            this.score = score;
+            this.unit = unit;
+            this.allocated = allocated;
+        }
+    }
+}
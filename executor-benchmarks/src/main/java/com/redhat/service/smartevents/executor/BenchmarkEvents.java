@@ -0,0 +1,151 @@
+package com.redhat.service.smartevents.executor;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.service.smartevents.infra.core.api.dto.KafkaConnectionDTO;
+import com.redhat.service.smartevents.infra.core.models.ManagedResourceStatus;
+import com.redhat.service.smartevents.infra.core.utils.CloudEventUtils;
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
+import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
+import com.redhat.service.smartevents.infra.v1.api.models.processors.ProcessorDefinition;
+import com.redhat.service.smartevents.infra.v1.api.models.processors.ProcessorType;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.jackson.JsonFormat;
+
+/**
+ * The events and processors shared by the benchmarks. The data of an event has a few small fields used by the filters and
+ * the templates, followed by an array of items that brings it to the requested size, as the events of the bridges are
+ * mostly made of a payload the processors don't look at.
+ */
+final class BenchmarkEvents {
+
+    static final URI SOURCE = URI.create("benchmarkSource");
+    static final String TYPE = "BenchmarkEvent";
+    static final String ID = "benchmarkId";
+    static final String SUBJECT = "benchmarkSubject";
+    static final String ACTION_TYPE = "benchmark_action_0.1";
+
+    static final int MAX_FILTERS = 50;
+
+    private static final int ITEM_SIZE = 64;
+
+    private BenchmarkEvents() {
+    }
+
+    /**
+     * @param size the approximate size in bytes of the serialized data
+     */
+    static JsonNode createData(int size) {
+        ObjectNode data = CloudEventUtils.getMapper().createObjectNode();
+        data.put("name", "benchmark");
+        data.put("message", "the quick brown fox jumps over the lazy dog");
+        data.put("priority", 3);
+        for (int i = 0; i < MAX_FILTERS; i++) {
+            data.put(getFieldName(i), getFieldValue(i));
+        }
+        ArrayNode items = data.putArray("items");
+        char[] padding = new char[ITEM_SIZE];
+        // every item takes its quotes and a comma
+        for (int length = data.toString().length(), item = 0; length < size; length += ITEM_SIZE + 3, item++) {
+            for (int i = 0; i < padding.length; i++) {
+                padding[i] = (char) ('a' + (item + i) % 26);
+            }
+            items.add(new String(padding));
+        }
+        return data;
+    }
+
+    static CloudEvent createCloudEvent(int size) {
+        return CloudEventUtils.builderFor(SpecVersion.V1, ID, SOURCE, TYPE, SUBJECT, createData(size)).build();
+    }
+
+    /**
+     * @return the record value of the event in structured mode, the headers only carry the content type
+     */
+    static byte[] toStructuredValue(CloudEvent event) {
+        return CloudEventUtils.encode(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Headers createStructuredHeaders() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("content-type", JsonFormat.CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    /**
+     * @return the record value of the event in binary mode, i.e. the data alone
+     */
+    static byte[] toBinaryValue(int size) {
+        try {
+            return CloudEventUtils.getMapper().writeValueAsBytes(createData(size));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Headers createBinaryHeaders() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("ce_specversion", SpecVersion.V1.toString().getBytes(StandardCharsets.UTF_8));
+        headers.add("ce_id", ID.getBytes(StandardCharsets.UTF_8));
+        headers.add("ce_source", SOURCE.toString().getBytes(StandardCharsets.UTF_8));
+        headers.add("ce_type", TYPE.getBytes(StandardCharsets.UTF_8));
+        headers.add("ce_subject", SUBJECT.getBytes(StandardCharsets.UTF_8));
+        headers.add("content-type", "application/json".getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    /**
+     * @return filters on distinct fields of the data, all matching the events of {@link #createData(int)}
+     */
+    static Set<BaseFilter> createFilters(int count) {
+        if (count > MAX_FILTERS) {
+            throw new IllegalArgumentException("At most " + MAX_FILTERS + " filters are supported.");
+        }
+        Set<BaseFilter> filters = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            filters.add(new StringEquals("data." + getFieldName(i), getFieldValue(i)));
+        }
+        return filters;
+    }
+
+    static ProcessorDTO createProcessor(String id, Set<BaseFilter> filters, String transformationTemplate) {
+        Action action = new Action();
+        action.setType(ACTION_TYPE);
+        return createProcessor(id, filters, transformationTemplate, action);
+    }
+
+    static ProcessorDTO createProcessor(String id, Set<BaseFilter> filters, String transformationTemplate, Action action) {
+        ProcessorDTO dto = new ProcessorDTO();
+        dto.setType(ProcessorType.SINK);
+        dto.setId(id);
+        dto.setName(id);
+        dto.setDefinition(new ProcessorDefinition(filters, transformationTemplate, action));
+        dto.setBridgeId("benchmarkBridge");
+        dto.setCustomerId("benchmarkCustomer");
+        dto.setStatus(ManagedResourceStatus.READY);
+        dto.setKafkaConnection(new KafkaConnectionDTO("localhost:9092", "client", "secret", "PLAINTEXT", "PLAIN", "ob-benchmark", "ob-benchmark-errors"));
+        return dto;
+    }
+
+    private static String getFieldName(int i) {
+        return "field" + i;
+    }
+
+    private static String getFieldValue(int i) {
+        return "value" + i;
+    }
+}
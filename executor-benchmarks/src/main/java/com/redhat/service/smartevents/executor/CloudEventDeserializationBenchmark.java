@@ -0,0 +1,58 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Headers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventDeserializer;
+
+/**
+ * Parsing of the record value into a {@link CloudEvent}, the first stage of {@link ExecutorService#processEvent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CloudEventDeserializationBenchmark {
+
+    @Param({ "1024", "65536", "1048576" })
+    int payloadSize;
+
+    @Param({ "structured", "binary" })
+    String mode;
+
+    private final CloudEventDeserializer deserializer = new CloudEventDeserializer();
+
+    private Headers headers;
+    private byte[] value;
+
+    @Setup
+    public void setup() {
+        if ("structured".equals(mode)) {
+            headers = BenchmarkEvents.createStructuredHeaders();
+            value = BenchmarkEvents.toStructuredValue(BenchmarkEvents.createCloudEvent(payloadSize));
+        } else {
+            headers = BenchmarkEvents.createBinaryHeaders();
+            value = BenchmarkEvents.toBinaryValue(payloadSize);
+        }
+    }
+
+    @Benchmark
+    public CloudEvent deserialize() {
+        return deserializer.deserialize("ob-benchmark", headers, value);
+    }
+}
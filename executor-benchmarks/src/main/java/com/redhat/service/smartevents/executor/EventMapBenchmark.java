@@ -0,0 +1,67 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventDeserializer;
+
+/**
+ * Access to the event as a map, as done by the filters and the transformations of {@link ExecutorImpl}. A new
+ * {@link LazyCloudEventMap} is built for every invocation as the executor does for every event, so that nothing is
+ * resolved in advance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventMapBenchmark {
+
+    private static final String[] DATA_FIELD_PATH = { "data", "field0" };
+
+    @Param({ "1024", "65536", "1048576" })
+    int payloadSize;
+
+    private CloudEvent event;
+
+    @Setup
+    public void setup() {
+        // the event is the one the executor gets from the deserializer, not the one built in memory
+        event = new CloudEventDeserializer().deserialize("ob-benchmark",
+                BenchmarkEvents.createStructuredHeaders(),
+                BenchmarkEvents.toStructuredValue(BenchmarkEvents.createCloudEvent(payloadSize)));
+    }
+
+    @Benchmark
+    public Object getAttribute() {
+        return new LazyCloudEventMap(event).get("type");
+    }
+
+    @Benchmark
+    public Object resolveDataField() {
+        return new LazyCloudEventMap(event).resolve(DATA_FIELD_PATH);
+    }
+
+    @Benchmark
+    public int toFullMap() {
+        return new LazyCloudEventMap(event).entrySet().size();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return new LazyCloudEventMap(event).toJson();
+    }
+}
@@ -0,0 +1,108 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.common.header.Headers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryNative;
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
+import com.redhat.service.smartevents.infra.v1.api.models.transformations.TransformationEvaluatorFactoryQute;
+import com.redhat.service.smartevents.processor.actions.ActionInvoker;
+import com.redhat.service.smartevents.processor.actions.ActionInvokerBuilder;
+import com.redhat.service.smartevents.processor.actions.ActionRuntime;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventDeserializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+
+/**
+ * All the stages of {@link ExecutorService#processEvent} for a record of the bridge, up to the action: the action
+ * discards the event, so that the cost of the executor itself is measured. Kafka and the acknowledgement of the record
+ * are left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorPipelineBenchmark {
+
+    @Param({ "1024", "65536", "1048576" })
+    int payloadSize;
+
+    @Param({ "0", "10" })
+    int filterCount;
+
+    @Param({ "false", "true" })
+    boolean transformation;
+
+    private final CloudEventDeserializer deserializer = new CloudEventDeserializer();
+
+    private ExecutorImpl executor;
+    private KafkaRecord<Integer, byte[]> record;
+    private CloudEvent event;
+
+    @Setup
+    public void setup() {
+        ProcessorDTO processor = BenchmarkEvents.createProcessor("processor-0",
+                BenchmarkEvents.createFilters(filterCount),
+                transformation ? TransformationBenchmark.TEMPLATE : null);
+        executor = new ExecutorImpl(processor,
+                new FilterEvaluatorFactoryNative(),
+                new TransformationEvaluatorFactoryQute(),
+                new DiscardingActionRuntime(),
+                new SimpleMeterRegistry());
+
+        event = BenchmarkEvents.createCloudEvent(payloadSize);
+        record = KafkaRecord.of(1, BenchmarkEvents.toStructuredValue(event));
+        BenchmarkEvents.createStructuredHeaders().forEach(record.getHeaders()::add);
+    }
+
+    @Benchmark
+    public void process() {
+        Headers headers = record.getHeaders();
+        CloudEvent cloudEvent = deserializer.deserialize("ob-benchmark", headers, record.getPayload());
+        Map<String, String> fullHeadersMap = ExecutorService.toFullHeadersMap(executor.getProcessor(), Pair.of(cloudEvent, ExecutorService.toHeadersMap(headers)), record);
+        executor.onEventAsync(cloudEvent, fullHeadersMap, System.currentTimeMillis()).await().indefinitely();
+    }
+
+    @Benchmark
+    public void processDeserialized() {
+        executor.onEventAsync(event, Map.of(), System.currentTimeMillis()).await().indefinitely();
+    }
+
+    private static class DiscardingActionRuntime implements ActionRuntime {
+
+        @Override
+        public ActionInvokerBuilder getInvokerBuilder(String actionType) {
+            return new ActionInvokerBuilder() {
+                @Override
+                public String getType() {
+                    return actionType;
+                }
+
+                @Override
+                public ActionInvoker build(ProcessorDTO processor, Action action) {
+                    return (event, headers) -> {
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.smartevents.executor.filters.FilterEvaluator;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactory;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryFEEL;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryNative;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventDeserializer;
+
+/**
+ * Evaluation of the filters of a processor. All the filters match, so that every one of them is evaluated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterEvaluatorBenchmark {
+
+    @Param({ "1", "10", "50" })
+    int filterCount;
+
+    @Param({ FilterEvaluatorFactoryNative.NAME, "feel" })
+    String evaluator;
+
+    @Param({ "1024", "65536" })
+    int payloadSize;
+
+    private FilterEvaluator filterEvaluator;
+    private CloudEvent event;
+
+    @Setup
+    public void setup() {
+        FilterEvaluatorFactory factory = FilterEvaluatorFactoryNative.NAME.equals(evaluator) ? new FilterEvaluatorFactoryNative() : new FilterEvaluatorFactoryFEEL();
+        filterEvaluator = factory.build(BenchmarkEvents.createFilters(filterCount));
+        event = new CloudEventDeserializer().deserialize("ob-benchmark",
+                BenchmarkEvents.createStructuredHeaders(),
+                BenchmarkEvents.toStructuredValue(BenchmarkEvents.createCloudEvent(payloadSize)));
+    }
+
+    @Benchmark
+    public boolean evaluateFilters() {
+        return filterEvaluator.evaluateFilters(new LazyCloudEventMap(event));
+    }
+}
@@ -0,0 +1,81 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.smartevents.executor.filters.FilterEvaluator;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactory;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryNative;
+import com.redhat.service.smartevents.executor.filters.FilterIndex;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
+
+import io.cloudevents.CloudEvent;
+
+/**
+ * Matching of an event against the processors of a bridge, each subscribed to its own event type. Only one of them
+ * matches: the {@link FilterIndex} looks it up by type, while the processors can also be evaluated one by one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterIndexBenchmark {
+
+    @Param({ "1", "10", "50" })
+    int processorCount;
+
+    private FilterIndex filterIndex;
+    private Map<String, FilterEvaluator> evaluators;
+    private CloudEvent event;
+
+    @Setup
+    public void setup() {
+        FilterEvaluatorFactory factory = new FilterEvaluatorFactoryNative();
+        Map<String, Set<BaseFilter>> filtersByProcessorId = new HashMap<>();
+        evaluators = new LinkedHashMap<>();
+        for (int i = 0; i < processorCount; i++) {
+            Set<BaseFilter> filters = BenchmarkEvents.createFilters(1);
+            filters.add(new StringEquals("type", i == 0 ? BenchmarkEvents.TYPE : BenchmarkEvents.TYPE + i));
+            filtersByProcessorId.put("processor-" + i, filters);
+            evaluators.put("processor-" + i, factory.build(filters));
+        }
+        filterIndex = new FilterIndex(filtersByProcessorId, factory);
+        event = BenchmarkEvents.createCloudEvent(1024);
+    }
+
+    @Benchmark
+    public Set<String> index() {
+        return filterIndex.match(new LazyCloudEventMap(event));
+    }
+
+    @Benchmark
+    public Set<String> evaluateAll() {
+        LazyCloudEventMap map = new LazyCloudEventMap(event);
+        Set<String> matching = new HashSet<>();
+        for (Map.Entry<String, FilterEvaluator> entry : evaluators.entrySet()) {
+            if (entry.getValue().evaluateFilters(map)) {
+                matching.add(entry.getKey());
+            }
+        }
+        return matching;
+    }
+}
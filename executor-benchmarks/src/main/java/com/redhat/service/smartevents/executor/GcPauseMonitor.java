@@ -0,0 +1,67 @@
+package com.redhat.service.smartevents.executor;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Records the duration of the GC pauses from the notifications of the collectors. The cycles of the concurrent
+ * collectors run alongside the application and are left out.
+ */
+class GcPauseMonitor implements NotificationListener, AutoCloseable {
+
+    private final Recorder pauses = new Recorder(3);
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    void start() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) collector;
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (info.getGcAction().contains("concurrent")) {
+            return;
+        }
+        pauses.recordValue(info.getGcInfo().getDuration());
+    }
+
+    /**
+     * @return the pauses in milliseconds since the previous call
+     */
+    Histogram getPauses() {
+        return pauses.getIntervalHistogram();
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                // already removed
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The options of the {@link ThroughputHarness}, given as <code>--name=value</code> arguments:
+ * <ul>
+ * <li><code>rate</code>: the events sent every second, 1000 by default</li>
+ * <li><code>warmup</code> and <code>duration</code>: the seconds of the warmup, whose events are not measured, and of the
+ * measurement, 10 and 60 by default</li>
+ * <li><code>mix</code>: the sizes in bytes of the data of the events with their weight, 1024:70,16384:25,1048576:5 by
+ * default</li>
+ * <li><code>configurations</code>: the processors to measure one after the other, passthrough,filters-10,qute,filters-10+qute
+ * by default. <code>filters-N</code> adds N filters, <code>qute</code> a transformation template</li>
+ * <li><code>max-in-flight</code>: the <code>event-bridge.executor.max-in-flight</code> of the executor, 100 by default</li>
+ * <li><code>sink-delay-ms</code>: the time the webhook stub takes to reply, 0 by default</li>
+ * </ul>
+ */
+class HarnessOptions {
+
+    private int rate = 1000;
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+    private Map<Integer, Integer> mix = parseMix("1024:70,16384:25,1048576:5");
+    private List<ProcessorConfiguration> configurations = parseConfigurations("passthrough,filters-10,qute,filters-10+qute");
+    private int maxInFlight = 100;
+    private long sinkDelayMs = 0;
+
+    static HarnessOptions parse(String[] args) {
+        HarnessOptions options = new HarnessOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "', expected --name=value.");
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "rate":
+                    options.rate = Integer.parseInt(value);
+                    break;
+                case "warmup":
+                    options.warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    options.durationSeconds = Integer.parseInt(value);
+                    break;
+                case "mix":
+                    options.mix = parseMix(value);
+                    break;
+                case "configurations":
+                    options.configurations = parseConfigurations(value);
+                    break;
+                case "max-in-flight":
+                    options.maxInFlight = Integer.parseInt(value);
+                    break;
+                case "sink-delay-ms":
+                    options.sinkDelayMs = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option '" + name + "'.");
+            }
+        }
+        if (options.rate <= 0 || options.durationSeconds <= 0 || options.warmupSeconds < 0) {
+            throw new IllegalArgumentException("The rate and the duration must be positive.");
+        }
+        return options;
+    }
+
+    static Map<Integer, Integer> parseMix(String value) {
+        Map<Integer, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] sizeAndWeight = entry.trim().split(":");
+            mix.put(Integer.parseInt(sizeAndWeight[0]), sizeAndWeight.length > 1 ? Integer.parseInt(sizeAndWeight[1]) : 1);
+        }
+        return mix;
+    }
+
+    static List<ProcessorConfiguration> parseConfigurations(String value) {
+        List<ProcessorConfiguration> configurations = new ArrayList<>();
+        for (String name : value.split(",")) {
+            configurations.add(ProcessorConfiguration.parse(name.trim()));
+        }
+        return configurations;
+    }
+
+    int getRate() {
+        return rate;
+    }
+
+    int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    Map<Integer, Integer> getMix() {
+        return mix;
+    }
+
+    List<ProcessorConfiguration> getConfigurations() {
+        return configurations;
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    long getSinkDelayMs() {
+        return sinkDelayMs;
+    }
+
+    static class ProcessorConfiguration {
+
+        private final String name;
+        private final int filterCount;
+        private final boolean transformation;
+
+        ProcessorConfiguration(String name, int filterCount, boolean transformation) {
+            this.name = name;
+            this.filterCount = filterCount;
+            this.transformation = transformation;
+        }
+
+        static ProcessorConfiguration parse(String name) {
+            int filterCount = 0;
+            boolean transformation = false;
+            for (String part : name.split("\\+")) {
+                if (part.startsWith("filters-")) {
+                    filterCount = Integer.parseInt(part.substring("filters-".length()));
+                } else if ("qute".equals(part)) {
+                    transformation = true;
+                } else if (!"passthrough".equals(part)) {
+                    throw new IllegalArgumentException("Unknown processor configuration '" + part + "'.");
+                }
+            }
+            return new ProcessorConfiguration(name, filterCount, transformation);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getFilterCount() {
+            return filterCount;
+        }
+
+        boolean hasTransformation() {
+            return transformation;
+        }
+    }
+}
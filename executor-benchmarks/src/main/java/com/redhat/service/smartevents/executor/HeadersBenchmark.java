@@ -0,0 +1,73 @@
+package com.redhat.service.smartevents.executor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.common.header.Headers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.cloudevents.CloudEvent;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+
+/**
+ * Building of the headers given to the action of a processor: the headers of the record with the trace headers of
+ * the processor, and the extensions of the events of the source processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeadersBenchmark {
+
+    // records written by the connectors have headers that are not valid extension names
+    @Param({ "0", "8", "32" })
+    int customHeaderCount;
+
+    private ProcessorDTO processor;
+    private CloudEvent event;
+    private KafkaRecord<Integer, byte[]> record;
+
+    @Setup
+    public void setup() {
+        processor = BenchmarkEvents.createProcessor("processor-0", null, null);
+        event = BenchmarkEvents.createCloudEvent(1024);
+        KafkaRecord<Integer, byte[]> withHeaders = KafkaRecord.of(1, BenchmarkEvents.toStructuredValue(event));
+        Headers headers = withHeaders.getHeaders();
+        BenchmarkEvents.createBinaryHeaders().forEach(headers::add);
+        for (int i = 0; i < customHeaderCount; i++) {
+            headers.add("X-Custom-Header-" + i, ("value-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        record = withHeaders;
+    }
+
+    @Benchmark
+    public Map<String, String> toHeadersMap() {
+        return ExecutorService.toHeadersMap(record.getHeaders());
+    }
+
+    @Benchmark
+    public Map<String, String> toFullHeadersMap() {
+        return ExecutorService.toFullHeadersMap(processor, Pair.of(event, ExecutorService.toHeadersMap(record.getHeaders())), record);
+    }
+
+    @Benchmark
+    public Map<String, String> toExtensionsMap() {
+        return ExecutorService.toExtensionsMap(record.getHeaders());
+    }
+}
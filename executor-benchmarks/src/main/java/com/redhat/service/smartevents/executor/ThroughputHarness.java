@@ -0,0 +1,322 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.record.TimestampType;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import com.redhat.service.smartevents.executor.HarnessOptions.ProcessorConfiguration;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryNative;
+import com.redhat.service.smartevents.infra.core.exceptions.BridgeError;
+import com.redhat.service.smartevents.infra.core.exceptions.BridgeErrorService;
+import com.redhat.service.smartevents.infra.core.models.ListResult;
+import com.redhat.service.smartevents.infra.core.models.queries.QueryPageInfo;
+import com.redhat.service.smartevents.infra.core.utils.CloudEventUtils;
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
+import com.redhat.service.smartevents.infra.v1.api.models.transformations.TransformationEvaluatorFactoryQute;
+import com.redhat.service.smartevents.processor.actions.ActionInvoker;
+import com.redhat.service.smartevents.processor.actions.ActionInvokerBuilder;
+import com.redhat.service.smartevents.processor.actions.ActionRuntime;
+import com.redhat.service.smartevents.processor.actions.webhook.WebhookAction;
+import com.redhat.service.smartevents.processor.actions.webhook.WebhookActionInvoker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.commit.KafkaCommitHandler;
+import io.smallrye.reactive.messaging.kafka.fault.KafkaFailureHandler;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.ext.web.client.WebClient;
+
+/**
+ * Measures the throughput of the executor without Kafka: the records are handed to {@link ExecutorService#processEvent}
+ * as the Kafka connector does, one after the other on a single thread and only once the previous one has been accepted,
+ * and the events are delivered by a real {@link WebhookActionInvoker} to a local {@link WebhookStub}.
+ * <p>
+ * The records are sent at a fixed rate. The latency of an event goes from the time it was due to be sent to the time its
+ * record is acked, so the time an event waits because the executor is behind is counted (no coordinated omission). For
+ * every processor configuration the harness reports the sustained events per second, the latency percentiles and the GC
+ * pauses, after a warmup that is not measured. See {@link HarnessOptions} for the options.
+ */
+public class ThroughputHarness {
+
+    private static final String TOPIC = "ob-harness";
+    private static final long COMPLETION_TIMEOUT_SECONDS = 60;
+    private static final String REPORT_FORMAT = "%-24s %9s %9s %9s %9s %9s %9s %7s %9s %11s %9s%n";
+
+    private final HarnessOptions options;
+    private final Vertx vertx;
+    private final String endpoint;
+    private final GcPauseMonitor gcPauseMonitor;
+    private final List<byte[]> values;
+    private final Headers headers = BenchmarkEvents.createStructuredHeaders();
+
+    ThroughputHarness(HarnessOptions options, Vertx vertx, String endpoint, GcPauseMonitor gcPauseMonitor) {
+        this.options = options;
+        this.vertx = vertx;
+        this.endpoint = endpoint;
+        this.gcPauseMonitor = gcPauseMonitor;
+        this.values = createValues(options.getMix());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        HarnessOptions options = HarnessOptions.parse(args);
+        Vertx vertx = Vertx.vertx();
+        try (WebhookStub webhookStub = new WebhookStub(vertx, options.getSinkDelayMs());
+                GcPauseMonitor gcPauseMonitor = new GcPauseMonitor()) {
+            webhookStub.start();
+            gcPauseMonitor.start();
+            ThroughputHarness harness = new ThroughputHarness(options, vertx, webhookStub.getEndpoint(), gcPauseMonitor);
+            System.out.printf(REPORT_FORMAT, "configuration", "target/s", "events/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors", "gc pauses", "gc total ms",
+                    "gc max ms");
+            for (ProcessorConfiguration configuration : options.getConfigurations()) {
+                harness.run(configuration).print();
+            }
+        } finally {
+            vertx.closeAndAwait();
+        }
+    }
+
+    /**
+     * @return the record values of the mix, every size repeated as many times as its weight, in a random order
+     */
+    private static List<byte[]> createValues(Map<Integer, Integer> mix) {
+        List<byte[]> values = new ArrayList<>();
+        mix.forEach((size, weight) -> {
+            byte[] value = BenchmarkEvents.toStructuredValue(BenchmarkEvents.createCloudEvent(size));
+            for (int i = 0; i < weight; i++) {
+                values.add(value);
+            }
+        });
+        // the same sequence for every configuration
+        Collections.shuffle(values, new Random(0));
+        return values;
+    }
+
+    Result run(ProcessorConfiguration configuration) throws InterruptedException {
+        WebClient webClient = WebClient.create(vertx, new WebClientOptions().setMaxPoolSize(options.getMaxInFlight()));
+        ExecutorService executorService = createExecutorService(configuration, webClient);
+
+        int warmupEvents = options.getRate() * options.getWarmupSeconds();
+        int totalEvents = warmupEvents + options.getRate() * options.getDurationSeconds();
+        long period = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        Deliveries deliveries = new Deliveries(totalEvents, warmupEvents);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < totalEvents; i++) {
+            long scheduled = start + i * period;
+            awaitUntil(scheduled);
+            if (i == warmupEvents) {
+                // the pauses of the warmup are discarded
+                gcPauseMonitor.getPauses();
+            }
+            deliveries.scheduled.set(i, scheduled);
+            byte[] value = values.get(i % values.size());
+            ConsumerRecord<Integer, byte[]> consumerRecord = new ConsumerRecord<>(TOPIC, 0, i, System.currentTimeMillis(), TimestampType.CREATE_TIME,
+                    Integer.BYTES, value.length, i, value, headers, Optional.empty());
+            // like the connector, the next record is handed over only once this one has been accepted
+            executorService.processEvent(new IncomingKafkaRecord<>(consumerRecord, deliveries, deliveries, false, false))
+                    .toCompletableFuture().join();
+        }
+        boolean completed = deliveries.done.await(COMPLETION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        Result result = new Result(configuration.getName(), options.getRate(), deliveries, start + warmupEvents * period, gcPauseMonitor.getPauses());
+        if (!completed) {
+            System.err.printf("%s: %d events were not acked within %d seconds%n", configuration.getName(), deliveries.done.getCount(), COMPLETION_TIMEOUT_SECONDS);
+        }
+        executorService.destroy();
+        webClient.close();
+        return result;
+    }
+
+    private ExecutorService createExecutorService(ProcessorConfiguration configuration, WebClient webClient) {
+        Action action = new Action();
+        action.setType(WebhookAction.TYPE);
+        action.setMapParameters(Map.of(WebhookAction.ENDPOINT_PARAM, endpoint));
+        ProcessorDTO processor = BenchmarkEvents.createProcessor(configuration.getName(),
+                BenchmarkEvents.createFilters(configuration.getFilterCount()),
+                configuration.hasTransformation() ? TransformationBenchmark.TEMPLATE : null,
+                action);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorImpl executor = new ExecutorImpl(processor,
+                new FilterEvaluatorFactoryNative(),
+                new TransformationEvaluatorFactoryQute(),
+                new WebhookActionRuntime(webClient),
+                meterRegistry);
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.executors = List.of(executor);
+        executorService.mapper = CloudEventUtils.getMapper();
+        executorService.bridgeErrorService = new NoBridgeErrors();
+        executorService.meterRegistry = meterRegistry;
+        executorService.topic = TOPIC;
+        executorService.maxInFlight = options.getMaxInFlight();
+        executorService.ordering = ExecutorService.ORDERING_NONE;
+        executorService.init();
+        return executorService;
+    }
+
+    private static void awaitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Takes the place of the commit and failure handlers of the connector, to record the outcome of every record.
+     */
+    private static class Deliveries implements KafkaCommitHandler, KafkaFailureHandler {
+
+        private final int warmupEvents;
+        private final AtomicLongArray scheduled;
+        private final Recorder latencies = new Recorder(3);
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong lastCompletion = new AtomicLong();
+        private final CountDownLatch done;
+
+        private Deliveries(int totalEvents, int warmupEvents) {
+            this.warmupEvents = warmupEvents;
+            this.scheduled = new AtomicLongArray(totalEvents);
+            this.done = new CountDownLatch(totalEvents);
+        }
+
+        @Override
+        public <K, V> CompletionStage<Void> handle(IncomingKafkaRecord<K, V> record) {
+            complete((int) record.getOffset(), false);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public <K, V> CompletionStage<Void> handle(IncomingKafkaRecord<K, V> record, Throwable reason, Metadata metadata) {
+            complete((int) record.getOffset(), true);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private void complete(int position, boolean failure) {
+            long now = System.nanoTime();
+            if (position >= warmupEvents) {
+                latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, now - scheduled.get(position))));
+                (failure ? failed : delivered).incrementAndGet();
+                lastCompletion.accumulateAndGet(now, Math::max);
+            }
+            done.countDown();
+        }
+    }
+
+    static class Result {
+
+        private final String configuration;
+        private final int targetRate;
+        private final double rate;
+        private final Histogram latencies;
+        private final long errors;
+        private final Histogram gcPauses;
+
+        private Result(String configuration, int targetRate, Deliveries deliveries, long measurementStart, Histogram gcPauses) {
+            this.configuration = configuration;
+            this.targetRate = targetRate;
+            this.latencies = deliveries.latencies.getIntervalHistogram();
+            long events = deliveries.delivered.get() + deliveries.failed.get();
+            long elapsed = deliveries.lastCompletion.get() - measurementStart;
+            this.rate = elapsed > 0 ? events * (double) TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+            this.errors = deliveries.failed.get();
+            this.gcPauses = gcPauses;
+        }
+
+        void print() {
+            System.out.printf(REPORT_FORMAT,
+                    configuration,
+                    targetRate,
+                    String.format("%.0f", rate),
+                    toMillis(latencies.getValueAtPercentile(50)),
+                    toMillis(latencies.getValueAtPercentile(99)),
+                    toMillis(latencies.getValueAtPercentile(99.9)),
+                    toMillis(latencies.getMaxValue()),
+                    errors,
+                    gcPauses.getTotalCount(),
+                    String.format("%.0f", gcPauses.getMean() * gcPauses.getTotalCount()),
+                    gcPauses.getMaxValue());
+        }
+
+        private static String toMillis(long micros) {
+            return String.format("%.2f", micros / 1000.0);
+        }
+    }
+
+    private static class WebhookActionRuntime implements ActionRuntime {
+
+        private final WebClient webClient;
+
+        private WebhookActionRuntime(WebClient webClient) {
+            this.webClient = webClient;
+        }
+
+        @Override
+        public ActionInvokerBuilder getInvokerBuilder(String actionType) {
+            return new ActionInvokerBuilder() {
+                @Override
+                public String getType() {
+                    return WebhookAction.TYPE;
+                }
+
+                @Override
+                public ActionInvoker build(ProcessorDTO processor, Action action) {
+                    return new WebhookActionInvoker(action.getParameter(WebhookAction.ENDPOINT_PARAM), webClient);
+                }
+            };
+        }
+    }
+
+    private static class NoBridgeErrors implements BridgeErrorService {
+
+        @Override
+        public ListResult<BridgeError> getUserErrors(QueryPageInfo pageInfo) {
+            return new ListResult<>(List.of(), 0, 0);
+        }
+
+        @Override
+        public Optional<BridgeError> getUserError(int errorId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<BridgeError> getPlatformError(int errorId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<BridgeError> getError(Exception e) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<BridgeError> getError(Class clazz) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<BridgeError> getError(int errorId) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.smartevents.infra.v1.api.models.transformations.TransformationEvaluator;
+import com.redhat.service.smartevents.infra.v1.api.models.transformations.TransformationEvaluatorFactoryQute;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventDeserializer;
+
+/**
+ * Rendering of the transformation template of a processor with Qute. The template reads a few fields of the data, as
+ * the templates of the processors usually do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformationBenchmark {
+
+    static final String TEMPLATE = "{\"text\": \"{data.name} says '{data.message}' with priority {data.priority}\", \"source\": \"{source}\"}";
+
+    @Param({ "1024", "65536", "1048576" })
+    int payloadSize;
+
+    private TransformationEvaluator transformationEvaluator;
+    private CloudEvent event;
+
+    @Setup
+    public void setup() {
+        transformationEvaluator = new TransformationEvaluatorFactoryQute().build(TEMPLATE);
+        event = new CloudEventDeserializer().deserialize("ob-benchmark",
+                BenchmarkEvents.createStructuredHeaders(),
+                BenchmarkEvents.toStructuredValue(BenchmarkEvents.createCloudEvent(payloadSize)));
+    }
+
+    @Benchmark
+    public String render() {
+        return transformationEvaluator.render(new LazyCloudEventMap(event));
+    }
+}
@@ -0,0 +1,58 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.mutiny.core.Vertx;
+
+/**
+ * Local HTTP server used as the target of the webhook actions: it reads every request and replies with 202, optionally
+ * after a delay that stands for the latency of a real target.
+ */
+class WebhookStub implements AutoCloseable {
+
+    private final Vertx vertx;
+    private final long delayMs;
+    private final AtomicLong requests = new AtomicLong();
+
+    private HttpServer server;
+
+    WebhookStub(Vertx vertx, long delayMs) {
+        this.vertx = vertx;
+        this.delayMs = delayMs;
+    }
+
+    void start() {
+        server = vertx.getDelegate().createHttpServer()
+                .requestHandler(this::handle)
+                .listen(0)
+                .toCompletionStage().toCompletableFuture().join();
+    }
+
+    private void handle(HttpServerRequest request) {
+        request.end().onComplete(ignored -> {
+            requests.incrementAndGet();
+            if (delayMs > 0) {
+                vertx.getDelegate().setTimer(delayMs, id -> request.response().setStatusCode(202).end());
+            } else {
+                request.response().setStatusCode(202).end();
+            }
+        });
+    }
+
+    String getEndpoint() {
+        return "http://localhost:" + server.actualPort() + "/events";
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.close().toCompletionStage().toCompletableFuture().join();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.redhat.service.smartevents.executor.jmh_generated;
+public class CloudEventDeserializationBenchmark_jmhType extends CloudEventDeserializationBenchmark_jmhType_B3 {
+}
+
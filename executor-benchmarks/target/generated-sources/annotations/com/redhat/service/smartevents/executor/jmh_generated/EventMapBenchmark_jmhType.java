@@ -0,0 +1,4 @@
+package com.redhat.service.smartevents.executor.jmh_generated;
+public class EventMapBenchmark_jmhType extends EventMapBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.redhat.service.smartevents.executor.jmh_generated;
+public class ExecutorPipelineBenchmark_jmhType extends ExecutorPipelineBenchmark_jmhType_B3 {
+}
+
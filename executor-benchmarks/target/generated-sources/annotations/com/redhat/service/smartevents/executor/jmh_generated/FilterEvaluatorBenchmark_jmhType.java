@@ -0,0 +1,4 @@
+package com.redhat.service.smartevents.executor.jmh_generated;
+public class FilterEvaluatorBenchmark_jmhType extends FilterEvaluatorBenchmark_jmhType_B3 {
+}
+
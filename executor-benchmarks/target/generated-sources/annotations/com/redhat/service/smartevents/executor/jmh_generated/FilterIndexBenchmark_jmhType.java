@@ -0,0 +1,4 @@
+package com.redhat.service.smartevents.executor.jmh_generated;
+public class FilterIndexBenchmark_jmhType extends FilterIndexBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.redhat.service.smartevents.executor.jmh_generated;
+public class HeadersBenchmark_jmhType extends HeadersBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.redhat.service.smartevents.executor.jmh_generated;
+public class TransformationBenchmark_jmhType extends TransformationBenchmark_jmhType_B3 {
+}
+
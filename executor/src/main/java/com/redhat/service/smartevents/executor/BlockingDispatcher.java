@@ -0,0 +1,57 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the deliveries of the events on worker threads instead of the Vert.x event loop, so that the actions can block
+ * (e.g. calling a synchronous client) without delaying the consumption of the other events. At most
+ * <code>maxConcurrency</code> deliveries run at the same time, the others are queued: the number of queued deliveries
+ * is bounded by <code>event-bridge.executor.max-in-flight</code>.
+ */
+class BlockingDispatcher implements Executor {
+
+    private static final long IDLE_TIMEOUT_SECONDS = 60;
+
+    private final ThreadPoolExecutor pool;
+
+    BlockingDispatcher(int maxConcurrency, MeterRegistry registry) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The max number of concurrent blocking deliveries must be at least 1.");
+        }
+        this.pool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new WorkerThreadFactory());
+        this.pool.allowCoreThreadTimeOut(true);
+
+        Gauge.builder(MetricsConstants.BLOCKING_IN_FLIGHT_METRIC_NAME, pool, ThreadPoolExecutor::getActiveCount).register(registry);
+        Gauge.builder(MetricsConstants.BLOCKING_QUEUED_METRIC_NAME, pool, p -> p.getQueue().size()).register(registry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        pool.execute(command);
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "executor-blocking-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
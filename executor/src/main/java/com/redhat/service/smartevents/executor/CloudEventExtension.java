@@ -1,9 +1,31 @@
 package com.redhat.service.smartevents.executor;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class CloudEventExtension {
 
+    // The headers of the records written by a connector are the same for every event: their adjusted names are kept,
+    // up to a limit as the headers come from the outside
+    private static final int MAX_CACHED_NAMES = 1024;
+    private static final Map<String, String> ADJUSTED_NAMES = new ConcurrentHashMap<>();
+
     public static String adjustExtensionName(String original) {
-        StringBuilder sb = new StringBuilder();
+        if (isValidExtensionName(original)) {
+            return original;
+        }
+        String adjusted = ADJUSTED_NAMES.get(original);
+        if (adjusted == null) {
+            adjusted = doAdjustExtensionName(original);
+            if (ADJUSTED_NAMES.size() < MAX_CACHED_NAMES) {
+                ADJUSTED_NAMES.put(original, adjusted);
+            }
+        }
+        return adjusted;
+    }
+
+    private static String doAdjustExtensionName(String original) {
+        StringBuilder sb = new StringBuilder(original.length());
 
         String lowerCase = original.toLowerCase();
 
@@ -17,6 +39,15 @@ public class CloudEventExtension {
         return sb.toString();
     }
 
+    private static boolean isValidExtensionName(String name) {
+        for (int i = 0; i != name.length(); ++i) {
+            if (!isValidExtensionNameCharacter(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean isValidExtensionNameCharacter(char c) {
         return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
     }
@@ -0,0 +1,119 @@
+package com.redhat.service.smartevents.executor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Priority;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.BeforeDestroyed;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.MemberToRemove;
+import org.apache.kafka.clients.admin.RemoveMembersFromConsumerGroupOptions;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.common.annotation.Identifier;
+
+/**
+ * Static membership of the consumer of the bridge topic in its group: when <code>event-bridge.executor.group-instance-id</code>
+ * is set, e.g. by the shard operator to the name of the pod, the consumer joins the group with it as
+ * <code>group.instance.id</code>. An executor restarted in the same pod within the session timeout gets back its partitions
+ * without a rebalance of the group.
+ * <p>
+ * A static member does not leave the group when its consumer is closed, so its partitions would not be processed until
+ * the session timeout when the pod is replaced, e.g. by a rollout. On shutdown, once the consumers are closed, the member
+ * is removed from the group: only its partitions are reassigned, as the group uses the cooperative sticky assignor.
+ * <p>
+ * The configuration of the consumer also raises <code>throttled.unprocessed-record-max-age.ms</code> above the
+ * <code>event-bridge.executor.delivery-timeout</code>: the records are acked once delivered, and the connector closes the
+ * consumer when one of them is not acked within that age.
+ */
+@ApplicationScoped
+public class ConsumerGroupMembership {
+
+    public static final String KAFKA_CONFIGURATION = "executor-kafka-configuration";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConsumerGroupMembership.class);
+
+    private static final Duration LEAVE_GROUP_TIMEOUT = Duration.ofSeconds(10);
+
+    @ConfigProperty(name = "event-bridge.executor.group-instance-id")
+    Optional<String> groupInstanceId;
+
+    @ConfigProperty(name = "mp.messaging.incoming.events-in.group.id")
+    String groupId;
+
+    @ConfigProperty(name = "event-bridge.executor.delivery-timeout")
+    Duration deliveryTimeout;
+
+    @Inject
+    @Identifier("default-kafka-broker")
+    Map<String, Object> defaultConfig;
+
+    /**
+     * The configuration added to the one of the consumer of the bridge topic, see the <code>kafka-configuration</code>
+     * attribute of its channels.
+     */
+    @Produces
+    @ApplicationScoped
+    @Identifier(KAFKA_CONFIGURATION)
+    Map<String, Object> kafkaConfiguration() {
+        Map<String, Object> configuration = new HashMap<>();
+        // the records wait for a slot, for their key and for the action within the delivery timeout
+        configuration.put(ExecutorService.UNPROCESSED_RECORD_MAX_AGE, ExecutorService.getUnprocessedRecordMaxAge(Duration.ZERO, deliveryTimeout));
+        if (isStatic()) {
+            configuration.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, groupInstanceId.get());
+        }
+        return configuration;
+    }
+
+    // the Kafka connector closes the consumers with priority 50
+    void leaveGroup(@Observes @Priority(100) @BeforeDestroyed(ApplicationScoped.class) Object event) {
+        if (!isStatic()) {
+            return;
+        }
+        try (Admin admin = createAdmin()) {
+            leaveGroup(admin);
+        }
+    }
+
+    void leaveGroup(Admin admin) {
+        RemoveMembersFromConsumerGroupOptions options = new RemoveMembersFromConsumerGroupOptions(List.of(new MemberToRemove(groupInstanceId.get())));
+        try {
+            admin.removeMembersFromConsumerGroup(groupId, options).all().get(LEAVE_GROUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            LOG.info("Member '{}' left consumer group '{}'", groupInstanceId.get(), groupId);
+        } catch (ExecutionException | TimeoutException e) {
+            // the partitions of the member are reassigned once its session times out
+            LOG.warn("Failed to remove member '{}' from consumer group '{}'", groupInstanceId.get(), groupId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean isStatic() {
+        return groupInstanceId.isPresent() && !groupInstanceId.get().isBlank();
+    }
+
+    private Admin createAdmin() {
+        Map<String, Object> config = new HashMap<>();
+        for (Map.Entry<String, Object> entry : defaultConfig.entrySet()) {
+            if (AdminClientConfig.configNames().contains(entry.getKey())) {
+                config.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return Admin.create(config);
+    }
+}
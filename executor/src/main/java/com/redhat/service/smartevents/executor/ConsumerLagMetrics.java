@@ -0,0 +1,108 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
+
+/**
+ * Publishes the lag of the consumer of the executor on every assigned partition, i.e. how many records of the partition
+ * have not been read yet. The hosted processors share the consumer, so every one of them gets a gauge with the same value.
+ * The lag is the one the consumer knows from its last fetch: it is refreshed periodically and no request is sent to the broker.
+ */
+@ApplicationScoped
+public class ConsumerLagMetrics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConsumerLagMetrics.class);
+
+    private static final List<String> CHANNELS = List.of(ExecutorService.EVENTS_IN_CHANNEL, ExecutorService.EVENTS_IN_BATCH_CHANNEL);
+
+    @Inject
+    KafkaClientService kafkaClientService;
+
+    @Inject
+    List<Executor> executors;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final Map<TopicPartition, PartitionLag> lags = new ConcurrentHashMap<>();
+
+    @Scheduled(every = "{event-bridge.executor.consumer-lag.interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refresh() {
+        for (String channel : kafkaClientService.getConsumerChannels()) {
+            if (!CHANNELS.contains(channel)) {
+                continue;
+            }
+            KafkaConsumer<Object, Object> consumer = kafkaClientService.getConsumer(channel);
+            consumer.runOnPollingThread(kafkaConsumer -> {
+                // the consumer can only be used from its polling thread
+                Map<TopicPartition, OptionalLong> currentLags = new HashMap<>();
+                kafkaConsumer.assignment().forEach(partition -> currentLags.put(partition, kafkaConsumer.currentLag(partition)));
+                return currentLags;
+            }).subscribe().with(this::update, failure -> LOG.debug("Failed to read the lag of the consumer of channel '{}'", channel, failure));
+        }
+    }
+
+    /**
+     * @param currentLags the lag of every assigned partition, empty while it is not known yet
+     */
+    void update(Map<TopicPartition, OptionalLong> currentLags) {
+        // the partitions that have been revoked are not reported anymore
+        for (TopicPartition partition : new ArrayList<>(lags.keySet())) {
+            if (!currentLags.containsKey(partition)) {
+                lags.remove(partition).remove(meterRegistry);
+            }
+        }
+        currentLags.forEach((partition, lag) -> lag.ifPresent(value -> lags.computeIfAbsent(partition, this::register).set(value)));
+    }
+
+    private PartitionLag register(TopicPartition partition) {
+        PartitionLag partitionLag = new PartitionLag();
+        for (Executor executor : executors) {
+            ProcessorDTO processor = executor.getProcessor();
+            List<Tag> tags = List.of(
+                    Tag.of(MetricsConstants.BRIDGE_ID_TAG, processor.getBridgeId()),
+                    Tag.of(MetricsConstants.PROCESSOR_ID_TAG, processor.getId()),
+                    Tag.of(MetricsConstants.TOPIC_TAG, partition.topic()),
+                    Tag.of(MetricsConstants.PARTITION_TAG, String.valueOf(partition.partition())));
+            partitionLag.gauges.add(Gauge.builder(MetricsConstants.CONSUMER_LAG_METRIC_NAME, partitionLag.lag, AtomicLong::get)
+                    .tags(tags)
+                    .register(meterRegistry));
+        }
+        return partitionLag;
+    }
+
+    private static class PartitionLag {
+
+        private final AtomicLong lag = new AtomicLong();
+        private final List<Gauge> gauges = new ArrayList<>();
+
+        private void set(long value) {
+            lag.set(value);
+        }
+
+        private void remove(MeterRegistry registry) {
+            gauges.forEach(registry::remove);
+        }
+    }
+}
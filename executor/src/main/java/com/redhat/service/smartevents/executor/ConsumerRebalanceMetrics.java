@@ -0,0 +1,92 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumerRebalanceListener;
+
+/**
+ * Publishes the rebalances of the group of the consumer of the bridge topic, see the
+ * <code>consumer-rebalance-listener.name</code> attribute of its channels. The hosted processors share the consumer, so
+ * every one of them gets the same metrics.
+ * <p>
+ * A rebalance is counted when the partitions are assigned, as it happens at the end of every rebalance even when the
+ * assignment of the consumer does not change. Its duration is the time from the revocation of partitions of the consumer
+ * to the following assignment: with the cooperative sticky assignor only the partitions that move are revoked, so a
+ * rebalance that does not take partitions away from the consumer is not timed, as its partitions are never stopped.
+ */
+@ApplicationScoped
+@Identifier(ConsumerRebalanceMetrics.NAME)
+public class ConsumerRebalanceMetrics implements KafkaConsumerRebalanceListener {
+
+    public static final String NAME = "executor-rebalance-listener";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConsumerRebalanceMetrics.class);
+
+    @Inject
+    List<Executor> executors;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // when the partitions of the consumer have been revoked, 0 when they haven't. The callbacks run on the polling thread.
+    private volatile long revokedAt;
+
+    @Override
+    public void onPartitionsRevoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        revoked(partitions, MetricsConstants.REBALANCE_PARTITIONS_REVOKED_METRIC_NAME);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        revoked(partitions, MetricsConstants.REBALANCE_PARTITIONS_LOST_METRIC_NAME);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        long duration = revokedAt == 0 ? -1 : System.nanoTime() - revokedAt;
+        revokedAt = 0;
+        for (Executor executor : executors) {
+            List<Tag> tags = getTags(executor.getProcessor());
+            Counter.builder(MetricsConstants.REBALANCES_METRIC_NAME).tags(tags).register(meterRegistry).increment();
+            if (duration >= 0) {
+                Timer.builder(MetricsConstants.REBALANCE_TIME_METRIC_NAME).tags(tags).register(meterRegistry).record(duration, TimeUnit.NANOSECONDS);
+            }
+        }
+        LOG.info("Partitions {} assigned to the consumer", partitions);
+    }
+
+    private void revoked(Collection<TopicPartition> partitions, String metricName) {
+        // with the eager protocol the callback is invoked on every rebalance, even if the consumer has no partitions
+        if (partitions.isEmpty()) {
+            return;
+        }
+        if (revokedAt == 0) {
+            revokedAt = System.nanoTime();
+        }
+        for (Executor executor : executors) {
+            Counter.builder(metricName).tags(getTags(executor.getProcessor())).register(meterRegistry).increment(partitions.size());
+        }
+        LOG.info("Partitions {} revoked from the consumer", partitions);
+    }
+
+    private static List<Tag> getTags(ProcessorDTO processor) {
+        return List.of(Tag.of(MetricsConstants.BRIDGE_ID_TAG, processor.getBridgeId()), Tag.of(MetricsConstants.PROCESSOR_ID_TAG, processor.getId()));
+    }
+}
@@ -1,14 +1,73 @@
 package com.redhat.service.smartevents.executor;
 
+import java.util.List;
 import java.util.Map;
 
 import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
 
 import io.cloudevents.CloudEvent;
+import io.smallrye.mutiny.Uni;
 
 public interface Executor {
 
     ProcessorDTO getProcessor();
 
+    /**
+     * Replaces the definition of the processor, e.g. its filters, transformation or action, without stopping the
+     * consumption of the events.
+     *
+     * @param processor the new definition, of the same processor, bridge and type
+     */
+    void reload(ProcessorDTO processor);
+
     void onEvent(CloudEvent event, Map<String, String> headers);
+
+    /**
+     * Processes the event and completes once the action has confirmed the delivery, or fails if the event could not
+     * be processed or delivered. Events that do not match the filters complete straight away.
+     *
+     * @param ingressTimestamp the time in milliseconds since the epoch when the event entered the bridge, the latency of
+     *        the delivery is measured from it
+     */
+    default Uni<Void> onEventAsync(CloudEvent event, Map<String, String> headers, long ingressTimestamp) {
+        return onEventAsync(event, headers, ingressTimestamp, false);
+    }
+
+    /**
+     * Same as {@link #onEventAsync(CloudEvent, Map, long)}, for an event that may have been matched against the filters
+     * of the processor already.
+     *
+     * @param preSelected true when the processor was selected by the {@link com.redhat.service.smartevents.executor.filters.FilterIndex}:
+     *        its filters are known to match and are not evaluated again, and the event has already been counted with
+     *        {@link #recordReceived()}
+     */
+    Uni<Void> onEventAsync(CloudEvent event, Map<String, String> headers, long ingressTimestamp, boolean preSelected);
+
+    /**
+     * Counts an event consumed for the processor before it is selected, so that the events that the
+     * {@link com.redhat.service.smartevents.executor.filters.FilterIndex} does not select are counted as well.
+     */
+    void recordReceived();
+
+    /**
+     * Records the time the {@link com.redhat.service.smartevents.executor.filters.FilterIndex} took to match an event as
+     * the filter time of the processor. The filters of all the processors are matched at once, so every processor records
+     * the whole duration: it is the time it took to select or discard the processor.
+     */
+    void recordFilterTime(long nanos);
+
+    /**
+     * Completes when the action is ready to receive events, see {@link com.redhat.service.smartevents.processor.actions.ActionInvoker#awaitReady()}.
+     */
+    Uni<Void> awaitActionReady();
+
+    /**
+     * Processes a batch of events: every event is filtered and transformed on its own and the matching ones are sent
+     * to the action as a group. The headers and the ingress timestamp of the event at position <code>i</code> are at the
+     * same position in <code>headers</code> and <code>ingressTimestamps</code>.
+     *
+     * @return completes once the action has confirmed or refused the delivery of all the matching events, with the
+     *         failures of the batch keyed by the position of the event that failed
+     */
+    Uni<Map<Integer, Exception>> onEvents(List<CloudEvent> events, List<Map<String, String>> headers, List<Long> ingressTimestamps);
 }
@@ -1,31 +1,61 @@
 package com.redhat.service.smartevents.executor;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.ws.rs.Produces;
 
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactory;
 import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryFEEL;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryNative;
+import com.redhat.service.smartevents.executor.filters.FilterIndex;
 import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.processors.ProcessorType;
 import com.redhat.service.smartevents.infra.v1.api.models.transformations.TransformationEvaluatorFactory;
 import com.redhat.service.smartevents.processor.actions.ActionRuntime;
+import com.redhat.service.smartevents.processor.actions.kafkatopic.KafkaOutboundClients;
+import com.redhat.service.smartevents.processor.actions.kafkatopic.KafkaTopicAction;
 
 import io.micrometer.core.instrument.MeterRegistry;
 
 @ApplicationScoped
 public class ExecutorFactory {
 
-    private static final FilterEvaluatorFactory filterEvaluatorFactory = new FilterEvaluatorFactoryFEEL();
-
+    // A single processor definition, or a json array of sink processors of the same bridge to host them in a single executor
     @ConfigProperty(name = "event-bridge.processor.definition")
     String processorDefinition;
 
+    // When set, the definitions are read from the file instead, and reloaded when it changes: see ProcessorDefinitionWatcher
+    @ConfigProperty(name = "event-bridge.processor.definition-file")
+    Optional<String> processorDefinitionFile;
+
+    @ConfigProperty(name = "event-bridge.executor.filter-evaluator", defaultValue = FilterEvaluatorFactoryNative.NAME)
+    String filterEvaluator;
+
     @Inject
     ObjectMapper objectMapper;
 
@@ -38,30 +68,196 @@ public class ExecutorFactory {
     @Inject
     MeterRegistry meterRegistry;
 
-    private ProcessorDTO processorDTO;
+    @Inject
+    Config config;
+
+    @Inject
+    @Channel(RetryLadder.RETRY_OUT_CHANNEL)
+    Emitter<byte[]> retryEmitter;
+
+    private List<ProcessorDTO> processorDTOs;
+
+    // the content of the definition file the processors have been built from, if any
+    private String processorDefinitionFileContent;
 
     @PostConstruct
     void init() {
-        try {
-            processorDTO = objectMapper.readValue(processorDefinition, ProcessorDTO.class);
-        } catch (IOException e) {
-            throw new IllegalStateException("Cannot deserialize processor definition.");
-        }
+        processorDTOs = readProcessorDefinitions();
+        validateHostedProcessors(processorDTOs);
     }
 
+    /**
+     * @return the first hosted processor. All the hosted processors belong to the same bridge and have the same type.
+     */
     @Produces
     @ApplicationScoped
     public ProcessorDTO getProcessorDTO() {
-        return processorDTO;
+        return processorDTOs.get(0);
     }
 
     @Produces
-    @ApplicationScoped
-    public Executor buildExecutor() {
-        return new ExecutorImpl(processorDTO,
-                filterEvaluatorFactory,
-                transformationEvaluatorFactory,
-                actionRuntime,
-                meterRegistry);
+    @Singleton
+    public List<Executor> buildExecutors() {
+        FilterEvaluatorFactory filterEvaluatorFactory = getFilterEvaluatorFactory();
+        return processorDTOs.stream()
+                .map(processor -> new ExecutorImpl(processor,
+                        filterEvaluatorFactory,
+                        transformationEvaluatorFactory,
+                        actionRuntime,
+                        meterRegistry))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Selects the hosted processors whose filters match an event, see {@link FilterIndex}.
+     */
+    @Produces
+    @Singleton
+    public FilterIndex buildFilterIndex() {
+        return buildFilterIndex(processorDTOs);
+    }
+
+    FilterIndex buildFilterIndex(List<ProcessorDTO> processors) {
+        Map<String, Set<BaseFilter>> filtersByProcessorId = new LinkedHashMap<>();
+        processors.forEach(processor -> filtersByProcessorId.put(processor.getId(), processor.getDefinition().getFilters()));
+        return new FilterIndex(filtersByProcessorId, getFilterEvaluatorFactory());
+    }
+
+    /**
+     * The tiers of the {@link RetryLadder} are the enabled retry channels, see {@link #readRetryTiers()}.
+     */
+    @Produces
+    @Singleton
+    public RetryLadder buildRetryLadder() {
+        return new RetryLadder(readRetryTiers(), retryEmitter);
+    }
+
+    /**
+     * @return a tier for every retry channel that is enabled, stopping at the first one that is not
+     */
+    List<RetryLadder.Tier> readRetryTiers() {
+        List<RetryLadder.Tier> tiers = new ArrayList<>();
+        for (int tier = 1; tier <= RetryLadder.MAX_TIERS; tier++) {
+            String channel = "mp.messaging.incoming." + RetryLadder.getChannel(tier);
+            if (!config.getOptionalValue(channel + ".enabled", Boolean.class).orElse(false)) {
+                break;
+            }
+            tiers.add(new RetryLadder.Tier(
+                    config.getValue(channel + ".topic", String.class),
+                    config.getValue("event-bridge.executor.retry." + tier + ".delay", Duration.class)));
+        }
+        return tiers;
+    }
+
+    FilterEvaluatorFactory getFilterEvaluatorFactory() {
+        // FEEL is kept as the fallback for any value other than the native evaluator
+        if (FilterEvaluatorFactoryNative.NAME.equalsIgnoreCase(filterEvaluator)) {
+            return new FilterEvaluatorFactoryNative();
+        }
+        return new FilterEvaluatorFactoryFEEL();
+    }
+
+    List<ProcessorDTO> readProcessorDefinitions() {
+        try {
+            if (isProcessorDefinitionFileEnabled()) {
+                processorDefinitionFileContent = readProcessorDefinitionFile();
+                return parseProcessorDefinitions(processorDefinitionFileContent);
+            }
+            return parseProcessorDefinitions(processorDefinition);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot deserialize processor definition.");
+        }
+    }
+
+    boolean isProcessorDefinitionFileEnabled() {
+        return processorDefinitionFile.isPresent() && !processorDefinitionFile.get().isBlank();
+    }
+
+    String getProcessorDefinitionFileContent() {
+        return processorDefinitionFileContent;
+    }
+
+    /**
+     * @return the content of <code>event-bridge.processor.definition-file</code>
+     */
+    String readProcessorDefinitionFile() throws IOException {
+        return Files.readString(Path.of(processorDefinitionFile.orElseThrow()));
+    }
+
+    /**
+     * @param definitions a single processor definition or a json array of them
+     */
+    List<ProcessorDTO> parseProcessorDefinitions(String definitions) throws IOException {
+        JsonNode node = objectMapper.readTree(definitions);
+        if (node.isArray()) {
+            return objectMapper.readerFor(new TypeReference<List<ProcessorDTO>>() {
+            }).readValue(node);
+        }
+        return List.of(objectMapper.treeToValue(node, ProcessorDTO.class));
+    }
+
+    /**
+     * Only the definitions of the hosted processors can be reloaded: adding or removing a processor, or moving it to
+     * another bridge or type, changes the consumer and requires a new deployment. So does a change of the broker or the
+     * credentials of a kafka_topic action, as the actions producer is configured once.
+     */
+    static void validateReloadedProcessors(List<ProcessorDTO> current, List<ProcessorDTO> reloaded) {
+        validateHostedProcessors(reloaded);
+        if (current.size() != reloaded.size()) {
+            throw new IllegalStateException(String.format("%d processors are hosted, the definitions of %d processors cannot be reloaded.", current.size(), reloaded.size()));
+        }
+        for (int i = 0; i < current.size(); i++) {
+            ProcessorDTO processor = current.get(i);
+            ProcessorDTO definition = reloaded.get(i);
+            if (!processor.getId().equals(definition.getId())
+                    || !Objects.equals(processor.getBridgeId(), definition.getBridgeId())
+                    || processor.getType() != definition.getType()) {
+                throw new IllegalStateException(String.format("Processor '%s' of bridge '%s' cannot be reloaded with the definition of processor '%s' of bridge '%s' and type '%s'.",
+                        processor.getId(), processor.getBridgeId(), definition.getId(), definition.getBridgeId(), definition.getType()));
+            }
+            if (!KafkaOutboundClients.getConfiguration(processor).equals(KafkaOutboundClients.getConfiguration(definition))) {
+                throw new IllegalStateException(String.format("The Kafka cluster of the action of processor '%s' cannot be reloaded.", processor.getId()));
+            }
+        }
+    }
+
+    /**
+     * The hosted processors share the consumer of the bridge topic, so they must be sink processors of the same bridge.
+     * They share the actions producer too, that is configured from the first processor (see {@link KafkaOutboundClients}):
+     * the processors with a kafka_topic action, send_to_bridge over Kafka included, must write to the cluster it connects to.
+     */
+    static void validateHostedProcessors(List<ProcessorDTO> processors) {
+        if (processors.isEmpty()) {
+            throw new IllegalStateException("At least one processor definition is required.");
+        }
+        if (processors.size() == 1) {
+            return;
+        }
+        String bridgeId = processors.get(0).getBridgeId();
+        Map<String, Object> outboundConfiguration = KafkaOutboundClients.getConfiguration(processors.get(0));
+        Set<String> processorIds = new HashSet<>();
+        for (ProcessorDTO processor : processors) {
+            if (!processorIds.add(processor.getId())) {
+                throw new IllegalStateException(String.format("Processor '%s' is defined more than once.", processor.getId()));
+            }
+            if (processor.getType() != ProcessorType.SINK) {
+                throw new IllegalStateException(String.format("Processor '%s' is of type '%s': only sink processors can share an executor.", processor.getId(), processor.getType()));
+            }
+            if (bridgeId == null || !bridgeId.equals(processor.getBridgeId())) {
+                throw new IllegalStateException(String.format("Processor '%s' does not belong to bridge '%s': only processors of the same bridge can share an executor.",
+                        processor.getId(), bridgeId));
+            }
+            if (isKafkaTopicAction(processor) && !outboundConfiguration.equals(KafkaOutboundClients.getConfiguration(processor))) {
+                throw new IllegalStateException(String.format(
+                        "Processor '%s' writes to another Kafka cluster than the actions producer configured from processor '%s': only processors writing to the same cluster can share an executor.",
+                        processor.getId(), processors.get(0).getId()));
+            }
+        }
+    }
+
+    private static boolean isKafkaTopicAction(ProcessorDTO processor) {
+        return processor.getDefinition() != null
+                && processor.getDefinition().getResolvedAction() != null
+                && KafkaTopicAction.TYPE.equals(processor.getDefinition().getResolvedAction().getType());
     }
 }
@@ -1,14 +1,18 @@
 package com.redhat.service.smartevents.executor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.service.smartevents.executor.filters.FilterEvaluator;
 import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactory;
 import com.redhat.service.smartevents.infra.core.utils.CloudEventUtils;
@@ -21,25 +25,34 @@ import com.redhat.service.smartevents.processor.actions.ActionInvoker;
 import com.redhat.service.smartevents.processor.actions.ActionRuntime;
 
 import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
 
 public class ExecutorImpl implements Executor {
 
     private static final Logger LOG = LoggerFactory.getLogger(ExecutorImpl.class);
-    private static final ObjectMapper MAPPER = new ObjectMapper();
 
-    private final ProcessorDTO processor;
-    private final boolean isSourceProcessor;
-    private final FilterEvaluator filterEvaluator;
-    private final TransformationEvaluator transformationEvaluator;
-    private final ActionInvoker actionInvoker;
+    private final FilterEvaluatorFactory filterEvaluatorFactory;
+    private final TransformationEvaluatorFactory transformationFactory;
+    private final ActionRuntime actionRuntime;
+
+    // swapped as a whole by reload: every event is processed with the pipeline it started with
+    private volatile Pipeline pipeline;
 
     private Timer processorProcessingTime;
     private Timer filterTimer;
     private Timer actionTimer;
     private Timer transformationTimer;
+    private DistributionSummary batchSize;
+    private Timer batchProcessingTime;
+    private Counter recordsIn;
+    private Counter recordsMatched;
+    private Counter recordsDelivered;
+    private Timer eventLatency;
 
     public ExecutorImpl(
             ProcessorDTO processor,
@@ -47,69 +60,237 @@ public class ExecutorImpl implements Executor {
             TransformationEvaluatorFactory transformationFactory,
             ActionRuntime actionRuntime,
             MeterRegistry registry) {
-        this.processor = processor;
-        this.isSourceProcessor = processor.getType() == ProcessorType.SOURCE;
-        this.filterEvaluator = filterEvaluatorFactory.build(processor.getDefinition().getFilters());
-        this.transformationEvaluator = transformationFactory.build(processor.getDefinition().getTransformationTemplate());
-
-        Action action = processor.getDefinition().getResolvedAction();
-        this.actionInvoker = actionRuntime.getInvokerBuilder(action.getType()).build(processor, action);
+        this.filterEvaluatorFactory = filterEvaluatorFactory;
+        this.transformationFactory = transformationFactory;
+        this.actionRuntime = actionRuntime;
+        this.pipeline = buildPipeline(processor);
 
         initMetricFields(processor, registry);
     }
 
     @Override
     public ProcessorDTO getProcessor() {
-        return processor;
+        return pipeline.processor;
+    }
+
+    /**
+     * The filters, the transformation and the action of the new definition are built before they replace the current
+     * ones, so the events never wait for them: the events that are being processed complete with the previous
+     * definition and the next ones use the new one. The previous action is closed once its last event completes. The
+     * metrics are the same, as the processor is.
+     */
+    @Override
+    public void reload(ProcessorDTO processor) {
+        ProcessorDTO current = pipeline.processor;
+        // the consumer, the topics and the metrics of the executor are the ones of the processor
+        if (!current.getId().equals(processor.getId()) || !Objects.equals(current.getBridgeId(), processor.getBridgeId()) || current.getType() != processor.getType()) {
+            throw new IllegalArgumentException(String.format("Processor '%s' of bridge '%s' cannot be reloaded with the definition of processor '%s' of bridge '%s' and type '%s'.",
+                    current.getId(), current.getBridgeId(), processor.getId(), processor.getBridgeId(), processor.getType()));
+        }
+        Pipeline previous = pipeline;
+        pipeline = buildPipeline(processor);
+        previous.retire();
+        LOG.info("Definition of processor '{}' on bridge '{}' reloaded", processor.getId(), processor.getBridgeId());
+    }
+
+    private Pipeline buildPipeline(ProcessorDTO processor) {
+        Action action = processor.getDefinition().getResolvedAction();
+        return new Pipeline(processor,
+                filterEvaluatorFactory.build(processor.getDefinition().getFilters()),
+                transformationFactory.build(processor.getDefinition().getTransformationTemplate()),
+                actionRuntime.getInvokerBuilder(action.getType()).build(processor, action));
+    }
+
+    /**
+     * @return the current pipeline, that is not closed until {@link Pipeline#release()} is invoked
+     */
+    private Pipeline acquirePipeline() {
+        while (true) {
+            Pipeline current = pipeline;
+            current.inFlight.incrementAndGet();
+            if (!current.retired) {
+                return current;
+            }
+            // reloaded in the meantime
+            current.release();
+        }
     }
 
     @Override
     public void onEvent(CloudEvent event, Map<String, String> headers) {
-        processorProcessingTime.record(() -> process(event, headers));
+        Pipeline current = acquirePipeline();
+        try {
+            processorProcessingTime.record(() -> process(current, event, headers));
+        } finally {
+            current.release();
+        }
     }
 
-    private void process(CloudEvent event, Map<String, String> headers) {
-        Map<String, Object> eventMap = toEventMap(event);
+    @Override
+    public Uni<Void> onEventAsync(CloudEvent event, Map<String, String> headers, long ingressTimestamp, boolean preSelected) {
+        long start = System.nanoTime();
+        Pipeline current = acquirePipeline();
+        String eventToSend;
+        try {
+            eventToSend = preSelected ? transform(current, event, new LazyCloudEventMap(event)) : filterAndTransform(current, event);
+        } catch (RuntimeException e) {
+            processorProcessingTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            current.release();
+            return Uni.createFrom().failure(e);
+        }
+        if (eventToSend == null) {
+            processorProcessingTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            current.release();
+            return Uni.createFrom().voidItem();
+        }
+        // Action
+        long actionStart = System.nanoTime();
+        return Uni.createFrom().deferred(() -> current.actionInvoker.onEventAsync(eventToSend, headers))
+                .onItem().invoke(() -> recordDelivered(ingressTimestamp))
+                .onTermination().invoke(() -> {
+                    long end = System.nanoTime();
+                    actionTimer.record(end - actionStart, TimeUnit.NANOSECONDS);
+                    processorProcessingTime.record(end - start, TimeUnit.NANOSECONDS);
+                    current.release();
+                });
+    }
 
-        LOG.debug("Received event with id '{}' and type '{}' in processor with name '{}' of bridge '{}", event.getId(), event.getType(), processor.getName(), processor.getBridgeId());
+    @Override
+    public void recordReceived() {
+        recordsIn.increment();
+    }
 
-        // Filter evaluation
-        if (!matchesFilters(eventMap)) {
-            LOG.debug("Filters of processor '{}' did not match for event with id '{}' and type '{}'", processor.getId(), event.getId(), event.getType());
+    @Override
+    public void recordFilterTime(long nanos) {
+        filterTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Uni<Void> awaitActionReady() {
+        return pipeline.actionInvoker.awaitReady();
+    }
+
+    @Override
+    public Uni<Map<Integer, Exception>> onEvents(List<CloudEvent> events, List<Map<String, String>> headers, List<Long> ingressTimestamps) {
+        batchSize.record(events.size());
+        long start = System.nanoTime();
+        Pipeline current = acquirePipeline();
+        return Uni.createFrom().deferred(() -> processBatch(current, events, headers, ingressTimestamps))
+                .onTermination().invoke(() -> {
+                    batchProcessingTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    current.release();
+                });
+    }
+
+    private void process(Pipeline current, CloudEvent event, Map<String, String> headers) {
+        String eventToSend = filterAndTransform(current, event);
+        if (eventToSend == null) {
             return;
         }
-        LOG.info("Filters of processor '{}' matched for event with id '{}' and type '{}'", processor.getId(), event.getId(), event.getType());
-        // Transformation
-        // transformations are currently supported only for sink processors
-        String eventToSend = isSourceProcessor ? CloudEventUtils.encode(event) : applyTransformations(eventMap);
         // Action
-        actionTimer.record(() -> actionInvoker.onEvent(eventToSend, headers));
+        actionTimer.record(() -> current.actionInvoker.onEvent(eventToSend, headers));
+        recordsDelivered.increment();
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> toEventMap(CloudEvent event) {
-        Map<String, Object> map = CloudEventUtils.getMapper().convertValue(event, Map.class);
-
-        // The CloudEventDeserializer from the cloud-event sdk decodes the data as a String. If it's a json, we have to convert it.
-        if (map.containsKey(CloudEventUtils.CE_DATA_FIELD_NAME)) {
+    private Uni<Map<Integer, Exception>> processBatch(Pipeline current, List<CloudEvent> events, List<Map<String, String>> headers, List<Long> ingressTimestamps) {
+        ProcessorDTO processor = current.processor;
+        Map<Integer, Exception> failures = new HashMap<>();
+        List<Integer> matchingPositions = new ArrayList<>();
+        List<String> eventsToSend = new ArrayList<>();
+        List<Map<String, String>> headersToSend = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
             try {
-                map.replace(CloudEventUtils.CE_DATA_FIELD_NAME, MAPPER.readValue(map.get(CloudEventUtils.CE_DATA_FIELD_NAME).toString(), Map.class));
+                String eventToSend = filterAndTransform(current, events.get(i));
+                if (eventToSend != null) {
+                    matchingPositions.add(i);
+                    eventsToSend.add(eventToSend);
+                    headersToSend.add(headers.get(i));
+                }
             } catch (Exception e) {
-                LOG.debug("Could not deserialize the data into a Map. It is kept as String.");
+                LOG.error("Processor with id '{}' on bridge '{}' failed to handle Event in batch.", processor.getId(), processor.getBridgeId(), e);
+                failures.put(i, e);
             }
         }
+        if (eventsToSend.isEmpty()) {
+            return Uni.createFrom().item(failures);
+        }
+        // Action
+        long actionStart = System.nanoTime();
+        return Uni.createFrom().deferred(() -> current.actionInvoker.onEvents(eventsToSend, headersToSend))
+                .onFailure().recoverWithItem(e -> {
+                    LOG.error("Processor with id '{}' on bridge '{}' failed to send a batch of {} Events.", processor.getId(), processor.getBridgeId(), eventsToSend.size(), e);
+                    // the action failed as a whole, so all the events of the group are considered failed
+                    Map<Integer, Throwable> all = new HashMap<>();
+                    for (int j = 0; j < eventsToSend.size(); j++) {
+                        all.put(j, e);
+                    }
+                    return all;
+                })
+                .onItem().transform(actionFailures -> {
+                    actionTimer.record(System.nanoTime() - actionStart, TimeUnit.NANOSECONDS);
+                    for (int j = 0; j < matchingPositions.size(); j++) {
+                        int position = matchingPositions.get(j);
+                        Throwable failure = actionFailures.get(j);
+                        if (failure == null) {
+                            recordDelivered(ingressTimestamps.get(position));
+                        } else {
+                            failures.put(position, failure instanceof Exception ? (Exception) failure : new RuntimeException(failure));
+                        }
+                    }
+                    return failures;
+                });
+    }
+
+    /**
+     * @return the event to send to the action, or null if the event does not match the filters
+     */
+    private String filterAndTransform(Pipeline current, CloudEvent event) {
+        ProcessorDTO processor = current.processor;
+        LazyCloudEventMap eventMap = new LazyCloudEventMap(event);
+        recordsIn.increment();
+
+        LOG.debug("Received event with id '{}' and type '{}' in processor with name '{}' of bridge '{}", event.getId(), event.getType(), processor.getName(), processor.getBridgeId());
 
-        return map;
+        // Filter evaluation
+        if (!matchesFilters(current.filterEvaluator, eventMap)) {
+            LOG.debug("Filters of processor '{}' did not match for event with id '{}' and type '{}'", processor.getId(), event.getId(), event.getType());
+            return null;
+        }
+        LOG.info("Filters of processor '{}' matched for event with id '{}' and type '{}'", processor.getId(), event.getId(), event.getType());
+        return transform(current, event, eventMap);
+    }
+
+    /**
+     * @return the event to send to the action, for an event that matches the filters
+     */
+    private String transform(Pipeline current, CloudEvent event, LazyCloudEventMap eventMap) {
+        recordsMatched.increment();
+        // Transformation
+        // transformations are currently supported only for sink processors
+        return current.processor.getType() == ProcessorType.SOURCE ? CloudEventUtils.encode(event) : applyTransformations(current.transformationEvaluator, eventMap);
     }
 
-    private boolean matchesFilters(Map<String, Object> eventMap) {
+    private boolean matchesFilters(FilterEvaluator filterEvaluator, Map<String, Object> eventMap) {
         return Boolean.TRUE.equals(filterTimer.record(() -> filterEvaluator.evaluateFilters(eventMap)));
     }
 
-    private String applyTransformations(Map<String, Object> eventMap) {
+    private String applyTransformations(TransformationEvaluator transformationEvaluator, LazyCloudEventMap eventMap) {
+        if (transformationEvaluator.isPassThrough()) {
+            // without a template the event is sent as it is: there is no need to convert it to a map
+            return transformationTimer.record(eventMap::toJson);
+        }
         return transformationTimer.record(() -> transformationEvaluator.render(eventMap));
     }
 
+    /**
+     * The latency goes from the ingress of the event to the confirmation of the action. The clocks of the ingress and of
+     * the executor can drift apart, so it is never recorded as negative.
+     */
+    private void recordDelivered(long ingressTimestamp) {
+        recordsDelivered.increment();
+        eventLatency.record(Math.max(0, System.currentTimeMillis() - ingressTimestamp), TimeUnit.MILLISECONDS);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -119,12 +300,12 @@ public class ExecutorImpl implements Executor {
             return false;
         }
         ExecutorImpl executor = (ExecutorImpl) o;
-        return Objects.equals(processor, executor.processor);
+        return Objects.equals(getProcessor(), executor.getProcessor());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(processor);
+        return Objects.hash(getProcessor());
     }
 
     private void initMetricFields(ProcessorDTO processor, MeterRegistry registry) {
@@ -134,5 +315,63 @@ public class ExecutorImpl implements Executor {
         this.filterTimer = registry.timer(MetricsConstants.FILTER_PROCESSING_TIME_METRIC_NAME, tags);
         this.actionTimer = registry.timer(MetricsConstants.ACTION_PROCESSING_TIME_METRIC_NAME, tags);
         this.transformationTimer = registry.timer(MetricsConstants.TRANSFORMATION_PROCESSING_TIME_METRIC_NAME, tags);
+        this.batchSize = DistributionSummary.builder(MetricsConstants.BATCH_SIZE_METRIC_NAME)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchProcessingTime = Timer.builder(MetricsConstants.BATCH_PROCESSING_TIME_METRIC_NAME)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.recordsIn = registry.counter(MetricsConstants.RECORDS_IN_METRIC_NAME, tags);
+        this.recordsMatched = registry.counter(MetricsConstants.RECORDS_MATCHED_METRIC_NAME, tags);
+        this.recordsDelivered = registry.counter(MetricsConstants.RECORDS_DELIVERED_METRIC_NAME, tags);
+        this.eventLatency = Timer.builder(MetricsConstants.EVENT_LATENCY_METRIC_NAME)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * What is built from the definition of the processor, with the number of events that are being processed with it.
+     */
+    private static class Pipeline {
+
+        private final ProcessorDTO processor;
+        private final FilterEvaluator filterEvaluator;
+        private final TransformationEvaluator transformationEvaluator;
+        private final ActionInvoker actionInvoker;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean retired;
+
+        private Pipeline(ProcessorDTO processor, FilterEvaluator filterEvaluator, TransformationEvaluator transformationEvaluator, ActionInvoker actionInvoker) {
+            this.processor = processor;
+            this.filterEvaluator = filterEvaluator;
+            this.transformationEvaluator = transformationEvaluator;
+            this.actionInvoker = actionInvoker;
+        }
+
+        private void release() {
+            if (inFlight.decrementAndGet() == 0 && retired) {
+                close();
+            }
+        }
+
+        /**
+         * No more events are processed with the pipeline once it is replaced: the action is closed after the last one.
+         */
+        private void retire() {
+            retired = true;
+            if (inFlight.get() == 0) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                actionInvoker.close();
+            }
+        }
     }
 }
@@ -1,16 +1,24 @@
 package com.redhat.service.smartevents.executor;
 
+import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -25,12 +33,15 @@ import org.eclipse.microprofile.reactive.messaging.Metadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.smartevents.executor.filters.FilterIndex;
 import com.redhat.service.smartevents.infra.core.exceptions.BridgeErrorService;
 import com.redhat.service.smartevents.infra.core.exceptions.definitions.platform.DeserializationException;
 import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.CloudEventDeserializationException;
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.ExternalUserException;
+import com.redhat.service.smartevents.infra.core.utils.CloudEventCodec;
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
 import com.redhat.service.smartevents.infra.v1.api.models.processors.ProcessorType;
 
 import io.cloudevents.CloudEvent;
@@ -39,8 +50,11 @@ import io.cloudevents.core.builder.CloudEventBuilder;
 import io.cloudevents.core.data.BytesCloudEventData;
 import io.cloudevents.jackson.JsonCloudEventData;
 import io.cloudevents.kafka.CloudEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
 import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecordBatch;
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
 import static com.redhat.service.smartevents.executor.CloudEventExtension.adjustExtensionName;
@@ -60,10 +74,38 @@ public class ExecutorService {
      */
     public static final String EVENTS_IN_CHANNEL = "events-in";
 
+    /**
+     * Channel used to consume the events in batches. Only one between this and {@link #EVENTS_IN_CHANNEL} is enabled,
+     * the executor fails to start otherwise.
+     */
+    public static final String EVENTS_IN_BATCH_CHANNEL = "events-in-batch";
+
     public static final String CLOUD_EVENT_SOURCE = "RHOSE";
 
+    /**
+     * Values of <code>event-bridge.executor.ordering</code>: the events are delivered in any order, or one after the
+     * other for every Kafka key or CloudEvent subject.
+     */
+    public static final String ORDERING_NONE = "none";
+    public static final String ORDERING_KEY = "key";
+    public static final String ORDERING_SUBJECT = "subject";
+
+    /**
+     * Attribute of the <code>throttled</code> commit strategy of the channels: the connector reports the channel as failed,
+     * and closes its consumer, when a record has not been acked or nacked within this age.
+     */
+    static final String UNPROCESSED_RECORD_MAX_AGE = "throttled.unprocessed-record-max-age.ms";
+
+    // the time left to settle a record once its delivery has ended, i.e. to ack it or to write it to a retry tier or to
+    // the dead letter queue
+    static final Duration SETTLEMENT_MAX_AGE = Duration.ofSeconds(30);
+
     private static final Logger LOG = LoggerFactory.getLogger(ExecutorService.class);
 
+    // structured json events are decoded by CloudEventCodec, the other ones by the deserializer of the Kafka binding
+    private static final String CONTENT_TYPE_HEADER = "content-type";
+    private static final String STRUCTURED_JSON_CONTENT_TYPE = "application/cloudevents+json";
+
     private static final List<String> TRACE_HEADERS = List.of(
             RHOSE_BRIDGE_ID_HEADER,
             RHOSE_PROCESSOR_ID_HEADER,
@@ -76,8 +118,40 @@ public class ExecutorService {
     @ConfigProperty(name = "mp.messaging.incoming.events-in.topic")
     String topic;
 
+    // the channels share the consumer group and the group instance id, so exactly one of them must be enabled
+    @ConfigProperty(name = "mp.messaging.incoming.events-in.enabled", defaultValue = "true")
+    boolean singleRecordEnabled;
+
+    @ConfigProperty(name = "mp.messaging.incoming.events-in-batch.enabled", defaultValue = "false")
+    boolean batchEnabled;
+
+    @ConfigProperty(name = "event-bridge.executor.max-in-flight", defaultValue = "100")
+    int maxInFlight;
+
+    @ConfigProperty(name = "event-bridge.executor.ordering", defaultValue = ORDERING_NONE)
+    String ordering;
+
+    // from the reception of a record to the end of its delivery, see getUnprocessedRecordMaxAge
+    @ConfigProperty(name = "event-bridge.executor.delivery-timeout", defaultValue = "150s")
+    Duration deliveryTimeout;
+
+    // Runs the deliveries on worker threads, for actions that block the calling thread
+    @ConfigProperty(name = "event-bridge.executor.blocking.enabled", defaultValue = "false")
+    boolean blockingEnabled;
+
+    @ConfigProperty(name = "event-bridge.executor.blocking.max-concurrency", defaultValue = "64")
+    int blockingMaxConcurrency;
+
+    /**
+     * The executors of the processors hosted by this instance: every record is read once and dispatched to all of them.
+     * They are sink processors of the same bridge when more than one is hosted.
+     */
     @Inject
-    Executor executor;
+    List<Executor> executors;
+
+    // replaced when the definitions of the processors are reloaded
+    @Inject
+    volatile FilterIndex filterIndex;
 
     @Inject
     ObjectMapper mapper;
@@ -85,42 +159,447 @@ public class ExecutorService {
     @Inject
     BridgeErrorService bridgeErrorService;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    RetryLadder retryLadder;
+
+    private final CloudEventDeserializer cloudEventDeserializer = new CloudEventDeserializer();
+
+    InFlightLimiter inFlightLimiter;
+
+    final KeyOrderedDispatcher keyOrderedDispatcher = new KeyOrderedDispatcher();
+
+    // null when the deliveries run on the thread of the consumer
+    BlockingDispatcher blockingDispatcher;
+
+    @PostConstruct
+    void init() {
+        if (singleRecordEnabled == batchEnabled) {
+            throw new IllegalStateException(String.format("Exactly one between the '%s' and '%s' channels must be enabled, see KAFKA_SINGLE_RECORD_ENABLED and KAFKA_BATCH_ENABLED.",
+                    EVENTS_IN_CHANNEL, EVENTS_IN_BATCH_CHANNEL));
+        }
+        inFlightLimiter = new InFlightLimiter(maxInFlight);
+        if (blockingEnabled) {
+            blockingDispatcher = new BlockingDispatcher(blockingMaxConcurrency, meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (blockingDispatcher != null) {
+            blockingDispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Processes the record and returns once the delivery of the event has started, so that up to <code>max-in-flight</code>
+     * events are delivered at the same time. The record is acked or nacked when the actions confirm or refuse the delivery;
+     * when all the slots are taken the returned stage completes only once one of them is released, which stops the
+     * consumption of new records until the actions catch up. The delivery to a processor whose action is not ready (e.g.
+     * the circuit breaker of its target is open) waits for it, holding its slot, while the events of the other hosted
+     * processors are still delivered: the consumption stops only once all the slots are taken.
+     * <p>
+     * With <code>event-bridge.executor.ordering</code> set to <code>key</code> or <code>subject</code>, the events with the
+     * same Kafka key or CloudEvent subject are delivered one after the other, in the order of the partition, while the
+     * others still use the free slots: a slow delivery then delays only the events of its key. An event waiting for the
+     * previous one of its key holds its slot. In every mode the offsets are committed only up to the first record that
+     * has not been acked yet (<code>throttled</code> commit strategy), so a restart never skips an undelivered event.
+     * <p>
+     * The wait for a slot, for the previous events of the key and for the action to be ready count, with the delivery
+     * itself and its retries, against the <code>event-bridge.executor.delivery-timeout</code> of the record: an event that
+     * has not been delivered by then fails like any other, and the record is settled before the connector considers it
+     * stuck, see {@link #getUnprocessedRecordMaxAge(Duration, Duration)}.
+     * <p>
+     * When more than one processor is hosted, the {@link FilterIndex} selects the processors whose filters match the event,
+     * that is delivered to each of them independently. The record is acked once all of them have handled it. If some of
+     * them fail, the record is nacked once, with the trace headers of the first processor that failed.
+     * <p>
+     * When the {@link RetryLadder} has tiers, the events that fail are written to the topic of the first tier instead,
+     * once for every processor that failed, and the record is acked: they are delivered again by {@link #processRetry}.
+     */
     @Incoming(EVENTS_IN_CHANNEL)
-    public CompletionStage<Void> processEvent(final IncomingKafkaRecord<Integer, String> message) {
+    public CompletionStage<Void> processEvent(final IncomingKafkaRecord<Integer, byte[]> message) {
         CloudEvent cloudEvent = null;
+        List<Executor> targets;
+        List<Map<String, String>> fullHeadersMaps = new ArrayList<>(executors.size());
         try {
             Pair<CloudEvent, Map<String, String>> pair = convertToCloudEventAndHeadersMap(message);
             cloudEvent = pair.getLeft();
+            targets = selectExecutors(cloudEvent);
+            for (Executor executor : targets) {
+                fullHeadersMaps.add(toFullHeadersMap(executor.getProcessor(), pair, message));
+            }
+        } catch (Exception e) {
+            LOG.error("Processor with id '{}' on bridge '{}' failed to handle Event.",
+                    getProcessor().getId(), getProcessor().getBridgeId(), e);
+            return nack(getProcessor(), message, cloudEvent, e);
+        }
+
+        final CloudEvent event = cloudEvent;
+        final long ingressTimestamp = getIngressTimestamp(message, event);
+        final long deadline = System.nanoTime() + deliveryTimeout.toNanos();
+        return inFlightLimiter.acquire()
+                .thenAccept(permit -> keyOrderedDispatcher.submit(getOrderingKey(message, event),
+                        () -> deliver(event, targets, fullHeadersMaps, ingressTimestamp, executors.size() > 1, deadline)
+                                .onItem().invoke(failures -> {
+                                    inFlightLimiter.release();
+                                    handleFailures(message, event, failures, 0);
+                                })
+                                .replaceWithVoid()
+                                .subscribeAsCompletionStage()));
+    }
 
-            // add trace headers map for SOURCE and SINK processors
-            Map<String, String> fullHeadersMap = executor.getProcessor().getType() == ProcessorType.ERROR_HANDLER
-                    ? pair.getRight()
-                    : Stream.concat(pair.getRight().entrySet().stream(), getTraceHeadersMap(cloudEvent, message).entrySet().stream())
-                            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e2, TreeMap::new));
+    @Incoming("events-retry-1")
+    public CompletionStage<Void> processRetry1(final IncomingKafkaRecord<Integer, byte[]> message) {
+        return processRetry(message, 1);
+    }
 
-            executor.onEvent(pair.getLeft(), fullHeadersMap);
+    @Incoming("events-retry-2")
+    public CompletionStage<Void> processRetry2(final IncomingKafkaRecord<Integer, byte[]> message) {
+        return processRetry(message, 2);
+    }
+
+    @Incoming("events-retry-3")
+    public CompletionStage<Void> processRetry3(final IncomingKafkaRecord<Integer, byte[]> message) {
+        return processRetry(message, 3);
+    }
+
+    /**
+     * Delivers again an event of a tier of the {@link RetryLadder}, to the processor that failed, once it is due. The records
+     * of a tier are handled one at a time: while the first one is not due, the consumption of the tier is paused. If the
+     * delivery fails again, the record moves to the next tier or, from the last one, to the dead letter queue.
+     * <p>
+     * The retried events are not delivered in the order of the bridge topic anymore, whatever the
+     * <code>event-bridge.executor.ordering</code>. The delivery timeout starts once the record is due.
+     */
+    CompletionStage<Void> processRetry(final KafkaRecord<Integer, byte[]> message, int tier) {
+        Headers headers = message.getHeaders();
+        Executor executor = findExecutor(headers);
+        if (executor == null) {
+            // the topics of the tiers are shared by all the processors of the bridge
+            return message.ack();
+        }
+        long dueTime = RetryLadder.getDueTime(headers);
+        // the headers added by the executor are added again, for the delivery or the next failure
+        RetryLadder.removeRetryHeaders(headers);
+        TRACE_HEADERS.forEach(headers::remove);
+
+        CloudEvent cloudEvent = null;
+        Map<String, String> fullHeadersMap;
+        try {
+            Pair<CloudEvent, Map<String, String>> pair = convertToCloudEventAndHeadersMap(message);
+            cloudEvent = pair.getLeft();
+            fullHeadersMap = toFullHeadersMap(executor.getProcessor(), pair, message);
         } catch (Exception e) {
             LOG.error("Processor with id '{}' on bridge '{}' failed to handle Event.",
                     executor.getProcessor().getId(), executor.getProcessor().getBridgeId(), e);
+            return nack(executor.getProcessor(), message, cloudEvent, e);
+        }
 
-            // create trace headers value map
-            Map<String, String> traceHeadersMap = getTraceHeadersMap(cloudEvent, message);
-            bridgeErrorService.getError(e).ifPresent(error -> traceHeadersMap.put(RHOSE_ERROR_CODE_HEADER, error.getCode()));
+        final CloudEvent event = cloudEvent;
+        final long ingressTimestamp = getIngressTimestamp(message, event);
+        return RetryLadder.awaitDue(dueTime)
+                .onItem().transformToUni(due -> deliver(event, List.of(executor), List.of(fullHeadersMap), ingressTimestamp, false, System.nanoTime() + deliveryTimeout.toNanos()))
+                .subscribeAsCompletionStage()
+                .thenCompose(failures -> handleFailures(message, event, failures, tier));
+    }
 
-            // Add our Kafka Headers, first removing any pre-existing ones to avoid duplication.
-            // This can be replaced with w3c trace-context parameters when we add distributed tracing.
-            Headers headers = message.getHeaders() == null ? new RecordHeaders() : message.getHeaders();
-            TRACE_HEADERS.forEach(headers::remove);
-            traceHeadersMap.forEach((key, value) -> headers.add(new RecordHeader(key, value.getBytes(StandardCharsets.UTF_8))));
+    /**
+     * @return the hosted executor of the processor in the trace headers of the record, or <code>null</code> if the
+     *         processor is not hosted by this instance
+     */
+    private Executor findExecutor(Headers headers) {
+        Header processorId = headers == null ? null : headers.lastHeader(RHOSE_PROCESSOR_ID_HEADER);
+        if (processorId == null) {
+            return null;
+        }
+        String id = new String(processorId.value(), StandardCharsets.UTF_8);
+        return executors.stream()
+                .filter(executor -> id.equals(executor.getProcessor().getId()))
+                .findFirst()
+                .orElse(null);
+    }
 
-            return message.nack(e,
-                    Metadata.of(OutgoingKafkaRecordMetadata.builder().withHeaders(new RecordHeaders(headers)).build()));
+    /**
+     * Acks the record if all the processors handled the event. Otherwise the event moves to the tier after the given one,
+     * once for every processor that failed, or the record is nacked when there are no more tiers.
+     *
+     * @param tier the tier of the record, 0 for the bridge topic
+     */
+    private CompletionStage<Void> handleFailures(KafkaRecord<Integer, byte[]> message, CloudEvent event, List<Pair<ProcessorDTO, Exception>> failures, int tier) {
+        if (failures.isEmpty()) {
+            return message.ack();
         }
-        return message.ack();
+        Pair<ProcessorDTO, Exception> first = failures.get(0);
+        if (retryLadder == null || !retryLadder.hasTierAfter(tier)) {
+            return nack(first.getLeft(), message, event, first.getRight());
+        }
+        CompletableFuture<?>[] forwards = failures.stream()
+                .map(failure -> retryLadder.forward(message, toErrorHeaders(failure.getLeft(), message, event, failure.getRight()), tier + 1).toCompletableFuture())
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(forwards)
+                .handle((forwarded, failure) -> failure)
+                .thenCompose(failure -> {
+                    if (failure == null) {
+                        return message.ack();
+                    }
+                    LOG.error("Failed to write the event to the retry tier {}, it is sent to the dead letter queue.", tier + 1, failure);
+                    return nack(first.getLeft(), message, event, first.getRight());
+                });
     }
 
-    private Pair<CloudEvent, Map<String, String>> convertToCloudEventAndHeadersMap(KafkaRecord<Integer, String> message) {
-        switch (executor.getProcessor().getType()) {
+    /**
+     * @return the key of the events that must be delivered in order, or <code>null</code> if the event can be delivered
+     *         as soon as a slot is free
+     */
+    private Object getOrderingKey(KafkaRecord<Integer, byte[]> message, CloudEvent event) {
+        if (ORDERING_KEY.equalsIgnoreCase(ordering)) {
+            return message.getKey();
+        }
+        if (ORDERING_SUBJECT.equalsIgnoreCase(ordering)) {
+            return event.getSubject();
+        }
+        return null;
+    }
+
+    /**
+     * Processes the records polled from Kafka as a single batch. Records that fail are nacked one by one, so that they
+     * reach the dead letter queue with the same headers of the single record mode, while the offsets of the batch are
+     * committed once the actions have confirmed or refused the delivery of all the records. Every processor waits for its
+     * action to be ready before it handles the batch. The records a processor has not handled within the
+     * <code>event-bridge.executor.delivery-timeout</code> of the batch fail.
+     */
+    @Incoming(EVENTS_IN_BATCH_CHANNEL)
+    public CompletionStage<Void> processEvents(final KafkaRecordBatch<Integer, byte[]> batch) {
+        List<KafkaRecord<Integer, byte[]>> records = batch.getRecords();
+        CloudEvent[] cloudEvents = new CloudEvent[records.size()];
+        // the first failure of every record, with the processor that failed
+        Map<Integer, Pair<ProcessorDTO, Exception>> failures = new HashMap<>();
+        List<Integer> positions = new ArrayList<>();
+        List<Pair<CloudEvent, Map<String, String>>> events = new ArrayList<>();
+        List<Long> ingressTimestamps = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                Pair<CloudEvent, Map<String, String>> pair = convertToCloudEventAndHeadersMap(records.get(i));
+                cloudEvents[i] = pair.getLeft();
+                positions.add(i);
+                events.add(pair);
+                ingressTimestamps.add(getIngressTimestamp(records.get(i), pair.getLeft()));
+            } catch (Exception e) {
+                failures.put(i, Pair.of(getProcessor(), e));
+            }
+        }
+
+        if (events.isEmpty()) {
+            return nackAndAck(batch, cloudEvents, failures);
+        }
+        List<CloudEvent> cloudEventsToProcess = events.stream().map(Pair::getLeft).collect(Collectors.toList());
+        long deadline = System.nanoTime() + deliveryTimeout.toNanos();
+        List<Uni<Map<Integer, Exception>>> deliveries = new ArrayList<>(executors.size());
+        for (Executor executor : executors) {
+            List<Map<String, String>> headers = new ArrayList<>(events.size());
+            for (int i = 0; i < events.size(); i++) {
+                headers.add(toFullHeadersMap(executor.getProcessor(), events.get(i), records.get(positions.get(i))));
+            }
+            Uni<Map<Integer, Exception>> delivery = Uni.createFrom().deferred(() -> executor.onEvents(cloudEventsToProcess, headers, ingressTimestamps));
+            if (blockingDispatcher != null) {
+                delivery = delivery.runSubscriptionOn(blockingDispatcher);
+            }
+            Uni<Map<Integer, Exception>> action = delivery;
+            deliveries.add(withDeadline(Uni.createFrom().deferred(executor::awaitActionReady).chain(() -> action), deadline).onFailure().recoverWithItem(e -> {
+                Map<Integer, Exception> all = new HashMap<>();
+                for (int i = 0; i < events.size(); i++) {
+                    all.put(i, e instanceof Exception ? (Exception) e : new RuntimeException(e));
+                }
+                return all;
+            }));
+        }
+        return Uni.combine().all().unis(deliveries)
+                .combinedWith(results -> {
+                    // in the order of the executors, so that the first processor that failed is reported
+                    for (int i = 0; i < results.size(); i++) {
+                        ProcessorDTO processor = executors.get(i).getProcessor();
+                        toFailures(results.get(i)).forEach((position, e) -> failures.putIfAbsent(positions.get(position), Pair.of(processor, e)));
+                    }
+                    return failures;
+                })
+                .subscribeAsCompletionStage()
+                .thenCompose(allFailures -> nackAndAck(batch, cloudEvents, allFailures));
+    }
+
+    private CompletionStage<Void> nackAndAck(KafkaRecordBatch<Integer, byte[]> batch, CloudEvent[] cloudEvents, Map<Integer, Pair<ProcessorDTO, Exception>> failures) {
+        List<KafkaRecord<Integer, byte[]>> records = batch.getRecords();
+        CompletableFuture<?>[] nacks = failures.entrySet().stream()
+                .map(failure -> {
+                    ProcessorDTO processor = failure.getValue().getLeft();
+                    LOG.error("Processor with id '{}' on bridge '{}' failed to handle Event.",
+                            processor.getId(), processor.getBridgeId(), failure.getValue().getRight());
+                    KafkaRecord<Integer, byte[]> record = records.get(failure.getKey());
+                    return nack(processor, record, cloudEvents[failure.getKey()], failure.getValue().getRight()).toCompletableFuture();
+                })
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(nacks).thenCompose(v -> batch.ack());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Exception> toFailures(Object result) {
+        return (Map<Integer, Exception>) result;
+    }
+
+    /**
+     * Replaces the filter index with the one of the reloaded definitions of the hosted processors, see
+     * {@link ProcessorDefinitionWatcher}.
+     */
+    void reloadFilterIndex(FilterIndex filterIndex) {
+        this.filterIndex = filterIndex;
+    }
+
+    /**
+     * The filters of every processor would be evaluated for every event: with more than one processor hosted, the filter
+     * index selects the ones whose filters match instead, and they are not evaluated again by the executors. The event is
+     * counted as received by all the processors, selected or not, and the time of the match is their filter time.
+     */
+    private List<Executor> selectExecutors(CloudEvent event) {
+        if (executors.size() == 1) {
+            return executors;
+        }
+        executors.forEach(Executor::recordReceived);
+        long start = System.nanoTime();
+        Set<String> matching = filterIndex.match(new LazyCloudEventMap(event));
+        long filterTime = System.nanoTime() - start;
+        executors.forEach(executor -> executor.recordFilterTime(filterTime));
+        return executors.stream()
+                .filter(executor -> matching.contains(executor.getProcessor().getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Delivers the event to the given executors, once their action is ready. A failure of a processor does not prevent
+     * the delivery to the others, and a processor that is not ready delays only its own delivery.
+     * With <code>event-bridge.executor.blocking.enabled</code> every delivery, filters and transformation included, runs on
+     * a worker thread of the {@link BlockingDispatcher}.
+     *
+     * @param preSelected true when the targets were selected by the filter index, see {@link #selectExecutors(CloudEvent)}
+     * @param deadline the {@link System#nanoTime()} by which the delivery to every processor must be over, see
+     *        {@link #withDeadline(Uni, long)}
+     * @return the failures, with the processor that failed, empty if all the processors handled the event
+     */
+    private Uni<List<Pair<ProcessorDTO, Exception>>> deliver(CloudEvent event, List<Executor> targets, List<Map<String, String>> fullHeadersMaps, long ingressTimestamp,
+            boolean preSelected, long deadline) {
+        if (targets.isEmpty()) {
+            return Uni.createFrom().item(Collections.emptyList());
+        }
+        List<Uni<Pair<ProcessorDTO, Exception>>> deliveries = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            Executor executor = targets.get(i);
+            Map<String, String> fullHeadersMap = fullHeadersMaps.get(i);
+            Uni<Void> delivery = Uni.createFrom().deferred(() -> executor.onEventAsync(event, fullHeadersMap, ingressTimestamp, preSelected));
+            if (blockingDispatcher != null) {
+                delivery = delivery.runSubscriptionOn(blockingDispatcher);
+            }
+            Uni<Void> action = delivery;
+            deliveries.add(withDeadline(Uni.createFrom().deferred(executor::awaitActionReady).chain(() -> action), deadline)
+                    .onItem().transform(ignored -> (Pair<ProcessorDTO, Exception>) null)
+                    .onFailure().recoverWithItem(failure -> {
+                        LOG.error("Processor with id '{}' on bridge '{}' failed to handle Event.",
+                                executor.getProcessor().getId(), executor.getProcessor().getBridgeId(), failure);
+                        return Pair.of(executor.getProcessor(), failure instanceof Exception ? (Exception) failure : new RuntimeException(failure));
+                    }));
+        }
+        if (deliveries.size() == 1) {
+            return deliveries.get(0).onItem().transform(failure -> failure == null ? Collections.emptyList() : List.of(failure));
+        }
+        return Uni.combine().all().unis(deliveries)
+                .combinedWith(results -> results.stream()
+                        .filter(Objects::nonNull)
+                        .map(ExecutorService::toFailure)
+                        .collect(Collectors.toList()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Pair<ProcessorDTO, Exception> toFailure(Object failure) {
+        return (Pair<ProcessorDTO, Exception>) failure;
+    }
+
+    /**
+     * Fails the delivery if it is not over by the deadline: the wait for the action to be ready and the retries of the
+     * action are cancelled, and the event is handled as any other failed delivery.
+     */
+    private <T> Uni<T> withDeadline(Uni<T> delivery, long deadline) {
+        return Uni.createFrom().deferred(() -> {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return Uni.createFrom().failure(deliveryTimedOut());
+            }
+            return delivery.ifNoItem().after(Duration.ofNanos(remaining)).failWith(this::deliveryTimedOut);
+        });
+    }
+
+    private ExternalUserException deliveryTimedOut() {
+        return new ExternalUserException(String.format("The event was not delivered within the delivery timeout of %s", deliveryTimeout));
+    }
+
+    /**
+     * The <code>throttled.unprocessed-record-max-age.ms</code> of a channel whose records wait up to the given time before
+     * their delivery starts: a record is settled at most <code>SETTLEMENT_MAX_AGE</code> after the end of its delivery,
+     * which takes up to the delivery timeout, so the connector never reports a record that is still handled as stuck.
+     */
+    static int getUnprocessedRecordMaxAge(Duration wait, Duration deliveryTimeout) {
+        long maxAge = wait.plus(deliveryTimeout).plus(SETTLEMENT_MAX_AGE).toMillis();
+        return (int) Math.min(maxAge, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the first hosted processor, whose type and bridge are the same of all the others
+     */
+    private ProcessorDTO getProcessor() {
+        return executors.get(0).getProcessor();
+    }
+
+    static Map<String, String> toFullHeadersMap(ProcessorDTO processor, Pair<CloudEvent, Map<String, String>> pair, KafkaRecord<Integer, byte[]> message) {
+        if (processor.getType() == ProcessorType.ERROR_HANDLER) {
+            return pair.getRight();
+        }
+        // add trace headers for SOURCE and SINK processors, straight into the map given to the action
+        Map<String, String> fullHeadersMap = new HashMap<>(toCapacity(pair.getRight().size() + TRACE_HEADERS.size()));
+        fullHeadersMap.putAll(pair.getRight());
+        putTraceHeaders(fullHeadersMap, processor, pair.getLeft(), message);
+        return fullHeadersMap;
+    }
+
+    /**
+     * @return the initial capacity of a {@link HashMap} that holds the given number of entries without being resized
+     */
+    private static int toCapacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private CompletionStage<Void> nack(ProcessorDTO processor, KafkaRecord<Integer, byte[]> message, CloudEvent cloudEvent, Exception e) {
+        return message.nack(e,
+                Metadata.of(OutgoingKafkaRecordMetadata.builder().withHeaders(toErrorHeaders(processor, message, cloudEvent, e)).build()));
+    }
+
+    /**
+     * @return the headers of the record with the trace headers of the processor that failed and the code of the error
+     */
+    private Headers toErrorHeaders(ProcessorDTO processor, KafkaRecord<Integer, byte[]> message, CloudEvent cloudEvent, Exception e) {
+        // create trace headers value map
+        Map<String, String> traceHeadersMap = getTraceHeadersMap(processor, cloudEvent, message);
+        bridgeErrorService.getError(e).ifPresent(error -> traceHeadersMap.put(RHOSE_ERROR_CODE_HEADER, error.getCode()));
+
+        // Add our Kafka Headers, first removing any pre-existing ones to avoid duplication.
+        // This can be replaced with w3c trace-context parameters when we add distributed tracing.
+        // The headers are copied, as the record can be forwarded once for every processor that failed.
+        Headers headers = message.getHeaders() == null ? new RecordHeaders() : new RecordHeaders(message.getHeaders().toArray());
+        TRACE_HEADERS.forEach(headers::remove);
+        traceHeadersMap.forEach((key, value) -> headers.add(new RecordHeader(key, value.getBytes(StandardCharsets.UTF_8))));
+        return headers;
+    }
+
+    private Pair<CloudEvent, Map<String, String>> convertToCloudEventAndHeadersMap(KafkaRecord<Integer, byte[]> message) {
+        switch (getProcessor().getType()) {
             case SOURCE:
                 return Pair.of(
                         toSourceCloudEvent(message.getPayload(), message.getHeaders()),
@@ -132,24 +611,32 @@ public class ExecutorService {
         }
     }
 
-    private Pair<CloudEvent, Map<String, String>> buildCloudEvent(KafkaRecord<Integer, String> message, boolean wrapOnFailure) {
-        try (CloudEventDeserializer cloudEventDeserializer = new CloudEventDeserializer()) {
-            CloudEvent cloudEvent = cloudEventDeserializer
-                    .deserialize(topic, message.getHeaders(), message.getPayload().getBytes(StandardCharsets.UTF_8));
+    private Pair<CloudEvent, Map<String, String>> buildCloudEvent(KafkaRecord<Integer, byte[]> message, boolean wrapOnFailure) {
+        try {
+            // the record bytes are parsed straight away, both for structured and binary cloud events
+            CloudEvent cloudEvent = isStructuredJson(message.getHeaders())
+                    ? CloudEventCodec.decode(message.getPayload())
+                    : cloudEventDeserializer.deserialize(topic, message.getHeaders(), message.getPayload());
             return Pair.of(
                     cloudEvent,
                     toHeadersMap(message.getHeaders()));
         } catch (Exception e) {
             // if it fails (e.g. for connector errors) try wrapping it
             if (wrapOnFailure) {
-                CloudEventData data = BytesCloudEventData.wrap(message.getPayload().getBytes(StandardCharsets.UTF_8));
+                CloudEventData data = BytesCloudEventData.wrap(message.getPayload());
                 return Pair.of(wrapToCloudEvent("RhoseError", data, Collections.emptyMap()), toHeadersMap(message.getHeaders()));
             }
             throw new DeserializationException("Failed to deserialize the cloud event", e);
         }
     }
 
-    private CloudEvent toSourceCloudEvent(String event, Headers headers) {
+    private static boolean isStructuredJson(Headers headers) {
+        Header contentType = headers == null ? null : headers.lastHeader(CONTENT_TYPE_HEADER);
+        return contentType != null && contentType.value() != null
+                && new String(contentType.value(), StandardCharsets.UTF_8).startsWith(STRUCTURED_JSON_CONTENT_TYPE);
+    }
+
+    private CloudEvent toSourceCloudEvent(byte[] event, Headers headers) {
         try {
             // JsonCloudEventData.wrap requires an empty JSON
             JsonNode payload = event == null ? mapper.createObjectNode() : mapper.readTree(event);
@@ -157,11 +644,11 @@ public class ExecutorService {
             CloudEventData data = JsonCloudEventData.wrap(payload);
 
             return wrapToCloudEvent(
-                    String.format("%s", executor.getProcessor().getDefinition().getRequestedSource().getType()),
+                    String.format("%s", getProcessor().getDefinition().getRequestedSource().getType()),
                     data,
                     toExtensionsMap(headers));
-        } catch (JsonProcessingException e2) {
-            LOG.error("JsonProcessingException when generating CloudEvent for '{}'", event, e2);
+        } catch (IOException e2) {
+            LOG.error("IOException when generating CloudEvent for '{}'", new String(event, StandardCharsets.UTF_8), e2);
             throw new CloudEventDeserializationException("Failed to generate event map");
         }
     }
@@ -178,13 +665,18 @@ public class ExecutorService {
         return cloudEventBuilder.build();
     }
 
-    private Map<String, String> getTraceHeadersMap(CloudEvent cloudEvent, KafkaRecord<Integer, String> message) {
+    private static Map<String, String> getTraceHeadersMap(ProcessorDTO processor, CloudEvent cloudEvent, KafkaRecord<Integer, byte[]> message) {
+        Map<String, String> traceHeaders = new TreeMap<>();
+        putTraceHeaders(traceHeaders, processor, cloudEvent, message);
+        return traceHeaders;
+    }
+
+    private static void putTraceHeaders(Map<String, String> traceHeaders, ProcessorDTO processor, CloudEvent cloudEvent, KafkaRecord<Integer, byte[]> message) {
         String originalSourceHeader = cloudEvent != null ? cloudEvent.getSource().toString() : CLOUD_EVENT_SOURCE;
         String originalIdHeader = getOriginalEventId(cloudEvent, message);
 
-        Map<String, String> traceHeaders = new TreeMap<>();
-        traceHeaders.put(RHOSE_BRIDGE_ID_HEADER, executor.getProcessor().getBridgeId());
-        traceHeaders.put(RHOSE_PROCESSOR_ID_HEADER, executor.getProcessor().getId());
+        traceHeaders.put(RHOSE_BRIDGE_ID_HEADER, processor.getBridgeId());
+        traceHeaders.put(RHOSE_PROCESSOR_ID_HEADER, processor.getId());
         traceHeaders.put(RHOSE_ORIGINAL_EVENT_SOURCE_HEADER, originalSourceHeader);
         traceHeaders.put(RHOSE_ORIGINAL_EVENT_ID_HEADER, originalIdHeader);
         if (cloudEvent != null) {
@@ -195,10 +687,23 @@ public class ExecutorService {
                 traceHeaders.put(RHOSE_ORIGINAL_EVENT_SUBJECT_HEADER, cloudEvent.getSubject());
             }
         }
-        return traceHeaders;
     }
 
-    static String getOriginalEventId(CloudEvent cloudEvent, KafkaRecord<Integer, String> message) {
+    /**
+     * @return the time the event was written to the topic of the bridge, or the time of the CloudEvent if the record has
+     *         no timestamp
+     */
+    static long getIngressTimestamp(KafkaRecord<Integer, byte[]> message, CloudEvent cloudEvent) {
+        if (message.getTimestamp() != null && message.getTimestamp().toEpochMilli() >= 0) {
+            return message.getTimestamp().toEpochMilli();
+        }
+        if (cloudEvent != null && cloudEvent.getTime() != null) {
+            return cloudEvent.getTime().toInstant().toEpochMilli();
+        }
+        return System.currentTimeMillis();
+    }
+
+    static String getOriginalEventId(CloudEvent cloudEvent, KafkaRecord<Integer, byte[]> message) {
         if (cloudEvent != null) {
             return cloudEvent.getId();
         }
@@ -221,8 +726,10 @@ public class ExecutorService {
 
     static Map<String, String> toExtensionsMap(Headers headers) {
         Map<String, String> extensionMap = new TreeMap<>();
-        for (Map.Entry<String, String> header : toHeadersMap(headers).entrySet()) {
-            extensionMap.put(adjustExtensionName(header.getKey()), header.getValue());
+        if (headers != null) {
+            for (Header header : headers) {
+                extensionMap.put(adjustExtensionName(header.key()), new String(header.value(), StandardCharsets.UTF_8));
+            }
         }
         return extensionMap;
     }
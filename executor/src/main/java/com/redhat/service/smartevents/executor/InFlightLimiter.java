@@ -0,0 +1,52 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non blocking counterpart of a semaphore: {@link #acquire()} completes once a permit is available, so that the caller
+ * can wait for a slot without blocking the event loop. Every acquired permit must be given back with {@link #release()}.
+ */
+class InFlightLimiter {
+
+    private final int maxInFlight;
+    private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private int inFlight;
+
+    InFlightLimiter(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("The max number of in flight events must be at least 1.");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    synchronized CompletionStage<Void> acquire() {
+        if (inFlight < maxInFlight) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        waiting.add(permit);
+        return permit;
+    }
+
+    void release() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        // the permit is handed over to the next waiting caller, outside the lock as it runs its continuation
+        if (next != null) {
+            next.complete(null);
+        }
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
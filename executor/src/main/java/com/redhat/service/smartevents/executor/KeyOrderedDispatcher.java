@@ -0,0 +1,48 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs the tasks with the same key one after the other, in the order they are submitted, while the tasks with different
+ * keys run concurrently. Tasks without a key are not ordered and run straight away.
+ * <p>
+ * Only the last task of every key is tracked: the next task of the key is chained to it, and the key is forgotten once
+ * its last task has completed.
+ * <p>
+ * The queue of a key is not bounded: the {@link ExecutorService} bounds the wait of every task with the delivery timeout
+ * of its record instead, a task started after it fails straight away, so a slow task delays the others of its key by at
+ * most that timeout.
+ */
+class KeyOrderedDispatcher {
+
+    private final Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * @param key the ordering key of the task, or <code>null</code> if the task does not need to be ordered
+     * @param task starts the task and returns its completion. It is started once the previous task of the key has
+     *        completed, whatever its outcome.
+     * @return completes when the task has completed, successfully or not
+     */
+    CompletionStage<Void> submit(Object key, Supplier<CompletionStage<Void>> task) {
+        if (key == null) {
+            return task.get();
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(key, done);
+        CompletionStage<Void> start = previous == null ? CompletableFuture.completedFuture(null) : previous;
+        start.thenCompose(ignored -> task.get())
+                .whenComplete((ignored, failure) -> {
+                    tails.remove(key, done);
+                    done.complete(null);
+                });
+        return done;
+    }
+
+    int getPendingKeys() {
+        return tails.size();
+    }
+}
@@ -0,0 +1,303 @@
+package com.redhat.service.smartevents.executor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.smartevents.executor.filters.PathResolvable;
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.CloudEventSerializationException;
+import com.redhat.service.smartevents.infra.core.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.CloudEventData;
+import io.cloudevents.jackson.JsonCloudEventData;
+
+/**
+ * Read-only {@link Map} view of a {@link CloudEvent} that resolves its fields only when they are requested.
+ * <p>
+ * Attributes are read straight from the event and keys of the <code>data</code> field are looked up with the Jackson
+ * streaming parser on the raw payload (or on the already parsed tree for structured events), so that no object graph
+ * is built when the filters only need a few fields. The full map, with the same content produced by converting the whole
+ * event with {@link CloudEventUtils#getMapper()}, is built only if the view is iterated (e.g. by FEEL or when the
+ * event is serialized).
+ */
+public class LazyCloudEventMap extends AbstractMap<String, Object> implements PathResolvable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyCloudEventMap.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Object UNRESOLVED = new Object();
+
+    private final CloudEvent event;
+
+    private Object data = UNRESOLVED;
+    private Map<String, Object> fullMap;
+
+    public LazyCloudEventMap(CloudEvent event) {
+        this.event = event;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (fullMap != null) {
+            return fullMap.get(key);
+        }
+        if (CloudEventUtils.CE_DATA_FIELD_NAME.equals(key)) {
+            return getData();
+        }
+        Object attribute = getAttribute(key);
+        return attribute == UNRESOLVED ? toMap().get(key) : attribute;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null || toMap().containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return toMap().entrySet();
+    }
+
+    @Override
+    public Object resolve(String[] path) {
+        if (fullMap == null && data == UNRESOLVED && path.length > 1 && CloudEventUtils.CE_DATA_FIELD_NAME.equals(path[0]) && hasJsonData()) {
+            return resolveData(path);
+        }
+        Object current = get(path[0]);
+        for (int i = 1; i < path.length; i++) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<?, ?>) current).get(path[i]);
+        }
+        return current;
+    }
+
+    /**
+     * Serializes the event as json, with the same content produced by serializing this map. When the data of the event
+     * is json, its original bytes are copied as they are and no map is built.
+     */
+    public String toJson() {
+        if (fullMap == null && isDataPassThrough()) {
+            return CloudEventUtils.encode(event);
+        }
+        try {
+            return MAPPER.writeValueAsString(toMap());
+        } catch (JsonProcessingException e) {
+            throw new CloudEventSerializationException("Failed to encode CloudEvent");
+        }
+    }
+
+    private boolean isDataPassThrough() {
+        if (event.getData() == null) {
+            return true;
+        }
+        if (!hasJsonData()) {
+            return false;
+        }
+        // a json string could contain a json object, that the full conversion turns into a map
+        CloudEventData cloudEventData = event.getData();
+        if (cloudEventData instanceof JsonCloudEventData) {
+            JsonNode node = ((JsonCloudEventData) cloudEventData).getNode();
+            return node != null && !node.isTextual();
+        }
+        // the full conversion keeps as a map only the raw data that is a valid json object, any other value becomes a string,
+        // and keeps only the last value of a duplicated key. The data is only scanned, no tree is built.
+        byte[] bytes = cloudEventData.toBytes();
+        if (bytes.length == 0) {
+            return true;
+        }
+        try (JsonParser parser = MAPPER.getFactory().createParser(bytes)) {
+            parser.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Object getAttribute(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        switch ((String) key) {
+            case "specversion":
+                return event.getSpecVersion().toString();
+            case "id":
+                return event.getId();
+            case "source":
+                return event.getSource() == null ? null : event.getSource().toString();
+            case "type":
+                return event.getType();
+            case "subject":
+                return event.getSubject();
+            case "datacontenttype":
+                return event.getDataContentType();
+            case "dataschema":
+                return event.getDataSchema() == null ? null : event.getDataSchema().toString();
+            case "time":
+                // the format of the time is the one of the CloudEvent serializer
+                return event.getTime() == null ? null : UNRESOLVED;
+            case "data_base64":
+                return UNRESOLVED;
+            default:
+                Object extension = event.getExtension((String) key);
+                if (extension == null || extension instanceof String || extension instanceof Number || extension instanceof Boolean) {
+                    return extension;
+                }
+                return UNRESOLVED;
+        }
+    }
+
+    private Object getData() {
+        if (data == UNRESOLVED) {
+            data = hasJsonData() ? jsonData() : toMap().get(CloudEventUtils.CE_DATA_FIELD_NAME);
+        }
+        return data;
+    }
+
+    private Object jsonData() {
+        CloudEventData cloudEventData = event.getData();
+        if (cloudEventData instanceof JsonCloudEventData) {
+            // The tree is converted as it is, only a textual node could contain a json to parse
+            JsonNode node = ((JsonCloudEventData) cloudEventData).getNode();
+            if (node == null || node.isNull()) {
+                return null;
+            }
+            return node.isTextual() ? parseData(node.textValue()) : MAPPER.convertValue(node, Object.class);
+        }
+        byte[] bytes = cloudEventData.toBytes();
+        return bytes.length == 0 ? null : parseData(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private Object resolveData(String[] path) {
+        CloudEventData cloudEventData = event.getData();
+        if (cloudEventData instanceof JsonCloudEventData) {
+            JsonNode node = ((JsonCloudEventData) cloudEventData).getNode();
+            if (node == null || node.isTextual()) {
+                // A textual data could contain a json: let the full conversion deal with it
+                return resolveFromData(path);
+            }
+            for (int i = 1; i < path.length && node != null; i++) {
+                node = node.isObject() ? node.get(path[i]) : null;
+            }
+            return node == null ? null : MAPPER.convertValue(node, Object.class);
+        }
+
+        byte[] bytes = cloudEventData.toBytes();
+        try (JsonParser parser = MAPPER.getFactory().createParser(bytes)) {
+            return findValue(parser, path);
+        } catch (IOException e) {
+            LOG.debug("Could not resolve the path in the data. It is considered missing.");
+            return null;
+        }
+    }
+
+    private Object resolveFromData(String[] path) {
+        Object current = getData();
+        for (int i = 1; i < path.length; i++) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<?, ?>) current).get(path[i]);
+        }
+        return current;
+    }
+
+    private static Object findValue(JsonParser parser, String[] path) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        return findValue(parser, path, 1);
+    }
+
+    /**
+     * Reads the object the parser is on until its end, as the full conversion does: a key that appears more than once
+     * resolves to its last value and a malformed content anywhere in the data fails the whole lookup.
+     */
+    private static Object findValue(JsonParser parser, String[] path, int depth) throws IOException {
+        Object value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean matches = path[depth].equals(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            if (!matches) {
+                parser.skipChildren();
+            } else if (depth == path.length - 1) {
+                value = readValue(parser, token);
+            } else if (token == JsonToken.START_OBJECT) {
+                value = findValue(parser, path, depth + 1);
+            } else {
+                parser.skipChildren();
+                value = null;
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unexpected end of the data");
+        }
+        return value;
+    }
+
+    private static Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                return MAPPER.readValue(parser, Object.class);
+        }
+    }
+
+    private boolean hasJsonData() {
+        if (event.getData() == null) {
+            return false;
+        }
+        String contentType = event.getDataContentType();
+        return contentType == null || contentType.startsWith("application/json");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toMap() {
+        if (fullMap == null) {
+            Map<String, Object> map = CloudEventUtils.getMapper().convertValue(event, Map.class);
+            if (map.containsKey(CloudEventUtils.CE_DATA_FIELD_NAME)) {
+                map.replace(CloudEventUtils.CE_DATA_FIELD_NAME, data != UNRESOLVED ? data : parseData(map.get(CloudEventUtils.CE_DATA_FIELD_NAME)));
+            }
+            fullMap = map;
+        }
+        return fullMap;
+    }
+
+    private static Object parseData(Object rawData) {
+        // The CloudEventDeserializer from the cloud-event sdk decodes the data as a String. If it's a json, we have to convert it.
+        try {
+            return MAPPER.readValue(rawData.toString(), Map.class);
+        } catch (Exception e) {
+            LOG.debug("Could not deserialize the data into a Map. It is kept as String.");
+            return rawData;
+        }
+    }
+}
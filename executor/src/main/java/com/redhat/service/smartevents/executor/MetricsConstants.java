@@ -11,4 +11,19 @@ public class MetricsConstants {
     public static final String FILTER_PROCESSING_TIME_METRIC_NAME = "executor.filter.evaluation";
     public static final String ACTION_PROCESSING_TIME_METRIC_NAME = "executor.action.evaluation";
     public static final String TRANSFORMATION_PROCESSING_TIME_METRIC_NAME = "executor.transformation.evaluation";
+    public static final String BATCH_SIZE_METRIC_NAME = "executor.batch.size";
+    public static final String BATCH_PROCESSING_TIME_METRIC_NAME = "executor.batch.processing.evaluation";
+    public static final String RECORDS_IN_METRIC_NAME = "executor.records.in";
+    public static final String RECORDS_MATCHED_METRIC_NAME = "executor.records.matched";
+    public static final String RECORDS_DELIVERED_METRIC_NAME = "executor.records.delivered";
+    public static final String EVENT_LATENCY_METRIC_NAME = "executor.event.latency";
+    public static final String CONSUMER_LAG_METRIC_NAME = "executor.consumer.lag";
+    public static final String TOPIC_TAG = "topic";
+    public static final String PARTITION_TAG = "partition";
+    public static final String REBALANCES_METRIC_NAME = "executor.consumer.rebalances";
+    public static final String REBALANCE_TIME_METRIC_NAME = "executor.consumer.rebalance.time";
+    public static final String REBALANCE_PARTITIONS_REVOKED_METRIC_NAME = "executor.consumer.rebalance.partitions.revoked";
+    public static final String REBALANCE_PARTITIONS_LOST_METRIC_NAME = "executor.consumer.rebalance.partitions.lost";
+    public static final String BLOCKING_IN_FLIGHT_METRIC_NAME = "executor.blocking.in-flight";
+    public static final String BLOCKING_QUEUED_METRIC_NAME = "executor.blocking.queued";
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.redhat.service.smartevents.executor;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Publishes the outcome of the reloads of the {@link ProcessorDefinitionWatcher} in the readiness of the executor: the
+ * hash of the definitions the hosted processors run with and, when the last definitions could not be reloaded, their hash
+ * and the reason. The check stays up on a rejected reload, as the processors keep delivering with their current
+ * definitions.
+ */
+@Readiness
+@ApplicationScoped
+public class ProcessorDefinitionReadinessCheck implements HealthCheck {
+
+    static final String NAME = "processor-definitions";
+    static final String LOADED_DEFINITIONS_HASH = "loaded-definitions-hash";
+    static final String REJECTED_DEFINITIONS_HASH = "rejected-definitions-hash";
+    static final String REJECTION_REASON = "rejection-reason";
+
+    @Inject
+    ProcessorDefinitionWatcher watcher;
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder builder = HealthCheckResponse.named(NAME).up();
+        if (watcher.getLoadedDefinitionsHash() != null) {
+            builder.withData(LOADED_DEFINITIONS_HASH, watcher.getLoadedDefinitionsHash());
+        }
+        if (watcher.getRejectedDefinitionsHash() != null) {
+            builder.withData(REJECTED_DEFINITIONS_HASH, watcher.getRejectedDefinitionsHash());
+            builder.withData(REJECTION_REASON, String.valueOf(watcher.getRejectionReason()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.redhat.service.smartevents.executor;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Reloads the definitions of the hosted processors when <code>event-bridge.processor.definition-file</code> changes, e.g.
+ * when the shard operator updates the Secret mounted by the executor, without restarting the consumer.
+ * <p>
+ * The filters, the transformation and the action of every processor are replaced between two events, see
+ * {@link Executor#reload(ProcessorDTO)}. The processors of the new definitions must be the hosted ones: a definition that
+ * cannot be read, that adds, removes or moves a processor, or that changes the Kafka cluster of a kafka_topic action is
+ * logged and ignored, as it requires a new deployment.
+ * <p>
+ * When more than one processor is hosted, the {@link com.redhat.service.smartevents.executor.filters.FilterIndex} is
+ * rebuilt after the processors: an event dispatched in the meantime can still be selected with the previous filters.
+ * <p>
+ * The outcome of the reloads is published by {@link ProcessorDefinitionReadinessCheck}: the hash of the definitions the
+ * processors run with, and the hash of the last definitions that could not be reloaded with the reason.
+ */
+@ApplicationScoped
+public class ProcessorDefinitionWatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessorDefinitionWatcher.class);
+
+    @Inject
+    ExecutorFactory executorFactory;
+
+    @Inject
+    ExecutorService executorService;
+
+    @Inject
+    List<Executor> executors;
+
+    // the content of the file when it was last read, to reload the definitions only when it changes
+    private String definitions;
+
+    // the hash of the definitions the hosted processors run with
+    private volatile String loadedDefinitionsHash;
+    // the hash of the last definitions that could not be reloaded, or that some processors could not be reloaded with
+    private volatile String rejectedDefinitionsHash;
+    private volatile String rejectionReason;
+
+    @Scheduled(every = "{event-bridge.processor.definition-reload-interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refresh() {
+        if (!executorFactory.isProcessorDefinitionFileEnabled()) {
+            return;
+        }
+        if (definitions == null) {
+            definitions = executorFactory.getProcessorDefinitionFileContent();
+            loadedDefinitionsHash = hash(definitions);
+        }
+        String content;
+        try {
+            content = executorFactory.readProcessorDefinitionFile();
+        } catch (IOException e) {
+            // the file is replaced by the kubelet when the Secret changes, it is read again on the next refresh
+            LOG.debug("Failed to read the processor definition file", e);
+            return;
+        }
+        if (content.equals(definitions)) {
+            return;
+        }
+        definitions = content;
+        reload(content);
+    }
+
+    void reload(String content) {
+        List<ProcessorDTO> processors;
+        try {
+            processors = executorFactory.parseProcessorDefinitions(content);
+            ExecutorFactory.validateReloadedProcessors(getHostedProcessors(), processors);
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Failed to reload the processor definitions, the hosted processors keep their current definitions", e);
+            reject(content, e.getMessage());
+            return;
+        }
+        List<String> failures = new ArrayList<>();
+        for (int i = 0; i < executors.size(); i++) {
+            try {
+                executors.get(i).reload(processors.get(i));
+            } catch (RuntimeException e) {
+                // e.g. a filter or a template that can't be compiled: the other processors are reloaded anyway
+                LOG.error("Failed to reload the definition of processor '{}', it keeps its current definition", processors.get(i).getId(), e);
+                failures.add(String.format("Processor '%s' keeps its current definition: %s", processors.get(i).getId(), e.getMessage()));
+            }
+        }
+        if (executors.size() > 1) {
+            executorService.reloadFilterIndex(executorFactory.buildFilterIndex(getHostedProcessors()));
+        }
+        if (failures.isEmpty()) {
+            loadedDefinitionsHash = hash(content);
+            rejectedDefinitionsHash = null;
+            rejectionReason = null;
+        } else {
+            reject(content, String.join("; ", failures));
+        }
+    }
+
+    String getLoadedDefinitionsHash() {
+        return loadedDefinitionsHash;
+    }
+
+    String getRejectedDefinitionsHash() {
+        return rejectedDefinitionsHash;
+    }
+
+    String getRejectionReason() {
+        return rejectionReason;
+    }
+
+    private void reject(String content, String reason) {
+        rejectedDefinitionsHash = hash(content);
+        rejectionReason = reason;
+    }
+
+    private List<ProcessorDTO> getHostedProcessors() {
+        return executors.stream().map(Executor::getProcessor).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the SHA-256 of the content of the definition file, in hex
+     */
+    static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
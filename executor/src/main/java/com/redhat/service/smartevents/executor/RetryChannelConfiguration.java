@@ -0,0 +1,65 @@
+package com.redhat.service.smartevents.executor;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.smallrye.common.annotation.Identifier;
+
+/**
+ * The configuration added to the one of the consumers of the tiers of the {@link RetryLadder}, see the
+ * <code>kafka-configuration</code> attribute of the retry channels.
+ * <p>
+ * A record of a tier is acked only once it is due and has been delivered, while the throttled commit strategy marks the
+ * channel as unhealthy when a record is not acked within <code>throttled.unprocessed-record-max-age.ms</code>, 60 seconds
+ * by default. The max age of every tier is its delay plus the one of the bridge topic, see
+ * {@link ExecutorService#getUnprocessedRecordMaxAge(Duration, Duration)}.
+ */
+@ApplicationScoped
+public class RetryChannelConfiguration {
+
+    public static final String TIER_1_KAFKA_CONFIGURATION = "executor-retry-1-kafka-configuration";
+    public static final String TIER_2_KAFKA_CONFIGURATION = "executor-retry-2-kafka-configuration";
+    public static final String TIER_3_KAFKA_CONFIGURATION = "executor-retry-3-kafka-configuration";
+
+    @ConfigProperty(name = "event-bridge.executor.retry.1.delay")
+    Duration tier1Delay;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.2.delay")
+    Duration tier2Delay;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.3.delay")
+    Duration tier3Delay;
+
+    @ConfigProperty(name = "event-bridge.executor.delivery-timeout")
+    Duration deliveryTimeout;
+
+    @Produces
+    @ApplicationScoped
+    @Identifier(TIER_1_KAFKA_CONFIGURATION)
+    Map<String, Object> tier1KafkaConfiguration() {
+        return getKafkaConfiguration(tier1Delay, deliveryTimeout);
+    }
+
+    @Produces
+    @ApplicationScoped
+    @Identifier(TIER_2_KAFKA_CONFIGURATION)
+    Map<String, Object> tier2KafkaConfiguration() {
+        return getKafkaConfiguration(tier2Delay, deliveryTimeout);
+    }
+
+    @Produces
+    @ApplicationScoped
+    @Identifier(TIER_3_KAFKA_CONFIGURATION)
+    Map<String, Object> tier3KafkaConfiguration() {
+        return getKafkaConfiguration(tier3Delay, deliveryTimeout);
+    }
+
+    static Map<String, Object> getKafkaConfiguration(Duration delay, Duration deliveryTimeout) {
+        return Map.of(ExecutorService.UNPROCESSED_RECORD_MAX_AGE, ExecutorService.getUnprocessedRecordMaxAge(delay, deliveryTimeout));
+    }
+}
@@ -0,0 +1,151 @@
+package com.redhat.service.smartevents.executor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+
+/**
+ * Retries the events whose delivery failed off the hot path. A failed record is written to the topic of the first tier,
+ * that is consumed by the executor on its own channel: every record is delivered again once the delay of its tier has
+ * elapsed. If it fails again it moves to the next tier, and from the last tier it goes to the dead letter queue.
+ * <p>
+ * The delay of a tier is the same for all its records, so they become due in the order of the topic: the consumer of the
+ * tier waits for the first record to be due, and the connector pauses the partitions meanwhile. The topics of the tiers
+ * are shared by the processors of a bridge, the processor that has to retry a record is in its
+ * <code>rhose-processor-id</code> header.
+ */
+public class RetryLadder {
+
+    public static final String RETRY_OUT_CHANNEL = "events-retry-out";
+    public static final int MAX_TIERS = 3;
+
+    static final String RETRY_TIER_HEADER = "rhose-retry-tier";
+    static final String RETRY_DUE_HEADER = "rhose-retry-due";
+
+    private final List<Tier> tiers;
+    private final Emitter<byte[]> emitter;
+
+    /**
+     * @param tiers the tiers in the order they are used, at most {@link #MAX_TIERS}
+     */
+    public RetryLadder(List<Tier> tiers, Emitter<byte[]> emitter) {
+        if (tiers.size() > MAX_TIERS) {
+            throw new IllegalArgumentException("At most " + MAX_TIERS + " retry tiers are supported.");
+        }
+        this.tiers = List.copyOf(tiers);
+        this.emitter = emitter;
+    }
+
+    /**
+     * @return the channel that consumes the topic of the tier, counting from 1
+     */
+    public static String getChannel(int tier) {
+        return "events-retry-" + tier;
+    }
+
+    /**
+     * @param tier the tier that failed to deliver the record, 0 for the topic of the bridge
+     */
+    boolean hasTierAfter(int tier) {
+        return tier < tiers.size();
+    }
+
+    /**
+     * Writes the record to the topic of the tier, with the given headers and the time when it is due.
+     *
+     * @return completes when the broker has acknowledged the record
+     */
+    CompletionStage<Void> forward(KafkaRecord<?, byte[]> record, Headers headers, int tier) {
+        Tier target = tiers.get(tier - 1);
+        RecordHeaders retryHeaders = new RecordHeaders(headers.toArray());
+        retryHeaders.remove(RETRY_TIER_HEADER);
+        retryHeaders.remove(RETRY_DUE_HEADER);
+        retryHeaders.add(RETRY_TIER_HEADER, String.valueOf(tier).getBytes(StandardCharsets.UTF_8));
+        retryHeaders.add(RETRY_DUE_HEADER, String.valueOf(System.currentTimeMillis() + target.getDelay().toMillis()).getBytes(StandardCharsets.UTF_8));
+
+        // the timestamp of the original record is kept, so that the latency of the event includes its retries
+        OutgoingKafkaRecordMetadata<String> metadata = OutgoingKafkaRecordMetadata.<String> builder()
+                .withTopic(target.getTopic())
+                .withKey(record.getKey() == null ? null : record.getKey().toString())
+                .withTimestamp(record.getTimestamp() == null || record.getTimestamp().toEpochMilli() < 0 ? null : record.getTimestamp())
+                .withHeaders(retryHeaders)
+                .build();
+
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        emitter.send(Message.of(record.getPayload(), Metadata.of(metadata),
+                () -> {
+                    sent.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                },
+                failure -> {
+                    sent.completeExceptionally(failure);
+                    return CompletableFuture.completedFuture(null);
+                }));
+        return sent;
+    }
+
+    /**
+     * @param dueTime the time when the record is due, in epoch milliseconds, see {@link #getDueTime(Headers)}
+     * @return completes when the record is due
+     */
+    static Uni<Void> awaitDue(long dueTime) {
+        long remaining = dueTime - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.createFrom().voidItem().onItem().delayIt().by(Duration.ofMillis(remaining));
+    }
+
+    /**
+     * @return the time when the record is due, in epoch milliseconds, or 0 if the record has no due time
+     */
+    static long getDueTime(Headers headers) {
+        Header due = headers == null ? null : headers.lastHeader(RETRY_DUE_HEADER);
+        if (due == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(due.value(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static void removeRetryHeaders(Headers headers) {
+        headers.remove(RETRY_TIER_HEADER);
+        headers.remove(RETRY_DUE_HEADER);
+    }
+
+    public static class Tier {
+
+        private final String topic;
+        private final Duration delay;
+
+        public Tier(String topic, Duration delay) {
+            this.topic = Objects.requireNonNull(topic);
+            this.delay = Objects.requireNonNull(delay);
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public Duration getDelay() {
+            return delay;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.redhat.service.smartevents.executor.filters;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompiledExpression;
+import org.kie.dmn.feel.lang.CompilerContext;
+
+/**
+ * Bounded LRU cache of compiled FEEL expressions keyed by the template text, so that identical filters share
+ * the same compiled form and the FEEL parser runs only once per template.
+ */
+class FEELExpressionCache {
+
+    private final FEEL feel;
+    private final CompilerContext compilerContext;
+    private final Map<String, CompiledExpression> expressions;
+
+    FEELExpressionCache(FEEL feel, int maxSize) {
+        this.feel = feel;
+        this.compilerContext = feel.newCompilerContext();
+        this.expressions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledExpression> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    FEEL getFeel() {
+        return feel;
+    }
+
+    synchronized CompiledExpression get(String template) {
+        return expressions.computeIfAbsent(template, t -> feel.compile(t, compilerContext));
+    }
+
+    synchronized int size() {
+        return expressions.size();
+    }
+}
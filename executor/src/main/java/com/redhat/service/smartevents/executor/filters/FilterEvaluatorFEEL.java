@@ -1,24 +1,26 @@
 package com.redhat.service.smartevents.executor.filters;
 
+import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
 
 import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompiledExpression;
 
 public class FilterEvaluatorFEEL implements FilterEvaluator {
-    private static final FEEL feel = FEEL.newInstance();
 
-    private final Set<String> templates;
+    private final FEEL feel;
+    private final Collection<CompiledExpression> expressions;
 
-    public FilterEvaluatorFEEL(Set<String> templates) {
-        this.templates = templates;
+    public FilterEvaluatorFEEL(FEEL feel, Collection<CompiledExpression> expressions) {
+        this.feel = feel;
+        this.expressions = expressions;
     }
 
     @Override
     public boolean evaluateFilters(Map<String, Object> data) {
-        if (templates != null) {
-            for (String template : templates) {
-                Object result = feel.evaluate(template, data);
+        if (expressions != null) {
+            for (CompiledExpression expression : expressions) {
+                Object result = feel.evaluate(expression, data);
                 if (!result.equals(FilterEvaluatorFactoryFEEL.IS_VALID)) {
                     return false;
                 }
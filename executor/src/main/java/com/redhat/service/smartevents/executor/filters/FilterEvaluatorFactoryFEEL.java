@@ -5,6 +5,9 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompiledExpression;
+
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
@@ -21,10 +24,27 @@ public class FilterEvaluatorFactoryFEEL implements FilterEvaluatorFactory {
     public static final String IS_INVALID = "NOT_OK";
     private static final String TEMPLATE = "if %s then \"" + IS_VALID + "\" else \"" + IS_INVALID + "\"";
 
+    public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 1000;
+
+    // Shared by all the factories, so that identical filters of different processors are compiled only once
+    private static final FEELExpressionCache EXPRESSION_CACHE = new FEELExpressionCache(FEEL.newInstance(), DEFAULT_EXPRESSION_CACHE_SIZE);
+
+    private final FEELExpressionCache expressionCache;
+
+    public FilterEvaluatorFactoryFEEL() {
+        this(EXPRESSION_CACHE);
+    }
+
+    FilterEvaluatorFactoryFEEL(FEELExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
+    }
+
     @Override
     public FilterEvaluator build(Set<BaseFilter> filters) {
-        Set<String> templates = filters == null ? null : filters.stream().map(this::getTemplateByFilterType).collect(Collectors.toSet());
-        return new FilterEvaluatorFEEL(templates);
+        List<CompiledExpression> expressions = filters == null
+                ? null
+                : filters.stream().map(this::getTemplateByFilterType).distinct().map(expressionCache::get).collect(Collectors.toList());
+        return new FilterEvaluatorFEEL(expressionCache.getFeel(), expressions);
     }
 
     protected String getTemplateByFilterType(BaseFilter filter) {
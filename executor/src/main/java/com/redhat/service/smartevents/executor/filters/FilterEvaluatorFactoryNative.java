@@ -0,0 +1,166 @@
+package com.redhat.service.smartevents.executor.filters;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.NumberIn;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringBeginsWith;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringContains;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringIn;
+
+/**
+ * Compiles the filters of a processor into plain Java predicates once, so that no expression has to be parsed or
+ * interpreted when an event is evaluated. The semantic is the same of {@link FilterEvaluatorFactoryFEEL}: filters
+ * whose key cannot be safely resolved as a plain path (e.g. it contains FEEL operators or keywords) are delegated to FEEL.
+ */
+public class FilterEvaluatorFactoryNative implements FilterEvaluatorFactory {
+
+    public static final String NAME = "native";
+
+    private static final Pattern PATH_SEGMENT = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private static final Set<String> FEEL_KEYWORDS = Set.of(
+            "and", "between", "else", "every", "external", "false", "for", "function", "if", "in", "instance",
+            "not", "null", "of", "or", "return", "satisfies", "some", "then", "true");
+
+    private final FilterEvaluatorFactoryFEEL fallbackFactory;
+
+    public FilterEvaluatorFactoryNative() {
+        this(new FilterEvaluatorFactoryFEEL());
+    }
+
+    public FilterEvaluatorFactoryNative(FilterEvaluatorFactoryFEEL fallbackFactory) {
+        this.fallbackFactory = fallbackFactory;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public FilterEvaluator build(Set<BaseFilter> filters) {
+        if (filters == null) {
+            return new FilterEvaluatorNative(null);
+        }
+
+        List<Predicate<Map<String, Object>>> predicates = new ArrayList<>();
+        Set<BaseFilter> fallbackFilters = new HashSet<>();
+        for (BaseFilter filter : filters) {
+            String[] path = toPath(filter.getKey());
+            if (path == null) {
+                fallbackFilters.add(filter);
+            } else {
+                predicates.add(compile(filter, path));
+            }
+        }
+        if (!fallbackFilters.isEmpty()) {
+            FilterEvaluator fallback = fallbackFactory.build(fallbackFilters);
+            predicates.add(fallback::evaluateFilters);
+        }
+        return new FilterEvaluatorNative(predicates.toArray(new Predicate[0]));
+    }
+
+    private Predicate<Map<String, Object>> compile(BaseFilter filter, String[] path) {
+        switch (filter.getType()) {
+            case StringEquals.FILTER_TYPE_NAME:
+                String expected = String.valueOf(filter.getValue());
+                return data -> {
+                    Object value = resolve(data, path);
+                    return value instanceof String && expected.equals(value);
+                };
+            case StringContains.FILTER_TYPE_NAME:
+                String[] contained = toStringArray(((StringContains) filter).getValue());
+                return data -> {
+                    Object value = resolve(data, path);
+                    if (value instanceof String) {
+                        for (String candidate : contained) {
+                            if (((String) value).contains(candidate)) {
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+                };
+            case StringBeginsWith.FILTER_TYPE_NAME:
+                String[] prefixes = toStringArray(((StringBeginsWith) filter).getValue());
+                return data -> {
+                    Object value = resolve(data, path);
+                    if (value instanceof String) {
+                        for (String prefix : prefixes) {
+                            if (((String) value).startsWith(prefix)) {
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+                };
+            case StringIn.FILTER_TYPE_NAME:
+                Set<String> values = new HashSet<>(((StringIn) filter).getValue());
+                return data -> {
+                    Object value = resolve(data, path);
+                    return value instanceof String && values.contains(value);
+                };
+            case NumberIn.FILTER_TYPE_NAME:
+                double[] numbers = toDoubleArray(((NumberIn) filter).getValue());
+                return data -> {
+                    Object value = resolve(data, path);
+                    if (value instanceof Number) {
+                        double number = ((Number) value).doubleValue();
+                        for (double candidate : numbers) {
+                            if (candidate == number) {
+                                return true;
+                            }
+                        }
+                    }
+                    return false;
+                };
+            default:
+                throw new IllegalArgumentException("Filter type " + filter.getType() + " is not supported by FilterEvaluatorFactoryNative.");
+        }
+    }
+
+    /**
+     * Navigates the event map following the given path, in the same way FEEL resolves a qualified name.
+     */
+    static Object resolve(Map<String, Object> data, String[] path) {
+        if (data instanceof PathResolvable) {
+            return ((PathResolvable) data).resolve(path);
+        }
+        Object current = data;
+        for (String segment : path) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<?, ?>) current).get(segment);
+        }
+        return current;
+    }
+
+    /**
+     * @return the segments of the key, or null if the key is not a plain dot separated path.
+     */
+    static String[] toPath(String key) {
+        if (key == null) {
+            return null;
+        }
+        String[] segments = key.split("\\.", -1);
+        for (String segment : segments) {
+            if (!PATH_SEGMENT.matcher(segment).matches() || FEEL_KEYWORDS.contains(segment)) {
+                return null;
+            }
+        }
+        return segments;
+    }
+
+    private static String[] toStringArray(List<String> values) {
+        return values == null ? new String[0] : values.toArray(new String[0]);
+    }
+
+    private static double[] toDoubleArray(List<Double> values) {
+        return values == null ? new double[0] : values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
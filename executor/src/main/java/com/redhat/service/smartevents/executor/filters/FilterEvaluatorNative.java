@@ -0,0 +1,29 @@
+package com.redhat.service.smartevents.executor.filters;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * {@link FilterEvaluator} backed by a set of pre-compiled Java predicates.
+ * All the predicates must match for the filters to be considered as matching.
+ */
+public class FilterEvaluatorNative implements FilterEvaluator {
+
+    private final Predicate<Map<String, Object>>[] predicates;
+
+    public FilterEvaluatorNative(Predicate<Map<String, Object>>[] predicates) {
+        this.predicates = predicates;
+    }
+
+    @Override
+    public boolean evaluateFilters(Map<String, Object> data) {
+        if (predicates != null) {
+            for (Predicate<Map<String, Object>> predicate : predicates) {
+                if (!predicate.test(data)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,204 @@
+package com.redhat.service.smartevents.executor.filters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.NumberIn;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringBeginsWith;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringIn;
+
+/**
+ * Finds the processors, out of many subscribed to the same bridge, whose filters match an event without evaluating
+ * the filters of every processor.
+ * <p>
+ * The filters of a processor must all match, so one of them is enough to discard the processor. For every processor a
+ * filter on one of the {@link #INDEXED_KEYS} is picked as its anchor: <code>StringEquals</code>, <code>StringIn</code>
+ * and <code>NumberIn</code> anchors are indexed by value in a hash map, <code>StringBeginsWith</code> anchors in a
+ * prefix trie. An event is looked up once per indexed key and only the remaining filters of the processors found
+ * there are evaluated. Processors without an indexable filter are evaluated as usual.
+ */
+public class FilterIndex {
+
+    public static final List<String> INDEXED_KEYS = List.of("type", "source", "subject");
+
+    private final Map<String, KeyIndex> keyIndexes = new LinkedHashMap<>();
+    private final Map<String, FilterEvaluator> residualEvaluators = new HashMap<>();
+    private final Map<String, FilterEvaluator> unindexedEvaluators = new LinkedHashMap<>();
+
+    /**
+     * @param filtersByProcessorId the filters of every processor, keyed by the id of the processor
+     * @param filterEvaluatorFactory builds the evaluators of the filters that are not indexed
+     */
+    public FilterIndex(Map<String, Set<BaseFilter>> filtersByProcessorId, FilterEvaluatorFactory filterEvaluatorFactory) {
+        for (Map.Entry<String, Set<BaseFilter>> entry : filtersByProcessorId.entrySet()) {
+            String processorId = entry.getKey();
+            Set<BaseFilter> filters = entry.getValue();
+            BaseFilter anchor = findAnchor(filters);
+            if (anchor == null) {
+                unindexedEvaluators.put(processorId, filterEvaluatorFactory.build(filters));
+                continue;
+            }
+            keyIndexes.computeIfAbsent(anchor.getKey(), KeyIndex::new).add(anchor, processorId);
+            Set<BaseFilter> residualFilters = new HashSet<>();
+            for (BaseFilter filter : filters) {
+                if (filter != anchor) {
+                    residualFilters.add(filter);
+                }
+            }
+            residualEvaluators.put(processorId, filterEvaluatorFactory.build(residualFilters));
+        }
+    }
+
+    /**
+     * @return the ids of the processors whose filters match the event
+     */
+    public Set<String> match(Map<String, Object> event) {
+        Set<String> matching = new HashSet<>();
+        for (KeyIndex keyIndex : keyIndexes.values()) {
+            Object value = FilterEvaluatorFactoryNative.resolve(event, keyIndex.path);
+            for (String processorId : keyIndex.lookup(value)) {
+                if (!matching.contains(processorId) && residualEvaluators.get(processorId).evaluateFilters(event)) {
+                    matching.add(processorId);
+                }
+            }
+        }
+        for (Map.Entry<String, FilterEvaluator> entry : unindexedEvaluators.entrySet()) {
+            if (entry.getValue().evaluateFilters(event)) {
+                matching.add(entry.getKey());
+            }
+        }
+        return matching;
+    }
+
+    int getIndexedSize() {
+        return residualEvaluators.size();
+    }
+
+    /**
+     * Filters on values are preferred to prefixes, as a hash lookup selects fewer processors than a trie walk.
+     */
+    private static BaseFilter findAnchor(Set<BaseFilter> filters) {
+        if (filters == null) {
+            return null;
+        }
+        BaseFilter anchor = null;
+        for (String key : INDEXED_KEYS) {
+            for (BaseFilter filter : filters) {
+                if (!key.equals(filter.getKey())) {
+                    continue;
+                }
+                if (isValueFilter(filter)) {
+                    return filter;
+                }
+                if (anchor == null && StringBeginsWith.FILTER_TYPE_NAME.equals(filter.getType())) {
+                    anchor = filter;
+                }
+            }
+        }
+        return anchor;
+    }
+
+    private static boolean isValueFilter(BaseFilter filter) {
+        return StringEquals.FILTER_TYPE_NAME.equals(filter.getType())
+                || StringIn.FILTER_TYPE_NAME.equals(filter.getType())
+                || NumberIn.FILTER_TYPE_NAME.equals(filter.getType());
+    }
+
+    /**
+     * @return the key of a number in the index: <code>-0.0</code> and <code>0.0</code> are the same number for the filters
+     */
+    private static Double toIndexKey(Number number) {
+        return number.doubleValue() + 0.0;
+    }
+
+    private static class KeyIndex {
+
+        private final String[] path;
+        private final Map<Object, List<String>> byValue = new HashMap<>();
+        private final PrefixNode prefixes = new PrefixNode();
+
+        private KeyIndex(String key) {
+            this.path = FilterEvaluatorFactoryNative.toPath(key);
+        }
+
+        private void add(BaseFilter filter, String processorId) {
+            switch (filter.getType()) {
+                case StringEquals.FILTER_TYPE_NAME:
+                    addValue(String.valueOf(filter.getValue()), processorId);
+                    break;
+                case StringIn.FILTER_TYPE_NAME:
+                    List<String> values = ((StringIn) filter).getValue();
+                    if (values != null) {
+                        values.forEach(value -> addValue(value, processorId));
+                    }
+                    break;
+                case NumberIn.FILTER_TYPE_NAME:
+                    List<Double> numbers = ((NumberIn) filter).getValue();
+                    if (numbers != null) {
+                        // NaN is not equal to any number, so it can never match
+                        numbers.stream().filter(number -> !number.isNaN()).forEach(number -> addValue(toIndexKey(number), processorId));
+                    }
+                    break;
+                case StringBeginsWith.FILTER_TYPE_NAME:
+                    List<String> beginnings = ((StringBeginsWith) filter).getValue();
+                    if (beginnings != null) {
+                        beginnings.forEach(prefix -> prefixes.add(prefix, processorId));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Filter type " + filter.getType() + " can't be indexed.");
+            }
+        }
+
+        private void addValue(Object value, String processorId) {
+            byValue.computeIfAbsent(value, v -> new ArrayList<>()).add(processorId);
+        }
+
+        private List<String> lookup(Object value) {
+            if (value instanceof String) {
+                List<String> candidates = new ArrayList<>(byValue.getOrDefault(value, List.of()));
+                prefixes.collect((String) value, candidates);
+                return candidates;
+            }
+            if (value instanceof Number) {
+                return byValue.getOrDefault(toIndexKey((Number) value), List.of());
+            }
+            return List.of();
+        }
+    }
+
+    private static class PrefixNode {
+
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+        private final List<String> processorIds = new ArrayList<>();
+
+        private void add(String prefix, String processorId) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new PrefixNode());
+            }
+            node.processorIds.add(processorId);
+        }
+
+        /**
+         * Adds the processors of all the prefixes of the value, walking the trie along its characters.
+         */
+        private void collect(String value, List<String> candidates) {
+            PrefixNode node = this;
+            candidates.addAll(node.processorIds);
+            for (int i = 0; i < value.length() && node != null; i++) {
+                node = node.children.get(value.charAt(i));
+                if (node != null) {
+                    candidates.addAll(node.processorIds);
+                }
+            }
+        }
+    }
+}
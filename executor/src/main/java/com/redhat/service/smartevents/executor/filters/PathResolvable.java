@@ -0,0 +1,10 @@
+package com.redhat.service.smartevents.executor.filters;
+
+/**
+ * Implemented by event representations that can resolve a dot separated key (e.g. <code>data.user.id</code>)
+ * without building the whole event map.
+ */
+public interface PathResolvable {
+
+    Object resolve(String[] path);
+}
@@ -18,6 +18,14 @@ class CloudEventExtensionTest {
         assertThat(CloudEventExtension.adjustExtensionName(input)).isEqualTo(expected);
     }
 
+    @Test
+    void validNamesAreNotCopied() {
+        String name = "camelawss3bucketname";
+        assertThat(CloudEventExtension.adjustExtensionName(name)).isSameAs(name);
+        assertThat(CloudEventExtension.adjustExtensionName("CamelAwsS3BucketName")).isEqualTo(name);
+        assertThat(CloudEventExtension.adjustExtensionName("CamelAwsS3BucketName")).isSameAs(CloudEventExtension.adjustExtensionName("CamelAwsS3BucketName"));
+    }
+
     @Test
     void nonValidNullInput() {
         assertThatThrownBy(() -> CloudEventExtension.adjustExtensionName(null))
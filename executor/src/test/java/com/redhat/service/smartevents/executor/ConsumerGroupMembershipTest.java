@@ -0,0 +1,85 @@
+package com.redhat.service.smartevents.executor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.MemberToRemove;
+import org.apache.kafka.clients.admin.RemoveMembersFromConsumerGroupOptions;
+import org.apache.kafka.clients.admin.RemoveMembersFromConsumerGroupResult;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.KafkaFuture;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsumerGroupMembershipTest {
+
+    @Test
+    void testDynamicMembership() {
+        ConsumerGroupMembership membership = membership(Optional.of(""));
+
+        assertThat(membership.isStatic()).isFalse();
+        assertThat(membership.kafkaConfiguration()).doesNotContainKey(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+    }
+
+    @Test
+    void testStaticMembership() {
+        ConsumerGroupMembership membership = membership(Optional.of("executor-pod-1"));
+
+        assertThat(membership.isStatic()).isTrue();
+        assertThat(membership.kafkaConfiguration()).containsEntry(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, "executor-pod-1");
+    }
+
+    @Test
+    void testUnprocessedRecordMaxAgeIsAboveTheDeliveryTimeout() {
+        ConsumerGroupMembership membership = membership(Optional.empty());
+
+        // the records are settled at most 30 seconds after the end of their delivery
+        assertThat(membership.kafkaConfiguration()).containsEntry(ExecutorService.UNPROCESSED_RECORD_MAX_AGE, 180_000);
+    }
+
+    @Test
+    void testStaticMemberLeavesTheGroup() {
+        ConsumerGroupMembership membership = membership(Optional.of("executor-pod-1"));
+        RemoveMembersFromConsumerGroupResult result = mock(RemoveMembersFromConsumerGroupResult.class);
+        when(result.all()).thenReturn(KafkaFuture.completedFuture(null));
+        Admin admin = mock(Admin.class);
+        when(admin.removeMembersFromConsumerGroup(any(), any())).thenReturn(result);
+
+        membership.leaveGroup(admin);
+
+        ArgumentCaptor<RemoveMembersFromConsumerGroupOptions> options = ArgumentCaptor.forClass(RemoveMembersFromConsumerGroupOptions.class);
+        verify(admin).removeMembersFromConsumerGroup(eq("myGroup"), options.capture());
+        assertThat(options.getValue().members()).containsExactly(new MemberToRemove("executor-pod-1"));
+    }
+
+    @Test
+    void testFailureToLeaveTheGroupIsIgnored() {
+        ConsumerGroupMembership membership = membership(Optional.of("executor-pod-1"));
+        RemoveMembersFromConsumerGroupResult result = mock(RemoveMembersFromConsumerGroupResult.class);
+        KafkaFuture<Void> failure = KafkaFuture.completedFuture(null).thenApply(ignored -> {
+            throw new IllegalStateException("unknown member");
+        });
+        when(result.all()).thenReturn(failure);
+        Admin admin = mock(Admin.class);
+        when(admin.removeMembersFromConsumerGroup(any(), any())).thenReturn(result);
+
+        assertThatNoException().isThrownBy(() -> membership.leaveGroup(admin));
+    }
+
+    private static ConsumerGroupMembership membership(Optional<String> groupInstanceId) {
+        ConsumerGroupMembership membership = new ConsumerGroupMembership();
+        membership.groupInstanceId = groupInstanceId;
+        membership.groupId = "myGroup";
+        membership.deliveryTimeout = Duration.ofSeconds(150);
+        return membership;
+    }
+}
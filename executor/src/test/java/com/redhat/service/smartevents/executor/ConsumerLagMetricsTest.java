@@ -0,0 +1,65 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithResolvedAction;
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithSameAction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConsumerLagMetricsTest {
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition("events", 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition("events", 1);
+
+    @Test
+    void testLagIsPublishedForEveryHostedProcessorAndPartition() {
+        ProcessorDTO otherProcessor = createSinkProcessorWithResolvedAction();
+        otherProcessor.setId("processorId-2");
+        ConsumerLagMetrics lagMetrics = new ConsumerLagMetrics();
+        lagMetrics.executors = List.of(executor(createSinkProcessorWithSameAction()), executor(otherProcessor));
+        lagMetrics.meterRegistry = new SimpleMeterRegistry();
+
+        lagMetrics.update(Map.of(PARTITION_0, OptionalLong.of(42), PARTITION_1, OptionalLong.empty()));
+
+        assertThat(lag(lagMetrics.meterRegistry, "processorId-1", PARTITION_0)).isEqualTo(42);
+        assertThat(lag(lagMetrics.meterRegistry, "processorId-2", PARTITION_0)).isEqualTo(42);
+        // the lag of the partition is not known yet
+        assertThat(lagMetrics.meterRegistry.find(MetricsConstants.CONSUMER_LAG_METRIC_NAME).tag(MetricsConstants.PARTITION_TAG, "1").gauge()).isNull();
+
+        lagMetrics.update(Map.of(PARTITION_0, OptionalLong.of(7), PARTITION_1, OptionalLong.of(3)));
+        assertThat(lag(lagMetrics.meterRegistry, "processorId-1", PARTITION_0)).isEqualTo(7);
+        assertThat(lag(lagMetrics.meterRegistry, "processorId-1", PARTITION_1)).isEqualTo(3);
+
+        // the gauges of a revoked partition are removed
+        lagMetrics.update(Map.of(PARTITION_1, OptionalLong.of(0)));
+        assertThat(lagMetrics.meterRegistry.find(MetricsConstants.CONSUMER_LAG_METRIC_NAME).tag(MetricsConstants.PARTITION_TAG, "0").gauge()).isNull();
+        assertThat(lag(lagMetrics.meterRegistry, "processorId-2", PARTITION_1)).isZero();
+    }
+
+    private static Executor executor(ProcessorDTO processor) {
+        Executor executor = mock(Executor.class);
+        when(executor.getProcessor()).thenReturn(processor);
+        return executor;
+    }
+
+    private static double lag(MeterRegistry registry, String processorId, TopicPartition partition) {
+        return registry.get(MetricsConstants.CONSUMER_LAG_METRIC_NAME)
+                .tag(MetricsConstants.PROCESSOR_ID_TAG, processorId)
+                .tag(MetricsConstants.TOPIC_TAG, partition.topic())
+                .tag(MetricsConstants.PARTITION_TAG, String.valueOf(partition.partition()))
+                .gauge()
+                .value();
+    }
+}
@@ -0,0 +1,89 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithResolvedAction;
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithSameAction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConsumerRebalanceMetricsTest {
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition("events", 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition("events", 1);
+
+    private final Consumer<?, ?> consumer = mock(Consumer.class);
+
+    private ConsumerRebalanceMetrics rebalanceMetrics;
+
+    @BeforeEach
+    void setup() {
+        ProcessorDTO otherProcessor = createSinkProcessorWithResolvedAction();
+        otherProcessor.setId("processorId-2");
+        rebalanceMetrics = new ConsumerRebalanceMetrics();
+        rebalanceMetrics.executors = List.of(executor(createSinkProcessorWithSameAction()), executor(otherProcessor));
+        rebalanceMetrics.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRebalancesArePublishedForEveryHostedProcessor() {
+        rebalanceMetrics.onPartitionsAssigned(consumer, List.of(PARTITION_0, PARTITION_1));
+        // a member joins the group: the consumer keeps its partitions while the group rebalances
+        rebalanceMetrics.onPartitionsAssigned(consumer, List.of());
+
+        assertThat(rebalances(rebalanceMetrics.meterRegistry, "processorId-1")).isEqualTo(2);
+        assertThat(rebalances(rebalanceMetrics.meterRegistry, "processorId-2")).isEqualTo(2);
+        assertThat(rebalanceMetrics.meterRegistry.find(MetricsConstants.REBALANCE_TIME_METRIC_NAME).timer()).isNull();
+        assertThat(rebalanceMetrics.meterRegistry.find(MetricsConstants.REBALANCE_PARTITIONS_REVOKED_METRIC_NAME).counter()).isNull();
+    }
+
+    @Test
+    void testRebalanceIsTimedFromTheRevocation() {
+        // with the eager protocol the callback is invoked without partitions when the consumer has none
+        rebalanceMetrics.onPartitionsRevoked(consumer, List.of());
+        rebalanceMetrics.onPartitionsAssigned(consumer, List.of(PARTITION_0, PARTITION_1));
+        assertThat(rebalanceMetrics.meterRegistry.find(MetricsConstants.REBALANCE_TIME_METRIC_NAME).timer()).isNull();
+
+        rebalanceMetrics.onPartitionsRevoked(consumer, List.of(PARTITION_1));
+        rebalanceMetrics.onPartitionsAssigned(consumer, List.of());
+
+        Timer rebalanceTime = rebalanceMetrics.meterRegistry.get(MetricsConstants.REBALANCE_TIME_METRIC_NAME)
+                .tag(MetricsConstants.PROCESSOR_ID_TAG, "processorId-1")
+                .timer();
+        assertThat(rebalanceTime.count()).isEqualTo(1);
+        assertThat(partitions(rebalanceMetrics.meterRegistry, MetricsConstants.REBALANCE_PARTITIONS_REVOKED_METRIC_NAME, "processorId-2")).isEqualTo(1);
+
+        rebalanceMetrics.onPartitionsLost(consumer, List.of(PARTITION_0));
+        rebalanceMetrics.onPartitionsAssigned(consumer, List.of(PARTITION_0, PARTITION_1));
+
+        assertThat(rebalanceTime.count()).isEqualTo(2);
+        assertThat(partitions(rebalanceMetrics.meterRegistry, MetricsConstants.REBALANCE_PARTITIONS_LOST_METRIC_NAME, "processorId-1")).isEqualTo(1);
+        assertThat(rebalances(rebalanceMetrics.meterRegistry, "processorId-1")).isEqualTo(3);
+    }
+
+    private static Executor executor(ProcessorDTO processor) {
+        Executor executor = mock(Executor.class);
+        when(executor.getProcessor()).thenReturn(processor);
+        return executor;
+    }
+
+    private static double rebalances(MeterRegistry registry, String processorId) {
+        return registry.get(MetricsConstants.REBALANCES_METRIC_NAME).tag(MetricsConstants.PROCESSOR_ID_TAG, processorId).counter().count();
+    }
+
+    private static double partitions(MeterRegistry registry, String metricName, String processorId) {
+        return registry.get(metricName).tag(MetricsConstants.PROCESSOR_ID_TAG, processorId).counter().count();
+    }
+}
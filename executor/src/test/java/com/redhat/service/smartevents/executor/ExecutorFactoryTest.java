@@ -0,0 +1,162 @@
+package com.redhat.service.smartevents.executor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+import com.redhat.service.smartevents.processor.actions.kafkatopic.KafkaTopicAction;
+
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithResolvedAction;
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithSameAction;
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSourceProcessor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutorFactoryTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void testSingleProcessorDefinition() throws Exception {
+        ExecutorFactory factory = new ExecutorFactory();
+        factory.objectMapper = MAPPER;
+        factory.processorDefinition = MAPPER.writeValueAsString(createSourceProcessor());
+        factory.processorDefinitionFile = Optional.empty();
+
+        List<ProcessorDTO> processors = factory.readProcessorDefinitions();
+
+        assertThat(processors).hasSize(1);
+        assertThat(processors.get(0).getType()).isEqualTo(createSourceProcessor().getType());
+    }
+
+    @Test
+    void testProcessorDefinitionAcceptsAListOfProcessors() throws Exception {
+        ProcessorDTO first = createSinkProcessorWithSameAction();
+        ProcessorDTO second = createSinkProcessorWithResolvedAction();
+        second.setId("processorId-2");
+
+        ExecutorFactory factory = new ExecutorFactory();
+        factory.objectMapper = MAPPER;
+        factory.processorDefinition = MAPPER.writeValueAsString(List.of(first, second));
+        factory.processorDefinitionFile = Optional.empty();
+
+        List<ProcessorDTO> processors = factory.readProcessorDefinitions();
+
+        assertThat(processors).extracting(ProcessorDTO::getId).containsExactly("processorId-1", "processorId-2");
+    }
+
+    @Test
+    void testProcessorDefinitionFileReplacesTheOthers(@TempDir Path directory) throws Exception {
+        ProcessorDTO second = createSinkProcessorWithResolvedAction();
+        second.setId("processorId-2");
+        Path file = directory.resolve("processor-definition.json");
+        String definitions = MAPPER.writeValueAsString(List.of(createSinkProcessorWithSameAction(), second));
+        Files.writeString(file, definitions);
+
+        ExecutorFactory factory = new ExecutorFactory();
+        factory.objectMapper = MAPPER;
+        factory.processorDefinition = MAPPER.writeValueAsString(createSourceProcessor());
+        factory.processorDefinitionFile = Optional.of(file.toString());
+
+        assertThat(factory.readProcessorDefinitions()).extracting(ProcessorDTO::getId).containsExactly("processorId-1", "processorId-2");
+        assertThat(factory.getProcessorDefinitionFileContent()).isEqualTo(definitions);
+
+        // a single definition is accepted as well
+        Files.writeString(file, MAPPER.writeValueAsString(createSourceProcessor()));
+        assertThat(factory.readProcessorDefinitions()).extracting(ProcessorDTO::getType).containsExactly(createSourceProcessor().getType());
+    }
+
+    @Test
+    void testReloadedProcessors() {
+        ProcessorDTO second = createSinkProcessorWithResolvedAction();
+        second.setId("processorId-2");
+        ProcessorDTO reloaded = createSinkProcessorWithSameAction();
+        reloaded.getDefinition().setTransformationTemplate("{\"reloaded\": true}");
+        ProcessorDTO otherBridge = createSinkProcessorWithSameAction();
+        otherBridge.setBridgeId("bridgeId-2");
+
+        assertThatNoException().isThrownBy(() -> ExecutorFactory.validateReloadedProcessors(List.of(createSinkProcessorWithSameAction()), List.of(reloaded)));
+        // the hosted processors can't be added, removed or moved to another bridge without a new deployment
+        assertThatThrownBy(() -> ExecutorFactory.validateReloadedProcessors(List.of(createSinkProcessorWithSameAction()), List.of(reloaded, second)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ExecutorFactory.validateReloadedProcessors(List.of(createSinkProcessorWithSameAction()), List.of(second)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ExecutorFactory.validateReloadedProcessors(List.of(createSinkProcessorWithSameAction()), List.of(otherBridge)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testReloadedProcessorsKeepTheirKafkaCluster() {
+        ProcessorDTO ownBroker = createSinkProcessorWithSameAction();
+        ownBroker.getDefinition().getResolvedAction().setMapParameters(Map.of(
+                KafkaTopicAction.BROKER_URL, "external:9092",
+                KafkaTopicAction.CLIENT_ID, "client",
+                KafkaTopicAction.CLIENT_SECRET, "secret",
+                KafkaTopicAction.SECURITY_PROTOCOL, "SASL_SSL"));
+        ProcessorDTO rotatedSecret = createSinkProcessorWithSameAction();
+        rotatedSecret.getDefinition().getResolvedAction().setMapParameters(Map.of(
+                KafkaTopicAction.BROKER_URL, "external:9092",
+                KafkaTopicAction.CLIENT_ID, "client",
+                KafkaTopicAction.CLIENT_SECRET, "rotated",
+                KafkaTopicAction.SECURITY_PROTOCOL, "SASL_SSL"));
+
+        // the actions producer is configured once
+        assertThatThrownBy(() -> ExecutorFactory.validateReloadedProcessors(List.of(createSinkProcessorWithSameAction()), List.of(ownBroker)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ExecutorFactory.validateReloadedProcessors(List.of(ownBroker), List.of(rotatedSecret)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatNoException().isThrownBy(() -> ExecutorFactory.validateReloadedProcessors(List.of(ownBroker), List.of(ownBroker)));
+    }
+
+    @Test
+    void testSinkProcessorsOfTheSameBridgeCanShareTheExecutor() {
+        ProcessorDTO second = createSinkProcessorWithResolvedAction();
+        second.setId("processorId-2");
+
+        assertThatNoException().isThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(createSinkProcessorWithSameAction(), second)));
+        assertThatNoException().isThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(createSourceProcessor())));
+    }
+
+    @Test
+    void testInvalidHostedProcessors() {
+        ProcessorDTO otherBridge = createSinkProcessorWithResolvedAction();
+        otherBridge.setBridgeId("bridgeId-2");
+
+        assertThatThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(createSinkProcessorWithSameAction(), createSourceProcessor())))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(createSinkProcessorWithSameAction(), otherBridge)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(createSinkProcessorWithSameAction(), createSinkProcessorWithResolvedAction())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testHostedKafkaTopicActionsWriteToTheSameCluster() {
+        ProcessorDTO ownBroker = createSinkProcessorWithSameAction();
+        ownBroker.setId("processorId-2");
+        ownBroker.getDefinition().getResolvedAction().setMapParameters(Map.of(
+                KafkaTopicAction.BROKER_URL, "external:9092",
+                KafkaTopicAction.CLIENT_ID, "client",
+                KafkaTopicAction.CLIENT_SECRET, "secret",
+                KafkaTopicAction.SECURITY_PROTOCOL, "SASL_SSL"));
+        ProcessorDTO webhook = createSinkProcessorWithResolvedAction();
+        webhook.setId("processorId-3");
+
+        // the actions producer is configured from the first processor
+        assertThatThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(createSinkProcessorWithSameAction(), ownBroker)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(webhook, ownBroker)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatNoException().isThrownBy(() -> ExecutorFactory.validateHostedProcessors(List.of(ownBroker, webhook)));
+    }
+}
@@ -1,9 +1,14 @@
 package com.redhat.service.smartevents.executor;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -26,7 +31,11 @@ import com.redhat.service.smartevents.processor.actions.webhook.WebhookAction;
 
 import io.cloudevents.CloudEvent;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.helpers.test.UniAssertSubscriber;
+import io.smallrye.mutiny.subscription.UniEmitter;
 
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createCloudEvent;
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithResolvedAction;
@@ -34,6 +43,7 @@ import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSi
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSourceProcessor;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.AdditionalMatchers.or;
 import static org.mockito.ArgumentMatchers.any;
@@ -51,12 +61,13 @@ class ExecutorImplTest {
     private MeterRegistry meterRegistry;
     private ActionRuntime actionRuntime;
     private ActionInvoker actionInvokerMock;
+    private ActionInvokerBuilder actionInvokerBuilder;
 
     @BeforeEach
     void setup() {
         actionInvokerMock = mock(ActionInvoker.class);
 
-        ActionInvokerBuilder actionInvokerBuilder = mock(ActionInvokerBuilder.class);
+        actionInvokerBuilder = mock(ActionInvokerBuilder.class);
         when(actionInvokerBuilder.build(any(), any())).thenReturn(actionInvokerMock);
 
         actionRuntime = mock(ActionRuntime.class);
@@ -125,6 +136,161 @@ class ExecutorImplTest {
         assertThatNoException().isThrownBy(() -> CloudEventUtils.decode(invokedEvent));
     }
 
+    @ParameterizedTest
+    @MethodSource("executorImplTestArgs")
+    void testProcessorAsyncCompletesWithTheDelivery(ProcessorDTO processorDTO) {
+        processorDTO.getDefinition().setFilters(Collections.singleton(new StringEquals("data.key", "value")));
+        ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+        RuntimeException error = new RuntimeException("delivery failed");
+        when(actionInvokerMock.onEventAsync(any(), any())).thenReturn(Uni.createFrom().failure(error));
+
+        assertThatThrownBy(() -> executor.onEventAsync(createCloudEvent(), Collections.emptyMap(), System.currentTimeMillis()).await().indefinitely()).isSameAs(error);
+        executor.onEventAsync(createCloudEvent("{\"key\":\"notTheValue\"}"), Collections.emptyMap(), System.currentTimeMillis()).await().indefinitely();
+
+        verify(actionInvokerMock).onEventAsync(any(), any());
+        assertThat(meterRegistry.find(MetricsConstants.ACTION_PROCESSING_TIME_METRIC_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME).timer().count()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @MethodSource("executorImplTestArgs")
+    void testProcessorAsyncRecordsTheLatencyOfTheDeliveredEvents(ProcessorDTO processorDTO) {
+        processorDTO.getDefinition().setFilters(Collections.singleton(new StringEquals("data.key", "value")));
+        ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+        when(actionInvokerMock.onEventAsync(any(), any())).thenReturn(Uni.createFrom().voidItem());
+
+        executor.onEventAsync(createCloudEvent(), Collections.emptyMap(), System.currentTimeMillis() - 1000).await().indefinitely();
+        executor.onEventAsync(createCloudEvent("{\"key\":\"notTheValue\"}"), Collections.emptyMap(), System.currentTimeMillis()).await().indefinitely();
+
+        assertThat(meterRegistry.find(MetricsConstants.RECORDS_IN_METRIC_NAME).counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.find(MetricsConstants.RECORDS_MATCHED_METRIC_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(MetricsConstants.RECORDS_DELIVERED_METRIC_NAME).counter().count()).isEqualTo(1);
+        Timer latency = meterRegistry.find(MetricsConstants.EVENT_LATENCY_METRIC_NAME)
+                .tag(MetricsConstants.PROCESSOR_ID_TAG, processorDTO.getId())
+                .timer();
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(1000);
+    }
+
+    @ParameterizedTest
+    @MethodSource("executorImplTestArgs")
+    void testPreSelectedEventsAreNotFilteredAgain(ProcessorDTO processorDTO) {
+        processorDTO.getDefinition().setFilters(Collections.singleton(new StringEquals("data.key", "notTheValue")));
+        ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+        when(actionInvokerMock.onEventAsync(any(), any())).thenReturn(Uni.createFrom().voidItem());
+
+        executor.recordReceived();
+        executor.recordFilterTime(TimeUnit.MILLISECONDS.toNanos(2));
+        executor.onEventAsync(createCloudEvent(), Collections.emptyMap(), 0L, true).await().indefinitely();
+
+        verify(actionInvokerMock).onEventAsync(any(), any());
+        assertThat(meterRegistry.find(MetricsConstants.RECORDS_IN_METRIC_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(MetricsConstants.RECORDS_MATCHED_METRIC_NAME).counter().count()).isEqualTo(1);
+        // only the time of the filter index is recorded
+        Timer filterTimer = meterRegistry.find(MetricsConstants.FILTER_PROCESSING_TIME_METRIC_NAME).timer();
+        assertThat(filterTimer.count()).isEqualTo(1);
+        assertThat(filterTimer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @MethodSource("executorImplTestArgs")
+    @SuppressWarnings("unchecked")
+    void testProcessorWithBatchOnlyInvokesMatchingEvents(ProcessorDTO processorDTO) {
+        processorDTO.getDefinition().setFilters(Collections.singleton(new StringEquals("data.key", "value")));
+        ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+
+        when(actionInvokerMock.onEvents(any(), any())).thenReturn(Uni.createFrom().item(Map.of()));
+
+        CloudEvent matching = createCloudEvent();
+        CloudEvent notMatching = createCloudEvent("{\"key\":\"notTheValue\"}");
+        Map<Integer, Exception> failures = executor.onEvents(List.of(matching, notMatching, matching),
+                List.of(Map.of("h", "0"), Map.of("h", "1"), Map.of("h", "2")), List.of(0L, 0L, 0L)).await().indefinitely();
+
+        assertThat(failures).isEmpty();
+        ArgumentCaptor<List<String>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Map<String, String>>> headersCaptor = ArgumentCaptor.forClass(List.class);
+        verify(actionInvokerMock).onEvents(eventsCaptor.capture(), headersCaptor.capture());
+        assertThat(eventsCaptor.getValue()).hasSize(2);
+        assertThat(headersCaptor.getValue()).containsExactly(Map.of("h", "0"), Map.of("h", "2"));
+        assertThat(meterRegistry.find(MetricsConstants.BATCH_SIZE_METRIC_NAME).summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.find(MetricsConstants.BATCH_PROCESSING_TIME_METRIC_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("executorImplTestArgs")
+    void testProcessorWithBatchReportsFailedActionForAllInvokedEvents(ProcessorDTO processorDTO) {
+        processorDTO.getDefinition().setFilters(Collections.singleton(new StringEquals("data.key", "value")));
+        ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+        RuntimeException error = new RuntimeException("action failed");
+        when(actionInvokerMock.onEvents(any(), any())).thenReturn(Uni.createFrom().failure(error));
+
+        Map<Integer, Exception> failures = executor.onEvents(List.of(createCloudEvent(), createCloudEvent("{\"key\":\"notTheValue\"}"), createCloudEvent()),
+                List.of(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()), List.of(0L, 0L, 0L)).await().indefinitely();
+
+        assertThat(failures).containsOnlyKeys(0, 2).containsValue(error);
+    }
+
+    @ParameterizedTest
+    @MethodSource("executorImplTestArgs")
+    void testProcessorWithBatchCompletesWithTheDelivery(ProcessorDTO processorDTO) {
+        ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+        AtomicReference<UniEmitter<? super Map<Integer, Throwable>>> pendingDelivery = new AtomicReference<>();
+        when(actionInvokerMock.onEvents(any(), any())).thenReturn(Uni.createFrom().<Map<Integer, Throwable>> emitter(pendingDelivery::set));
+
+        UniAssertSubscriber<Map<Integer, Exception>> result = executor.onEvents(List.of(createCloudEvent(), createCloudEvent()),
+                List.of(Collections.emptyMap(), Collections.emptyMap()), List.of(0L, 0L)).subscribe().withSubscriber(UniAssertSubscriber.create());
+
+        result.assertNotTerminated();
+        RuntimeException error = new RuntimeException("refused");
+        pendingDelivery.get().complete(Map.of(1, error));
+        assertThat(result.assertCompleted().getItem()).containsExactly(Map.entry(1, error));
+    }
+
+    @Test
+    void testReloadReplacesTheDefinitionBetweenEvents() {
+        ProcessorDTO processorDTO = createSinkProcessorWithSameAction();
+        processorDTO.getDefinition().setFilters(Collections.singleton(new StringEquals("data.key", "value")));
+        processorDTO.getDefinition().setTransformationTemplate("{\"test\": \"{data.key}\"}");
+        ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+        AtomicReference<UniEmitter<? super Void>> pendingDelivery = new AtomicReference<>();
+        when(actionInvokerMock.onEventAsync(any(), any())).thenReturn(Uni.createFrom().<Void> emitter(pendingDelivery::set));
+        ActionInvoker reloadedInvokerMock = mock(ActionInvoker.class);
+        when(reloadedInvokerMock.onEventAsync(any(), any())).thenReturn(Uni.createFrom().voidItem());
+        when(actionInvokerBuilder.build(any(), any())).thenReturn(reloadedInvokerMock);
+
+        // the delivery started with the previous definition is still in flight when the definition is reloaded
+        UniAssertSubscriber<Void> inFlight = executor.onEventAsync(createCloudEvent(), Collections.emptyMap(), 0L).subscribe().withSubscriber(UniAssertSubscriber.create());
+        ProcessorDTO reloaded = createSinkProcessorWithSameAction();
+        reloaded.getDefinition().setFilters(Collections.singleton(new StringEquals("data.key", "notTheValue")));
+        reloaded.getDefinition().setTransformationTemplate("{\"reloaded\": \"{data.key}\"}");
+        executor.reload(reloaded);
+
+        executor.onEventAsync(createCloudEvent(), Collections.emptyMap(), 0L).await().indefinitely();
+        executor.onEventAsync(createCloudEvent("{\"key\":\"notTheValue\"}"), Collections.emptyMap(), 0L).await().indefinitely();
+
+        assertThat(executor.getProcessor().getDefinition().getTransformationTemplate()).isEqualTo(reloaded.getDefinition().getTransformationTemplate());
+        verify(actionInvokerMock).onEventAsync(eq("{\"test\": \"value\"}"), any());
+        verify(reloadedInvokerMock).onEventAsync(eq("{\"reloaded\": \"notTheValue\"}"), any());
+        // the previous action is closed once its last delivery completes
+        verify(actionInvokerMock, never()).close();
+        pendingDelivery.get().complete(null);
+        inFlight.assertCompleted();
+        verify(actionInvokerMock).close();
+        verify(reloadedInvokerMock, never()).close();
+    }
+
+    @Test
+    void testReloadWithTheDefinitionOfAnotherProcessor() {
+        ExecutorImpl executor = new ExecutorImpl(createSinkProcessorWithSameAction(), filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
+        ProcessorDTO otherProcessor = createSinkProcessorWithSameAction();
+        otherProcessor.setId("processorId-2");
+
+        assertThatThrownBy(() -> executor.reload(otherProcessor)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> executor.reload(createSourceProcessor())).isInstanceOf(IllegalArgumentException.class);
+        assertThat(executor.getProcessor().getId()).isEqualTo("processorId-1");
+        verify(actionInvokerMock, never()).close();
+    }
+
     private String doTestWithInvoke(ProcessorDTO processorDTO, CloudEvent inputEvent) {
         ExecutorImpl executor = new ExecutorImpl(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionRuntime, meterRegistry);
         executor.onEvent(inputEvent, Collections.emptyMap());
@@ -2,12 +2,28 @@ package com.redhat.service.smartevents.executor;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -15,24 +31,45 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.verification.VerificationMode;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryNative;
+import com.redhat.service.smartevents.executor.filters.FilterIndex;
 import com.redhat.service.smartevents.infra.core.exceptions.BridgeErrorService;
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.ExternalUserException;
+import com.redhat.service.smartevents.infra.core.utils.CloudEventUtils;
 import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
 
 import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
 import io.smallrye.reactive.messaging.kafka.IncomingKafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecordBatch;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.CLOUD_EVENT_SOURCE;
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.CLOUD_EVENT_TYPE;
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.PLAIN_EVENT_JSON;
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createCloudEvent;
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createCloudEventHeaders;
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithResolvedAction;
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithSameAction;
 import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSourceProcessor;
+import static com.redhat.service.smartevents.infra.core.api.APIConstants.RHOSE_PROCESSOR_ID_HEADER;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,17 +90,21 @@ class ExecutorServiceTest {
             boolean ack) {
         Executor executorMock = mock(Executor.class);
         when(executorMock.getProcessor()).thenReturn(processor);
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().voidItem());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
 
         BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
         when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
 
         ExecutorService executorService = new ExecutorService();
-        executorService.executor = executorMock;
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
         executorService.mapper = new ObjectMapper();
         executorService.bridgeErrorService = bridgeErrorServiceMock;
+        executorService.inFlightLimiter = new InFlightLimiter(1);
 
-        IncomingKafkaRecord<Integer, String> inputMessage = mock(IncomingKafkaRecord.class);
-        when(inputMessage.getPayload()).thenReturn(inputEvent);
+        IncomingKafkaRecord<Integer, byte[]> inputMessage = mock(IncomingKafkaRecord.class);
+        when(inputMessage.getPayload()).thenReturn(inputEvent == null ? null : inputEvent.getBytes(StandardCharsets.UTF_8));
         RecordHeaders recordHeaders = new RecordHeaders();
         if (headers != null) {
             for (Map.Entry<String, String> h : headers.entrySet()) {
@@ -76,7 +117,7 @@ class ExecutorServiceTest {
         ArgumentCaptor<CloudEvent> argumentCaptor = ArgumentCaptor.forClass(CloudEvent.class);
 
         assertThatNoException().isThrownBy(() -> executorService.processEvent(inputMessage));
-        verify(executorMock, wantedNumberOfOnEventInvocations).onEvent(argumentCaptor.capture(), any());
+        verify(executorMock, wantedNumberOfOnEventInvocations).onEventAsync(argumentCaptor.capture(), any(), anyLong(), anyBoolean());
         verify(inputMessage, times(ack ? 1 : 0)).ack();
         verify(inputMessage, times(ack ? 0 : 1)).nack(any(), any());
 
@@ -87,6 +128,615 @@ class ExecutorServiceTest {
         }
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordIsAckedOrNackedOnDeliveryResult() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        RuntimeException deliveryError = new RuntimeException("delivery failed");
+        CompletableFuture<Void> pendingDelivery = new CompletableFuture<>();
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean()))
+                .thenReturn(Uni.createFrom().completionStage(pendingDelivery))
+                .thenReturn(Uni.createFrom().failure(deliveryError));
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.bridgeErrorService = bridgeErrorServiceMock;
+        executorService.inFlightLimiter = new InFlightLimiter(1);
+
+        IncomingKafkaRecord<Integer, byte[]> first = mockIncomingRecord();
+        IncomingKafkaRecord<Integer, byte[]> second = mockIncomingRecord();
+
+        // the first record is delivered in the background, the record is not acked until the delivery completes
+        assertThat(executorService.processEvent(first).toCompletableFuture()).isCompleted();
+        verify(first, never()).ack();
+        assertThat(executorService.inFlightLimiter.getInFlight()).isEqualTo(1);
+
+        // the second record has to wait for a free slot
+        CompletionStage<Void> secondProcessing = executorService.processEvent(second);
+        assertThat(secondProcessing.toCompletableFuture()).isNotDone();
+
+        pendingDelivery.complete(null);
+        verify(first).ack();
+        assertThat(secondProcessing.toCompletableFuture()).isCompleted();
+        verify(second, never()).ack();
+        verify(second).nack(eq(deliveryError), any());
+        assertThat(executorService.inFlightLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testDeliveryWaitsForTheActionToBeReady() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().voidItem());
+        CompletableFuture<Void> actionReady = new CompletableFuture<>();
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().completionStage(actionReady));
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.inFlightLimiter = new InFlightLimiter(1);
+
+        IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+        assertThat(executorService.processEvent(record).toCompletableFuture()).isCompleted();
+        verify(executorMock, never()).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(record, never()).ack();
+
+        // the waiting delivery holds the only slot
+        CompletionStage<Void> nextProcessing = executorService.processEvent(mockIncomingRecord());
+        assertThat(nextProcessing.toCompletableFuture()).isNotDone();
+
+        actionReady.complete(null);
+        verify(record).ack();
+        assertThat(nextProcessing.toCompletableFuture()).isCompleted();
+        verify(executorMock, times(2)).onEventAsync(any(), any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void testProcessorNotReadyDoesNotDelayTheOthers() {
+        ProcessorDTO readyProcessor = createSinkProcessorWithResolvedAction();
+        readyProcessor.setId("processorId-2");
+
+        CompletableFuture<Void> actionReady = new CompletableFuture<>();
+        Executor notReadyExecutor = mock(Executor.class);
+        when(notReadyExecutor.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(notReadyExecutor.awaitActionReady()).thenReturn(Uni.createFrom().completionStage(actionReady));
+        when(notReadyExecutor.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().voidItem());
+        Executor readyExecutor = mock(Executor.class);
+        when(readyExecutor.getProcessor()).thenReturn(readyProcessor);
+        when(readyExecutor.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        when(readyExecutor.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().voidItem());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(notReadyExecutor, readyExecutor);
+        executorService.filterIndex = filterIndex(createSinkProcessorWithSameAction(), readyProcessor);
+        executorService.mapper = new ObjectMapper();
+        executorService.inFlightLimiter = new InFlightLimiter(10);
+
+        IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+        assertThat(executorService.processEvent(record).toCompletableFuture()).isCompleted();
+        verify(readyExecutor).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(notReadyExecutor, never()).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(record, never()).ack();
+
+        actionReady.complete(null);
+        verify(notReadyExecutor).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(record).ack();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEventIsDeliveredToAllTheHostedProcessors() {
+        ProcessorDTO failingProcessor = createSinkProcessorWithResolvedAction();
+        failingProcessor.setId("processorId-2");
+
+        Executor deliveringExecutor = mock(Executor.class);
+        when(deliveringExecutor.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(deliveringExecutor.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        when(deliveringExecutor.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().voidItem());
+        Executor failingExecutor = mock(Executor.class);
+        when(failingExecutor.getProcessor()).thenReturn(failingProcessor);
+        when(failingExecutor.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        RuntimeException deliveryError = new RuntimeException("delivery failed");
+        when(failingExecutor.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenThrow(deliveryError);
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(failingExecutor, deliveringExecutor);
+        executorService.filterIndex = filterIndex(failingProcessor, createSinkProcessorWithSameAction());
+        executorService.mapper = new ObjectMapper();
+        executorService.bridgeErrorService = bridgeErrorServiceMock;
+        executorService.inFlightLimiter = new InFlightLimiter(1);
+
+        IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+        assertThat(executorService.processEvent(record).toCompletableFuture()).isCompleted();
+
+        ArgumentCaptor<Map<String, String>> headersCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(deliveringExecutor).onEventAsync(any(), headersCaptor.capture(), anyLong(), anyBoolean());
+        assertThat(headersCaptor.getValue()).containsEntry(RHOSE_PROCESSOR_ID_HEADER, "processorId-1");
+        verify(failingExecutor).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(record, never()).ack();
+        verify(record).nack(eq(deliveryError), any());
+        assertThat(executorService.inFlightLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testEventIsDeliveredOnlyToTheMatchingProcessors() {
+        ProcessorDTO notMatchingProcessor = createSinkProcessorWithResolvedAction();
+        notMatchingProcessor.setId("processorId-2");
+        notMatchingProcessor.getDefinition().setFilters(Set.of(new StringEquals("type", "AnotherType")));
+
+        Executor matchingExecutor = mock(Executor.class);
+        when(matchingExecutor.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(matchingExecutor.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        when(matchingExecutor.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().voidItem());
+        Executor notMatchingExecutor = mock(Executor.class);
+        when(notMatchingExecutor.getProcessor()).thenReturn(notMatchingProcessor);
+        when(notMatchingExecutor.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(matchingExecutor, notMatchingExecutor);
+        executorService.filterIndex = filterIndex(createSinkProcessorWithSameAction(), notMatchingProcessor);
+        executorService.mapper = new ObjectMapper();
+        executorService.inFlightLimiter = new InFlightLimiter(1);
+
+        IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+        assertThat(executorService.processEvent(record).toCompletableFuture()).isCompleted();
+
+        // the filters matched by the index are not evaluated again
+        verify(matchingExecutor).onEventAsync(any(), any(), anyLong(), eq(true));
+        verify(notMatchingExecutor, never()).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        // the event is received by all the processors
+        verify(matchingExecutor).recordReceived();
+        verify(notMatchingExecutor).recordReceived();
+        // and the time of the match is their filter time
+        verify(matchingExecutor).recordFilterTime(anyLong());
+        verify(notMatchingExecutor).recordFilterTime(anyLong());
+        verify(record).ack();
+    }
+
+    @Test
+    void testEventsWithTheSameKeyAreDeliveredInOrder() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        CompletableFuture<Void> firstDelivery = new CompletableFuture<>();
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean()))
+                .thenReturn(Uni.createFrom().completionStage(firstDelivery))
+                .thenReturn(Uni.createFrom().voidItem());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.inFlightLimiter = new InFlightLimiter(3);
+        executorService.ordering = ExecutorService.ORDERING_KEY;
+
+        IncomingKafkaRecord<Integer, byte[]> first = mockIncomingRecord();
+        IncomingKafkaRecord<Integer, byte[]> sameKey = mockIncomingRecord();
+        IncomingKafkaRecord<Integer, byte[]> otherKey = mockIncomingRecord();
+        when(otherKey.getKey()).thenReturn(777);
+
+        assertThat(executorService.processEvent(first).toCompletableFuture()).isCompleted();
+        assertThat(executorService.processEvent(sameKey).toCompletableFuture()).isCompleted();
+        assertThat(executorService.processEvent(otherKey).toCompletableFuture()).isCompleted();
+
+        // the record with the other key is not held back by the pending delivery
+        verify(executorMock, times(2)).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(otherKey).ack();
+        verify(sameKey, never()).ack();
+        assertThat(executorService.inFlightLimiter.getInFlight()).isEqualTo(2);
+
+        firstDelivery.complete(null);
+        verify(executorMock, times(3)).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(first).ack();
+        verify(sameKey).ack();
+        assertThat(executorService.inFlightLimiter.getInFlight()).isZero();
+        assertThat(executorService.keyOrderedDispatcher.getPendingKeys()).isZero();
+    }
+
+    @Test
+    void testEventsWaitingForTheirKeyFailOnTheDeliveryTimeout() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        // the endpoint does not answer while it is down
+        AtomicBoolean endpointDown = new AtomicBoolean();
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean()))
+                .thenAnswer(invocation -> endpointDown.get() ? Uni.createFrom().nothing() : Uni.createFrom().voidItem());
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMillis(300);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.bridgeErrorService = bridgeErrorServiceMock;
+        executorService.inFlightLimiter = new InFlightLimiter(10);
+        executorService.ordering = ExecutorService.ORDERING_KEY;
+
+        IncomingKafkaRecord<Integer, byte[]> slow = mockIncomingRecord();
+        IncomingKafkaRecord<Integer, byte[]> queued = mockIncomingRecord();
+        IncomingKafkaRecord<Integer, byte[]> otherKey = mockIncomingRecord();
+        when(otherKey.getKey()).thenReturn(777);
+
+        endpointDown.set(true);
+        assertThat(executorService.processEvent(slow).toCompletableFuture()).isCompleted();
+        assertThat(executorService.processEvent(queued).toCompletableFuture()).isCompleted();
+        endpointDown.set(false);
+        assertThat(executorService.processEvent(otherKey).toCompletableFuture()).isCompleted();
+        verify(otherKey).ack();
+
+        // The queued event waits for its key at most until its own delivery timeout, that expires right after the one of
+        // the slow event: whether it is still waiting or has just been sent, it fails on it.
+        endpointDown.set(true);
+        verify(slow, timeout(5000)).nack(any(ExternalUserException.class), any());
+        verify(queued, timeout(5000)).nack(any(ExternalUserException.class), any());
+        verify(queued, never()).ack();
+        assertThat(executorService.inFlightLimiter.getInFlight()).isZero();
+        assertThat(executorService.keyOrderedDispatcher.getPendingKeys()).isZero();
+
+        // the next events of the key are delivered again
+        endpointDown.set(false);
+        IncomingKafkaRecord<Integer, byte[]> next = mockIncomingRecord();
+        assertThat(executorService.processEvent(next).toCompletableFuture()).isCompleted();
+        verify(next).ack();
+    }
+
+    @Test
+    void testBlockingDeliveriesRunOnWorkerThreads() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        CompletableFuture<String> deliveryThread = new CompletableFuture<>();
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenAnswer(invocation -> {
+            deliveryThread.complete(Thread.currentThread().getName());
+            return Uni.createFrom().voidItem();
+        });
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.maxInFlight = 1;
+        executorService.blockingEnabled = true;
+        executorService.blockingMaxConcurrency = 2;
+        executorService.meterRegistry = new SimpleMeterRegistry();
+        executorService.singleRecordEnabled = true;
+        executorService.init();
+
+        try {
+            IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+            executorService.processEvent(record);
+
+            assertThat(deliveryThread).succeedsWithin(Duration.ofSeconds(5)).asString().startsWith("executor-blocking-");
+            verify(record, timeout(5000)).ack();
+            assertThat(executorService.meterRegistry.get(MetricsConstants.BLOCKING_IN_FLIGHT_METRIC_NAME).gauge()).isNotNull();
+        } finally {
+            executorService.destroy();
+        }
+    }
+
+    @Test
+    void testIngressTimestampIsTheTimestampOfTheRecord() {
+        IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+        CloudEvent event = CloudEventBuilder.v1()
+                .withId("id")
+                .withSource(URI.create("mySource"))
+                .withType("myType")
+                .withTime(OffsetDateTime.parse("2022-06-01T10:00:00Z"))
+                .build();
+
+        assertThat(ExecutorService.getIngressTimestamp(record, event)).isEqualTo(Instant.parse("2022-06-01T10:00:00Z").toEpochMilli());
+
+        when(record.getTimestamp()).thenReturn(Instant.parse("2022-06-01T10:00:05Z"));
+        assertThat(ExecutorService.getIngressTimestamp(record, event)).isEqualTo(Instant.parse("2022-06-01T10:00:05Z").toEpochMilli());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedEventsMoveThroughTheRetryTiersToTheDeadLetterQueue() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        RuntimeException deliveryError = new RuntimeException("delivery failed");
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().failure(deliveryError));
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        Emitter<byte[]> emitter = mock(Emitter.class);
+        doAnswer(invocation -> {
+            invocation.<Message<byte[]>> getArgument(0).ack();
+            return null;
+        }).when(emitter).send(any(Message.class));
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.bridgeErrorService = bridgeErrorServiceMock;
+        executorService.inFlightLimiter = new InFlightLimiter(1);
+        executorService.retryLadder = new RetryLadder(List.of(new RetryLadder.Tier("events-retry-1", Duration.ZERO)), emitter);
+
+        // the failed event is written to the first tier instead of the dead letter queue
+        IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+        when(record.ack()).thenReturn(CompletableFuture.completedFuture(null));
+        executorService.processEvent(record);
+
+        ArgumentCaptor<Message<byte[]>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(emitter).send(messageCaptor.capture());
+        verify(record).ack();
+        verify(record, never()).nack(any(), any());
+        OutgoingKafkaRecordMetadata<String> metadata = messageCaptor.getValue().getMetadata(OutgoingKafkaRecordMetadata.class).orElseThrow();
+        assertThat(metadata.getTopic()).isEqualTo("events-retry-1");
+        assertThat(new String(metadata.getHeaders().lastHeader(RHOSE_PROCESSOR_ID_HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("processorId-1");
+
+        // it fails again on the last tier and goes to the dead letter queue
+        IncomingKafkaRecord<Integer, byte[]> retried = mockIncomingRecord();
+        when(retried.getHeaders()).thenReturn(new RecordHeaders(metadata.getHeaders().toArray()));
+        when(retried.nack(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        assertThat(executorService.processRetry(retried, 1).toCompletableFuture()).succeedsWithin(Duration.ofSeconds(5));
+
+        verify(executorMock, times(2)).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        verify(retried, never()).ack();
+        verify(retried).nack(eq(deliveryError), any());
+        verify(emitter).send(any(Message.class));
+    }
+
+    @Test
+    void testRetriedEventsOfOtherProcessorsAreSkipped() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+
+        IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+        record.getHeaders().add(RHOSE_PROCESSOR_ID_HEADER, "anotherProcessorId".getBytes(StandardCharsets.UTF_8));
+        when(record.ack()).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(executorService.processRetry(record, 1).toCompletableFuture()).isCompleted();
+        verify(record).ack();
+        verify(executorMock, never()).onEventAsync(any(), any(), anyLong(), anyBoolean());
+    }
+
+    private static FilterIndex filterIndex(ProcessorDTO... processors) {
+        Map<String, Set<BaseFilter>> filters = new HashMap<>();
+        for (ProcessorDTO processor : processors) {
+            filters.put(processor.getId(), processor.getDefinition().getFilters());
+        }
+        return new FilterIndex(filters, new FilterEvaluatorFactoryNative());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IncomingKafkaRecord<Integer, byte[]> mockIncomingRecord() {
+        IncomingKafkaRecord<Integer, byte[]> record = mock(IncomingKafkaRecord.class);
+        when(record.getPayload()).thenReturn(PLAIN_EVENT_JSON.getBytes(StandardCharsets.UTF_8));
+        RecordHeaders recordHeaders = new RecordHeaders();
+        createCloudEventHeaders().forEach((key, value) -> recordHeaders.add(key, value.getBytes(StandardCharsets.UTF_8)));
+        when(record.getHeaders()).thenReturn(recordHeaders);
+        when(record.getKey()).thenReturn(555);
+        return record;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatch() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        RuntimeException actionError = new RuntimeException("action failed");
+        when(executorMock.onEvents(any(), any(), any())).thenReturn(Uni.createFrom().item(Map.of(1, actionError)));
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.bridgeErrorService = bridgeErrorServiceMock;
+
+        KafkaRecord<Integer, byte[]> valid = mockRecord(PLAIN_EVENT_JSON, createCloudEventHeaders());
+        KafkaRecord<Integer, byte[]> broken = mockRecord(BROKEN_JSON, null);
+        KafkaRecord<Integer, byte[]> failing = mockRecord(PLAIN_EVENT_JSON, createCloudEventHeaders());
+        KafkaRecordBatch<Integer, byte[]> batch = mock(KafkaRecordBatch.class);
+        when(batch.getRecords()).thenReturn(List.of(valid, broken, failing));
+        when(batch.ack()).thenReturn(CompletableFuture.completedFuture(null));
+
+        ArgumentCaptor<List<CloudEvent>> argumentCaptor = ArgumentCaptor.forClass(List.class);
+
+        assertThat(executorService.processEvents(batch).toCompletableFuture()).isCompleted();
+        verify(executorMock).onEvents(argumentCaptor.capture(), any(), any());
+        assertThat(argumentCaptor.getValue()).hasSize(2);
+        verify(valid, never()).nack(any(), any());
+        verify(broken).nack(any(), any());
+        verify(failing).nack(eq(actionError), any());
+        verify(batch).ack();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchIsAckedOnceDelivered() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        AtomicReference<UniEmitter<? super Map<Integer, Exception>>> pendingDelivery = new AtomicReference<>();
+        when(executorMock.onEvents(any(), any(), any())).thenReturn(Uni.createFrom().<Map<Integer, Exception>> emitter(pendingDelivery::set));
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMinutes(1);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+
+        KafkaRecord<Integer, byte[]> record = mockRecord(PLAIN_EVENT_JSON, createCloudEventHeaders());
+        KafkaRecordBatch<Integer, byte[]> batch = mock(KafkaRecordBatch.class);
+        when(batch.getRecords()).thenReturn(List.of(record));
+        when(batch.ack()).thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<Void> processed = executorService.processEvents(batch).toCompletableFuture();
+        assertThat(processed).isNotDone();
+        verify(batch, never()).ack();
+
+        pendingDelivery.get().complete(Map.of());
+        assertThat(processed).isCompleted();
+        verify(batch).ack();
+    }
+
+    @Test
+    void testRecordHeldPastTheDeliveryTimeoutIsNacked() {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        // the action never confirms the delivery
+        when(executorMock.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().nothing());
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMillis(200);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.bridgeErrorService = bridgeErrorServiceMock;
+        executorService.inFlightLimiter = new InFlightLimiter(1);
+
+        IncomingKafkaRecord<Integer, byte[]> first = mockIncomingRecord();
+        IncomingKafkaRecord<Integer, byte[]> second = mockIncomingRecord();
+
+        long start = System.nanoTime();
+        assertThat(executorService.processEvent(first).toCompletableFuture()).isCompleted();
+        // the second record waits for the slot held by the first one, its wait counts against its delivery timeout
+        CompletableFuture<Void> secondProcessing = executorService.processEvent(second).toCompletableFuture();
+        assertThat(secondProcessing).isNotDone();
+
+        verify(first, timeout(5000)).nack(any(ExternalUserException.class), any());
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isGreaterThanOrEqualTo(executorService.deliveryTimeout)
+                .isLessThan(Duration.ofMillis(ExecutorService.getUnprocessedRecordMaxAge(Duration.ZERO, executorService.deliveryTimeout)));
+        assertThat(secondProcessing).isCompleted();
+        verify(second, timeout(5000)).nack(any(ExternalUserException.class), any());
+        verify(first, never()).ack();
+        verify(second, never()).ack();
+        assertThat(executorService.inFlightLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testDeliveryPolicyDoesNotHoldTheRecordPastTheDeliveryTimeout() throws InterruptedException {
+        // the circuit breaker of the webhook policy is open for 30 seconds
+        Executor openCircuitExecutor = mock(Executor.class);
+        when(openCircuitExecutor.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(openCircuitExecutor.awaitActionReady()).thenReturn(Uni.createFrom().voidItem().onItem().delayIt().by(Duration.ofSeconds(30)));
+
+        // the webhook policy keeps retrying the deliveries that time out
+        AtomicInteger attempts = new AtomicInteger();
+        Executor retryingExecutor = mock(Executor.class);
+        when(retryingExecutor.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(retryingExecutor.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        when(retryingExecutor.onEventAsync(any(), any(), anyLong(), anyBoolean())).thenReturn(Uni.createFrom().<Void> failure(() -> {
+            attempts.incrementAndGet();
+            return new TimeoutException("request timed out");
+        }).onFailure().retry().withBackOff(Duration.ofMillis(50)).indefinitely());
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        for (Executor executor : List.of(openCircuitExecutor, retryingExecutor)) {
+            ExecutorService executorService = new ExecutorService();
+            executorService.deliveryTimeout = Duration.ofMillis(300);
+            executorService.executors = List.of(executor);
+            executorService.mapper = new ObjectMapper();
+            executorService.bridgeErrorService = bridgeErrorServiceMock;
+            executorService.inFlightLimiter = new InFlightLimiter(1);
+
+            IncomingKafkaRecord<Integer, byte[]> record = mockIncomingRecord();
+            assertThat(executorService.processEvent(record).toCompletableFuture()).isCompleted();
+
+            // settled well before the unprocessed record max age of the channel
+            verify(record, timeout(5000)).nack(any(ExternalUserException.class), any());
+            verify(record, never()).ack();
+            assertThat(executorService.inFlightLimiter.getInFlight()).isZero();
+        }
+        verify(openCircuitExecutor, never()).onEventAsync(any(), any(), anyLong(), anyBoolean());
+        // the retries are cancelled with the delivery
+        int attemptsAtTimeout = attempts.get();
+        assertThat(attemptsAtTimeout).isPositive();
+        Thread.sleep(300);
+        assertThat(attempts).hasValue(attemptsAtTimeout);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchHeldPastTheDeliveryTimeoutIsNacked() throws Exception {
+        Executor executorMock = mock(Executor.class);
+        when(executorMock.getProcessor()).thenReturn(createSinkProcessorWithSameAction());
+        when(executorMock.awaitActionReady()).thenReturn(Uni.createFrom().voidItem());
+        when(executorMock.onEvents(any(), any(), any())).thenReturn(Uni.createFrom().nothing());
+
+        BridgeErrorService bridgeErrorServiceMock = mock(BridgeErrorService.class);
+        when(bridgeErrorServiceMock.getError(any(Exception.class))).thenReturn(Optional.empty());
+
+        ExecutorService executorService = new ExecutorService();
+        executorService.deliveryTimeout = Duration.ofMillis(200);
+        executorService.executors = List.of(executorMock);
+        executorService.mapper = new ObjectMapper();
+        executorService.bridgeErrorService = bridgeErrorServiceMock;
+
+        KafkaRecord<Integer, byte[]> record = mockRecord(PLAIN_EVENT_JSON, createCloudEventHeaders());
+        when(record.nack(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        KafkaRecordBatch<Integer, byte[]> batch = mock(KafkaRecordBatch.class);
+        when(batch.getRecords()).thenReturn(List.of(record));
+        when(batch.ack()).thenReturn(CompletableFuture.completedFuture(null));
+
+        executorService.processEvents(batch).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        verify(record).nack(any(ExternalUserException.class), any());
+        verify(batch).ack();
+    }
+
+    @ParameterizedTest
+    @MethodSource("channelFlags")
+    void testExactlyOneIncomingChannelIsEnabled(boolean singleRecordEnabled, boolean batchEnabled) {
+        ExecutorService executorService = new ExecutorService();
+        executorService.singleRecordEnabled = singleRecordEnabled;
+        executorService.batchEnabled = batchEnabled;
+
+        assertThatThrownBy(executorService::init).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Stream<Arguments> channelFlags() {
+        return Stream.of(Arguments.of(true, true), Arguments.of(false, false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KafkaRecord<Integer, byte[]> mockRecord(String payload, Map<String, String> headers) {
+        KafkaRecord<Integer, byte[]> record = mock(KafkaRecord.class);
+        when(record.getPayload()).thenReturn(payload.getBytes(StandardCharsets.UTF_8));
+        RecordHeaders recordHeaders = new RecordHeaders();
+        if (headers != null) {
+            headers.forEach((key, value) -> recordHeaders.add(key, value.getBytes(StandardCharsets.UTF_8)));
+        }
+        when(record.getHeaders()).thenReturn(recordHeaders);
+        when(record.getKey()).thenReturn(555);
+        when(record.nack(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        return record;
+    }
+
     private static Stream<Arguments> executorServiceTestArgs() {
         Object[][] arguments = {
                 { createSourceProcessor(), BROKEN_JSON, null, never(), null, null, false },
@@ -98,11 +748,17 @@ class ExecutorServiceTest {
                 { createSinkProcessorWithSameAction(), PLAIN_EVENT_JSON, createCloudEventHeaders(), times(1), CLOUD_EVENT_SOURCE, CLOUD_EVENT_TYPE, true },
                 { createSinkProcessorWithResolvedAction(), BROKEN_JSON, null, never(), null, null, false },
                 { createSinkProcessorWithResolvedAction(), PLAIN_EVENT_JSON, null, never(), null, null, false, true },
-                { createSinkProcessorWithResolvedAction(), PLAIN_EVENT_JSON, createCloudEventHeaders(), times(1), CLOUD_EVENT_SOURCE, CLOUD_EVENT_TYPE, true }
+                { createSinkProcessorWithResolvedAction(), PLAIN_EVENT_JSON, createCloudEventHeaders(), times(1), CLOUD_EVENT_SOURCE, CLOUD_EVENT_TYPE, true },
+                { createSinkProcessorWithSameAction(), BROKEN_JSON, createStructuredHeaders(), never(), null, null, false },
+                { createSinkProcessorWithSameAction(), CloudEventUtils.encode(createCloudEvent()), createStructuredHeaders(), times(1), CLOUD_EVENT_SOURCE, CLOUD_EVENT_TYPE, true }
         };
         return Stream.of(arguments).map(Arguments::of);
     }
 
+    private static Map<String, String> createStructuredHeaders() {
+        return Map.of("content-type", "application/cloudevents+json; charset=UTF-8");
+    }
+
     @ParameterizedTest
     @MethodSource("metadataArgs")
     void test(Headers headers, Map<String, Object> expectedExtension) {
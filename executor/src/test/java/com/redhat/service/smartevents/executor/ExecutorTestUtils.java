@@ -32,8 +32,12 @@ public class ExecutorTestUtils {
     public static final String CLOUD_EVENT_SUBJECT = "subject";
 
     public static CloudEvent createCloudEvent() {
+        return createCloudEvent(PLAIN_EVENT_JSON);
+    }
+
+    public static CloudEvent createCloudEvent(String json) {
         try {
-            JsonNode data = CloudEventUtils.getMapper().readTree(PLAIN_EVENT_JSON);
+            JsonNode data = CloudEventUtils.getMapper().readTree(json);
             return CloudEventUtils.builderFor(SpecVersion.V1, CLOUD_EVENT_ID, CLOUD_EVENT_SOURCE, CLOUD_EVENT_TYPE, CLOUD_EVENT_SUBJECT, data)
                     .withType(CLOUD_EVENT_TYPE)
                     .build();
@@ -0,0 +1,39 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.concurrent.CompletionStage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InFlightLimiterTest {
+
+    @Test
+    void testPermitsAreHandedOverInOrder() {
+        InFlightLimiter limiter = new InFlightLimiter(2);
+
+        assertThat(limiter.acquire().toCompletableFuture()).isCompleted();
+        assertThat(limiter.acquire().toCompletableFuture()).isCompleted();
+        CompletionStage<Void> third = limiter.acquire();
+        CompletionStage<Void> fourth = limiter.acquire();
+        assertThat(third.toCompletableFuture()).isNotDone();
+        assertThat(fourth.toCompletableFuture()).isNotDone();
+
+        limiter.release();
+        assertThat(third.toCompletableFuture()).isCompleted();
+        assertThat(fourth.toCompletableFuture()).isNotDone();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release();
+        limiter.release();
+        limiter.release();
+        assertThat(fourth.toCompletableFuture()).isCompleted();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testAtLeastOnePermitIsRequired() {
+        assertThatThrownBy(() -> new InFlightLimiter(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
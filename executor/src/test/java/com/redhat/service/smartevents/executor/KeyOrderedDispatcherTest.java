@@ -0,0 +1,61 @@
+package com.redhat.service.smartevents.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyOrderedDispatcherTest {
+
+    @Test
+    void testTasksWithTheSameKeyRunInOrder() {
+        KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher();
+        List<String> started = new ArrayList<>();
+        CompletableFuture<Void> firstA = new CompletableFuture<>();
+        CompletableFuture<Void> secondA = new CompletableFuture<>();
+        CompletableFuture<Void> firstB = new CompletableFuture<>();
+
+        CompletionStage<Void> firstADone = dispatcher.submit("a", task(started, "a1", firstA));
+        CompletionStage<Void> secondADone = dispatcher.submit("a", task(started, "a2", secondA));
+        dispatcher.submit("b", task(started, "b1", firstB));
+
+        // the second task of the key waits for the first one, the other key does not
+        assertThat(started).containsExactly("a1", "b1");
+        assertThat(dispatcher.getPendingKeys()).isEqualTo(2);
+
+        // a failure of the previous task does not stop the next one
+        firstA.completeExceptionally(new RuntimeException("delivery failed"));
+        assertThat(firstADone.toCompletableFuture()).isCompleted();
+        assertThat(started).containsExactly("a1", "b1", "a2");
+        assertThat(secondADone.toCompletableFuture()).isNotDone();
+
+        secondA.complete(null);
+        firstB.complete(null);
+        assertThat(secondADone.toCompletableFuture()).isCompleted();
+        assertThat(dispatcher.getPendingKeys()).isZero();
+    }
+
+    @Test
+    void testTasksWithoutKeyAreNotOrdered() {
+        KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher();
+        List<String> started = new ArrayList<>();
+
+        dispatcher.submit(null, task(started, "1", new CompletableFuture<>()));
+        dispatcher.submit(null, task(started, "2", new CompletableFuture<>()));
+
+        assertThat(started).containsExactly("1", "2");
+        assertThat(dispatcher.getPendingKeys()).isZero();
+    }
+
+    private static Supplier<CompletionStage<Void>> task(List<String> started, String name, CompletableFuture<Void> completion) {
+        return () -> {
+            started.add(name);
+            return completion;
+        };
+    }
+}
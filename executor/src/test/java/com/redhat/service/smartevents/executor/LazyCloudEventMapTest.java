@@ -0,0 +1,172 @@
+package com.redhat.service.smartevents.executor;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.smartevents.infra.core.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createCloudEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LazyCloudEventMapTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String DATA = "{\"key\":\"value\",\"skipped\":{\"nested\":[1,2,{\"a\":\"b\"}]},\"user\":{\"id\":42,\"score\":2.5,\"admin\":true,\"tags\":[\"a\"]}}";
+
+    private static final String DUPLICATED_KEYS_DATA = "{\"key\":\"first\",\"user\":{\"id\":1,\"id\":2},\"key\":\"value\",\"user\":{\"id\":42,\"id\":43}}";
+
+    private static final String MALFORMED_AFTER_PATH_DATA = "{\"key\":\"value\",\"user\":{\"id\":42},\"other\":tru}";
+
+    private static final String TRUNCATED_AFTER_PATH_DATA = "{\"key\":\"value\",\"user\":{\"id\":42},\"other\":[1,";
+
+    private static final String[][] PATHS = {
+            { "id" },
+            { "source" },
+            { "type" },
+            { "subject" },
+            { "specversion" },
+            { "time" },
+            { "myextension" },
+            { "data" },
+            { "data", "key" },
+            { "data", "missing" },
+            { "data", "user", "id" },
+            { "data", "user", "score" },
+            { "data", "user", "admin" },
+            { "data", "user", "tags" },
+            { "data", "key", "id" },
+            { "data", "skipped", "nested" },
+            { "data_base64" },
+    };
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void testSameContentOfFullConversion(CloudEvent event) {
+        // recursive comparison, as data_base64 is a byte array
+        assertThat(new LazyCloudEventMap(event)).usingRecursiveComparison().isEqualTo(toEventMap(event));
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void testSameResolutionOfFullConversion(CloudEvent event) {
+        Map<String, Object> expected = toEventMap(event);
+        for (String[] path : PATHS) {
+            assertThat(new LazyCloudEventMap(event).resolve(path)).as(String.join(".", path)).isEqualTo(navigate(expected, path));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void testSameJsonOfFullConversion(CloudEvent event) throws Exception {
+        assertThat(new LazyCloudEventMap(event).toJson()).isEqualTo(MAPPER.writeValueAsString(toEventMap(event)));
+    }
+
+    @Test
+    void testJsonOfJsonStringData() throws Exception {
+        CloudEvent event = binaryEvent("application/json", "\"{\\\"key\\\":\\\"value\\\"}\"");
+        assertThat(new LazyCloudEventMap(event).toJson()).isEqualTo(MAPPER.writeValueAsString(toEventMap(event)));
+    }
+
+    @Test
+    void testResolveDoesNotBuildTheWholeData() {
+        LazyCloudEventMap map = new LazyCloudEventMap(binaryEvent("application/json", DATA));
+        assertThat(map.resolve(new String[] { "data", "user", "id" })).isEqualTo(42);
+        assertThat(map.resolve(new String[] { "source" })).isEqualTo("mySource");
+        assertThat(map.get("type")).isEqualTo("TestEvent");
+    }
+
+    @Test
+    void testResolveDuplicatedKeysToTheLastValue() {
+        LazyCloudEventMap map = new LazyCloudEventMap(binaryEvent("application/json", DUPLICATED_KEYS_DATA));
+        assertThat(map.resolve(new String[] { "data", "key" })).isEqualTo("value");
+        assertThat(map.resolve(new String[] { "data", "user", "id" })).isEqualTo(43);
+    }
+
+    @Test
+    void testResolveInMalformedDataIsMissing() {
+        // the full conversion keeps the malformed data as a String, where no path can be resolved
+        assertThat(new LazyCloudEventMap(binaryEvent("application/json", MALFORMED_AFTER_PATH_DATA)).resolve(new String[] { "data", "key" })).isNull();
+        assertThat(new LazyCloudEventMap(binaryEvent("application/json", TRUNCATED_AFTER_PATH_DATA)).resolve(new String[] { "data", "key" })).isNull();
+        assertThat(new LazyCloudEventMap(binaryEvent("application/json", MALFORMED_AFTER_PATH_DATA)).get("data")).isEqualTo(MALFORMED_AFTER_PATH_DATA);
+    }
+
+    @Test
+    void testDataOfJsonNodeIsConverted() {
+        CloudEvent event = createCloudEvent("{\"key\":\"value\",\"user\":{\"id\":42}}");
+        assertThat(new LazyCloudEventMap(event).get("data")).isEqualTo(Map.of("key", "value", "user", Map.of("id", 42)));
+    }
+
+    private static Stream<Arguments> events() {
+        Object[] arguments = {
+                createCloudEvent(),
+                binaryEvent(null, DATA),
+                binaryEvent("application/json", DATA),
+                binaryEvent("application/json", "[1,2,3]"),
+                binaryEvent("application/json", "\"text\""),
+                binaryEvent("application/json", "{broken"),
+                binaryEvent("application/json", DUPLICATED_KEYS_DATA),
+                binaryEvent("application/json", MALFORMED_AFTER_PATH_DATA),
+                binaryEvent("application/json", TRUNCATED_AFTER_PATH_DATA),
+                createCloudEvent("[1,2,3]"),
+                createCloudEvent("\"{\\\"key\\\":\\\"value\\\"}\""),
+                binaryEvent("text/plain", "plain text"),
+                binaryEvent("application/octet-stream", DATA),
+                CloudEventBuilder.v1()
+                        .withId("myId")
+                        .withSource(URI.create("mySource"))
+                        .withType("TestEvent")
+                        .withTime(OffsetDateTime.parse("2022-01-01T10:00:00Z"))
+                        .withExtension("myextension", 10)
+                        .build()
+        };
+        return Stream.of(arguments).map(Arguments::of);
+    }
+
+    private static CloudEvent binaryEvent(String contentType, String data) {
+        return CloudEventBuilder.v1()
+                .withId("myId")
+                .withSource(URI.create("mySource"))
+                .withType("TestEvent")
+                .withExtension("myextension", "extensionValue")
+                .withData(contentType, data.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    // The conversion of the whole event that was used before the lazy map
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toEventMap(CloudEvent event) {
+        Map<String, Object> map = CloudEventUtils.getMapper().convertValue(event, Map.class);
+        if (map.containsKey(CloudEventUtils.CE_DATA_FIELD_NAME)) {
+            try {
+                map.replace(CloudEventUtils.CE_DATA_FIELD_NAME, MAPPER.readValue(map.get(CloudEventUtils.CE_DATA_FIELD_NAME).toString(), Map.class));
+            } catch (Exception e) {
+                // kept as it is
+            }
+        }
+        return map;
+    }
+
+    private static Object navigate(Map<String, Object> map, String[] path) {
+        Object current = map;
+        for (String segment : path) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<?, ?>) current).get(segment);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,157 @@
+package com.redhat.service.smartevents.executor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.smartevents.executor.filters.FilterEvaluatorFactoryNative;
+import com.redhat.service.smartevents.executor.filters.FilterIndex;
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithResolvedAction;
+import static com.redhat.service.smartevents.executor.ExecutorTestUtils.createSinkProcessorWithSameAction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessorDefinitionWatcherTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private Executor first;
+    private Executor second;
+    private ExecutorService executorService;
+    private ProcessorDefinitionWatcher watcher;
+
+    @BeforeEach
+    void setup() throws Exception {
+        ProcessorDTO firstProcessor = createSinkProcessorWithSameAction();
+        ProcessorDTO secondProcessor = createSinkProcessorWithResolvedAction();
+        secondProcessor.setId("processorId-2");
+        file = directory.resolve("processor-definition.json");
+        Files.writeString(file, MAPPER.writeValueAsString(List.of(firstProcessor, secondProcessor)));
+
+        ExecutorFactory executorFactory = new ExecutorFactory();
+        executorFactory.objectMapper = MAPPER;
+        executorFactory.processorDefinitionFile = Optional.of(file.toString());
+        executorFactory.filterEvaluator = FilterEvaluatorFactoryNative.NAME;
+        executorFactory.init();
+
+        first = mock(Executor.class);
+        when(first.getProcessor()).thenReturn(firstProcessor);
+        second = mock(Executor.class);
+        when(second.getProcessor()).thenReturn(secondProcessor);
+        executorService = mock(ExecutorService.class);
+
+        watcher = new ProcessorDefinitionWatcher();
+        watcher.executorFactory = executorFactory;
+        watcher.executorService = executorService;
+        watcher.executors = List.of(first, second);
+    }
+
+    @Test
+    void testUnchangedDefinitionsAreNotReloaded() throws Exception {
+        String loadedHash = ProcessorDefinitionWatcher.hash(Files.readString(file));
+
+        watcher.refresh();
+
+        assertThat(watcher.getLoadedDefinitionsHash()).isEqualTo(loadedHash);
+
+        verify(first, never()).reload(any());
+        verify(second, never()).reload(any());
+        verify(executorService, never()).reloadFilterIndex(any());
+    }
+
+    @Test
+    void testChangedDefinitionsAreReloaded() throws Exception {
+        ProcessorDTO firstReloaded = createSinkProcessorWithSameAction();
+        firstReloaded.getDefinition().setTransformationTemplate("{\"reloaded\": true}");
+        ProcessorDTO secondReloaded = createSinkProcessorWithResolvedAction();
+        secondReloaded.setId("processorId-2");
+        Files.writeString(file, MAPPER.writeValueAsString(List.of(firstReloaded, secondReloaded)));
+
+        watcher.refresh();
+        watcher.refresh();
+
+        verify(first).reload(argThat(processor -> "{\"reloaded\": true}".equals(processor.getDefinition().getTransformationTemplate())));
+        verify(second).reload(argThat(processor -> "processorId-2".equals(processor.getId())));
+        verify(executorService).reloadFilterIndex(any(FilterIndex.class));
+        assertThat(watcher.getLoadedDefinitionsHash()).isEqualTo(ProcessorDefinitionWatcher.hash(Files.readString(file)));
+        assertThat(watcher.getRejectedDefinitionsHash()).isNull();
+    }
+
+    @Test
+    void testFailedReloadOfAProcessorDoesNotStopTheOthers() throws Exception {
+        ProcessorDTO secondReloaded = createSinkProcessorWithResolvedAction();
+        secondReloaded.setId("processorId-2");
+        Files.writeString(file, MAPPER.writeValueAsString(List.of(createSinkProcessorWithSameAction(), secondReloaded)) + " ");
+        doThrow(new IllegalArgumentException("invalid template")).when(first).reload(any());
+
+        watcher.refresh();
+
+        verify(second).reload(any());
+        verify(executorService).reloadFilterIndex(any(FilterIndex.class));
+        assertThat(watcher.getRejectedDefinitionsHash()).isEqualTo(ProcessorDefinitionWatcher.hash(Files.readString(file)));
+        assertThat(watcher.getRejectionReason()).contains("processorId-1").contains("invalid template");
+    }
+
+    @Test
+    void testDefinitionsOfOtherProcessorsAreIgnored() throws Exception {
+        ProcessorDTO other = createSinkProcessorWithResolvedAction();
+        other.setId("processorId-3");
+        Files.writeString(file, MAPPER.writeValueAsString(List.of(createSinkProcessorWithSameAction(), other)));
+
+        watcher.refresh();
+
+        verify(first, never()).reload(any());
+        verify(second, never()).reload(any());
+        verify(executorService, never()).reloadFilterIndex(any());
+    }
+
+    @Test
+    void testInvalidDefinitionsAreIgnored() throws Exception {
+        String loadedHash = ProcessorDefinitionWatcher.hash(Files.readString(file));
+        Files.writeString(file, "[{");
+
+        watcher.refresh();
+
+        verify(first, never()).reload(any());
+        verify(second, never()).reload(any());
+        verify(executorService, never()).reloadFilterIndex(any());
+        assertThat(watcher.getLoadedDefinitionsHash()).isEqualTo(loadedHash);
+        assertThat(watcher.getRejectedDefinitionsHash()).isEqualTo(ProcessorDefinitionWatcher.hash("[{"));
+        assertThat(watcher.getRejectionReason()).isNotBlank();
+    }
+
+    @Test
+    void testReadinessPublishesTheOutcomeOfTheReloads() {
+        ProcessorDefinitionReadinessCheck check = new ProcessorDefinitionReadinessCheck();
+        check.watcher = watcher;
+        watcher.refresh();
+        watcher.reload("[{");
+
+        HealthCheckResponse response = check.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(response.getData()).isPresent();
+        assertThat(response.getData().get())
+                .containsKeys(ProcessorDefinitionReadinessCheck.LOADED_DEFINITIONS_HASH, ProcessorDefinitionReadinessCheck.REJECTED_DEFINITIONS_HASH,
+                        ProcessorDefinitionReadinessCheck.REJECTION_REASON);
+    }
+}
@@ -0,0 +1,23 @@
+package com.redhat.service.smartevents.executor;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryChannelConfigurationTest {
+
+    @Test
+    void testUnprocessedRecordMaxAgeIsAboveTheDelayOfTheTier() {
+        RetryChannelConfiguration configuration = new RetryChannelConfiguration();
+        configuration.tier1Delay = Duration.ofSeconds(10);
+        configuration.tier2Delay = Duration.ofMinutes(1);
+        configuration.tier3Delay = Duration.ofMinutes(10);
+        configuration.deliveryTimeout = Duration.ofSeconds(150);
+
+        assertThat(configuration.tier1KafkaConfiguration()).containsEntry(ExecutorService.UNPROCESSED_RECORD_MAX_AGE, 190_000);
+        assertThat(configuration.tier2KafkaConfiguration()).containsEntry(ExecutorService.UNPROCESSED_RECORD_MAX_AGE, 240_000);
+        assertThat(configuration.tier3KafkaConfiguration()).containsEntry(ExecutorService.UNPROCESSED_RECORD_MAX_AGE, 780_000);
+    }
+}
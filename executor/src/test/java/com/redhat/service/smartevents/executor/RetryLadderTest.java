@@ -0,0 +1,113 @@
+package com.redhat.service.smartevents.executor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetryLadderTest {
+
+    private static final List<RetryLadder.Tier> TIERS = List.of(
+            new RetryLadder.Tier("events-retry-1", Duration.ofSeconds(10)),
+            new RetryLadder.Tier("events-retry-2", Duration.ofMinutes(1)));
+
+    @Test
+    void testTiers() {
+        RetryLadder retryLadder = new RetryLadder(TIERS, null);
+
+        assertThat(retryLadder.hasTierAfter(0)).isTrue();
+        assertThat(retryLadder.hasTierAfter(1)).isTrue();
+        assertThat(retryLadder.hasTierAfter(2)).isFalse();
+        assertThat(new RetryLadder(List.of(), null).hasTierAfter(0)).isFalse();
+        assertThatThrownBy(() -> new RetryLadder(List.of(TIERS.get(0), TIERS.get(0), TIERS.get(0), TIERS.get(0)), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testForwardWritesTheRecordToTheTopicOfTheTier() {
+        Emitter<byte[]> emitter = mock(Emitter.class);
+        doAnswer(invocation -> {
+            invocation.<Message<byte[]>> getArgument(0).ack();
+            return null;
+        }).when(emitter).send(any(Message.class));
+        RetryLadder retryLadder = new RetryLadder(TIERS, emitter);
+
+        KafkaRecord<Integer, byte[]> record = mock(KafkaRecord.class);
+        when(record.getPayload()).thenReturn("payload".getBytes(StandardCharsets.UTF_8));
+        when(record.getKey()).thenReturn(555);
+        when(record.getTimestamp()).thenReturn(Instant.ofEpochMilli(1000));
+        Headers headers = new RecordHeaders();
+        headers.add("key", "value".getBytes(StandardCharsets.UTF_8));
+
+        long before = System.currentTimeMillis();
+        assertThat(retryLadder.forward(record, headers, 2).toCompletableFuture()).isCompleted();
+
+        ArgumentCaptor<Message<byte[]>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(emitter).send(messageCaptor.capture());
+        OutgoingKafkaRecordMetadata<String> metadata = messageCaptor.getValue().getMetadata(OutgoingKafkaRecordMetadata.class).orElseThrow();
+        assertThat(metadata.getTopic()).isEqualTo("events-retry-2");
+        assertThat(metadata.getKey()).isEqualTo("555");
+        assertThat(metadata.getTimestamp()).isEqualTo(Instant.ofEpochMilli(1000));
+        assertThat(new String(metadata.getHeaders().lastHeader("key").value(), StandardCharsets.UTF_8)).isEqualTo("value");
+        assertThat(new String(metadata.getHeaders().lastHeader(RetryLadder.RETRY_TIER_HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("2");
+        assertThat(RetryLadder.getDueTime(metadata.getHeaders())).isGreaterThanOrEqualTo(before + Duration.ofMinutes(1).toMillis());
+        // the headers of the record are not changed
+        assertThat(headers.lastHeader(RetryLadder.RETRY_DUE_HEADER)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testForwardFailsWhenTheRecordIsNotWritten() {
+        Emitter<byte[]> emitter = mock(Emitter.class);
+        RuntimeException sendError = new RuntimeException("not written");
+        doAnswer(invocation -> {
+            invocation.<Message<byte[]>> getArgument(0).nack(sendError);
+            return null;
+        }).when(emitter).send(any(Message.class));
+        RetryLadder retryLadder = new RetryLadder(TIERS, emitter);
+
+        KafkaRecord<Integer, byte[]> record = mock(KafkaRecord.class);
+        when(record.getPayload()).thenReturn("payload".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(retryLadder.forward(record, new RecordHeaders(), 1).toCompletableFuture())
+                .isCompletedExceptionally();
+    }
+
+    @Test
+    void testDueTime() {
+        Headers headers = new RecordHeaders();
+        assertThat(RetryLadder.getDueTime(headers)).isZero();
+        assertThat(RetryLadder.awaitDue(0).await().atMost(Duration.ofMillis(100))).isNull();
+
+        headers.add(RetryLadder.RETRY_DUE_HEADER, "not a time".getBytes(StandardCharsets.UTF_8));
+        assertThat(RetryLadder.getDueTime(headers)).isZero();
+
+        long dueTime = System.currentTimeMillis() + 200;
+        headers.add(RetryLadder.RETRY_DUE_HEADER, String.valueOf(dueTime).getBytes(StandardCharsets.UTF_8));
+        assertThat(RetryLadder.getDueTime(headers)).isEqualTo(dueTime);
+        RetryLadder.awaitDue(dueTime).await().atMost(Duration.ofSeconds(5));
+        assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(dueTime);
+
+        RetryLadder.removeRetryHeaders(headers);
+        assertThat(headers.lastHeader(RetryLadder.RETRY_DUE_HEADER)).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.redhat.service.smartevents.executor.filters;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.kie.dmn.feel.FEEL;
+import org.kie.dmn.feel.lang.CompiledExpression;
+
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FEELExpressionCacheTest {
+
+    private static final String TEMPLATE = "if source = \"myService\" then \"OK\" else \"NOT_OK\"";
+
+    @Test
+    public void testSameTemplateIsCompiledOnce() {
+        FEELExpressionCache cache = new FEELExpressionCache(FEEL.newInstance(), 10);
+
+        CompiledExpression first = cache.get(TEMPLATE);
+        CompiledExpression second = cache.get(TEMPLATE);
+
+        assertThat(first).isSameAs(second);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getFeel().evaluate(first, Collections.singletonMap("source", "myService"))).isEqualTo(FilterEvaluatorFactoryFEEL.IS_VALID);
+        assertThat(cache.getFeel().evaluate(first, Collections.singletonMap("source", "notMyService"))).isEqualTo(FilterEvaluatorFactoryFEEL.IS_INVALID);
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        FEELExpressionCache cache = new FEELExpressionCache(FEEL.newInstance(), 2);
+
+        CompiledExpression first = cache.get(TEMPLATE);
+        cache.get("if source = \"a\" then \"OK\" else \"NOT_OK\"");
+        cache.get("if source = \"b\" then \"OK\" else \"NOT_OK\"");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(TEMPLATE)).isNotSameAs(first);
+    }
+
+    @Test
+    public void testIdenticalFiltersShareCompiledExpressions() {
+        FEELExpressionCache cache = new FEELExpressionCache(FEEL.newInstance(), 10);
+        FilterEvaluatorFactoryFEEL factory = new FilterEvaluatorFactoryFEEL(cache);
+
+        FilterEvaluator evaluator1 = factory.build(Collections.singleton(new StringEquals("source", "myService")));
+        FilterEvaluator evaluator2 = factory.build(Collections.singleton(new StringEquals("source", "myService")));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(evaluator1.evaluateFilters(Collections.singletonMap("source", "myService"))).isTrue();
+        assertThat(evaluator2.evaluateFilters(Collections.singletonMap("source", "notMyService"))).isFalse();
+    }
+}
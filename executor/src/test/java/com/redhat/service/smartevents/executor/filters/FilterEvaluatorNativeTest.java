@@ -0,0 +1,102 @@
+package com.redhat.service.smartevents.executor.filters;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.NumberIn;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringBeginsWith;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringContains;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringIn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FilterEvaluatorNativeTest {
+
+    private static final FilterEvaluatorFactoryNative FACTORY_NATIVE = new FilterEvaluatorFactoryNative();
+    private static final FilterEvaluatorFactoryFEEL FACTORY_FEEL = new FilterEvaluatorFactoryFEEL();
+
+    @Test
+    public void testStringEqualsFilter() {
+        FilterEvaluator evaluator = FACTORY_NATIVE.build(Collections.singleton(new StringEquals("source", "myService")));
+
+        assertThat(evaluator.evaluateFilters(Collections.singletonMap("source", "myService"))).isTrue();
+        assertThat(evaluator.evaluateFilters(Collections.singletonMap("source", "notMyService"))).isFalse();
+    }
+
+    @Test
+    public void testFilterWithNestedObjects() {
+        FilterEvaluator evaluator = FACTORY_NATIVE.build(Collections.singleton(new StringEquals("data.name", "jacopo")));
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("data", Collections.singletonMap("name", "jacopo"));
+        assertThat(evaluator.evaluateFilters(data)).isTrue();
+
+        data = new HashMap<>();
+        data.put("data", Collections.singletonMap("name", "notJacopo"));
+        assertThat(evaluator.evaluateFilters(data)).isFalse();
+
+        data = new HashMap<>();
+        data.put("data", "name");
+        assertThat(evaluator.evaluateFilters(data)).isFalse();
+    }
+
+    @Test
+    public void testNoFilters() {
+        assertThat(FACTORY_NATIVE.build(null).evaluateFilters(Collections.emptyMap())).isTrue();
+    }
+
+    @Test
+    public void testPathCompilation() {
+        assertThat(FilterEvaluatorFactoryNative.toPath("data.user.id")).containsExactly("data", "user", "id");
+        assertThat(FilterEvaluatorFactoryNative.toPath("data.my-key")).isNull();
+        assertThat(FilterEvaluatorFactoryNative.toPath("data.null")).isNull();
+        assertThat(FilterEvaluatorFactoryNative.toPath("data..name")).isNull();
+    }
+
+    @ParameterizedTest
+    @MethodSource("equivalenceArgs")
+    public void testSameResultsAsFEEL(Set<BaseFilter> filters, Map<String, Object> event) {
+        boolean expected = FACTORY_FEEL.build(filters).evaluateFilters(event);
+        assertThat(FACTORY_NATIVE.build(filters).evaluateFilters(event)).isEqualTo(expected);
+    }
+
+    private static Stream<Arguments> equivalenceArgs() {
+        List<Map<String, Object>> events = Arrays.asList(
+                event("myService", Map.of("name", "jacopo", "count", 3)),
+                event("notMyService", Map.of("name", "rota", "count", 2.2)),
+                event("myTest", Map.of("name", "kekkobar", "count", 4L)),
+                event("myService", "plain text data"),
+                event(null, null));
+        List<Set<BaseFilter>> filters = Arrays.asList(
+                Set.of(new StringEquals("source", "myService")),
+                Set.of(new StringEquals("data.name", "jacopo")),
+                Set.of(new StringEquals("data.count", "3")),
+                Set.of(new StringContains("source", Arrays.asList("Ser", "Tes"))),
+                Set.of(new StringBeginsWith("data.name", Arrays.asList("jac", "kek"))),
+                Set.of(new StringIn("data.name", Arrays.asList("rota", "kekkobar"))),
+                Set.of(new NumberIn("data.count", Arrays.asList(2.2, 3d))),
+                Set.of(new NumberIn("data.name", Arrays.asList(2.2, 3d))),
+                Set.of(new StringEquals("source", "myService"), new NumberIn("data.count", Arrays.asList(3d))),
+                Set.of(new StringEquals("source", "myService"), new StringEquals("data.my-name", "jacopo")));
+        return filters.stream().flatMap(f -> events.stream().map(e -> Arguments.of(f, e)));
+    }
+
+    private static Map<String, Object> event(String source, Object data) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("source", source);
+        event.put("data", data);
+        return event;
+    }
+}
@@ -0,0 +1,84 @@
+package com.redhat.service.smartevents.executor.filters;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.NumberIn;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringBeginsWith;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringContains;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
+import com.redhat.service.smartevents.infra.v1.api.models.filters.StringIn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterIndexTest {
+
+    private static final FilterEvaluatorFactoryNative FACTORY_NATIVE = new FilterEvaluatorFactoryNative();
+
+    @Test
+    void testSameResultsAsTheEvaluatorOfEveryProcessor() {
+        Map<String, Set<BaseFilter>> filtersByProcessorId = new LinkedHashMap<>();
+        filtersByProcessorId.put("equals", Set.of(new StringEquals("type", "OrderCreated")));
+        filtersByProcessorId.put("equalsAndData", Set.of(new StringEquals("type", "OrderCreated"), new NumberIn("data.count", Arrays.asList(3d))));
+        filtersByProcessorId.put("in", Set.of(new StringIn("source", Arrays.asList("shop", "warehouse"))));
+        filtersByProcessorId.put("beginsWith", Set.of(new StringBeginsWith("type", Arrays.asList("Order", "Invoice"))));
+        filtersByProcessorId.put("emptyPrefix", Set.of(new StringBeginsWith("subject", Arrays.asList(""))));
+        filtersByProcessorId.put("beginsWithAndEquals", Set.of(new StringBeginsWith("type", Arrays.asList("Order")), new StringEquals("source", "shop")));
+        filtersByProcessorId.put("number", Set.of(new NumberIn("subject", Arrays.asList(0d, 42d))));
+        filtersByProcessorId.put("contains", Set.of(new StringContains("type", Arrays.asList("Created"))));
+        filtersByProcessorId.put("data", Set.of(new StringEquals("data.name", "jacopo")));
+        filtersByProcessorId.put("none", null);
+        filtersByProcessorId.put("emptyIn", Set.of(new StringIn("type", List.of())));
+
+        FilterIndex index = new FilterIndex(filtersByProcessorId, FACTORY_NATIVE);
+        assertThat(index.getIndexedSize()).isEqualTo(8);
+
+        List<Map<String, Object>> events = Arrays.asList(
+                event("OrderCreated", "shop", "a", Map.of("count", 3, "name", "jacopo")),
+                event("OrderCreated", "warehouse", 42, Map.of("count", 2)),
+                event("InvoiceCreated", "shop", -0.0, "plain text"),
+                event("Order", "store", null, null),
+                event("Ord", "shop", "", Map.of("name", "jacopo")),
+                event(null, null, null, null),
+                event(5, "shop", 42L, null));
+        for (Map<String, Object> event : events) {
+            Set<String> expected = new HashSet<>();
+            filtersByProcessorId.forEach((processorId, filters) -> {
+                if (FACTORY_NATIVE.build(filters).evaluateFilters(event)) {
+                    expected.add(processorId);
+                }
+            });
+            assertThat(index.match(event)).as(event.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testOnlyTheCandidatesAreEvaluated() {
+        Map<String, Set<BaseFilter>> filtersByProcessorId = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            filtersByProcessorId.put("processor-" + i, Set.of(new StringEquals("type", "Type" + i), new StringEquals("data.name", "jacopo")));
+        }
+        FilterIndex index = new FilterIndex(filtersByProcessorId, FACTORY_NATIVE);
+
+        assertThat(index.match(event("Type42", "shop", null, Map.of("name", "jacopo")))).containsExactly("processor-42");
+        assertThat(index.match(event("Type42", "shop", null, Map.of("name", "rota")))).isEmpty();
+        assertThat(index.match(event("Unknown", "shop", null, Map.of("name", "jacopo")))).isEmpty();
+    }
+
+    private static Map<String, Object> event(Object type, String source, Object subject, Object data) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", type);
+        event.put("source", source);
+        event.put("subject", subject);
+        event.put("data", data);
+        return event;
+    }
+}
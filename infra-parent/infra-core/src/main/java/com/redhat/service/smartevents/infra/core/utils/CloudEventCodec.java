@@ -0,0 +1,246 @@
+package com.redhat.service.smartevents.infra.core.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.CloudEventDeserializationException;
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.CloudEventSerializationException;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.CloudEventData;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.core.data.BytesCloudEventData;
+import io.cloudevents.jackson.JsonCloudEventData;
+
+/**
+ * Reads and writes CloudEvents in the structured JSON format straight from and to bytes, without going through a
+ * {@link String}.
+ * <p>
+ * Events are written by the serializer of the CloudEvents Jackson module on the buffers that Jackson recycles for
+ * every thread. Events of spec version 1.0 are read with the streaming parser: the attributes are taken from the tokens
+ * and only the <code>data</code> field is built as a tree, so the result is the same event produced by
+ * {@link CloudEventUtils#decode(String)}. Events of other spec versions are read by the CloudEvents Jackson module.
+ */
+public class CloudEventCodec {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CloudEventCodec.class);
+
+    private static final String SPEC_VERSION_FIELD = "specversion";
+    private static final String DATA_CONTENT_TYPE_FIELD = "datacontenttype";
+    private static final String DATA_BASE64_FIELD = "data_base64";
+    private static final Set<String> V1_ATTRIBUTES = SpecVersion.V1.getAllAttributes();
+    // the streams are closed by the callers
+    private static final ObjectWriter STREAM_WRITER = CloudEventUtils.getMapper().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    public static byte[] encode(CloudEvent event) {
+        try {
+            return CloudEventUtils.getMapper().writeValueAsBytes(event);
+        } catch (IOException e) {
+            LOG.error("Unable to encode CloudEvent", e);
+            throw new CloudEventSerializationException("Failed to encode CloudEvent");
+        }
+    }
+
+    /**
+     * Writes the event to the stream, that is not closed.
+     */
+    public static void encode(CloudEvent event, OutputStream outputStream) {
+        try {
+            STREAM_WRITER.writeValue(outputStream, event);
+        } catch (IOException e) {
+            LOG.error("Unable to encode CloudEvent", e);
+            throw new CloudEventSerializationException("Failed to encode CloudEvent");
+        }
+    }
+
+    public static CloudEvent decode(byte[] bytes) {
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * The bytes come from the producers of the events, so a failure is not logged above debug: the cause is in the thrown
+     * exception, for the caller to report.
+     */
+    public static CloudEvent decode(byte[] bytes, int offset, int length) {
+        try (JsonParser parser = CloudEventUtils.getMapper().createParser(bytes, offset, length)) {
+            return read(parser, bytes, offset, length);
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Unable to decode CloudEvent: {}", e.getMessage());
+            throw new CloudEventDeserializationException("Failed to decode Cloud Event", e);
+        }
+    }
+
+    /**
+     * @return the event as a json tree, the same produced by parsing the encoded event
+     */
+    public static JsonNode toJsonNode(CloudEvent event) {
+        try {
+            if (event.getData() != null && !(event.getData() instanceof JsonCloudEventData)) {
+                // binary data would be kept as a binary node instead of the base64 text of the encoded event
+                return CloudEventUtils.getMapper().readTree(encode(event));
+            }
+            return CloudEventUtils.getMapper().valueToTree(event);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.error("Unable to convert CloudEvent", e);
+            throw new CloudEventSerializationException("Failed to convert CloudEvent");
+        }
+    }
+
+    private static CloudEvent read(JsonParser parser, byte[] bytes, int offset, int length) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("A CloudEvent must be a json object");
+        }
+        String specVersion = null;
+        String dataContentType = null;
+        JsonNode data = null;
+        byte[] dataBase64 = null;
+        List<Object> attributes = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (CloudEventUtils.CE_DATA_FIELD_NAME.equals(name)) {
+                data = token == JsonToken.VALUE_NULL ? NullNode.getInstance() : parser.readValueAsTree();
+            } else if (DATA_BASE64_FIELD.equals(name)) {
+                dataBase64 = token == JsonToken.VALUE_NULL ? null : parser.getBinaryValue();
+            } else if (SPEC_VERSION_FIELD.equals(name)) {
+                specVersion = readAttribute(parser, name, token);
+            } else if (V1_ATTRIBUTES.contains(name)) {
+                String value = readAttribute(parser, name, token);
+                if (DATA_CONTENT_TYPE_FIELD.equals(name)) {
+                    dataContentType = value;
+                }
+                addAttribute(attributes, name, value);
+            } else {
+                readExtension(parser, name, token, attributes);
+            }
+        }
+
+        if (specVersion == null) {
+            throw new IOException("Missing mandatory specversion attribute");
+        }
+        if (!SpecVersion.V1.toString().equals(specVersion)) {
+            // the other spec versions are rare, they are handled by the module
+            return CloudEventUtils.getMapper().readValue(bytes, offset, length, CloudEvent.class);
+        }
+
+        CloudEventBuilder builder = CloudEventBuilder.v1();
+        for (int i = 0; i < attributes.size(); i += 2) {
+            String name = (String) attributes.get(i);
+            Object value = attributes.get(i + 1);
+            if (value instanceof String) {
+                builder.withContextAttribute(name, (String) value);
+            } else if (value instanceof Integer) {
+                builder.withContextAttribute(name, (Integer) value);
+            } else {
+                builder.withContextAttribute(name, (Boolean) value);
+            }
+        }
+        CloudEventData cloudEventData = toData(data, dataBase64, dataContentType);
+        return cloudEventData == null ? builder.build() : builder.withData(cloudEventData).build();
+    }
+
+    private static CloudEventData toData(JsonNode data, byte[] dataBase64, String dataContentType) throws IOException {
+        if (data != null && dataBase64 != null) {
+            throw new IOException("CloudEvent cannot have both 'data' and 'data_base64' fields");
+        }
+        if (dataBase64 != null) {
+            return BytesCloudEventData.wrap(dataBase64);
+        }
+        if (data == null) {
+            return null;
+        }
+        if (isJsonContentType(dataContentType)) {
+            return JsonCloudEventData.wrap(data);
+        }
+        if (!data.isTextual()) {
+            throw new IOException("Because content type is not a json, only a string is accepted as data");
+        }
+        return BytesCloudEventData.wrap(data.asText().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return true if the data is json, as for the CloudEvents Jackson module: when there is no content type or it is a
+     *         json one
+     */
+    private static boolean isJsonContentType(String contentType) {
+        return contentType == null || contentType.startsWith("application/json") || contentType.startsWith("text/json");
+    }
+
+    /**
+     * @return the value of a string attribute, null if it is null
+     */
+    private static String readAttribute(JsonParser parser, String name, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new IOException("Wrong type " + token + " for attribute " + name + ", expecting a string");
+        }
+        return parser.getText();
+    }
+
+    private static void readExtension(JsonParser parser, String name, JsonToken token, List<Object> attributes) throws IOException {
+        if (!isValidExtensionName(name)) {
+            throw new IOException("Invalid extensions name: " + name);
+        }
+        switch (token) {
+            case VALUE_STRING:
+                addAttribute(attributes, name, parser.getText());
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                addAttribute(attributes, name, parser.getBooleanValue());
+                break;
+            case VALUE_NUMBER_INT:
+                if (parser.getNumberType() != JsonParser.NumberType.INT) {
+                    throw new IOException("Invalid type for extension " + name + ", only integers are supported");
+                }
+                addAttribute(attributes, name, parser.getIntValue());
+                break;
+            case VALUE_NUMBER_FLOAT:
+                throw new IOException("Invalid type for extension " + name + ", only integers are supported");
+            default:
+                // objects, arrays and nulls are kept as their json
+                addAttribute(attributes, name, token == JsonToken.VALUE_NULL ? "null" : parser.readValueAsTree().toString());
+        }
+    }
+
+    private static void addAttribute(List<Object> attributes, String name, Object value) {
+        if (value != null) {
+            attributes.add(name);
+            attributes.add(value);
+        }
+    }
+
+    private static boolean isValidExtensionName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private CloudEventCodec() {
+        throw new IllegalStateException("Instantiation of utility class CloudEventCodec is forbidden");
+    }
+}
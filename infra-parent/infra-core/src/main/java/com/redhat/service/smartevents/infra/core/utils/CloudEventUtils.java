@@ -43,11 +43,8 @@ public class CloudEventUtils {
     }
 
     public static CloudEvent build(SpecVersion specVersion, String id, URI source, String type, String subject, CloudEvent data) {
-        try {
-            return build(specVersion, id, source, type, subject, OBJECT_MAPPER.readTree(encode(data)));
-        } catch (JsonProcessingException e) {
-            throw new CloudEventDeserializationException("Failed to parse cloud event to wrap");
-        }
+        // the wrapped event is converted to a tree straight away, without encoding it
+        return build(specVersion, id, source, type, subject, CloudEventCodec.toJsonNode(data));
     }
 
     public static String encode(CloudEvent event) {
@@ -0,0 +1,137 @@
+package com.redhat.service.smartevents.infra.core.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.CloudEventDeserializationException;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.jackson.JsonCloudEventData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CloudEventCodecTest {
+
+    private static Stream<String> events() {
+        return Stream.of(
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\"}",
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"subject\":\"mySubject\",\"time\":\"2022-05-04T10:11:12.345Z\","
+                        + "\"dataschema\":\"http://schema\",\"data\":{\"key\":\"value\",\"nested\":{\"list\":[1,2.5,true,null]}}}",
+                "{\"data\":{\"key\":\"value\"},\"type\":\"myType\",\"source\":\"mySource\",\"id\":\"myId\",\"specversion\":\"1.0\"}",
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"datacontenttype\":\"application/json\",\"data\":[1,2,3]}",
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data\":\"a string\"}",
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data\":null}",
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"datacontenttype\":\"text/plain\",\"data\":\"some text\"}",
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"datacontenttype\":\"application/octet-stream\",\"data_base64\":\"AQIDBA==\"}",
+                "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"subject\":null,\"mystring\":\"value\",\"myint\":5,\"mybool\":true,"
+                        + "\"myobject\":{\"a\":1},\"data\":{}}",
+                "{\"specversion\":\"0.3\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"schemaurl\":\"http://schema\",\"data\":{\"key\":\"value\"}}");
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void testDecodeIsTheSameOfTheModule(String json) {
+        CloudEvent expected = CloudEventUtils.decode(json);
+
+        CloudEvent decoded = CloudEventCodec.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(decoded).isEqualTo(expected);
+        assertThat(decoded.getData() == null ? null : decoded.getData().getClass())
+                .isEqualTo(expected.getData() == null ? null : expected.getData().getClass());
+    }
+
+    @Test
+    void testDecodeWithOffset() {
+        String json = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data\":{\"key\":\"value\"}}";
+        byte[] bytes = ("xx" + json + "yy").getBytes(StandardCharsets.UTF_8);
+
+        CloudEvent decoded = CloudEventCodec.decode(bytes, 2, json.length());
+
+        assertThat(decoded).isEqualTo(CloudEventUtils.decode(json));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "[]",
+            "{\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\"}",
+            "{\"specversion\":\"1.0\",\"source\":\"mySource\",\"type\":\"myType\"}",
+            "{\"specversion\":\"1.0\",\"id\":5,\"source\":\"mySource\",\"type\":\"myType\"}",
+            "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"myfloat\":1.5}",
+            "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"Upper\":\"case\"}",
+            "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"in-valid\":\"value\"}",
+            "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data\":{},\"data_base64\":\"AQIDBA==\"}",
+            "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"datacontenttype\":\"text/plain\",\"data\":{}}",
+            "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data\":{"
+    })
+    void testDecodeInvalidEvent(String json) {
+        assertThatThrownBy(() -> CloudEventCodec.decode(json.getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(CloudEventDeserializationException.class)
+                .hasCauseInstanceOf(Exception.class);
+    }
+
+    @Test
+    void testEncode() {
+        CloudEvent event = createEvent();
+
+        byte[] encoded = CloudEventCodec.encode(event);
+
+        assertThat(new String(encoded, StandardCharsets.UTF_8)).isEqualTo(CloudEventUtils.encode(event));
+        assertThat(CloudEventCodec.decode(encoded)).isEqualTo(event);
+    }
+
+    @Test
+    void testEncodeToStream() {
+        CloudEvent event = createEvent();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        outputStream.write('[');
+
+        CloudEventCodec.encode(event, outputStream);
+        outputStream.write(']');
+
+        assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("[" + CloudEventUtils.encode(event) + "]");
+    }
+
+    @Test
+    void testToJsonNodeIsTheSameOfTheEncodedEvent() throws Exception {
+        CloudEvent event = createEvent();
+        CloudEvent bytesEvent = CloudEventBuilder.v1(event)
+                .withDataContentType("application/octet-stream")
+                .withData(new byte[] { 1, 2, 3, 4 })
+                .build();
+
+        assertThat(CloudEventCodec.toJsonNode(event)).isEqualTo(CloudEventUtils.getMapper().readTree(CloudEventUtils.encode(event)));
+        assertThat(CloudEventCodec.toJsonNode(bytesEvent)).isEqualTo(CloudEventUtils.getMapper().readTree(CloudEventUtils.encode(bytesEvent)));
+    }
+
+    @Test
+    void testBuildWrapsEvent() throws Exception {
+        CloudEvent event = createEvent();
+
+        CloudEvent wrapper = CloudEventUtils.build(SpecVersion.V1, "wrapperId", URI.create("wrapperSource"), "wrapperType", null, event);
+
+        JsonNode wrapped = ((JsonCloudEventData) wrapper.getData()).getNode();
+        assertThat(wrapped).isEqualTo(CloudEventUtils.getMapper().readTree(CloudEventUtils.encode(event)));
+    }
+
+    private static CloudEvent createEvent() {
+        JsonNode data = CloudEventUtils.getMapper().createObjectNode().put("key", "value");
+        return CloudEventUtils.builderFor(SpecVersion.V1, "myId", URI.create("mySource"), "myType", "mySubject", data)
+                .withTime(OffsetDateTime.of(2022, 5, 4, 10, 11, 12, 0, ZoneOffset.UTC))
+                .withExtension("myextension", "value")
+                .build();
+    }
+}
@@ -1,8 +1,10 @@
 package com.redhat.service.smartevents.infra.v1.api.models.processors;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
 import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
@@ -25,6 +27,11 @@ public class ProcessorDefinition {
     @JsonProperty("resolvedAction")
     private Action resolvedAction;
 
+    // The delays of the retry tiers of the executor of the processor, instead of the ones of the shard operator
+    @JsonProperty("retryDelays")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> retryDelays;
+
     public ProcessorDefinition() {
     }
 
@@ -86,6 +93,14 @@ public class ProcessorDefinition {
         this.resolvedAction = resolvedAction;
     }
 
+    public List<String> getRetryDelays() {
+        return retryDelays;
+    }
+
+    public void setRetryDelays(List<String> retryDelays) {
+        this.retryDelays = retryDelays;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -96,11 +111,12 @@ public class ProcessorDefinition {
         }
         ProcessorDefinition that = (ProcessorDefinition) o;
         return Objects.equals(filters, that.filters) && Objects.equals(transformationTemplate, that.transformationTemplate) && Objects.equals(requestedAction, that.requestedAction)
-                && Objects.equals(requestedSource, that.requestedSource) && Objects.equals(resolvedAction, that.resolvedAction);
+                && Objects.equals(requestedSource, that.requestedSource) && Objects.equals(resolvedAction, that.resolvedAction)
+                && Objects.equals(retryDelays, that.retryDelays);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(filters, transformationTemplate, requestedAction, requestedSource, resolvedAction);
+        return Objects.hash(filters, transformationTemplate, requestedAction, requestedSource, resolvedAction, retryDelays);
     }
 }
@@ -0,0 +1,54 @@
+package com.redhat.service.smartevents.infra.v1.api.models.transformations;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.quarkus.qute.Engine;
+import io.quarkus.qute.Template;
+
+/**
+ * Bounded LRU cache of parsed Qute templates, so that a template is parsed only once when it is first validated or
+ * built, and identical templates share the same parsed form.
+ * <p>
+ * The templates are keyed by the SHA-256 digest of their text: a template can be large and the cache would otherwise
+ * keep a copy of its text next to its parsed form.
+ */
+class QuteTemplateCache {
+
+    private final Engine engine;
+    private final Map<String, Template> templates;
+
+    QuteTemplateCache(Engine engine, int maxSize) {
+        this.engine = engine;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @throws io.quarkus.qute.TemplateException if the template is malformed. Malformed templates are not cached.
+     */
+    synchronized Template get(String template) {
+        return templates.computeIfAbsent(toKey(template), key -> engine.parse(template));
+    }
+
+    synchronized int size() {
+        return templates.size();
+    }
+
+    static String toKey(String template) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(template.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // every implementation of the Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
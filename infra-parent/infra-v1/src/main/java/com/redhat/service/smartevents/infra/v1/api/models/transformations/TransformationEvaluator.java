@@ -4,4 +4,12 @@ import java.util.Map;
 
 public interface TransformationEvaluator {
     String render(Map<String, Object> data);
+
+    /**
+     * @return true if there is no template, i.e. the output is the data itself serialized as json. In this case the
+     *         caller can send the original event as it is, without converting it to a {@link Map} first.
+     */
+    default boolean isPassThrough() {
+        return false;
+    }
 }
@@ -11,17 +11,31 @@ import io.quarkus.qute.TemplateException;
 @ApplicationScoped
 public class TransformationEvaluatorFactoryQute implements TransformationEvaluatorFactory {
 
+    static final int DEFAULT_TEMPLATE_CACHE_SIZE = 1000;
+
     private static final Engine engine = Engine.builder().addDefaults().build();
 
+    private static final QuteTemplateCache TEMPLATE_CACHE = new QuteTemplateCache(engine, DEFAULT_TEMPLATE_CACHE_SIZE);
+
+    private final QuteTemplateCache templateCache;
+
+    public TransformationEvaluatorFactoryQute() {
+        this(TEMPLATE_CACHE);
+    }
+
+    TransformationEvaluatorFactoryQute(QuteTemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
     @Override
     public TransformationEvaluator build(String template) {
-        return new TransformationEvaluatorQute(engine, template);
+        return new TransformationEvaluatorQute(template == null ? null : templateCache.get(template));
     }
 
     @Override
     public ValidationResult validate(String template) {
         try {
-            engine.parse(template);
+            templateCache.get(template);
         } catch (TemplateException e) {
             return ValidationResult.invalid(new ProcessorTemplateDefinitionException(e.getMessage()));
         }
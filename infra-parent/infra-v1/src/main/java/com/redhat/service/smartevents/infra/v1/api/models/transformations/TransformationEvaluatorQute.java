@@ -12,12 +12,17 @@ public class TransformationEvaluatorQute implements TransformationEvaluator {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
-    private Template template;
+    private final Template template;
 
     public TransformationEvaluatorQute(Engine engine, String template) {
-        if (template != null) {
-            this.template = engine.parse(template);
-        }
+        this(template == null ? null : engine.parse(template));
+    }
+
+    /**
+     * @param template the parsed template, null to render the data as json
+     */
+    public TransformationEvaluatorQute(Template template) {
+        this.template = template;
     }
 
     @Override
@@ -31,4 +36,9 @@ public class TransformationEvaluatorQute implements TransformationEvaluator {
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public boolean isPassThrough() {
+        return template == null;
+    }
 }
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 
 import com.redhat.service.smartevents.infra.core.validations.ValidationResult;
 
+import io.quarkus.qute.Engine;
+import io.quarkus.qute.Template;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class TransformationEvaluatorFactoryQuteTest {
@@ -29,4 +32,48 @@ public class TransformationEvaluatorFactoryQuteTest {
         assertThat(result.isValid()).isFalse();
         assertThat(result.getViolations()).isNotEmpty();
     }
+
+    @Test
+    public void templateIsParsedOnce() {
+        QuteTemplateCache cache = new QuteTemplateCache(Engine.builder().addDefaults().build(), 10);
+        TransformationEvaluatorFactoryQute factory = new TransformationEvaluatorFactoryQute(cache);
+        String template = "Hi {key} how are you?";
+
+        assertThat(factory.validate(template).isValid()).isTrue();
+        Template parsed = cache.get(template);
+        factory.build(template);
+        factory.build(template);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(template)).isSameAs(parsed);
+    }
+
+    @Test
+    public void invalidTemplateIsNotCached() {
+        QuteTemplateCache cache = new QuteTemplateCache(Engine.builder().addDefaults().build(), 10);
+        TransformationEvaluatorFactoryQute factory = new TransformationEvaluatorFactoryQute(cache);
+
+        assertThat(factory.validate("Hi {key how are you?").isValid()).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void templateCacheIsBounded() {
+        QuteTemplateCache cache = new QuteTemplateCache(Engine.builder().addDefaults().build(), 2);
+
+        Template first = cache.get("Hi {key}");
+        cache.get("Hi {a}");
+        cache.get("Hi {b}");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("Hi {key}")).isNotSameAs(first);
+    }
+
+    @Test
+    public void templateCacheIsKeyedByTheDigestOfTheTemplate() {
+        String large = "Hi {key}".repeat(10_000);
+
+        assertThat(QuteTemplateCache.toKey(large)).hasSize(44).isEqualTo(QuteTemplateCache.toKey(new String(large)));
+        assertThat(QuteTemplateCache.toKey("Hi {a}")).hasSize(44).isNotEqualTo(QuteTemplateCache.toKey("Hi {b}"));
+    }
 }
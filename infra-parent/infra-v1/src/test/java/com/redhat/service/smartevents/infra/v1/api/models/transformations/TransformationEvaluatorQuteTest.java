@@ -32,4 +32,10 @@ public class TransformationEvaluatorQuteTest {
         String rendered = evaluator.render(data);
         assertThat(rendered).isEqualTo("Hi value how are you?");
     }
+
+    @Test
+    public void testPassThrough() {
+        assertThat(FACTORY.build(null).isPassThrough()).isTrue();
+        assertThat(FACTORY.build("Hi {key} how are you?").isPassThrough()).isFalse();
+    }
 }
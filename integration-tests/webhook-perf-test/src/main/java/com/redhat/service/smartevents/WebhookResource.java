@@ -1,6 +1,7 @@
 package com.redhat.service.smartevents;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.validation.constraints.NotEmpty;
@@ -31,6 +32,8 @@ import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 @Produces(MediaType.APPLICATION_JSON)
 public class WebhookResource {
 
+    public static final String CLOUD_EVENTS_BATCH_JSON = "application/cloudevents-batch+json";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(WebhookResource.class);
 
     @Inject
@@ -90,6 +93,23 @@ public class WebhookResource {
         }
     }
 
+    @POST
+    @Consumes(CLOUD_EVENTS_BATCH_JSON)
+    public Response consumeEvents(List<WebhookRequest> requests) {
+        LOGGER.info("batch of {} requests received", requests.size());
+        List<Event> events = requests.stream()
+                .filter(request -> request.getBridgeId() != null && !request.getBridgeId().isEmpty())
+                .map(WebhookRequest::toEntity)
+                .collect(Collectors.toList());
+        if (events.isEmpty()) {
+            LOGGER.warn("skipping events creation");
+            return Response.accepted().build();
+        }
+        List<Event> created = webhookService.createAll(events);
+        LOGGER.info("{} new events created", created.size());
+        return Response.status(CREATED).entity(created).build();
+    }
+
     @DELETE
     @Path("/{id}")
     public Response delete(@NotEmpty @PathParam("id") Long id) {
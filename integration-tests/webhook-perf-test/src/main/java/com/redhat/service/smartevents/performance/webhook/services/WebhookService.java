@@ -15,6 +15,8 @@ public interface WebhookService {
 
     Event create(Event event);
 
+    List<Event> createAll(List<Event> events);
+
     Long countEventsReceived(String bridgeId);
 
     Event delete(Long id) throws EventNotFoundException;
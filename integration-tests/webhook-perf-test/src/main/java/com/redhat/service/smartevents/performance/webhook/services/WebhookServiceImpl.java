@@ -45,6 +45,14 @@ public class WebhookServiceImpl implements WebhookService {
         return event;
     }
 
+    @Override
+    @Transactional
+    public List<Event> createAll(List<Event> events) {
+        Event.persist(events);
+        LOGGER.info("{} events persisted", events.size());
+        return events;
+    }
+
     @Override
     public Long countEventsReceived(String bridgeId) {
         return Event.count("bridgeId = :bridgeId",
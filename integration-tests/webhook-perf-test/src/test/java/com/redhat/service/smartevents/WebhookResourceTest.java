@@ -162,6 +162,30 @@ public class WebhookResourceTest {
         assertThat(formatter.format(response.getReceivedAt()), is(formatter.format(receivedAt)));
     }
 
+    @Test
+    void testConsumeEvents() {
+        ZonedDateTime submittedAt = ZonedDateTime.now(ZoneOffset.UTC);
+        Mockito.when(webhookService.createAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WebhookRequest first = new WebhookRequest("bridgeId-1");
+        first.setSubmittedAt(submittedAt);
+        WebhookRequest second = new WebhookRequest("bridgeId-1");
+        second.setSubmittedAt(submittedAt);
+        String result = given()
+                .when()
+                .body(Json.encode(List.of(first, second)))
+                .contentType(WebhookResource.CLOUD_EVENTS_BATCH_JSON)
+                .post("/events")
+                .then()
+                .statusCode(HttpStatus.SC_CREATED)
+                .extract().asString();
+        Event[] response = Json.decodeValue(result, Event[].class);
+
+        assertThat(response.length, is(2));
+        assertThat(response[0].getBridgeId(), is("bridgeId-1"));
+        assertThat(response[1].getBridgeId(), is("bridgeId-1"));
+    }
+
     @Test
     void testDelete() throws EventNotFoundException {
         Event expectEvent = new Event();
@@ -8,6 +8,8 @@ public interface ResourceNamesProvider {
 
     String getBridgeErrorTopicName(String bridgeId);
 
+    String getBridgeRetryTopicName(String bridgeId, int tier);
+
     String getProcessorConnectorName(String processorId);
 
     String getProcessorTopicName(String processorId);
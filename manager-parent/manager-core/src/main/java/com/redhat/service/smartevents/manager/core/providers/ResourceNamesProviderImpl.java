@@ -12,6 +12,7 @@ public class ResourceNamesProviderImpl implements ResourceNamesProvider {
     public static final String BRIDGE_SHORTNAME = "brdg";
     public static final String PROCESSOR_SHORTNAME = "prcs";
     public static final String ERROR_TOPIC_SUFFIX = "err";
+    public static final String RETRY_TOPIC_SUFFIX = "retry";
 
     private static final String VALIDATION_REGEX = "^[a-z][a-z0-9-]{0,16}$";
 
@@ -43,6 +44,11 @@ public class ResourceNamesProviderImpl implements ResourceNamesProvider {
         return String.format("%s-%s", getBridgeTopicName(bridgeId), ERROR_TOPIC_SUFFIX);
     }
 
+    @Override
+    public String getBridgeRetryTopicName(String bridgeId, int tier) {
+        return String.format("%s-%s-%d", getBridgeTopicName(bridgeId), RETRY_TOPIC_SUFFIX, tier);
+    }
+
     @Override
     public String getProcessorConnectorName(String processorId) {
         return getProcessorTopicName(processorId);
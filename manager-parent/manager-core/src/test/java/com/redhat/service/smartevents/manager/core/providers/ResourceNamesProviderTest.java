@@ -8,6 +8,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static com.redhat.service.smartevents.manager.core.providers.ResourceNamesProviderImpl.ERROR_TOPIC_SUFFIX;
+import static com.redhat.service.smartevents.manager.core.providers.ResourceNamesProviderImpl.RETRY_TOPIC_SUFFIX;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
@@ -55,6 +56,10 @@ class ResourceNamesProviderTest {
         assertIsRFC1035Label(bridgeErrorTopicName);
         assertThat(bridgeErrorTopicName).isEqualTo(expectedValidatedPrefix + ResourceNamesProviderImpl.BRIDGE_SHORTNAME + "-" + TEST_BRIDGE_ID + "-" + ERROR_TOPIC_SUFFIX);
 
+        String bridgeRetryTopicName = resourceNamesProvider.getBridgeRetryTopicName(TEST_BRIDGE_ID, 1);
+        assertIsRFC1035Label(bridgeRetryTopicName);
+        assertThat(bridgeRetryTopicName).isEqualTo(expectedValidatedPrefix + ResourceNamesProviderImpl.BRIDGE_SHORTNAME + "-" + TEST_BRIDGE_ID + "-" + RETRY_TOPIC_SUFFIX + "-1");
+
         String processorConnectorName = resourceNamesProvider.getProcessorConnectorName(TEST_PROCESSOR_ID);
         assertIsRFC1035Label(processorConnectorName);
         assertThat(processorConnectorName).isEqualTo(expectedValidatedPrefix + ResourceNamesProviderImpl.PROCESSOR_SHORTNAME + "-" + TEST_PROCESSOR_ID);
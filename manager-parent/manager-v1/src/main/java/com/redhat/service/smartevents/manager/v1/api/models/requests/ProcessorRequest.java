@@ -1,10 +1,13 @@
 package com.redhat.service.smartevents.manager.v1.api.models.requests;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -40,6 +43,10 @@ public class ProcessorRequest {
     @Valid
     protected Source source;
 
+    @JsonProperty("retryDelays")
+    @Size(max = 3, message = "At most 3 retry delays are supported")
+    protected List<@Pattern(regexp = "^[1-9][0-9]*(ms|s|m|h)$", message = "Retry delays must be durations such as 10s, 1m or 1h") String> retryDelays;
+
     public ProcessorRequest() {
     }
 
@@ -91,6 +98,14 @@ public class ProcessorRequest {
         return source;
     }
 
+    public List<String> getRetryDelays() {
+        return retryDelays;
+    }
+
+    public void setRetryDelays(List<String> retryDelays) {
+        this.retryDelays = retryDelays;
+    }
+
     @JsonIgnore
     public Gateway getGateway() {
         if (action != null) {
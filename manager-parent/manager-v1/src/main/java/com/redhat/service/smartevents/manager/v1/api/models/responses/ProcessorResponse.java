@@ -1,5 +1,6 @@
 package com.redhat.service.smartevents.manager.v1.api.models.responses;
 
+import java.util.List;
 import java.util.Set;
 
 import javax.validation.constraints.NotNull;
@@ -38,6 +39,9 @@ public class ProcessorResponse extends BaseManagedResourceResponse {
     @JsonProperty("source")
     private Source source;
 
+    @JsonProperty("retryDelays")
+    private List<String> retryDelays;
+
     @JsonProperty("status_message")
     private String statusMessage;
 
@@ -81,6 +85,14 @@ public class ProcessorResponse extends BaseManagedResourceResponse {
         this.source = source;
     }
 
+    public List<String> getRetryDelays() {
+        return retryDelays;
+    }
+
+    public void setRetryDelays(List<String> retryDelays) {
+        this.retryDelays = retryDelays;
+    }
+
     public String getStatusMessage() {
         return statusMessage;
     }
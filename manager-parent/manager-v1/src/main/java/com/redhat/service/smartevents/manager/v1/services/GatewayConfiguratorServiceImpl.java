@@ -29,6 +29,11 @@ public class GatewayConfiguratorServiceImpl implements GatewayConfiguratorServic
         return resourceNamesProvider.getProcessorTopicName(processorId);
     }
 
+    @Override
+    public String getBridgeTopicName(String bridgeId) {
+        return resourceNamesProvider.getBridgeTopicName(bridgeId);
+    }
+
     @Override
     public String getBootstrapServers() {
         return internalKafkaConfigurationProvider.getBootstrapServers();
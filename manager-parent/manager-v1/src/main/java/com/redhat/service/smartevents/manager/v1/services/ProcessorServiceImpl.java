@@ -175,6 +175,7 @@ public class ProcessorServiceImpl implements ProcessorService {
         ProcessorDefinition definition = processorType == ProcessorType.SOURCE
                 ? new ProcessorDefinition(requestedFilters, requestedTransformationTemplate, processorRequest.getSource(), resolvedAction)
                 : new ProcessorDefinition(requestedFilters, requestedTransformationTemplate, processorRequest.getAction(), resolvedAction);
+        definition.setRetryDelays(processorRequest.getRetryDelays());
 
         newProcessor.setDefinition(definition);
 
@@ -262,6 +263,7 @@ public class ProcessorServiceImpl implements ProcessorService {
         Action existingAction = existingDefinition.getRequestedAction();
         Source existingSource = existingDefinition.getRequestedSource();
         Action existingResolvedAction = existingDefinition.getResolvedAction();
+        List<String> existingRetryDelays = existingDefinition.getRetryDelays();
 
         // Validate update.
         // Name cannot be updated.
@@ -288,6 +290,7 @@ public class ProcessorServiceImpl implements ProcessorService {
         // Construct updated definition
         Set<BaseFilter> updatedFilters = processorRequest.getFilters();
         String updatedTransformationTemplate = processorRequest.getTransformationTemplate();
+        List<String> updatedRetryDelays = processorRequest.getRetryDelays();
         Action updatedResolvedAction = processorRequest.getType() == ProcessorType.SOURCE
                 ? resolveSource(updatedSource, customerId, bridgeId, processorId)
                 : resolveAction(updatedAction, customerId, bridgeId, processorId);
@@ -300,13 +303,15 @@ public class ProcessorServiceImpl implements ProcessorService {
                 && Objects.equals(existingTransformationTemplate, updatedTransformationTemplate)
                 && Objects.equals(existingAction, updatedAction)
                 && Objects.equals(existingSource, updatedSource)
-                && Objects.equals(existingResolvedAction, updatedResolvedAction)) {
+                && Objects.equals(existingResolvedAction, updatedResolvedAction)
+                && Objects.equals(existingRetryDelays, updatedRetryDelays)) {
             return existingProcessor;
         }
 
         ProcessorDefinition updatedDefinition = existingProcessor.getType() == ProcessorType.SOURCE
                 ? new ProcessorDefinition(updatedFilters, updatedTransformationTemplate, updatedSource, updatedResolvedAction)
                 : new ProcessorDefinition(updatedFilters, updatedTransformationTemplate, updatedAction, updatedResolvedAction);
+        updatedDefinition.setRetryDelays(updatedRetryDelays);
 
         // Create new definition copying existing properties
         existingProcessor.setModifiedAt(ZonedDateTime.now(ZoneOffset.UTC));
@@ -516,6 +521,7 @@ public class ProcessorServiceImpl implements ProcessorService {
             ProcessorDefinition definition = processor.getDefinition();
             processorResponse.setFilters(definition.getFilters());
             processorResponse.setTransformationTemplate(definition.getTransformationTemplate());
+            processorResponse.setRetryDelays(definition.getRetryDelays());
             if (definition.getRequestedAction() != null) {
                 processorResponse.setAction(gatewaySecretsHandler.mask(definition.getRequestedAction()));
             }
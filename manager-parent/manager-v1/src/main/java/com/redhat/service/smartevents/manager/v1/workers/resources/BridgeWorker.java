@@ -34,6 +34,9 @@ public class BridgeWorker extends AbstractWorker<Bridge> {
 
     private static final String ERROR_HANDLER_NAME_TEMPLATE = "Back-channel for Bridge '%s'";
 
+    // The executors of the bridge retry the failed deliveries through up to 3 delay topics, enabled by the shard operator
+    static final int RETRY_TOPICS = 3;
+
     @Inject
     BridgeDAO bridgeDAO;
 
@@ -84,6 +87,12 @@ public class BridgeWorker extends AbstractWorker<Bridge> {
         rhoasService.createTopicAndGrantAccessFor(resourceNamesProvider.getBridgeErrorTopicName(bridge.getId()),
                 RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
 
+        // Create retry topics
+        for (int tier = 1; tier <= RETRY_TOPICS; tier++) {
+            rhoasService.createTopicAndGrantAccessFor(resourceNamesProvider.getBridgeRetryTopicName(bridge.getId(), tier),
+                    RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
+        }
+
         // We don't need to wait for the Bridge to be READY to handle the Error Handler.
         createOrUpdateOrDeleteErrorHandlerProcessor(bridge);
 
@@ -170,6 +179,12 @@ public class BridgeWorker extends AbstractWorker<Bridge> {
         rhoasService.deleteTopicAndRevokeAccessFor(resourceNamesProvider.getBridgeErrorTopicName(bridge.getId()),
                 RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
 
+        // Delete retry topics
+        for (int tier = 1; tier <= RETRY_TOPICS; tier++) {
+            rhoasService.deleteTopicAndRevokeAccessFor(resourceNamesProvider.getBridgeRetryTopicName(bridge.getId(), tier),
+                    RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
+        }
+
         // Delete DNS entry
         dnsService.deleteDnsRecord(bridge.getId());
 
@@ -21,6 +21,7 @@ import com.redhat.service.smartevents.infra.v1.api.models.filters.BaseFilter;
 import com.redhat.service.smartevents.infra.v1.api.models.filters.StringEquals;
 import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
 import com.redhat.service.smartevents.manager.core.dns.DnsService;
+import com.redhat.service.smartevents.manager.core.providers.ResourceNamesProvider;
 import com.redhat.service.smartevents.manager.core.services.RhoasService;
 import com.redhat.service.smartevents.manager.v1.TestConstants;
 import com.redhat.service.smartevents.manager.v1.api.models.requests.BridgeRequest;
@@ -75,6 +76,9 @@ public class ShardBridgesSyncAPITest {
     @Inject
     DnsService dnsService;
 
+    @Inject
+    ResourceNamesProvider resourceNamesProvider;
+
     @InjectMock
     JsonWebToken jwt;
 
@@ -183,8 +187,8 @@ public class ShardBridgesSyncAPITest {
         assertThat(processor.getDefinition().getRequestedAction().getType()).isEqualTo(SendToBridgeAction.TYPE);
         assertThat(processor.getDefinition().getRequestedAction().getParameter(SendToBridgeAction.BRIDGE_ID_PARAM)).isEqualTo(bridgeId);
         assertThat(processor.getDefinition().getResolvedAction()).isNotNull();
-        assertThat(processor.getDefinition().getResolvedAction().getType()).isEqualTo(WebhookAction.TYPE);
-        assertThat(processor.getDefinition().getResolvedAction().getParameter(WebhookAction.ENDPOINT_PARAM)).isEqualTo(endpoint);
+        assertThat(processor.getDefinition().getResolvedAction().getType()).isEqualTo(KafkaTopicAction.TYPE);
+        assertThat(processor.getDefinition().getResolvedAction().getParameter(KafkaTopicAction.TOPIC_PARAM)).isEqualTo(resourceNamesProvider.getBridgeTopicName(bridgeId));
     }
 
     @Test
@@ -52,6 +52,7 @@ import static com.redhat.service.smartevents.manager.v1.workers.resources.Worker
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
@@ -67,6 +68,7 @@ class BridgeWorkerTest {
     private static final String TEST_RESOURCE_ID = "123";
     private static final String TEST_TOPIC_NAME = "TopicName";
     private static final String TEST_ERROR_HANDLER_TOPIC_NAME = "ErrorHandlerTopicName";
+    private static final String TEST_RETRY_TOPIC_NAME = "RetryTopicName";
 
     @InjectMock
     RhoasService rhoasServiceMock;
@@ -97,6 +99,7 @@ class BridgeWorkerTest {
         databaseManagerUtils.cleanUp();
         when(resourceNamesProviderMock.getBridgeTopicName(any())).thenReturn(TEST_TOPIC_NAME);
         when(resourceNamesProviderMock.getBridgeErrorTopicName(any())).thenReturn(TEST_ERROR_HANDLER_TOPIC_NAME);
+        when(resourceNamesProviderMock.getBridgeRetryTopicName(any(), anyInt())).thenReturn(TEST_RETRY_TOPIC_NAME);
         when(processorServiceMock.getErrorHandler(anyString(), anyString())).thenReturn(Optional.empty());
     }
 
@@ -288,6 +291,8 @@ class BridgeWorkerTest {
                 .createTopicAndGrantAccessFor(TEST_TOPIC_NAME, RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
         verify(rhoasServiceMock, times(throwRhoasError ? 0 : 1))
                 .createTopicAndGrantAccessFor(TEST_ERROR_HANDLER_TOPIC_NAME, RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
+        verify(rhoasServiceMock, times(throwRhoasError ? 0 : BridgeWorker.RETRY_TOPICS))
+                .createTopicAndGrantAccessFor(TEST_RETRY_TOPIC_NAME, RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
         verify(processorServiceMock, times(throwRhoasError || errorHandlerProcessorPresent ? 0 : 1))
                 .createErrorHandlerProcessor(eq(bridge.getId()), eq(TestConstants.DEFAULT_CUSTOMER_ID), eq(TestConstants.DEFAULT_USER_NAME), any());
         verify(dnsServiceMock, times(throwRhoasError ? 0 : 1)).createDnsRecord(eq(bridge.getId()));
@@ -402,6 +407,7 @@ class BridgeWorkerTest {
 
         verify(rhoasServiceMock).deleteTopicAndRevokeAccessFor(TEST_TOPIC_NAME, RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
         verify(rhoasServiceMock, times(throwRhoasError ? 0 : 1)).deleteTopicAndRevokeAccessFor(TEST_ERROR_HANDLER_TOPIC_NAME, RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
+        verify(rhoasServiceMock, times(throwRhoasError ? 0 : BridgeWorker.RETRY_TOPICS)).deleteTopicAndRevokeAccessFor(TEST_RETRY_TOPIC_NAME, RhoasTopicAccessType.CONSUMER_AND_PRODUCER);
         verify(dnsServiceMock, times(throwRhoasError ? 0 : 1)).deleteDnsRecord(eq(bridge.getId()));
 
         if (isErrorHandlerDeleted) {
@@ -11,6 +11,8 @@ public interface GatewayConfiguratorService {
 
     String getConnectorTopicName(String processorId);
 
+    String getBridgeTopicName(String bridgeId);
+
     String getBootstrapServers();
 
     String getClientId();
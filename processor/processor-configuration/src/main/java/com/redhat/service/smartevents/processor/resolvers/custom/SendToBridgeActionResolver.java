@@ -8,25 +8,60 @@ import java.util.Map;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
 import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.GatewayProviderException;
 import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
 import com.redhat.service.smartevents.processor.GatewayConfiguratorService;
+import com.redhat.service.smartevents.processor.actions.kafkatopic.KafkaTopicAction;
 import com.redhat.service.smartevents.processor.actions.sendtobridge.SendToBridgeAction;
 import com.redhat.service.smartevents.processor.actions.webhook.WebhookAction;
 
 @ApplicationScoped
 public class SendToBridgeActionResolver implements SendToBridgeAction, CustomGatewayResolver<Action> {
 
+    public static final String CLOUD_EVENT_CONTENT_TYPE = "application/cloudevents+json";
+
     @Inject
     GatewayConfiguratorService gatewayConfiguratorService;
 
+    // When enabled the events are written straight to the topic of the destination bridge on the internal Kafka cluster,
+    // instead of being sent to its ingress over HTTP. The executor has a single producer for its kafka_topic actions, that
+    // writes to the internal cluster only when no hosted processor has an action with its own broker, so it is opt-in.
+    @ConfigProperty(name = "event-bridge.send-to-bridge.kafka-enabled", defaultValue = "false")
+    boolean kafkaEnabled;
+
     @Override
     public Action resolve(Action action, String customerId, String bridgeId, String processorId) {
         String destinationBridgeId = action.getParameterOrDefault(SendToBridgeAction.BRIDGE_ID_PARAM, bridgeId);
 
+        // The endpoint is always looked up, as it checks that the destination bridge is ready and belongs to the customer
+        String bridgeEndpoint = gatewayConfiguratorService.getBridgeEndpoint(destinationBridgeId, customerId);
+
+        return kafkaEnabled
+                ? toKafkaTopicAction(destinationBridgeId)
+                : toWebhookAction(destinationBridgeId, bridgeEndpoint);
+    }
+
+    /**
+     * The action has no broker parameters, so the executor writes to the internal cluster it reads the events from.
+     * The events are written as structured CloudEvents, that the executors of the destination bridge read as they are.
+     */
+    private Action toKafkaTopicAction(String destinationBridgeId) {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put(KafkaTopicAction.TOPIC_PARAM, gatewayConfiguratorService.getBridgeTopicName(destinationBridgeId));
+        parameters.put(KafkaTopicAction.CONTENT_TYPE_PARAM, CLOUD_EVENT_CONTENT_TYPE);
+
+        Action transformedAction = new Action();
+        transformedAction.setType(KafkaTopicAction.TYPE);
+        transformedAction.setMapParameters(parameters);
+
+        return transformedAction;
+    }
+
+    private Action toWebhookAction(String destinationBridgeId, String bridgeEndpoint) {
         Map<String, String> parameters = new HashMap<>();
         try {
-            String bridgeEndpoint = gatewayConfiguratorService.getBridgeEndpoint(destinationBridgeId, customerId);
             String bridgeWebhookUrl = getBridgeWebhookUrl(bridgeEndpoint);
             parameters.put(WebhookAction.ENDPOINT_PARAM, bridgeWebhookUrl);
             parameters.put(WebhookAction.USE_TECHNICAL_BEARER_TOKEN_PARAM, "true");
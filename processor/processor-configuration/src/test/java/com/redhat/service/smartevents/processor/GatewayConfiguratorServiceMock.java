@@ -15,6 +15,11 @@ public class GatewayConfiguratorServiceMock implements GatewayConfiguratorServic
         return String.format("mock-%s", processorId);
     }
 
+    @Override
+    public String getBridgeTopicName(String bridgeId) {
+        return String.format("mock-bridge-%s", bridgeId);
+    }
+
     @Override
     public String getBootstrapServers() {
         return "bootstrapserver:443";
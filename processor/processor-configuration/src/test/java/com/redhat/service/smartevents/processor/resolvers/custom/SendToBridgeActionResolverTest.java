@@ -11,6 +11,7 @@ import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.Bri
 import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.ItemNotFoundException;
 import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
 import com.redhat.service.smartevents.processor.GatewayConfiguratorService;
+import com.redhat.service.smartevents.processor.actions.kafkatopic.KafkaTopicAction;
 import com.redhat.service.smartevents.processor.actions.sendtobridge.SendToBridgeAction;
 import com.redhat.service.smartevents.processor.actions.webhook.WebhookAction;
 
@@ -33,9 +34,11 @@ class SendToBridgeActionResolverTest {
     private static final String BRIDGE_ID = "br-01";
     private static final String BRIDGE_ENDPOINT = "http://www.example.com/bridge01";
     private static final String BRIDGE_WEBHOOK = BRIDGE_ENDPOINT;
+    private static final String BRIDGE_TOPIC = "ob-br-01";
     private static final String OTHER_BRIDGE_ID = "br-02";
     private static final String OTHER_BRIDGE_ENDPOINT = "http://www.example.com/bridge02";
     private static final String OTHER_BRIDGE_WEBHOOK = OTHER_BRIDGE_ENDPOINT;
+    private static final String OTHER_BRIDGE_TOPIC = "ob-br-02";
     private static final String UNAVAILABLE_BRIDGE_ID = "br-unavailable";
     private static final String UNKNOWN_BRIDGE_ID = "br-unknown";
 
@@ -55,6 +58,8 @@ class SendToBridgeActionResolverTest {
         when(gatewayConfiguratorServiceMock.getBridgeEndpoint(not(or(eq(UNAVAILABLE_BRIDGE_ID), or(eq(BRIDGE_ID), eq(OTHER_BRIDGE_ID)))), eq(TEST_CUSTOMER_ID)))
                 .thenThrow(new ItemNotFoundException("Bridge not found"));
         when(gatewayConfiguratorServiceMock.getBridgeEndpoint(any(), not(eq(TEST_CUSTOMER_ID)))).thenThrow(new ItemNotFoundException("Customer not found"));
+        when(gatewayConfiguratorServiceMock.getBridgeTopicName(BRIDGE_ID)).thenReturn(BRIDGE_TOPIC);
+        when(gatewayConfiguratorServiceMock.getBridgeTopicName(OTHER_BRIDGE_ID)).thenReturn(OTHER_BRIDGE_TOPIC);
     }
 
     @Test
@@ -85,6 +90,20 @@ class SendToBridgeActionResolverTest {
         assertValid(resolvedAction, OTHER_BRIDGE_WEBHOOK);
     }
 
+    @Test
+    void testActionWithOtherBridgeIdOverKafka() {
+        SendToBridgeActionResolver kafkaResolver = new SendToBridgeActionResolver();
+        kafkaResolver.gatewayConfiguratorService = gatewayConfiguratorServiceMock;
+        kafkaResolver.kafkaEnabled = true;
+
+        Action resolvedAction = kafkaResolver.resolve(actionWithBridgeId(OTHER_BRIDGE_ID), TEST_CUSTOMER_ID, BRIDGE_ID, "");
+
+        assertThat(resolvedAction.getType()).isEqualTo(KafkaTopicAction.TYPE);
+        assertThat(resolvedAction.getParameter(KafkaTopicAction.TOPIC_PARAM)).isEqualTo(OTHER_BRIDGE_TOPIC);
+        assertThat(resolvedAction.getParameter(KafkaTopicAction.CONTENT_TYPE_PARAM)).isEqualTo(SendToBridgeActionResolver.CLOUD_EVENT_CONTENT_TYPE);
+        assertThat(resolvedAction.getParameter(KafkaTopicAction.BROKER_URL)).isNull();
+    }
+
     @Test
     void testActionWithUnavailableBridgeId() {
         Action inputAction = actionWithBridgeId(UNAVAILABLE_BRIDGE_ID);
@@ -152,6 +152,43 @@ public class DefaultGatewayValidatorTest extends AbstractGatewayValidatorTest {
         assertValidationIsValid(actionWith(WebhookAction.TYPE, validParams));
     }
 
+    @Test
+    void testWebhookActionDeliveryPolicy() {
+        Action invalidAction = actionWith(WebhookAction.TYPE, Map.of(WebhookAction.ENDPOINT_PARAM, "http://webhook.site:8080/hello"));
+        invalidAction.getParameters().put(WebhookAction.RETRY_MAX_ATTEMPTS_PARAM, 0);
+        invalidAction.getParameters().put(WebhookAction.RETRY_JITTER_PARAM, 2);
+        invalidAction.getParameters().put(WebhookAction.RATE_LIMIT_PER_SECOND_PARAM, 0);
+        assertValidationIsInvalid(invalidAction,
+                List.of("$.retry_max_attempts: must have a minimum value of 1",
+                        "$.retry_jitter: must have a maximum value of 1",
+                        "$.rate_limit_per_second: must have an exclusive minimum value of 0"));
+
+        Action validAction = actionWith(WebhookAction.TYPE, Map.of(WebhookAction.ENDPOINT_PARAM, "http://webhook.site:8080/hello"));
+        validAction.getParameters().put(WebhookAction.RETRY_MAX_ATTEMPTS_PARAM, 5);
+        validAction.getParameters().put(WebhookAction.RETRY_INITIAL_BACKOFF_MS_PARAM, 100);
+        validAction.getParameters().put(WebhookAction.RETRY_MAX_BACKOFF_MS_PARAM, 1000);
+        validAction.getParameters().put(WebhookAction.RETRY_JITTER_PARAM, 0.3);
+        validAction.getParameters().put(WebhookAction.CIRCUIT_BREAKER_FAILURE_THRESHOLD_PARAM, 10);
+        validAction.getParameters().put(WebhookAction.CIRCUIT_BREAKER_DELAY_MS_PARAM, 60000);
+        validAction.getParameters().put(WebhookAction.RATE_LIMIT_PER_SECOND_PARAM, 20.5);
+        assertValidationIsValid(validAction);
+    }
+
+    @Test
+    void testWebhookActionBatch() {
+        Action invalidAction = actionWith(WebhookAction.TYPE, Map.of(WebhookAction.ENDPOINT_PARAM, "http://webhook.site:8080/hello"));
+        invalidAction.getParameters().put(WebhookAction.BATCH_MAX_SIZE_PARAM, 0);
+        invalidAction.getParameters().put(WebhookAction.BATCH_MAX_DELAY_MS_PARAM, 0);
+        assertValidationIsInvalid(invalidAction,
+                List.of("$.batch_max_size: must have a minimum value of 1",
+                        "$.batch_max_delay_ms: must have a minimum value of 1"));
+
+        Action validAction = actionWith(WebhookAction.TYPE, Map.of(WebhookAction.ENDPOINT_PARAM, "http://webhook.site:8080/hello"));
+        validAction.getParameters().put(WebhookAction.BATCH_MAX_SIZE_PARAM, 100);
+        validAction.getParameters().put(WebhookAction.BATCH_MAX_DELAY_MS_PARAM, 50);
+        assertValidationIsValid(validAction);
+    }
+
     @Test
     void testAnsibleAction() {
         Map<String, String> invalidParams = new HashMap<>();
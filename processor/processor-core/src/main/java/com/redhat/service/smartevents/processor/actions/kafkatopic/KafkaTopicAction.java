@@ -10,6 +10,8 @@ public interface KafkaTopicAction extends GatewayBean {
     String CLIENT_ID = "kafka_client_id";
     String CLIENT_SECRET = "kafka_client_secret";
     String SECURITY_PROTOCOL = "kafka_security_protocol";
+    // Not part of the schema: set by the resolvers when the records must carry a content-type header
+    String CONTENT_TYPE_PARAM = "content_type";
 
     @Override
     default String getType() {
@@ -10,6 +10,15 @@ public interface WebhookAction extends GatewayBean {
     String BASIC_AUTH_USERNAME_PARAM = "basic_auth_username";
     String BASIC_AUTH_PASSWORD_PARAM = "basic_auth_password";
     String SSL_VERIFICATION_DISABLED = "ssl_verification_disabled";
+    String RETRY_MAX_ATTEMPTS_PARAM = "retry_max_attempts";
+    String RETRY_INITIAL_BACKOFF_MS_PARAM = "retry_initial_backoff_ms";
+    String RETRY_MAX_BACKOFF_MS_PARAM = "retry_max_backoff_ms";
+    String RETRY_JITTER_PARAM = "retry_jitter";
+    String CIRCUIT_BREAKER_FAILURE_THRESHOLD_PARAM = "circuit_breaker_failure_threshold";
+    String CIRCUIT_BREAKER_DELAY_MS_PARAM = "circuit_breaker_delay_ms";
+    String RATE_LIMIT_PER_SECOND_PARAM = "rate_limit_per_second";
+    String BATCH_MAX_SIZE_PARAM = "batch_max_size";
+    String BATCH_MAX_DELAY_MS_PARAM = "batch_max_delay_ms";
 
     @Override
     default String getType() {
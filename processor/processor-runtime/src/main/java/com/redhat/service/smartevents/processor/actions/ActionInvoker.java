@@ -1,7 +1,69 @@
 package com.redhat.service.smartevents.processor.actions;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import io.smallrye.mutiny.Uni;
+
 public interface ActionInvoker {
     void onEvent(String event, Map<String, String> headers);
+
+    /**
+     * Sends the event and completes when the target has confirmed the delivery, or fails if it was refused.
+     * By default the event is sent with {@link #onEvent(String, Map)} and the delivery is considered done when it returns.
+     */
+    default Uni<Void> onEventAsync(String event, Map<String, String> headers) {
+        return Uni.createFrom().item(() -> {
+            onEvent(event, headers);
+            return null;
+        });
+    }
+
+    /**
+     * Completes when the target is ready to receive events. Invokers that protect their target (e.g. with a circuit breaker)
+     * delay it while the target is considered unavailable, so that the consumption of new events can be paused.
+     */
+    default Uni<Void> awaitReady() {
+        return Uni.createFrom().voidItem();
+    }
+
+    /**
+     * Invoked with all the events of a batch that matched the processor. The headers of the event at position <code>i</code>
+     * are at the same position in <code>headers</code>. By default every event is sent on its own with
+     * {@link #onEventAsync(String, Map)}, so that the failure of an event does not affect the others.
+     *
+     * @return completes when the target has confirmed or refused the delivery of all the events, with the failures keyed
+     *         by the position of the event that failed, empty if all the events were delivered
+     */
+    default Uni<Map<Integer, Throwable>> onEvents(List<String> events, List<Map<String, String>> headers) {
+        if (events.isEmpty()) {
+            return Uni.createFrom().item(Map.of());
+        }
+        List<Uni<Throwable>> deliveries = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            String event = events.get(i);
+            Map<String, String> eventHeaders = headers.get(i);
+            deliveries.add(Uni.createFrom().deferred(() -> onEventAsync(event, eventHeaders))
+                    .onItem().transform(ignored -> (Throwable) null)
+                    .onFailure().recoverWithItem(failure -> failure));
+        }
+        return Uni.combine().all().unis(deliveries).combinedWith(results -> {
+            Map<Integer, Throwable> failures = new HashMap<>();
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) != null) {
+                    failures.put(i, (Throwable) results.get(i));
+                }
+            }
+            return failures;
+        });
+    }
+
+    /**
+     * Invoked when the invoker is replaced, e.g. because the definition of the processor has been reloaded, once no more
+     * events are going to be sent with it. The events already sent are still delivered.
+     */
+    default void close() {
+    }
 }
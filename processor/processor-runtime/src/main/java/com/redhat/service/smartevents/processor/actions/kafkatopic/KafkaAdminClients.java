@@ -34,11 +34,14 @@ public class KafkaAdminClients {
         return createAdminClient(defaultConfig);
     }
 
+    /**
+     * Actions without broker parameters (e.g. the ones resolved from send_to_bridge) write to the default cluster.
+     */
     @Produces
     @ApplicationScoped
     @Named("outboundAdminClient")
     AdminClient adminClientOutbound() {
-        return createAdminClient(outboundConfig);
+        return createAdminClient(outboundConfig.containsKey(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG) ? outboundConfig : defaultConfig);
     }
 
     private AdminClient createAdminClient(Map<String, Object> config) {
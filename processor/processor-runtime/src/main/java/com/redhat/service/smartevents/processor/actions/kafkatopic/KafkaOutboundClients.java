@@ -34,8 +34,14 @@ public class KafkaOutboundClients {
             return Collections.emptyMap();
         }
 
-        ProcessorDTO processorDTO = optProcessorDTO.get();
+        return getConfiguration(optProcessorDTO.get());
+    }
 
+    /**
+     * @return the configuration of the actions producer for the kafka_topic action of the processor, empty when the action
+     *         has no broker of its own and the default Kafka client is used
+     */
+    public static Map<String, Object> getConfiguration(ProcessorDTO processorDTO) {
         if (processorDTO.getDefinition() == null || processorDTO.getDefinition().getResolvedAction() == null) {
             return Collections.emptyMap();
         }
@@ -1,58 +1,132 @@
 package com.redhat.service.smartevents.processor.actions.kafkatopic;
 
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
-import org.apache.kafka.common.header.Header;
-import org.apache.kafka.common.header.internals.RecordHeader;
 import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
 import com.redhat.service.smartevents.processor.actions.ActionInvoker;
 
+import io.smallrye.mutiny.Uni;
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
+import static com.redhat.service.smartevents.infra.core.api.APIConstants.RHOSE_BRIDGE_ID_HEADER;
+import static com.redhat.service.smartevents.infra.core.api.APIConstants.RHOSE_PROCESSOR_ID_HEADER;
+
 public class KafkaTopicActionInvoker implements ActionInvoker {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaTopicActionInvoker.class);
 
+    static final String CONTENT_TYPE_HEADER = "content-type";
+
     private final String topic;
 
     private final ProcessorDTO processor;
 
     private final Emitter<String> emitter;
 
+    private final KafkaTopicActionMetrics metrics;
+
+    private final byte[] contentType;
+
+    // the trace headers with the ids of the bridge and of the processor are the same for every record
+    private final byte[] bridgeId;
+    private final byte[] processorId;
+
     public KafkaTopicActionInvoker(Emitter<String> emitter, ProcessorDTO processor, String topic) {
+        this(emitter, processor, topic, null, null);
+    }
+
+    /**
+     * @param contentType the value of the <code>content-type</code> header of the records, e.g. to write them as structured
+     *        CloudEvents. The header of the incoming event is kept if it is null.
+     */
+    public KafkaTopicActionInvoker(Emitter<String> emitter, ProcessorDTO processor, String topic, KafkaTopicActionMetrics metrics, String contentType) {
         this.emitter = emitter;
         this.topic = topic;
         this.processor = processor;
+        this.metrics = metrics;
+        this.contentType = toBytes(contentType);
+        this.bridgeId = processor == null ? null : toBytes(processor.getBridgeId());
+        this.processorId = processor == null ? null : toBytes(processor.getId());
     }
 
     @Override
     public void onEvent(String event, Map<String, String> headers) {
+        // The Vert.x thread can't be blocked to wait for the broker: failures are only logged here, see onEventAsync
+        onEventAsync(event, headers)
+                .subscribe()
+                .with(ignored -> {
+                }, failure -> LOG.debug("Failed to emit CloudEvent to target topic '{}' for Action on Processor '{}' on Bridge '{}'", topic, processor.getId(), processor.getBridgeId(), failure));
+    }
 
+    /**
+     * Completes when the broker has acknowledged the record, or fails with the error of the producer, so that the
+     * source record is acked only once the event has been written to the target topic.
+     */
+    @Override
+    public Uni<Void> onEventAsync(String event, Map<String, String> headers) {
+        return Uni.createFrom().emitter(delivery -> {
+            long start = System.nanoTime();
+            Message<String> message = Message.of(event, Metadata.of(createMetadata(headers)),
+                    () -> {
+                        if (metrics != null) {
+                            metrics.recordSent(start);
+                        }
+                        LOG.debug("Emitted CloudEvent to target topic '{}' for Action on Processor '{}' on Bridge '{}'", topic, processor.getId(), processor.getBridgeId());
+                        delivery.complete(null);
+                        return CompletableFuture.completedFuture(null);
+                    },
+                    failure -> {
+                        if (metrics != null) {
+                            metrics.recordFailure();
+                        }
+                        delivery.fail(failure);
+                        return CompletableFuture.completedFuture(null);
+                    });
+            emitter.send(message);
+        });
+    }
+
+    private OutgoingKafkaRecordMetadata<?> createMetadata(Map<String, String> headers) {
         // add headers as Kafka headers
-        List<Header> kafkaHeaders = headers
-                .entrySet()
-                .stream()
-                .map(th -> new RecordHeader(th.getKey(), th.getValue().getBytes(StandardCharsets.UTF_8)))
-                .collect(Collectors.toList());
+        RecordHeaders kafkaHeaders = new RecordHeaders();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            kafkaHeaders.add(header.getKey(), toHeaderValue(header.getKey(), header.getValue()));
+        }
+        if (contentType != null) {
+            kafkaHeaders.remove(CONTENT_TYPE_HEADER);
+            kafkaHeaders.add(CONTENT_TYPE_HEADER, contentType);
+        }
 
         /*
          * As the user can specify their target topic in the Action configuration, we set
          * it in the metadata of the message we are sending.
          */
-        OutgoingKafkaRecordMetadata<?> metadata = OutgoingKafkaRecordMetadata.builder()
+        return OutgoingKafkaRecordMetadata.builder()
                 .withTopic(topic)
-                .withHeaders(new RecordHeaders(kafkaHeaders))
+                .withHeaders(kafkaHeaders)
                 .build();
-        emitter.send(Message.of(event).addMetadata(metadata));
-        LOG.info("Emitted CloudEvent to target topic '{}' for Action on Processor '{}' on Bridge '{}'", topic, processor.getId(), processor.getBridgeId());
+    }
+
+    private byte[] toHeaderValue(String key, String value) {
+        if (bridgeId != null && RHOSE_BRIDGE_ID_HEADER.equals(key) && value.equals(processor.getBridgeId())) {
+            return bridgeId;
+        }
+        if (processorId != null && RHOSE_PROCESSOR_ID_HEADER.equals(key) && value.equals(processor.getId())) {
+            return processorId;
+        }
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toBytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
     }
 }
@@ -19,6 +19,8 @@ import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
 import com.redhat.service.smartevents.processor.actions.ActionInvoker;
 import com.redhat.service.smartevents.processor.actions.ActionInvokerBuilder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @ApplicationScoped
 public class KafkaTopicActionInvokerBuilder implements KafkaTopicAction,
         ActionInvokerBuilder {
@@ -29,6 +31,9 @@ public class KafkaTopicActionInvokerBuilder implements KafkaTopicAction,
     @Channel("actions-out")
     Emitter<String> emitter;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
     @Inject
     @ApplicationScoped
     @Named("outboundAdminClient")
@@ -63,6 +68,7 @@ public class KafkaTopicActionInvokerBuilder implements KafkaTopicAction,
             Thread.currentThread().interrupt();
         }
 
-        return new KafkaTopicActionInvoker(emitter, processor, requiredTopic);
+        return new KafkaTopicActionInvoker(emitter, processor, requiredTopic, new KafkaTopicActionMetrics(meterRegistry, processor),
+                action.getParameter(CONTENT_TYPE_PARAM));
     }
 }
@@ -0,0 +1,41 @@
+package com.redhat.service.smartevents.processor.actions.kafkatopic;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Throughput and latency of the records written to the target topic of a {@link KafkaTopicActionInvoker}. The time of a
+ * record is measured from when it is handed to the producer until the broker acknowledges it, so it includes the time
+ * spent waiting for a batch to be filled (<code>linger.ms</code>). The count of the timer is the number of records written.
+ */
+public class KafkaTopicActionMetrics {
+
+    public static final String BRIDGE_ID_TAG = "bridgeId";
+    public static final String PROCESSOR_ID_TAG = "processorId";
+    public static final String SEND_TIME_METRIC_NAME = "executor.kafka-topic.send.time";
+    public static final String SEND_FAILURES_METRIC_NAME = "executor.kafka-topic.send.failures";
+
+    private final Timer sendTime;
+    private final Counter sendFailures;
+
+    public KafkaTopicActionMetrics(MeterRegistry registry, ProcessorDTO processor) {
+        List<Tag> tags = List.of(Tag.of(BRIDGE_ID_TAG, String.valueOf(processor.getBridgeId())), Tag.of(PROCESSOR_ID_TAG, String.valueOf(processor.getId())));
+        this.sendTime = Timer.builder(SEND_TIME_METRIC_NAME).tags(tags).publishPercentileHistogram().register(registry);
+        this.sendFailures = Counter.builder(SEND_FAILURES_METRIC_NAME).tags(tags).register(registry);
+    }
+
+    void recordSent(long start) {
+        sendTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    void recordFailure() {
+        sendFailures.increment();
+    }
+}
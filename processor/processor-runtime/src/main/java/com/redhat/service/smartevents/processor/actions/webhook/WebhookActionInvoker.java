@@ -1,6 +1,14 @@
 package com.redhat.service.smartevents.processor.actions.webhook;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import javax.ws.rs.core.Response;
 
@@ -10,10 +18,15 @@ import org.slf4j.LoggerFactory;
 import com.redhat.service.smartevents.infra.core.auth.OidcClient;
 import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.ExternalUserException;
 import com.redhat.service.smartevents.processor.actions.ActionInvoker;
+import com.redhat.service.smartevents.processor.actions.webhook.WebhookDeliveryPolicy.TransientDeliveryException;
 
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.mutiny.core.buffer.Buffer;
 import io.vertx.mutiny.ext.web.client.HttpRequest;
+import io.vertx.mutiny.ext.web.client.HttpResponse;
 import io.vertx.mutiny.ext.web.client.WebClient;
 
 public class WebhookActionInvoker implements ActionInvoker {
@@ -21,35 +34,174 @@ public class WebhookActionInvoker implements ActionInvoker {
     private static final Logger LOG = LoggerFactory.getLogger(WebhookActionInvoker.class);
 
     public static final String CE_JSON_CONTENT_TYPE = "application/cloudevents+json";
+    public static final String CE_BATCH_JSON_CONTENT_TYPE = "application/cloudevents-batch+json";
+
+    // The same headers are sent with every event: their prefixed names are kept, up to a limit as the headers of the
+    // events come from the outside
+    private static final int MAX_CACHED_HEADER_NAMES = 1024;
+    private static final Map<String, String> HTTP_HEADER_NAMES = new ConcurrentHashMap<>();
 
     private final String endpoint;
     private final WebClient webClient;
     private final OidcClient oidcClient;
     private final String basicAuthUsername;
     private final String basicAuthPassword;
+    private final long requestTimeoutMs;
+    private final WebhookClientMetrics metrics;
+    private final WebhookDeliveryPolicy deliveryPolicy;
+    private final WebhookEventBatcher<JsonObject> batcher;
+
+    // the deliveries that have not completed yet: once the invoker is closed, the web client is closed after the last one
+    private final AtomicInteger pendingDeliveries = new AtomicInteger();
+    private volatile boolean closed;
+    private final AtomicBoolean webClientClosed = new AtomicBoolean();
 
     public WebhookActionInvoker(String endpoint, WebClient webClient) {
-        this(endpoint, webClient, null, null, null);
+        this(endpoint, webClient, null, null, null, 0, null, null);
     }
 
     public WebhookActionInvoker(String endpoint, WebClient webClient, OidcClient oidcClient) {
-        this(endpoint, webClient, oidcClient, null, null);
+        this(endpoint, webClient, oidcClient, null, null, 0, null, null);
     }
 
     public WebhookActionInvoker(String endpoint, WebClient webClient, String basicAuthUsername, String basicAuthPassword) {
-        this(endpoint, webClient, null, basicAuthUsername, basicAuthPassword);
+        this(endpoint, webClient, null, basicAuthUsername, basicAuthPassword, 0, null, null);
     }
 
-    private WebhookActionInvoker(String endpoint, WebClient webClient, OidcClient oidcClient, String basicAuthUsername, String basicAuthPassword) {
+    /**
+     * @param requestTimeoutMs the max time to wait for the response of the webhook, 0 to wait indefinitely
+     * @param metrics the metrics of the pool of the web client, can be null
+     * @param deliveryPolicy the retry, circuit breaker and rate limit policy, can be null to send every event once
+     */
+    WebhookActionInvoker(String endpoint, WebClient webClient, OidcClient oidcClient, String basicAuthUsername, String basicAuthPassword,
+            long requestTimeoutMs, WebhookClientMetrics metrics, WebhookDeliveryPolicy deliveryPolicy) {
+        this(endpoint, webClient, oidcClient, basicAuthUsername, basicAuthPassword, requestTimeoutMs, metrics, deliveryPolicy, 1, null);
+    }
+
+    /**
+     * @param batchMaxSize the max number of events sent in a single <code>application/cloudevents-batch+json</code> request,
+     *        1 to send every event in its own request
+     * @param batchMaxDelay the max time an event waits for the batch to be full before it is sent
+     */
+    WebhookActionInvoker(String endpoint, WebClient webClient, OidcClient oidcClient, String basicAuthUsername, String basicAuthPassword,
+            long requestTimeoutMs, WebhookClientMetrics metrics, WebhookDeliveryPolicy deliveryPolicy, int batchMaxSize, Duration batchMaxDelay) {
         this.endpoint = endpoint;
         this.webClient = webClient;
         this.oidcClient = oidcClient;
         this.basicAuthUsername = basicAuthUsername;
         this.basicAuthPassword = basicAuthPassword;
+        this.requestTimeoutMs = requestTimeoutMs;
+        this.metrics = metrics;
+        this.deliveryPolicy = deliveryPolicy;
+        this.batcher = batchMaxSize > 1 ? new WebhookEventBatcher<>(batchMaxSize, batchMaxDelay, this::deliverBatch) : null;
     }
 
     @Override
     public void onEvent(String event, Map<String, String> headers) {
+        // See https://issues.redhat.com/browse/MGDOBR-777
+        // We're unable to block the Vert.X thread to wait for the response.
+        // java.lang.IllegalStateException: The current thread cannot be blocked: vert.x-eventloop-thread-1
+        onEventAsync(event, headers)
+                .subscribe()
+                .with(ignored -> {
+                }, failure -> LOG.debug("Webhook delivery to '{}' failed.", endpoint, failure));
+    }
+
+    @Override
+    public Uni<Void> onEventAsync(String event, Map<String, String> headers) {
+        if (batcher != null) {
+            // an event that is not valid JSON fails on its own, before it joins a batch
+            return track(Uni.createFrom().deferred(() -> batcher.add(new JsonObject(event), headers)));
+        }
+        return track(deliver(() -> send(event, headers)));
+    }
+
+    @Override
+    public Uni<Map<Integer, Throwable>> onEvents(List<String> events, List<Map<String, String>> headers) {
+        if (batcher == null) {
+            return ActionInvoker.super.onEvents(events, headers);
+        }
+        Map<Integer, Throwable> failures = new HashMap<>();
+        List<Integer> positions = new ArrayList<>(events.size());
+        List<JsonObject> jsonEvents = new ArrayList<>(events.size());
+        List<Map<String, String>> jsonHeaders = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                jsonEvents.add(new JsonObject(events.get(i)));
+                positions.add(i);
+                jsonHeaders.add(headers.get(i));
+            } catch (DecodeException e) {
+                // an event that is not valid JSON fails on its own, the others are still sent
+                failures.put(i, e);
+            }
+        }
+        return batcher.addAll(jsonEvents, jsonHeaders)
+                .onItem().transform(batchFailures -> {
+                    batchFailures.forEach((position, failure) -> failures.put(positions.get(position), failure));
+                    return failures;
+                })
+                .onSubscription().invoke(pendingDeliveries::incrementAndGet)
+                .onTermination().invoke(this::onDeliveryTerminated);
+    }
+
+    @Override
+    public Uni<Void> awaitReady() {
+        return deliveryPolicy == null ? Uni.createFrom().voidItem() : deliveryPolicy.awaitReady();
+    }
+
+    /**
+     * Closes the web client once the pending deliveries complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (pendingDeliveries.get() == 0) {
+            closeWebClient();
+        }
+    }
+
+    private Uni<Void> track(Uni<Void> delivery) {
+        return delivery
+                .onSubscription().invoke(pendingDeliveries::incrementAndGet)
+                .onTermination().invoke(this::onDeliveryTerminated);
+    }
+
+    private void onDeliveryTerminated() {
+        if (pendingDeliveries.decrementAndGet() == 0 && closed) {
+            closeWebClient();
+        }
+    }
+
+    private void closeWebClient() {
+        if (webClientClosed.compareAndSet(false, true)) {
+            webClient.close();
+        }
+    }
+
+    private Uni<Void> send(String event, Map<String, String> headers) {
+        // the request is sent only when the returned Uni is subscribed
+        return checkResponse(withMetrics(createRequest(headers).sendJson(new JsonObject(event))));
+    }
+
+    private Uni<Void> sendBatch(List<JsonObject> events, Map<String, String> headers) {
+        JsonArray batch = new JsonArray(new ArrayList<>(events));
+        HttpRequest<Buffer> request = createRequest(headers).putHeader("content-type", CE_BATCH_JSON_CONTENT_TYPE);
+        return checkResponse(withMetrics(request.sendJson(batch)));
+    }
+
+    private Uni<Void> deliverBatch(List<JsonObject> events, Map<String, String> headers) {
+        return deliver(() -> sendBatch(events, headers));
+    }
+
+    private Uni<Void> deliver(Supplier<Uni<Void>> attempt) {
+        if (deliveryPolicy == null) {
+            return attempt.get()
+                    .onFailure(TransientDeliveryException.class).transform(f -> new ExternalUserException(f.getMessage()));
+        }
+        return deliveryPolicy.deliver(attempt);
+    }
+
+    private HttpRequest<Buffer> createRequest(Map<String, String> headers) {
         HttpRequest<Buffer> request = webClient.postAbs(endpoint);
         // If the oidcClient is set, then the target is a bridge ingress. The content type has to be application/cloudevents+json.
         if (oidcClient != null) {
@@ -62,28 +214,60 @@ public class WebhookActionInvoker implements ActionInvoker {
             request.basicAuthentication(basicAuthUsername, basicAuthPassword);
         }
 
+        if (requestTimeoutMs > 0) {
+            request.timeout(requestTimeoutMs);
+        }
+
         // add headers as HTTP headers
         for (Map.Entry<String, String> e : headers.entrySet()) {
-            request.headers().add("x-" + e.getKey(), e.getValue());
+            request.headers().add(toHttpHeaderName(e.getKey()), e.getValue());
         }
+        return request;
+    }
 
-        // See https://issues.redhat.com/browse/MGDOBR-777
-        // We're unable to block the Vert.X thread to wait for the response.
-        // java.lang.IllegalStateException: The current thread cannot be blocked: vert.x-eventloop-thread-1
-        request.sendJson(new JsonObject(event))
-                .subscribe()
-                .with(response -> {
+    static String toHttpHeaderName(String key) {
+        String name = HTTP_HEADER_NAMES.get(key);
+        if (name == null) {
+            name = "x-" + key;
+            if (HTTP_HEADER_NAMES.size() < MAX_CACHED_HEADER_NAMES) {
+                HTTP_HEADER_NAMES.put(key, name);
+            }
+        }
+        return name;
+    }
+
+    private static Uni<Void> checkResponse(Uni<HttpResponse<Buffer>> delivery) {
+        return delivery
+                .onItem()
+                .transformToUni(response -> {
                     final int statusCode = response.statusCode();
-                    if (Response.Status.fromStatusCode(statusCode).getFamily() != Response.Status.Family.SUCCESSFUL) {
+                    if (Response.Status.Family.familyOf(statusCode) != Response.Status.Family.SUCCESSFUL) {
                         String message = String.format("Unable to send event to Webhook. Status Code '%s', Status message '%s'.",
                                 response.statusCode(),
                                 response.statusMessage());
                         LOG.debug(message);
-                        throw new ExternalUserException(message);
+                        return Uni.createFrom().failure(isTransient(statusCode) ? new TransientDeliveryException(message) : new ExternalUserException(message));
                     }
+                    return Uni.createFrom().voidItem();
                 });
     }
 
+    private static boolean isTransient(int statusCode) {
+        return statusCode == Response.Status.REQUEST_TIMEOUT.getStatusCode()
+                || statusCode == Response.Status.TOO_MANY_REQUESTS.getStatusCode()
+                || Response.Status.Family.familyOf(statusCode) == Response.Status.Family.SERVER_ERROR;
+    }
+
+    private <T> Uni<T> withMetrics(Uni<T> response) {
+        if (metrics == null) {
+            return response;
+        }
+        return Uni.createFrom().deferred(() -> {
+            long start = metrics.requestStarted();
+            return response.onTermination().invoke(() -> metrics.requestCompleted(start));
+        });
+    }
+
     String getEndpoint() {
         return endpoint;
     }
@@ -103,4 +287,20 @@ public class WebhookActionInvoker implements ActionInvoker {
     String getBasicAuthPassword() {
         return basicAuthPassword;
     }
+
+    long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    WebhookClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    WebhookDeliveryPolicy getDeliveryPolicy() {
+        return deliveryPolicy;
+    }
+
+    WebhookEventBatcher<JsonObject> getBatcher() {
+        return batcher;
+    }
 }
@@ -1,11 +1,17 @@
 package com.redhat.service.smartevents.processor.actions.webhook;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
 import com.redhat.service.smartevents.infra.core.auth.OidcClient;
 import com.redhat.service.smartevents.infra.core.auth.OidcClientConstants;
 import com.redhat.service.smartevents.infra.core.exceptions.definitions.platform.TechnicalBearerTokenNotConfiguredException;
@@ -14,6 +20,8 @@ import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
 import com.redhat.service.smartevents.processor.actions.ActionInvoker;
 import com.redhat.service.smartevents.processor.actions.ActionInvokerBuilder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.ext.web.client.WebClient;
@@ -21,35 +29,144 @@ import io.vertx.mutiny.ext.web.client.WebClient;
 @ApplicationScoped
 public class WebhookActionInvokerBuilder implements WebhookAction, ActionInvokerBuilder {
 
+    private static final List<String> DELIVERY_POLICY_PARAMS = List.of(RETRY_MAX_ATTEMPTS_PARAM, RETRY_INITIAL_BACKOFF_MS_PARAM, RETRY_MAX_BACKOFF_MS_PARAM,
+            RETRY_JITTER_PARAM, CIRCUIT_BREAKER_FAILURE_THRESHOLD_PARAM, CIRCUIT_BREAKER_DELAY_MS_PARAM, RATE_LIMIT_PER_SECOND_PARAM);
+
     @Inject
     Instance<OidcClient> oidcClients;
 
     @Inject
     Vertx vertx;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // These settings apply to every webhook action of an executor, that can host several processors of a bridge: they are
+    // tuned per executor deployment through its environment, not per processor
+    @ConfigProperty(name = "event-bridge.webhook.client.max-pool-size", defaultValue = "50")
+    int maxPoolSize;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.max-wait-queue-size", defaultValue = "1000")
+    int maxWaitQueueSize;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.connect-timeout-ms", defaultValue = "5000")
+    int connectTimeoutMs;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.request-timeout-ms", defaultValue = "30000")
+    long requestTimeoutMs;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.idle-timeout-seconds", defaultValue = "60")
+    int idleTimeoutSeconds;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.keep-alive", defaultValue = "true")
+    boolean keepAlive;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.keep-alive-timeout-seconds", defaultValue = "60")
+    int keepAliveTimeoutSeconds;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.http2", defaultValue = "false")
+    boolean http2;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.http2-clear-text-upgrade", defaultValue = "true")
+    boolean http2ClearTextUpgrade;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.http2-max-pool-size", defaultValue = "1")
+    int http2MaxPoolSize;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.http2-multiplexing-limit", defaultValue = "100")
+    int http2MultiplexingLimit;
+
+    @ConfigProperty(name = "event-bridge.webhook.client.log-activity", defaultValue = "false")
+    boolean logActivity;
+
+    // the gauges of a processor are registered once, so the invokers built when its definition is reloaded share them
+    private final Map<String, WebhookClientMetrics> clientMetrics = new ConcurrentHashMap<>();
+
     @Override
     public ActionInvoker build(ProcessorDTO processor, Action action) {
         String endpoint = action.getParameter(ENDPOINT_PARAM);
 
-        WebClientOptions options = isSslVerificationDisabled(action)
-                ? new WebClientOptions().setTrustAll(true).setVerifyHost(false)
-                : new WebClientOptions();
-
-        WebClient webClient = getWebClient(options);
+        WebClient webClient = WebClient.create(vertx, getWebClientOptions(action));
+        WebhookClientMetrics metrics = clientMetrics.computeIfAbsent(processor.getId(), id -> new WebhookClientMetrics(meterRegistry, processor, getPoolCapacity()));
+        WebhookDeliveryPolicy deliveryPolicy = getDeliveryPolicy(action);
+        int batchMaxSize = Integer.parseInt(action.getParameterOrDefault(BATCH_MAX_SIZE_PARAM, "1"));
+        Duration batchMaxDelay = getDurationParameter(action, BATCH_MAX_DELAY_MS_PARAM, WebhookEventBatcher.DEFAULT_MAX_DELAY);
 
         if (requiresTechnicalBearerToken(action)) {
-            return new WebhookActionInvoker(endpoint, webClient, getOidcClient());
+            return new WebhookActionInvoker(endpoint, webClient, getOidcClient(), null, null, requestTimeoutMs, metrics, deliveryPolicy, batchMaxSize, batchMaxDelay);
         }
         if (requiresBasicAuth(action)) {
             String basicAuthUsername = action.getParameter(BASIC_AUTH_USERNAME_PARAM);
             String basicAuthPassword = action.getParameter(BASIC_AUTH_PASSWORD_PARAM);
-            return new WebhookActionInvoker(endpoint, webClient, basicAuthUsername, basicAuthPassword);
+            return new WebhookActionInvoker(endpoint, webClient, null, basicAuthUsername, basicAuthPassword, requestTimeoutMs, metrics, deliveryPolicy, batchMaxSize,
+                    batchMaxDelay);
+        }
+        return new WebhookActionInvoker(endpoint, webClient, null, null, null, requestTimeoutMs, metrics, deliveryPolicy, batchMaxSize, batchMaxDelay);
+    }
+
+    /**
+     * @return the delivery policy set by the <code>retry_*</code>, <code>circuit_breaker_*</code> and
+     *         <code>rate_limit_*</code> parameters of the action, or null to send every event once if none of them is set
+     */
+    static WebhookDeliveryPolicy getDeliveryPolicy(Action action) {
+        if (DELIVERY_POLICY_PARAMS.stream().noneMatch(action::hasParameter)) {
+            return null;
         }
-        return new WebhookActionInvoker(endpoint, webClient);
+        int maxAttempts = Integer.parseInt(action.getParameterOrDefault(RETRY_MAX_ATTEMPTS_PARAM, String.valueOf(WebhookDeliveryPolicy.DEFAULT_MAX_ATTEMPTS)));
+        Duration initialBackoff = getDurationParameter(action, RETRY_INITIAL_BACKOFF_MS_PARAM, WebhookDeliveryPolicy.DEFAULT_INITIAL_BACKOFF);
+        Duration maxBackoff = getDurationParameter(action, RETRY_MAX_BACKOFF_MS_PARAM, WebhookDeliveryPolicy.DEFAULT_MAX_BACKOFF);
+        double jitter = Double.parseDouble(action.getParameterOrDefault(RETRY_JITTER_PARAM, String.valueOf(WebhookDeliveryPolicy.DEFAULT_JITTER)));
+
+        int failureThreshold = Integer.parseInt(
+                action.getParameterOrDefault(CIRCUIT_BREAKER_FAILURE_THRESHOLD_PARAM, String.valueOf(WebhookDeliveryPolicy.DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD)));
+        // a threshold of 0 disables the circuit breaker
+        WebhookCircuitBreaker circuitBreaker = failureThreshold > 0
+                ? new WebhookCircuitBreaker(failureThreshold, getDurationParameter(action, CIRCUIT_BREAKER_DELAY_MS_PARAM, WebhookDeliveryPolicy.DEFAULT_CIRCUIT_BREAKER_DELAY))
+                : null;
+
+        WebhookRateLimiter rateLimiter = action.hasParameter(RATE_LIMIT_PER_SECOND_PARAM)
+                ? new WebhookRateLimiter(Double.parseDouble(action.getParameter(RATE_LIMIT_PER_SECOND_PARAM)))
+                : null;
+
+        return new WebhookDeliveryPolicy(maxAttempts, initialBackoff, Duration.ofMillis(Math.max(initialBackoff.toMillis(), maxBackoff.toMillis())), jitter,
+                circuitBreaker, rateLimiter);
     }
 
-    private WebClient getWebClient(WebClientOptions options) {
-        return WebClient.create(vertx, options.setLogActivity(true));
+    private static Duration getDurationParameter(Action action, String name, Duration defaultValue) {
+        String value = action.getParameter(name);
+        return value == null ? defaultValue : Duration.ofMillis(Long.parseLong(value));
+    }
+
+    WebClientOptions getWebClientOptions(Action action) {
+        WebClientOptions options = new WebClientOptions()
+                .setMaxPoolSize(maxPoolSize)
+                .setMaxWaitQueueSize(maxWaitQueueSize)
+                .setConnectTimeout(connectTimeoutMs)
+                .setIdleTimeout(idleTimeoutSeconds)
+                .setKeepAlive(keepAlive)
+                .setKeepAliveTimeout(keepAliveTimeoutSeconds)
+                .setLogActivity(logActivity);
+        if (http2) {
+            // h2 is negotiated with ALPN on TLS connections, h2c is used on clear text connections
+            options.setProtocolVersion(HttpVersion.HTTP_2)
+                    .setUseAlpn(true)
+                    .setHttp2ClearTextUpgrade(http2ClearTextUpgrade)
+                    .setHttp2MaxPoolSize(http2MaxPoolSize)
+                    .setHttp2MultiplexingLimit(http2MultiplexingLimit)
+                    .setHttp2KeepAliveTimeout(keepAliveTimeoutSeconds);
+        }
+        if (isSslVerificationDisabled(action)) {
+            options.setTrustAll(true).setVerifyHost(false);
+        }
+        return options;
+    }
+
+    int getPoolCapacity() {
+        if (!http2) {
+            // without pipelining each connection serves one request at a time
+            return maxPoolSize;
+        }
+        return http2MultiplexingLimit > 0 ? http2MaxPoolSize * http2MultiplexingLimit : Integer.MAX_VALUE;
     }
 
     private OidcClient getOidcClient() {
@@ -0,0 +1,96 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of a webhook target. It opens after <code>failureThreshold</code> consecutive failed deliveries and
+ * rejects new attempts for <code>delay</code>. After that a single trial attempt is let through: if it succeeds the
+ * circuit is closed again, otherwise it is opened for another <code>delay</code>.
+ */
+class WebhookCircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long delayNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInProgress;
+
+    WebhookCircuitBreaker(int failureThreshold, Duration delay) {
+        this(failureThreshold, delay, System::nanoTime);
+    }
+
+    WebhookCircuitBreaker(int failureThreshold, Duration delay, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.delayNanos = delay.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return 0 if an attempt can be made now, otherwise the time in milliseconds to wait before asking again.
+     */
+    synchronized long tryAcquirePermission() {
+        switch (getState()) {
+            case CLOSED:
+                return 0;
+            case HALF_OPEN:
+                if (!trialInProgress) {
+                    trialInProgress = true;
+                    return 0;
+                }
+                // wait for the result of the trial
+                return Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMillis(delayNanos), 1000));
+            default:
+                return getRemainingOpenMillis();
+        }
+    }
+
+    /**
+     * @return 0 if the circuit is not open, otherwise the time in milliseconds before it becomes half open.
+     */
+    synchronized long getRemainingOpenMillis() {
+        if (getState() != State.OPEN) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(openedAt + delayNanos - nanoClock.getAsLong()));
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInProgress = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (getState() == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+            trialInProgress = false;
+        }
+    }
+
+    /**
+     * Gives back the permission of an attempt that ended without telling anything about the target (e.g. it was cancelled).
+     */
+    synchronized void onIgnored() {
+        trialInProgress = false;
+    }
+
+    synchronized State getState() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= delayNanos) {
+            state = State.HALF_OPEN;
+        }
+        return state;
+    }
+}
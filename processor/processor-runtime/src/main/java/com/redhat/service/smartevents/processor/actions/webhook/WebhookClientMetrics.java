@@ -0,0 +1,67 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Utilisation metrics of the connection pool of a webhook {@link io.vertx.mutiny.ext.web.client.WebClient}.
+ * <p>
+ * The Vert.x client does not expose the state of its pool, so the usage is derived from the requests in flight: the
+ * requests beyond the capacity of the pool (connections times the requests each connection can serve at the same time)
+ * are waiting in the queue of the client.
+ */
+public class WebhookClientMetrics {
+
+    public static final String BRIDGE_ID_TAG = "bridgeId";
+    public static final String PROCESSOR_ID_TAG = "processorId";
+    public static final String POOL_CAPACITY_METRIC_NAME = "executor.webhook.pool.capacity";
+    public static final String POOL_ACTIVE_METRIC_NAME = "executor.webhook.pool.active";
+    public static final String POOL_QUEUED_METRIC_NAME = "executor.webhook.pool.queued";
+    public static final String REQUEST_TIME_METRIC_NAME = "executor.webhook.request.time";
+
+    private final int capacity;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer requestTime;
+
+    public WebhookClientMetrics(MeterRegistry registry, ProcessorDTO processor, int capacity) {
+        this.capacity = capacity;
+        List<Tag> tags = List.of(Tag.of(BRIDGE_ID_TAG, String.valueOf(processor.getBridgeId())), Tag.of(PROCESSOR_ID_TAG, String.valueOf(processor.getId())));
+        Gauge.builder(POOL_CAPACITY_METRIC_NAME, this, WebhookClientMetrics::getCapacity).tags(tags).register(registry);
+        Gauge.builder(POOL_ACTIVE_METRIC_NAME, this, WebhookClientMetrics::getActive).tags(tags).register(registry);
+        Gauge.builder(POOL_QUEUED_METRIC_NAME, this, WebhookClientMetrics::getQueued).tags(tags).register(registry);
+        this.requestTime = Timer.builder(REQUEST_TIME_METRIC_NAME).tags(tags).publishPercentileHistogram().register(registry);
+    }
+
+    /**
+     * @return the start time of the request, to be passed to {@link #requestCompleted(long)}
+     */
+    long requestStarted() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    void requestCompleted(long start) {
+        inFlight.decrementAndGet();
+        requestTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    double getCapacity() {
+        return capacity;
+    }
+
+    double getActive() {
+        return Math.min(inFlight.get(), capacity);
+    }
+
+    double getQueued() {
+        return Math.max(inFlight.get() - capacity, 0);
+    }
+}
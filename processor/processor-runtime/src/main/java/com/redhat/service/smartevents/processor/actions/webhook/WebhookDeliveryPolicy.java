@@ -0,0 +1,178 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.ExternalUserException;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.VertxException;
+
+/**
+ * Delivery policy of a webhook action: every attempt waits for the rate limiter and the circuit breaker, and the
+ * attempts that fail with a transient error (5xx, 408 and 429 responses, timeouts, connection errors) are retried
+ * with an exponential backoff with jitter. Any other response is not retried.
+ * <p>
+ * The waits and the retries can take longer than the time the executor gives to the delivery of a record, e.g. the delay
+ * of the circuit breaker plus every attempt timing out: the executor then cancels the delivery, which stops the retries.
+ */
+class WebhookDeliveryPolicy {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+    static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+    static final double DEFAULT_JITTER = 0.5;
+    static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+    static final Duration DEFAULT_CIRCUIT_BREAKER_DELAY = Duration.ofSeconds(30);
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double jitter;
+    private final WebhookCircuitBreaker circuitBreaker;
+    private final WebhookRateLimiter rateLimiter;
+
+    /**
+     * @param circuitBreaker the circuit breaker of the target, can be null
+     * @param rateLimiter the rate limiter of the target, can be null
+     */
+    WebhookDeliveryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double jitter, WebhookCircuitBreaker circuitBreaker,
+            WebhookRateLimiter rateLimiter) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.jitter = jitter;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * @param attempt supplies the Uni of a single attempt, that fails with a {@link TransientDeliveryException} for the
+     *        responses that can be retried
+     */
+    Uni<Void> deliver(Supplier<Uni<Void>> attempt) {
+        return deliver(attempt, 1).onFailure(TransientDeliveryException.class).transform(f -> new ExternalUserException(f.getMessage()));
+    }
+
+    private Uni<Void> deliver(Supplier<Uni<Void>> attempt, int attemptNumber) {
+        return Uni.createFrom().deferred(() -> awaitPermission()
+                .chain(() -> awaitRateLimit())
+                .chain(() -> withCircuitBreaker(attempt.get())))
+                .onFailure(failure -> attemptNumber < maxAttempts && isTransient(failure))
+                .recoverWithUni(() -> delay(getBackoffMillis(attemptNumber)).chain(() -> deliver(attempt, attemptNumber + 1)));
+    }
+
+    /**
+     * @return the delay before the attempt that follows the given one: the initial backoff doubled at every attempt, up
+     *         to the max backoff, randomly increased or decreased by up to <code>jitter</code> times its value
+     */
+    long getBackoffMillis(int attemptNumber) {
+        double backoff = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() * Math.pow(2, attemptNumber - 1.0));
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(0, Math.round(backoff * factor));
+    }
+
+    /**
+     * Completes once the circuit breaker is not open, i.e. when new deliveries are worth trying.
+     */
+    Uni<Void> awaitReady() {
+        if (circuitBreaker == null) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.createFrom().deferred(() -> {
+            long wait = circuitBreaker.getRemainingOpenMillis();
+            return wait == 0 ? Uni.createFrom().voidItem() : delay(wait).chain(this::awaitReady);
+        });
+    }
+
+    private Uni<Void> awaitPermission() {
+        if (circuitBreaker == null) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.createFrom().deferred(() -> {
+            long wait = circuitBreaker.tryAcquirePermission();
+            return wait == 0 ? Uni.createFrom().voidItem() : delay(wait).chain(this::awaitPermission);
+        });
+    }
+
+    private Uni<Void> awaitRateLimit() {
+        if (rateLimiter == null) {
+            return Uni.createFrom().voidItem();
+        }
+        long wait = rateLimiter.reserve();
+        return wait == 0 ? Uni.createFrom().voidItem() : delay(wait);
+    }
+
+    private Uni<Void> withCircuitBreaker(Uni<Void> attempt) {
+        if (circuitBreaker == null) {
+            return attempt;
+        }
+        return attempt.onItemOrFailure().invoke((item, failure) -> {
+            if (failure == null || failure instanceof ExternalUserException) {
+                // the target answered, even if it refused the event
+                circuitBreaker.onSuccess();
+            } else if (isTransient(failure)) {
+                circuitBreaker.onFailure();
+            } else {
+                // the event could not be sent, the target has nothing to do with it
+                circuitBreaker.onIgnored();
+            }
+        }).onCancellation().invoke(circuitBreaker::onIgnored);
+    }
+
+    private static Uni<Void> delay(long millis) {
+        return Uni.createFrom().voidItem().onItem().delayIt().by(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Only the failures that a new attempt can overcome are transient: the 5xx, 408 and 429 responses, the timeouts and
+     * the connection errors. Anything else, e.g. an event that is not valid JSON or a token that can't be obtained, fails
+     * the same way at every attempt.
+     */
+    static boolean isTransient(Throwable failure) {
+        return failure instanceof TransientDeliveryException
+                || failure instanceof IOException
+                || failure instanceof TimeoutException
+                // e.g. the connection closed by the target before the response
+                || failure instanceof VertxException;
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    double getJitter() {
+        return jitter;
+    }
+
+    WebhookCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    WebhookRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Failure of an attempt that can be retried.
+     */
+    static class TransientDeliveryException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        TransientDeliveryException(String message) {
+            super(message);
+        }
+    }
+}
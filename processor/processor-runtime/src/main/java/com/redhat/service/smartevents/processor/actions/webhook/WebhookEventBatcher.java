@@ -0,0 +1,180 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.UniEmitter;
+
+/**
+ * Collects the events sent to a webhook and delivers them together, as soon as <code>maxSize</code> events are pending
+ * or <code>maxDelay</code> has elapsed since the first pending event was added. The {@link Uni} returned for every event
+ * completes, or fails, with the delivery of the batch it ended up in, so that the outcome can be mapped back to the
+ * record the event comes from.
+ * <p>
+ * The events are added already encoded, so that an event that can't be sent fails on its own instead of failing the
+ * batch it would have joined. A batch is a single request: only the headers with the same value for all its events are
+ * sent, see {@link #sharedHeaders(List)}.
+ *
+ * @param <E> the type of the encoded events
+ */
+class WebhookEventBatcher<E> {
+
+    static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(100);
+
+    private final int maxSize;
+    private final Duration maxDelay;
+    private final BiFunction<List<E>, Map<String, String>, Uni<Void>> sender;
+
+    private List<PendingEvent<E>> pending = new ArrayList<>();
+    // identifies the current batch, so that the timer of a batch already flushed because it was full is ignored
+    private long batchId;
+
+    /**
+     * @param sender delivers the events of a batch with the headers that are shared by all of them
+     */
+    WebhookEventBatcher(int maxSize, Duration maxDelay, BiFunction<List<E>, Map<String, String>, Uni<Void>> sender) {
+        this.maxSize = maxSize;
+        this.maxDelay = maxDelay;
+        this.sender = sender;
+    }
+
+    Uni<Void> add(E event, Map<String, String> headers) {
+        return Uni.createFrom().emitter(emitter -> {
+            List<PendingEvent<E>> full = null;
+            synchronized (this) {
+                pending.add(new PendingEvent<>(event, headers, emitter));
+                if (pending.size() >= maxSize) {
+                    full = drain();
+                } else if (pending.size() == 1) {
+                    scheduleFlush(batchId);
+                }
+            }
+            if (full != null) {
+                deliver(full);
+            }
+        });
+    }
+
+    /**
+     * Delivers the given events in batches of at most <code>maxSize</code> events, without waiting for more events.
+     *
+     * @return the failures keyed by the position of the event that failed: all the events of a batch fail together
+     */
+    Uni<Map<Integer, Throwable>> addAll(List<E> events, List<Map<String, String>> headers) {
+        List<Uni<Map<Integer, Throwable>>> deliveries = new ArrayList<>();
+        for (int from = 0; from < events.size(); from += maxSize) {
+            int first = from;
+            int to = Math.min(from + maxSize, events.size());
+            List<E> batch = events.subList(from, to);
+            Map<String, String> sharedHeaders = sharedHeaders(headers.subList(from, to));
+            deliveries.add(Uni.createFrom().deferred(() -> sender.apply(batch, sharedHeaders))
+                    .onItem().transform(ignored -> Map.<Integer, Throwable> of())
+                    .onFailure().recoverWithItem(failure -> {
+                        Map<Integer, Throwable> failures = new HashMap<>();
+                        for (int i = first; i < to; i++) {
+                            failures.put(i, failure);
+                        }
+                        return failures;
+                    }));
+        }
+        if (deliveries.isEmpty()) {
+            return Uni.createFrom().item(Map.of());
+        }
+        return Uni.combine().all().unis(deliveries).combinedWith(results -> {
+            Map<Integer, Throwable> failures = new HashMap<>();
+            results.forEach(result -> failures.putAll(toFailures(result)));
+            return failures;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Throwable> toFailures(Object result) {
+        return (Map<Integer, Throwable>) result;
+    }
+
+    synchronized int getPendingSize() {
+        return pending.size();
+    }
+
+    private void scheduleFlush(long scheduledBatchId) {
+        Uni.createFrom().voidItem()
+                .onItem().delayIt().by(maxDelay)
+                .subscribe().with(ignored -> flush(scheduledBatchId));
+    }
+
+    private void flush(long scheduledBatchId) {
+        List<PendingEvent<E>> expired;
+        synchronized (this) {
+            if (scheduledBatchId != batchId || pending.isEmpty()) {
+                return;
+            }
+            expired = drain();
+        }
+        deliver(expired);
+    }
+
+    private List<PendingEvent<E>> drain() {
+        List<PendingEvent<E>> drained = pending;
+        pending = new ArrayList<>();
+        batchId++;
+        return drained;
+    }
+
+    private void deliver(List<PendingEvent<E>> batch) {
+        List<E> events = new ArrayList<>(batch.size());
+        List<Map<String, String>> headers = new ArrayList<>(batch.size());
+        for (PendingEvent<E> pendingEvent : batch) {
+            events.add(pendingEvent.event);
+            headers.add(pendingEvent.headers);
+        }
+        Uni.createFrom().deferred(() -> sender.apply(events, sharedHeaders(headers)))
+                .subscribe().with(
+                        ignored -> batch.forEach(p -> p.emitter.complete(null)),
+                        failure -> batch.forEach(p -> p.emitter.fail(failure)));
+    }
+
+    /**
+     * The headers of the events can't be sent one by one in a single request: only the ones with the same value in all
+     * the events of the batch are kept, the others are dropped. The attributes of every event are part of its body
+     * anyway, what is lost are the headers that differ from event to event, e.g. the <code>x-</code> headers of the
+     * original requests of the events.
+     */
+    static Map<String, String> sharedHeaders(List<Map<String, String>> headers) {
+        if (headers.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> shared = new HashMap<>(headers.get(0));
+        for (int i = 1; i < headers.size() && !shared.isEmpty(); i++) {
+            Map<String, String> eventHeaders = headers.get(i);
+            shared.entrySet().removeIf(e -> !eventHeaders.containsKey(e.getKey()) || !Objects.equals(e.getValue(), eventHeaders.get(e.getKey())));
+        }
+        return shared;
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    private static class PendingEvent<E> {
+
+        private final E event;
+        private final Map<String, String> headers;
+        private final UniEmitter<? super Void> emitter;
+
+        private PendingEvent(E event, Map<String, String> headers, UniEmitter<? super Void> emitter) {
+            this.event = event;
+            this.headers = headers;
+            this.emitter = emitter;
+        }
+    }
+}
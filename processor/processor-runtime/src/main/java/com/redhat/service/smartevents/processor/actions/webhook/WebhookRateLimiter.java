@@ -0,0 +1,50 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that limits the number of requests sent to a webhook per second. The bucket holds up to one second
+ * of permits, so that short bursts are allowed. Permits are reserved in advance: a caller that finds the bucket empty
+ * gets the time it has to wait for its own permit, so that waiting callers are served at the configured rate.
+ */
+class WebhookRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double maxPermits;
+    private final LongSupplier nanoClock;
+
+    private double availablePermits;
+    private long lastRefill;
+
+    WebhookRateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    WebhookRateLimiter(double permitsPerSecond, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("The rate limit must be greater than 0.");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        this.nanoClock = nanoClock;
+        this.availablePermits = maxPermits;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Reserves a permit.
+     *
+     * @return the time in milliseconds to wait before the permit can be used, 0 if it can be used straight away.
+     */
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        availablePermits = Math.min(maxPermits, availablePermits + (now - lastRefill) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+        availablePermits--;
+        if (availablePermits >= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(-availablePermits / permitsPerSecond * TimeUnit.SECONDS.toMillis(1));
+    }
+}
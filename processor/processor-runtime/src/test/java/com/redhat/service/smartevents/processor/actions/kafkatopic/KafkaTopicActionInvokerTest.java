@@ -1,6 +1,10 @@
 package com.redhat.service.smartevents.processor.actions.kafkatopic;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -11,10 +15,15 @@ import org.mockito.ArgumentCaptor;
 import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
 import com.redhat.service.smartevents.infra.v1.api.models.processors.ProcessorType;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
+import static com.redhat.service.smartevents.infra.core.api.APIConstants.RHOSE_BRIDGE_ID_HEADER;
+import static com.redhat.service.smartevents.infra.core.api.APIConstants.RHOSE_PROCESSOR_ID_HEADER;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 class KafkaTopicActionInvokerTest {
@@ -36,7 +45,7 @@ class KafkaTopicActionInvokerTest {
         ProcessorDTO processor = createProcessor();
 
         KafkaTopicActionInvoker invoker = new KafkaTopicActionInvoker(emitter, processor, topic);
-        invoker.onEvent(event, Collections.emptyMap());
+        invoker.onEvent(event, Map.of("myHeader", "myValue"));
 
         verify(emitter).send(captor.capture());
 
@@ -46,5 +55,101 @@ class KafkaTopicActionInvokerTest {
         Metadata metadata = sent.getMetadata();
         OutgoingKafkaRecordMetadata recordMetadata = metadata.get(OutgoingKafkaRecordMetadata.class).get();
         assertThat(recordMetadata.getTopic()).isEqualTo(topic);
+        assertThat(new String(recordMetadata.getHeaders().lastHeader("myHeader").value(), StandardCharsets.UTF_8)).isEqualTo("myValue");
+    }
+
+    @Test
+    void onEventWithTraceHeaders() {
+        ArgumentCaptor<Message<String>> captor = ArgumentCaptor.forClass(Message.class);
+        Emitter<String> emitter = mock(Emitter.class);
+
+        KafkaTopicActionInvoker invoker = new KafkaTopicActionInvoker(emitter, createProcessor(), "myTestTopic");
+        invoker.onEvent("{}", Map.of(RHOSE_BRIDGE_ID_HEADER, "myBridge", RHOSE_PROCESSOR_ID_HEADER, "anotherProcessor"));
+        invoker.onEvent("{}", Map.of(RHOSE_BRIDGE_ID_HEADER, "myBridge", RHOSE_PROCESSOR_ID_HEADER, "myProcessor"));
+
+        verify(emitter, times(2)).send(captor.capture());
+        OutgoingKafkaRecordMetadata<?> first = captor.getAllValues().get(0).getMetadata().get(OutgoingKafkaRecordMetadata.class).get();
+        OutgoingKafkaRecordMetadata<?> second = captor.getAllValues().get(1).getMetadata().get(OutgoingKafkaRecordMetadata.class).get();
+        assertThat(new String(first.getHeaders().lastHeader(RHOSE_BRIDGE_ID_HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("myBridge");
+        assertThat(new String(first.getHeaders().lastHeader(RHOSE_PROCESSOR_ID_HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("anotherProcessor");
+        assertThat(new String(second.getHeaders().lastHeader(RHOSE_PROCESSOR_ID_HEADER).value(), StandardCharsets.UTF_8)).isEqualTo("myProcessor");
+        // the bytes of the ids of the bridge and of the processor are computed once
+        assertThat(second.getHeaders().lastHeader(RHOSE_BRIDGE_ID_HEADER).value()).isSameAs(first.getHeaders().lastHeader(RHOSE_BRIDGE_ID_HEADER).value());
+    }
+
+    @Test
+    void onEventWithContentType() {
+        ArgumentCaptor<Message<String>> captor = ArgumentCaptor.forClass(Message.class);
+        Emitter<String> emitter = mock(Emitter.class);
+
+        KafkaTopicActionInvoker invoker = new KafkaTopicActionInvoker(emitter, createProcessor(), "myTestTopic", null, "application/cloudevents+json");
+        invoker.onEvent("{}", Map.of(KafkaTopicActionInvoker.CONTENT_TYPE_HEADER, "application/json"));
+
+        verify(emitter).send(captor.capture());
+        OutgoingKafkaRecordMetadata<?> recordMetadata = captor.getValue().getMetadata().get(OutgoingKafkaRecordMetadata.class).get();
+        assertThat(recordMetadata.getHeaders().headers(KafkaTopicActionInvoker.CONTENT_TYPE_HEADER))
+                .extracting(header -> new String(header.value(), StandardCharsets.UTF_8))
+                .containsExactly("application/cloudevents+json");
+    }
+
+    @Test
+    void onEventAsyncCompletesWhenTheBrokerAcknowledges() {
+        ArgumentCaptor<Message<String>> captor = ArgumentCaptor.forClass(Message.class);
+        Emitter<String> emitter = mock(Emitter.class);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProcessorDTO processor = createProcessor();
+
+        KafkaTopicActionInvoker invoker = new KafkaTopicActionInvoker(emitter, processor, "myTestTopic", new KafkaTopicActionMetrics(meterRegistry, processor), null);
+        CompletableFuture<Void> delivery = invoker.onEventAsync("{}", Collections.emptyMap()).subscribeAsCompletionStage();
+
+        verify(emitter).send(captor.capture());
+        assertThat(delivery).isNotDone();
+
+        captor.getValue().ack();
+        assertThat(delivery).isCompleted();
+        assertThat(meterRegistry.find(KafkaTopicActionMetrics.SEND_TIME_METRIC_NAME)
+                .tag(KafkaTopicActionMetrics.PROCESSOR_ID_TAG, "myProcessor")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void onEventAsyncFailsWhenTheBrokerRefuses() {
+        ArgumentCaptor<Message<String>> captor = ArgumentCaptor.forClass(Message.class);
+        Emitter<String> emitter = mock(Emitter.class);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProcessorDTO processor = createProcessor();
+
+        KafkaTopicActionInvoker invoker = new KafkaTopicActionInvoker(emitter, processor, "myTestTopic", new KafkaTopicActionMetrics(meterRegistry, processor), null);
+        CompletableFuture<Void> delivery = invoker.onEventAsync("{}", Collections.emptyMap()).subscribeAsCompletionStage();
+
+        verify(emitter).send(captor.capture());
+        captor.getValue().nack(new IllegalStateException("not leader"));
+
+        assertThat(delivery).isCompletedExceptionally();
+        assertThat(meterRegistry.find(KafkaTopicActionMetrics.SEND_FAILURES_METRIC_NAME)
+                .tag(KafkaTopicActionMetrics.BRIDGE_ID_TAG, "myBridge")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void onEventsReportsTheFailuresOfEveryEvent() {
+        ArgumentCaptor<Message<String>> captor = ArgumentCaptor.forClass(Message.class);
+        Emitter<String> emitter = mock(Emitter.class);
+
+        KafkaTopicActionInvoker invoker = new KafkaTopicActionInvoker(emitter, createProcessor(), "myTestTopic");
+        CompletableFuture<Map<Integer, Throwable>> delivery = invoker.onEvents(List.of("{}", "{}", "{}"),
+                List.of(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap())).subscribeAsCompletionStage();
+
+        verify(emitter, times(3)).send(captor.capture());
+        IllegalStateException error = new IllegalStateException("not leader");
+        captor.getAllValues().get(0).ack();
+        captor.getAllValues().get(1).nack(error);
+        assertThat(delivery).isNotDone();
+
+        captor.getAllValues().get(2).ack();
+        // only the event refused by the broker failed
+        assertThat(delivery).isCompletedWithValue(Map.of(1, error));
     }
 }
@@ -1,5 +1,6 @@
 package com.redhat.service.smartevents.processor.actions.webhook;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -7,6 +8,7 @@ import javax.inject.Inject;
 
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
 import com.redhat.service.smartevents.infra.v1.api.models.gateways.Action;
 import com.redhat.service.smartevents.infra.v1.api.models.processors.ProcessorDefinition;
@@ -14,10 +16,20 @@ import com.redhat.service.smartevents.infra.v1.api.models.processors.ProcessorTy
 import com.redhat.service.smartevents.processor.actions.ActionInvoker;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.ext.web.client.WebClientOptions;
 
 import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.BASIC_AUTH_PASSWORD_PARAM;
 import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.BASIC_AUTH_USERNAME_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.BATCH_MAX_DELAY_MS_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.BATCH_MAX_SIZE_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.CIRCUIT_BREAKER_FAILURE_THRESHOLD_PARAM;
 import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.ENDPOINT_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.RATE_LIMIT_PER_SECOND_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.RETRY_INITIAL_BACKOFF_MS_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.RETRY_JITTER_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.RETRY_MAX_ATTEMPTS_PARAM;
+import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.RETRY_MAX_BACKOFF_MS_PARAM;
 import static com.redhat.service.smartevents.processor.actions.webhook.WebhookAction.SSL_VERIFICATION_DISABLED;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -85,6 +97,113 @@ class WebhookActionInvokerBuilderTest {
         assertThat(webhookActionInvoker.getBasicAuthPassword()).isNull();
     }
 
+    @Test
+    void testWebClientOptions() {
+        ProcessorDTO processor = createProcessor();
+
+        WebClientOptions options = builder.getWebClientOptions(processor.getDefinition().getResolvedAction());
+        assertThat(options.getLogActivity()).isFalse();
+        assertThat(options.getMaxPoolSize()).isEqualTo(50);
+        assertThat(options.getMaxWaitQueueSize()).isEqualTo(1000);
+        assertThat(options.getConnectTimeout()).isEqualTo(5000);
+        assertThat(options.getIdleTimeout()).isEqualTo(60);
+        assertThat(options.isKeepAlive()).isTrue();
+        assertThat(options.getProtocolVersion()).isEqualTo(HttpVersion.HTTP_1_1);
+        assertThat(options.isTrustAll()).isFalse();
+
+        WebhookActionInvoker webhookActionInvoker = (WebhookActionInvoker) builder.build(processor, processor.getDefinition().getResolvedAction());
+        assertThat(webhookActionInvoker.getRequestTimeoutMs()).isEqualTo(30000);
+        assertThat(webhookActionInvoker.getMetrics().getCapacity()).isEqualTo(50);
+    }
+
+    @Test
+    void testWebClientOptionsWithHttp2() {
+        WebhookActionInvokerBuilder http2Builder = new WebhookActionInvokerBuilder();
+        http2Builder.maxPoolSize = 10;
+        http2Builder.maxWaitQueueSize = -1;
+        http2Builder.connectTimeoutMs = 1000;
+        http2Builder.keepAlive = true;
+        http2Builder.keepAliveTimeoutSeconds = 30;
+        http2Builder.http2 = true;
+        http2Builder.http2ClearTextUpgrade = false;
+        http2Builder.http2MaxPoolSize = 2;
+        http2Builder.http2MultiplexingLimit = 50;
+
+        WebClientOptions options = http2Builder.getWebClientOptions(createProcessor().getDefinition().getResolvedAction());
+        assertThat(options.getProtocolVersion()).isEqualTo(HttpVersion.HTTP_2);
+        assertThat(options.isUseAlpn()).isTrue();
+        assertThat(options.isHttp2ClearTextUpgrade()).isFalse();
+        assertThat(options.getHttp2MaxPoolSize()).isEqualTo(2);
+        assertThat(options.getHttp2MultiplexingLimit()).isEqualTo(50);
+        assertThat(options.getHttp2KeepAliveTimeout()).isEqualTo(30);
+        assertThat(http2Builder.getPoolCapacity()).isEqualTo(100);
+    }
+
+    @Test
+    void testNoDeliveryPolicyByDefault() {
+        ProcessorDTO processor = createProcessor();
+
+        ActionInvoker actionInvoker = builder.build(processor, processor.getDefinition().getResolvedAction());
+        assertThat(((WebhookActionInvoker) actionInvoker).getDeliveryPolicy()).isNull();
+    }
+
+    @Test
+    void testDefaultDeliveryPolicy() {
+        ProcessorDTO processor = createProcessor();
+        processor.getDefinition().getResolvedAction().getParameters().put(RATE_LIMIT_PER_SECOND_PARAM, 50);
+
+        WebhookDeliveryPolicy deliveryPolicy = WebhookActionInvokerBuilder.getDeliveryPolicy(processor.getDefinition().getResolvedAction());
+        assertThat(deliveryPolicy.getMaxAttempts()).isEqualTo(WebhookDeliveryPolicy.DEFAULT_MAX_ATTEMPTS);
+        assertThat(deliveryPolicy.getInitialBackoff()).isEqualTo(WebhookDeliveryPolicy.DEFAULT_INITIAL_BACKOFF);
+        assertThat(deliveryPolicy.getMaxBackoff()).isEqualTo(WebhookDeliveryPolicy.DEFAULT_MAX_BACKOFF);
+        assertThat(deliveryPolicy.getJitter()).isEqualTo(WebhookDeliveryPolicy.DEFAULT_JITTER);
+        assertThat(deliveryPolicy.getCircuitBreaker()).isNotNull();
+        assertThat(deliveryPolicy.getRateLimiter()).isNotNull();
+    }
+
+    @Test
+    void testDeliveryPolicyFromParameters() {
+        ProcessorDTO processor = createProcessor();
+        ObjectNode parameters = processor.getDefinition().getResolvedAction().getParameters();
+        parameters.put(RETRY_MAX_ATTEMPTS_PARAM, 5);
+        parameters.put(RETRY_INITIAL_BACKOFF_MS_PARAM, 100);
+        parameters.put(RETRY_MAX_BACKOFF_MS_PARAM, 2000);
+        parameters.put(RETRY_JITTER_PARAM, 0.2);
+        parameters.put(CIRCUIT_BREAKER_FAILURE_THRESHOLD_PARAM, 0);
+        parameters.put(RATE_LIMIT_PER_SECOND_PARAM, 50);
+
+        ActionInvoker actionInvoker = builder.build(processor, processor.getDefinition().getResolvedAction());
+        WebhookDeliveryPolicy deliveryPolicy = ((WebhookActionInvoker) actionInvoker).getDeliveryPolicy();
+        assertThat(deliveryPolicy.getMaxAttempts()).isEqualTo(5);
+        assertThat(deliveryPolicy.getInitialBackoff()).isEqualTo(Duration.ofMillis(100));
+        assertThat(deliveryPolicy.getMaxBackoff()).isEqualTo(Duration.ofMillis(2000));
+        assertThat(deliveryPolicy.getJitter()).isEqualTo(0.2);
+        assertThat(deliveryPolicy.getCircuitBreaker()).isNull();
+        assertThat(deliveryPolicy.getRateLimiter()).isNotNull();
+    }
+
+    @Test
+    void testBatchIsDisabledByDefault() {
+        ProcessorDTO processor = createProcessor();
+
+        ActionInvoker actionInvoker = builder.build(processor, processor.getDefinition().getResolvedAction());
+        assertThat(((WebhookActionInvoker) actionInvoker).getBatcher()).isNull();
+    }
+
+    @Test
+    void testBatchFromParameters() {
+        ProcessorDTO processor = createProcessor();
+        ObjectNode parameters = processor.getDefinition().getResolvedAction().getParameters();
+        parameters.put(BATCH_MAX_SIZE_PARAM, 50);
+        parameters.put(BATCH_MAX_DELAY_MS_PARAM, 20);
+
+        ActionInvoker actionInvoker = builder.build(processor, processor.getDefinition().getResolvedAction());
+        WebhookEventBatcher batcher = ((WebhookActionInvoker) actionInvoker).getBatcher();
+        assertThat(batcher).isNotNull();
+        assertThat(batcher.getMaxSize()).isEqualTo(50);
+        assertThat(batcher.getMaxDelay()).isEqualTo(Duration.ofMillis(20));
+    }
+
     private ProcessorDTO createProcessor() {
         Action action = new Action();
         action.setType(WebhookAction.TYPE);
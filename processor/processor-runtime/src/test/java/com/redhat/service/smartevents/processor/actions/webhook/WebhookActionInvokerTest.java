@@ -1,7 +1,9 @@
 package com.redhat.service.smartevents.processor.actions.webhook;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
@@ -9,13 +11,20 @@ import javax.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.junit.jupiter.api.Test;
 
-import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import com.redhat.service.smartevents.infra.core.auth.AbstractOidcClient;
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.ExternalUserException;
+import com.redhat.service.smartevents.infra.v1.api.models.dto.ProcessorDTO;
 import com.redhat.service.smartevents.test.wiremock.AbstractWireMockTest;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.TimeoutException;
+import io.vertx.core.json.DecodeException;
 import io.vertx.mutiny.core.Vertx;
 import io.vertx.mutiny.ext.web.client.WebClient;
 
@@ -26,6 +35,8 @@ import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -46,17 +57,13 @@ class WebhookActionInvokerTest extends AbstractWireMockTest {
     String webhookSinkUrl;
 
     @Test
-    void test() throws InterruptedException {
+    void test() {
         wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200)));
 
-        CountDownLatch latch = new CountDownLatch(1);
-        addUpdateRequestListener(TEST_WEBHOOK_PATH, RequestMethod.POST, latch);
-
         String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
         WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx));
-        invoker.onEvent(TEST_EVENT, TEST_HEADERS);
-
-        assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        // the delivery completes once the response is received, so the request is already in the journal
+        invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30));
 
         RequestPatternBuilder requestPatternBuilder = postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH))
                 .withRequestBody(equalToJson(TEST_EVENT, true, true))
@@ -70,21 +77,17 @@ class WebhookActionInvokerTest extends AbstractWireMockTest {
     }
 
     @Test
-    void testBasicAuth() throws InterruptedException {
+    void testBasicAuth() {
         wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200)));
 
-        CountDownLatch latch = new CountDownLatch(1);
-        addUpdateRequestListener(TEST_WEBHOOK_PATH, RequestMethod.POST, latch);
-
         String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
 
         WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint,
                 WebClient.create(vertx),
                 "username",
                 "password");
-        invoker.onEvent(TEST_EVENT, TEST_HEADERS);
-
-        assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        // the delivery completes once the response is received, so the request is already in the journal
+        invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30));
 
         RequestPatternBuilder requestPatternBuilder = postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH))
                 .withRequestBody(equalToJson(TEST_EVENT, true, true))
@@ -99,12 +102,9 @@ class WebhookActionInvokerTest extends AbstractWireMockTest {
     }
 
     @Test
-    void testBearerToken() throws InterruptedException {
+    void testBearerToken() {
         wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200)));
 
-        CountDownLatch latch = new CountDownLatch(1);
-        addUpdateRequestListener(TEST_WEBHOOK_PATH, RequestMethod.POST, latch);
-
         String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
         AbstractOidcClient abstractOidcClient = mock(AbstractOidcClient.class);
         when(abstractOidcClient.getToken()).thenReturn("token");
@@ -112,9 +112,8 @@ class WebhookActionInvokerTest extends AbstractWireMockTest {
         WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint,
                 WebClient.create(vertx),
                 abstractOidcClient);
-        invoker.onEvent(TEST_EVENT, TEST_HEADERS);
-
-        assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        // the delivery completes once the response is received, so the request is already in the journal
+        invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30));
 
         RequestPatternBuilder requestPatternBuilder = postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH))
                 .withRequestBody(equalToJson(TEST_EVENT, true, true))
@@ -128,4 +127,233 @@ class WebhookActionInvokerTest extends AbstractWireMockTest {
 
         wireMockServer.verify(requestPatternBuilder);
     }
+
+    @Test
+    void testAsyncDeliveryFailsOnErrorResponse() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(503)));
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx));
+
+        assertThatThrownBy(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30)))
+                .isInstanceOf(ExternalUserException.class)
+                .hasMessageContaining("503");
+    }
+
+    @Test
+    void testAsyncDeliveryCompletesOnSuccessfulResponse() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(202)));
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx));
+
+        assertThatNoException().isThrownBy(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30)));
+        wireMockServer.verify(postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+    }
+
+    @Test
+    void testPoolMetrics() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200)));
+
+        ProcessorDTO processor = new ProcessorDTO();
+        processor.setId("myProcessor");
+        processor.setBridgeId("myBridge");
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WebhookClientMetrics metrics = new WebhookClientMetrics(meterRegistry, processor, 10);
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx), null, null, null, 30000, metrics, null);
+        invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30));
+
+        Timer requestTime = meterRegistry.find(WebhookClientMetrics.REQUEST_TIME_METRIC_NAME)
+                .tag(WebhookClientMetrics.BRIDGE_ID_TAG, "myBridge")
+                .tag(WebhookClientMetrics.PROCESSOR_ID_TAG, "myProcessor")
+                .timer();
+        assertThat(requestTime).isNotNull();
+        assertThat(requestTime.count()).isEqualTo(1);
+        assertThat(meterRegistry.find(WebhookClientMetrics.POOL_CAPACITY_METRIC_NAME).gauge().value()).isEqualTo(10);
+        assertThat(meterRegistry.find(WebhookClientMetrics.POOL_ACTIVE_METRIC_NAME).gauge().value()).isZero();
+        assertThat(meterRegistry.find(WebhookClientMetrics.POOL_QUEUED_METRIC_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testTransientFailuresAreRetried() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).inScenario("retry")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).inScenario("retry")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse().withStatus(200)));
+
+        WebhookActionInvoker invoker = invokerWithPolicy(new WebhookDeliveryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(100), 0.5, null, null));
+
+        assertThatNoException().isThrownBy(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30)));
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+    }
+
+    @Test
+    void testClientErrorsAreNotRetried() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(400)));
+        WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker(1, Duration.ofSeconds(30));
+
+        WebhookActionInvoker invoker = invokerWithPolicy(new WebhookDeliveryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(100), 0.5, circuitBreaker, null));
+
+        assertThatThrownBy(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30)))
+                .isInstanceOf(ExternalUserException.class)
+                .hasMessageContaining("400");
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+        // the target answered, so it is not considered unavailable
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testInvalidEventsAreNotRetried() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200)));
+        WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker(1, Duration.ofSeconds(30));
+
+        WebhookActionInvoker invoker = invokerWithPolicy(new WebhookDeliveryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(100), 0.5, circuitBreaker, null));
+
+        assertThatThrownBy(() -> invoker.onEventAsync("not json", TEST_HEADERS).await().atMost(Duration.ofSeconds(30)))
+                .isInstanceOf(DecodeException.class);
+        wireMockServer.verify(0, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void testCircuitBreakerOpensWhenRetriesAreExhausted() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(500)));
+        WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker(2, Duration.ofSeconds(30));
+
+        WebhookActionInvoker invoker = invokerWithPolicy(new WebhookDeliveryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(100), 0.5, circuitBreaker, null));
+
+        assertThatThrownBy(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30)))
+                .isInstanceOf(ExternalUserException.class)
+                .hasMessageContaining("500");
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.OPEN);
+        assertThat(invoker.awaitReady().subscribeAsCompletionStage()).isNotDone();
+    }
+
+    @Test
+    void testCancelledDeliveryStopsRetrying() throws InterruptedException {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(503)));
+        WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker(100, Duration.ofSeconds(30));
+
+        WebhookActionInvoker invoker = invokerWithPolicy(new WebhookDeliveryPolicy(100, Duration.ofMillis(100), Duration.ofMillis(100), 0, circuitBreaker, null));
+
+        // the executor cancels the deliveries that are not over by the delivery timeout of their record
+        assertThatThrownBy(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).ifNoItem().after(Duration.ofMillis(500)).fail().await().atMost(Duration.ofSeconds(30)))
+                .isInstanceOf(TimeoutException.class);
+        int attempts = wireMockServer.findAll(postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH))).size();
+        assertThat(attempts).isPositive().isLessThan(100);
+
+        Thread.sleep(500);
+        wireMockServer.verify(attempts, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+    }
+
+    @Test
+    void testCancelledWaitForAnOpenCircuitBreaker() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(500)));
+        WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker(1, Duration.ofSeconds(30));
+        circuitBreaker.onFailure();
+
+        WebhookActionInvoker invoker = invokerWithPolicy(new WebhookDeliveryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(100), 0.5, circuitBreaker, null));
+
+        // an open circuit breaker holds the delivery for its whole delay, unless the executor cancels it
+        assertThatThrownBy(() -> invoker.awaitReady().chain(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS)).ifNoItem().after(Duration.ofMillis(200)).fail()
+                .await().atMost(Duration.ofSeconds(30)))
+                        .isInstanceOf(TimeoutException.class);
+        wireMockServer.verify(0, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+    }
+
+    @Test
+    void testBatchDelivery() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200)));
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx), null, null, null, 30000, null, null, 2, Duration.ofMinutes(1));
+        String secondEvent = TEST_EVENT.replace("1234", "5678");
+
+        CompletableFuture<Void> first = invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).subscribeAsCompletionStage();
+        CompletableFuture<Void> second = invoker.onEventAsync(secondEvent, Map.of("custom-header", "value-1")).subscribeAsCompletionStage();
+        assertThatNoException().isThrownBy(() -> CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS));
+
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH))
+                .withRequestBody(equalToJson("[" + TEST_EVENT + "," + secondEvent + "]"))
+                .withHeader("Content-Type", equalTo(WebhookActionInvoker.CE_BATCH_JSON_CONTENT_TYPE))
+                // only the headers shared by all the events of the batch are sent
+                .withHeader("x-custom-header", equalTo("value-1"))
+                .withoutHeader("x-another-custom-header"));
+    }
+
+    @Test
+    void testBatchDeliveryFailsAllTheEvents() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(400)));
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx), null, null, null, 30000, null, null, 2, Duration.ofMillis(10));
+
+        CompletableFuture<Void> first = invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).subscribeAsCompletionStage();
+        CompletableFuture<Void> second = invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).subscribeAsCompletionStage();
+
+        assertThatThrownBy(() -> first.get(30, TimeUnit.SECONDS)).hasCauseInstanceOf(ExternalUserException.class);
+        assertThatThrownBy(() -> second.get(30, TimeUnit.SECONDS)).hasCauseInstanceOf(ExternalUserException.class);
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+    }
+
+    @Test
+    void testOnEventsCompletesWithTheBatchDelivery() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(400).withFixedDelay(200)));
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx), null, null, null, 30000, null, null, 2, Duration.ofMinutes(1));
+
+        Map<Integer, Throwable> failures = invoker.onEvents(List.of(TEST_EVENT, TEST_EVENT), List.of(TEST_HEADERS, TEST_HEADERS)).await().atMost(Duration.ofSeconds(30));
+
+        assertThat(failures).containsOnlyKeys(0, 1);
+        assertThat(failures.get(0)).isInstanceOf(ExternalUserException.class);
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+    }
+
+    @Test
+    void testInvalidEventsDoNotFailTheirBatch() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200)));
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx), null, null, null, 30000, null, null, 3, Duration.ofMinutes(1));
+
+        Map<Integer, Throwable> failures = invoker.onEvents(List.of(TEST_EVENT, "not json", TEST_EVENT), List.of(TEST_HEADERS, TEST_HEADERS, TEST_HEADERS))
+                .await().atMost(Duration.ofSeconds(30));
+        assertThatThrownBy(() -> invoker.onEventAsync("not json", TEST_HEADERS).await().atMost(Duration.ofSeconds(30)))
+                .isInstanceOf(DecodeException.class);
+
+        assertThat(failures).containsOnlyKeys(1);
+        assertThat(failures.get(1)).isInstanceOf(DecodeException.class);
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH))
+                .withRequestBody(equalToJson("[" + TEST_EVENT + "," + TEST_EVENT + "]")));
+        assertThat(invoker.getBatcher().getPendingSize()).isZero();
+    }
+
+    @Test
+    void testCloseWaitsForThePendingDeliveries() {
+        wireMockServer.stubFor(post(urlEqualTo(TEST_WEBHOOK_PATH)).willReturn(aResponse().withStatus(200).withFixedDelay(500)));
+
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        WebhookActionInvoker invoker = new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx));
+
+        CompletableFuture<Void> pending = invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).subscribeAsCompletionStage();
+        invoker.close();
+
+        assertThatNoException().isThrownBy(() -> pending.get(30, TimeUnit.SECONDS));
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(TEST_WEBHOOK_PATH)));
+        // the web client has been closed after the last delivery
+        assertThatThrownBy(() -> invoker.onEventAsync(TEST_EVENT, TEST_HEADERS).await().atMost(Duration.ofSeconds(30)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private WebhookActionInvoker invokerWithPolicy(WebhookDeliveryPolicy deliveryPolicy) {
+        String testSinkEndpoint = webhookSinkUrl + TEST_WEBHOOK_PATH;
+        return new WebhookActionInvoker(testSinkEndpoint, WebClient.create(vertx), null, null, null, 30000, null, deliveryPolicy);
+    }
 }
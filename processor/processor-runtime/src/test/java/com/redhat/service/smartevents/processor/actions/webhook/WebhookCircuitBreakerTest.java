@@ -0,0 +1,74 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final WebhookCircuitBreaker circuitBreaker = new WebhookCircuitBreaker(2, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isZero();
+
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isEqualTo(10000);
+
+        advance(4);
+        assertThat(circuitBreaker.getRemainingOpenMillis()).isEqualTo(6000);
+    }
+
+    @Test
+    void testSingleTrialWhenHalfOpen() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        advance(10);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.getRemainingOpenMillis()).isZero();
+        assertThat(circuitBreaker.tryAcquirePermission()).isZero();
+        assertThat(circuitBreaker.tryAcquirePermission()).isPositive();
+
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isZero();
+    }
+
+    @Test
+    void testFailedTrialOpensAgain() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        advance(10);
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isZero();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(WebhookCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.getRemainingOpenMillis()).isEqualTo(10000);
+    }
+
+    @Test
+    void testIgnoredTrialGivesBackThePermission() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        advance(10);
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isZero();
+        circuitBreaker.onIgnored();
+        assertThat(circuitBreaker.tryAcquirePermission()).isZero();
+    }
+
+    private void advance(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
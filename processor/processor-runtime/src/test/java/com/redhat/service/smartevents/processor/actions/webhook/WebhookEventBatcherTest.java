@@ -0,0 +1,99 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.smartevents.infra.core.exceptions.definitions.user.ExternalUserException;
+
+import io.smallrye.mutiny.Uni;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookEventBatcherTest {
+
+    private final List<List<String>> sentBatches = new CopyOnWriteArrayList<>();
+    private final List<Map<String, String>> sentHeaders = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testBatchIsSentWhenFull() {
+        WebhookEventBatcher<String> batcher = new WebhookEventBatcher<String>(2, Duration.ofMinutes(1), this::send);
+
+        CompletableFuture<Void> first = batcher.add("1", Map.of()).subscribeAsCompletionStage();
+        assertThat(first).isNotDone();
+        assertThat(sentBatches).isEmpty();
+
+        CompletableFuture<Void> second = batcher.add("2", Map.of()).subscribeAsCompletionStage();
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(sentBatches).containsExactly(List.of("1", "2"));
+        assertThat(batcher.getPendingSize()).isZero();
+    }
+
+    @Test
+    void testBatchIsSentWhenTheDelayExpires() throws Exception {
+        WebhookEventBatcher<String> batcher = new WebhookEventBatcher<String>(10, Duration.ofMillis(50), this::send);
+
+        CompletableFuture<Void> first = batcher.add("1", Map.of()).subscribeAsCompletionStage();
+        CompletableFuture<Void> second = batcher.add("2", Map.of()).subscribeAsCompletionStage();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(sentBatches).containsExactly(List.of("1", "2"));
+    }
+
+    @Test
+    void testFailureOfTheBatchFailsAllItsEvents() {
+        WebhookEventBatcher<String> batcher = new WebhookEventBatcher<String>(2, Duration.ofMinutes(1),
+                (events, headers) -> Uni.createFrom().failure(new ExternalUserException("refused")));
+
+        CompletableFuture<Void> first = batcher.add("1", Map.of()).subscribeAsCompletionStage();
+        CompletableFuture<Void> second = batcher.add("2", Map.of()).subscribeAsCompletionStage();
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompletedExceptionally();
+    }
+
+    @Test
+    void testAddAllSplitsTheEvents() {
+        WebhookEventBatcher<String> batcher = new WebhookEventBatcher<String>(2, Duration.ofMinutes(1), this::send);
+
+        Map<Integer, Throwable> failures = batcher.addAll(List.of("1", "2", "3"), List.of(Map.of(), Map.of(), Map.of())).await().atMost(Duration.ofSeconds(5));
+
+        assertThat(failures).isEmpty();
+        assertThat(sentBatches).containsExactly(List.of("1", "2"), List.of("3"));
+    }
+
+    @Test
+    void testAddAllReportsTheEventsOfTheFailedBatches() {
+        ExternalUserException error = new ExternalUserException("refused");
+        WebhookEventBatcher<String> batcher = new WebhookEventBatcher<String>(2, Duration.ofMinutes(1),
+                (events, headers) -> events.contains("3") ? Uni.createFrom().failure(error) : send(events, headers));
+
+        Map<Integer, Throwable> failures = batcher.addAll(List.of("1", "2", "3"), List.of(Map.of(), Map.of(), Map.of())).await().atMost(Duration.ofSeconds(5));
+
+        assertThat(failures).containsExactly(Map.entry(2, error));
+        assertThat(sentBatches).containsExactly(List.of("1", "2"));
+    }
+
+    @Test
+    void testOnlySharedHeadersAreSent() {
+        WebhookEventBatcher<String> batcher = new WebhookEventBatcher<String>(2, Duration.ofMinutes(1), this::send);
+
+        batcher.add("1", Map.of("bridge", "myBridge", "trace", "1")).subscribeAsCompletionStage();
+        batcher.add("2", Map.of("bridge", "myBridge", "trace", "2")).subscribeAsCompletionStage();
+
+        assertThat(sentHeaders).containsExactly(Map.of("bridge", "myBridge"));
+    }
+
+    private Uni<Void> send(List<String> events, Map<String, String> headers) {
+        sentBatches.add(events);
+        sentHeaders.add(headers);
+        return Uni.createFrom().voidItem();
+    }
+}
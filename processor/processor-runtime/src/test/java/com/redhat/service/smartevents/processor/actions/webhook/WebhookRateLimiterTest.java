@@ -0,0 +1,47 @@
+package com.redhat.service.smartevents.processor.actions.webhook;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testBurstThenPacedPermits() {
+        WebhookRateLimiter rateLimiter = new WebhookRateLimiter(2, clock::get);
+
+        // a burst of one second of permits
+        assertThat(rateLimiter.reserve()).isZero();
+        assertThat(rateLimiter.reserve()).isZero();
+        // then the permits are reserved at the configured rate
+        assertThat(rateLimiter.reserve()).isEqualTo(500);
+        assertThat(rateLimiter.reserve()).isEqualTo(1000);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.reserve()).isEqualTo(500);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(rateLimiter.reserve()).isZero();
+        assertThat(rateLimiter.reserve()).isZero();
+        assertThat(rateLimiter.reserve()).isEqualTo(500);
+    }
+
+    @Test
+    void testRateBelowOnePerSecond() {
+        WebhookRateLimiter rateLimiter = new WebhookRateLimiter(0.5, clock::get);
+
+        assertThat(rateLimiter.reserve()).isZero();
+        assertThat(rateLimiter.reserve()).isEqualTo(2000);
+    }
+
+    @Test
+    void testInvalidRate() {
+        assertThatThrownBy(() -> new WebhookRateLimiter(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -13,6 +13,11 @@ public class GlobalConfigurationsConstants {
     public static final String KAFKA_ERROR_STRATEGY_ENV_VAR = "KAFKA_ERROR_STRATEGY";
     public static final String KAFKA_ERROR_TOPIC_ENV_VAR = "KAFKA_ERROR_TOPIC";
     public static final String KAFKA_GROUP_ID_ENV_VAR = "KAFKA_GROUP_ID";
+    public static final String KAFKA_RETRY_ENABLED_ENV_VAR_FORMAT = "KAFKA_RETRY_%d_ENABLED";
+    public static final String KAFKA_RETRY_TOPIC_ENV_VAR_FORMAT = "KAFKA_RETRY_%d_TOPIC";
+    public static final String KAFKA_RETRY_DELAY_ENV_VAR_FORMAT = "KAFKA_RETRY_%d_DELAY";
+    public static final String KAFKA_RETRY_TOPIC_FORMAT = "%s-retry-%d";
+    public static final int KAFKA_RETRY_MAX_TIERS = 3;
 
     public static final String KNATIVE_KAFKA_PROTOCOL_SECRET = "protocol";
     public static final String KNATIVE_KAFKA_SASL_MECHANISM_SECRET = "sasl.mechanism";
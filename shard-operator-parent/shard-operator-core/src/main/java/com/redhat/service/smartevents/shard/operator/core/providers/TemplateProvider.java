@@ -23,6 +23,8 @@ public interface TemplateProvider {
 
     Service loadBridgeExecutorServiceTemplate(HasMetadata resource, TemplateImportConfig config);
 
+    Secret loadBridgeExecutorDefinitionSecretTemplate(HasMetadata resource, TemplateImportConfig config);
+
     Route loadBridgeIngressOpenshiftRouteTemplate(HasMetadata resource, TemplateImportConfig config);
 
     Ingress loadBridgeIngressKubernetesIngressTemplate(HasMetadata resource, TemplateImportConfig config);
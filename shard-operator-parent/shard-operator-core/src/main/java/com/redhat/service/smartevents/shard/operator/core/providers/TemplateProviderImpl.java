@@ -39,6 +39,7 @@ public class TemplateProviderImpl implements TemplateProvider {
     private static final String BRIDGE_EXECUTOR_DEPLOYMENT_PATH = TEMPLATES_DIR + "/bridge-executor-deployment.yaml";
     private static final String BRIDGE_EXECUTOR_SERVICE_PATH = TEMPLATES_DIR + "/bridge-executor-service.yaml";
     private static final String BRIDGE_EXECUTOR_SECRET_PATH = TEMPLATES_DIR + "/bridge-executor-secret.yaml";
+    private static final String BRIDGE_EXECUTOR_DEFINITION_SECRET_PATH = TEMPLATES_DIR + "/bridge-executor-definition-secret.yaml";
 
     private static final String SERVICE_MONITOR_PATH = TEMPLATES_DIR + "/service-monitor.yaml";
 
@@ -62,6 +63,13 @@ public class TemplateProviderImpl implements TemplateProvider {
         return service;
     }
 
+    @Override
+    public Secret loadBridgeExecutorDefinitionSecretTemplate(HasMetadata resource, TemplateImportConfig config) {
+        final Secret secret = loadYaml(Secret.class, BRIDGE_EXECUTOR_DEFINITION_SECRET_PATH);
+        updateMetadata(resource, secret.getMetadata(), config);
+        return secret;
+    }
+
     @Override
     public Route loadBridgeIngressOpenshiftRouteTemplate(HasMetadata resource, TemplateImportConfig config) {
         Route route = loadYaml(Route.class, BRIDGE_INGRESS_OPENSHIFT_ROUTE_PATH);
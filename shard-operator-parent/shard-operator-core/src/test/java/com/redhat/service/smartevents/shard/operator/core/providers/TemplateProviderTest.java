@@ -101,6 +101,22 @@ public class TemplateProviderTest {
         assertThat(deployment.getSpec().getReplicas()).isEqualTo(1);
         assertThat(deployment.getSpec().getTemplate().getSpec().getContainers().get(0).getLivenessProbe()).isNotNull();
         assertThat(deployment.getSpec().getTemplate().getSpec().getContainers().get(0).getReadinessProbe()).isNotNull();
+        assertThat(deployment.getSpec().getTemplate().getSpec().getContainers().get(0).getVolumeMounts().get(0).getName()).isEqualTo("processor-definition");
+        assertThat(deployment.getSpec().getTemplate().getSpec().getVolumes().get(0).getName()).isEqualTo("processor-definition");
+        assertThat(deployment.getSpec().getTemplate().getSpec().getVolumes().get(0).getSecret().getSecretName()).isBlank();
+    }
+
+    @Test
+    public void bridgeExecutorDefinitionSecretTemplateIsProvided() {
+
+        mockResourceForOwnerReference();
+        TemplateProvider templateProvider = new TemplateProviderImpl();
+        Secret secret = templateProvider.loadBridgeExecutorDefinitionSecretTemplate(hasMetadata, TemplateImportConfig.withDefaults(LabelsBuilder.V1_OPERATOR_NAME));
+
+        assertOwnerReference(hasMetadata, secret.getMetadata());
+        assertLabels(secret.getMetadata(), LabelsBuilder.V1_OPERATOR_NAME, EXECUTOR_COMPONENT_NAME);
+
+        assertThat(secret.getData().get("processor-definition.json")).isBlank();
     }
 
     @Test
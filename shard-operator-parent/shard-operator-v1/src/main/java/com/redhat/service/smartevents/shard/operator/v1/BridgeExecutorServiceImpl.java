@@ -3,6 +3,7 @@ package com.redhat.service.smartevents.shard.operator.v1;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -49,6 +50,10 @@ public class BridgeExecutorServiceImpl implements BridgeExecutorService {
     @ConfigProperty(name = "event-bridge.executor.deployment.timeout-seconds")
     int deploymentTimeout;
 
+    // The delays of the retry tiers of the executors, e.g. 10s,1m,10m: none when empty
+    @ConfigProperty(name = "event-bridge.executor.retry.delays")
+    Optional<List<String>> retryDelays;
+
     @Inject
     KubernetesClient kubernetesClient;
 
@@ -125,24 +130,62 @@ public class BridgeExecutorServiceImpl implements BridgeExecutorService {
         // CustomerId is available in the Processor definition however this avoids the need to unnecessarily de-serialise the definition for logging in the Executor
         environmentVariables.add(new EnvVarBuilder().withName(Constants.CUSTOMER_ID_CONFIG_ENV_VAR).withValue(bridgeExecutor.getSpec().getCustomerId()).build());
         environmentVariables.add(new EnvVarBuilder().withName(Constants.EVENT_BRIDGE_LOGGING_JSON).withValue(globalConfigurationsProvider.isJsonLoggingEnabled().toString()).build());
-        try {
-            environmentVariables.add(new EnvVarBuilder().withName(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_ENV_VAR).withValue(objectMapper.writeValueAsString(bridgeExecutor.toDTO())).build());
-        } catch (JsonProcessingException e) {
-            LOGGER.error("Could not serialize Processor Definition while setting executor deployment environment variables", e);
-        }
+        // The definition is mounted from a Secret, as it holds the resolved secrets of the action: the executor reloads it when it changes, without a new rollout of the deployment
+        environmentVariables.add(new EnvVarBuilder().withName(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_ENV_VAR)
+                .withValue(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_MOUNT_PATH + "/" + Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_NAME).build());
+        // The executors are static members of the consumer group: an executor restarted in the same pod gets back its partitions without a rebalance
+        environmentVariables.add(new EnvVarBuilder().withName(Constants.BRIDGE_EXECUTOR_GROUP_INSTANCE_ID_ENV_VAR)
+                .withNewValueFrom().withNewFieldRef().withApiVersion("v1").withFieldPath("metadata.name").endFieldRef().endValueFrom().build());
         expected.getSpec().getTemplate().getSpec().getContainers().get(0).setEnv(environmentVariables);
 
         expected.getSpec().getTemplate().getSpec().getContainers().get(0).getEnvFrom().get(0).getSecretRef().setName(secret.getMetadata().getName());
 
+        Secret definitionSecret = createOrUpdateBridgeExecutorDefinitionSecret(bridgeExecutor);
+        expected.getSpec().getTemplate().getSpec().getContainers().get(0).getVolumeMounts().get(0).setMountPath(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_MOUNT_PATH);
+        expected.getSpec().getTemplate().getSpec().getVolumes().get(0).getSecret().setSecretName(definitionSecret.getMetadata().getName());
+
         Deployment existing = kubernetesClient.apps().deployments().inNamespace(bridgeExecutor.getMetadata().getNamespace()).withName(bridgeExecutor.getMetadata().getName()).get();
 
         if (existing == null || !DeploymentSpecUtils.isDeploymentEqual(expected, existing)) {
+            if (existing != null) {
+                // the replicas are managed by the ExecutorAutoscaler once the deployment exists
+                expected.getSpec().setReplicas(existing.getSpec().getReplicas());
+            }
             return kubernetesClient.apps().deployments().inNamespace(bridgeExecutor.getMetadata().getNamespace()).createOrReplace(expected);
         }
 
         return existing;
     }
 
+    private Secret createOrUpdateBridgeExecutorDefinitionSecret(BridgeExecutor bridgeExecutor) {
+        Secret expected = templateProvider.loadBridgeExecutorDefinitionSecretTemplate(bridgeExecutor, TemplateImportConfig.withDefaults(LabelsBuilder.V1_OPERATOR_NAME));
+        // the Secret with the environment of the executor already has the name of the executor
+        String name = bridgeExecutor.getMetadata().getName() + Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_SECRET_SUFFIX;
+        expected.getMetadata().setName(name);
+        try {
+            expected.getData().put(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_NAME,
+                    Base64.getEncoder().encodeToString(objectMapper.writeValueAsBytes(bridgeExecutor.toDTO())));
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Could not serialize Processor Definition while setting executor definition Secret", e);
+        }
+
+        Secret existing = kubernetesClient
+                .secrets()
+                .inNamespace(bridgeExecutor.getMetadata().getNamespace())
+                .withName(name)
+                .get();
+
+        if (existing == null || !expected.getData().equals(existing.getData())) {
+            return kubernetesClient
+                    .secrets()
+                    .inNamespace(bridgeExecutor.getMetadata().getNamespace())
+                    .withName(name)
+                    .createOrReplace(expected);
+        }
+
+        return existing;
+    }
+
     @Override
     public Service fetchOrCreateBridgeExecutorService(BridgeExecutor bridgeExecutor, Deployment deployment) {
         Service expected = templateProvider.loadBridgeExecutorServiceTemplate(bridgeExecutor, TemplateImportConfig.withDefaults(LabelsBuilder.V1_OPERATOR_NAME));
@@ -195,6 +238,10 @@ public class BridgeExecutorServiceImpl implements BridgeExecutorService {
         expected.getData().put(GlobalConfigurationsConstants.KAFKA_ERROR_STRATEGY_ENV_VAR, Base64.getEncoder().encodeToString(kafkaErrorStrategy.getBytes()));
         expected.getData().put(GlobalConfigurationsConstants.KAFKA_ERROR_TOPIC_ENV_VAR, Base64.getEncoder().encodeToString(processorDTO.getKafkaConnection().getErrorTopic().getBytes()));
         expected.getData().put(GlobalConfigurationsConstants.KAFKA_GROUP_ID_ENV_VAR, Base64.getEncoder().encodeToString(bridgeExecutor.getSpec().getId().getBytes()));
+        // The errors of the error handler are not retried
+        if (processorDTO.getType() != ProcessorType.ERROR_HANDLER) {
+            addRetryTiers(expected, processorDTO.getKafkaConnection().getTopic(), getRetryDelays(processorDTO));
+        }
 
         Secret existing = kubernetesClient
                 .secrets()
@@ -211,6 +258,29 @@ public class BridgeExecutorServiceImpl implements BridgeExecutorService {
         }
     }
 
+    /**
+     * Enables a retry tier of the executor for every configured delay, up to the max number of tiers. The topics of the
+     * tiers are named after the topic of the bridge and are created by the manager with it, as the error topic.
+     */
+    private void addRetryTiers(Secret secret, String topic, List<String> delays) {
+        for (int tier = 1; tier <= Math.min(delays.size(), GlobalConfigurationsConstants.KAFKA_RETRY_MAX_TIERS); tier++) {
+            String retryTopic = String.format(GlobalConfigurationsConstants.KAFKA_RETRY_TOPIC_FORMAT, topic, tier);
+            secret.getData().put(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_ENABLED_ENV_VAR_FORMAT, tier), Base64.getEncoder().encodeToString("true".getBytes()));
+            secret.getData().put(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_TOPIC_ENV_VAR_FORMAT, tier), Base64.getEncoder().encodeToString(retryTopic.getBytes()));
+            secret.getData().put(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_DELAY_ENV_VAR_FORMAT, tier), Base64.getEncoder().encodeToString(delays.get(tier - 1).trim().getBytes()));
+        }
+    }
+
+    /**
+     * @return the retry delays of the processor if it has any, otherwise the ones of the shard operator
+     */
+    List<String> getRetryDelays(ProcessorDTO processorDTO) {
+        if (processorDTO.getDefinition() != null && processorDTO.getDefinition().getRetryDelays() != null) {
+            return processorDTO.getDefinition().getRetryDelays();
+        }
+        return retryDelays.orElse(List.of());
+    }
+
     @Override
     public Secret fetchBridgeExecutorSecret(BridgeExecutor bridgeExecutor) {
         return kubernetesClient
@@ -0,0 +1,38 @@
+package com.redhat.service.smartevents.shard.operator.v1.autoscaling;
+
+/**
+ * The lag of the consumer group of an executor on the topic it consumes.
+ */
+public class ConsumerGroupLag {
+
+    private final int partitions;
+    private final long lag;
+    private final long committedOffsets;
+
+    public ConsumerGroupLag(int partitions, long lag, long committedOffsets) {
+        this.partitions = partitions;
+        this.lag = lag;
+        this.committedOffsets = committedOffsets;
+    }
+
+    /**
+     * @return the number of partitions of the topic, that is the max number of executors consuming it at the same time
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return the number of records of the topic that have not been committed by the group yet
+     */
+    public long getLag() {
+        return lag;
+    }
+
+    /**
+     * @return the sum of the offsets committed by the group on all the partitions: it grows with the consumed records
+     */
+    public long getCommittedOffsets() {
+        return committedOffsets;
+    }
+}
@@ -0,0 +1,24 @@
+package com.redhat.service.smartevents.shard.operator.v1.autoscaling;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the lag of the consumer groups of the executors from the Kafka cluster.
+ */
+public interface ConsumerGroupLagReader {
+
+    /**
+     * @param processorId the id of the processor of the executor
+     * @param kafkaConfiguration the Kafka configuration of the executor, i.e. the decoded content of its secret
+     * @return the lag of the consumer group of the executor on its topic
+     */
+    ConsumerGroupLag read(String processorId, Map<String, String> kafkaConfiguration);
+
+    /**
+     * Releases the resources of the executors that are not in the given set anymore.
+     *
+     * @param processorIds the ids of the processors of the existing executors
+     */
+    void retain(Set<String> processorIds);
+}
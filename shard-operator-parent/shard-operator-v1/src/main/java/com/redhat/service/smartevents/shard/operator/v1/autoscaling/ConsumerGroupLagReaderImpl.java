@@ -0,0 +1,146 @@
+package com.redhat.service.smartevents.shard.operator.v1.autoscaling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.redhat.service.smartevents.shard.operator.core.providers.GlobalConfigurationsConstants;
+
+@ApplicationScoped
+public class ConsumerGroupLagReaderImpl implements ConsumerGroupLagReader {
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.kafka-timeout", defaultValue = "10s")
+    Duration kafkaTimeout;
+
+    // An admin client for every executor, as every processor has its own credentials
+    private final Map<String, CachedAdmin> admins = new ConcurrentHashMap<>();
+
+    @Override
+    public ConsumerGroupLag read(String processorId, Map<String, String> kafkaConfiguration) {
+        Admin admin = getAdmin(processorId, kafkaConfiguration);
+        String topic = kafkaConfiguration.get(GlobalConfigurationsConstants.KAFKA_TOPIC_ENV_VAR);
+        String groupId = kafkaConfiguration.get(GlobalConfigurationsConstants.KAFKA_GROUP_ID_ENV_VAR);
+        try {
+            TopicDescription description = admin.describeTopics(List.of(topic)).allTopicNames()
+                    .get(kafkaTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .get(topic);
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            description.partitions().forEach(partition -> latest.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(latest).all()
+                    .get(kafkaTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata()
+                    .get(kafkaTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            return toConsumerGroupLag(endOffsets, committed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while reading the lag of the executor of processor '%s'", processorId), e);
+        } catch (ExecutionException | TimeoutException e) {
+            // the client is created again on the next read, e.g. if the credentials have changed
+            release(processorId);
+            throw new IllegalStateException(String.format("Failed to read the lag of the executor of processor '%s'", processorId), e);
+        }
+    }
+
+    /**
+     * The partitions without a committed offset have not been consumed yet, so all their records are lagging.
+     */
+    static ConsumerGroupLag toConsumerGroupLag(Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets, Map<TopicPartition, OffsetAndMetadata> committed) {
+        long lag = 0;
+        long committedOffsets = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffset : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(endOffset.getKey());
+            long committedOffset = offset == null ? 0 : offset.offset();
+            lag += Math.max(0, endOffset.getValue().offset() - committedOffset);
+            committedOffsets += committedOffset;
+        }
+        return new ConsumerGroupLag(endOffsets.size(), lag, committedOffsets);
+    }
+
+    @Override
+    public void retain(Set<String> processorIds) {
+        for (String processorId : new ArrayList<>(admins.keySet())) {
+            if (!processorIds.contains(processorId)) {
+                release(processorId);
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        retain(Set.of());
+    }
+
+    private Admin getAdmin(String processorId, Map<String, String> kafkaConfiguration) {
+        Properties properties = toAdminProperties(kafkaConfiguration);
+        CachedAdmin cached = admins.get(processorId);
+        if (cached != null && cached.properties.equals(properties)) {
+            return cached.admin;
+        }
+        release(processorId);
+        CachedAdmin created = new CachedAdmin(Admin.create(properties), properties);
+        admins.put(processorId, created);
+        return created.admin;
+    }
+
+    private void release(String processorId) {
+        CachedAdmin cached = admins.remove(processorId);
+        if (cached != null) {
+            cached.admin.close(Duration.ZERO);
+        }
+    }
+
+    /**
+     * @return the configuration of an admin client with the same connection and credentials of the executor
+     */
+    static Properties toAdminProperties(Map<String, String> kafkaConfiguration) {
+        Properties properties = new Properties();
+        properties.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaConfiguration.get(GlobalConfigurationsConstants.KAFKA_BOOTSTRAP_SERVERS_ENV_VAR));
+        String securityProtocol = kafkaConfiguration.get(GlobalConfigurationsConstants.KAFKA_SECURITY_PROTOCOL_ENV_VAR);
+        if (securityProtocol != null) {
+            properties.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, securityProtocol);
+        }
+        if (securityProtocol != null && securityProtocol.startsWith("SASL")) {
+            properties.put(SaslConfigs.SASL_MECHANISM, "PLAIN");
+            properties.put(SaslConfigs.SASL_JAAS_CONFIG, String.format("org.apache.kafka.common.security.plain.PlainLoginModule required username=\"%s\" password=\"%s\";",
+                    kafkaConfiguration.get(GlobalConfigurationsConstants.KAFKA_CLIENT_ID_ENV_VAR),
+                    kafkaConfiguration.get(GlobalConfigurationsConstants.KAFKA_CLIENT_SECRET_ENV_VAR)));
+        }
+        return properties;
+    }
+
+    private static class CachedAdmin {
+
+        private final Admin admin;
+        private final Properties properties;
+
+        private CachedAdmin(Admin admin, Properties properties) {
+            this.admin = admin;
+            this.properties = Objects.requireNonNull(properties);
+        }
+    }
+}
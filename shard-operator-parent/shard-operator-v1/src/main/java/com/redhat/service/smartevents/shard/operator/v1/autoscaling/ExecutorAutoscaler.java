@@ -0,0 +1,250 @@
+package com.redhat.service.smartevents.shard.operator.v1.autoscaling;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.smartevents.shard.operator.core.utils.LabelsBuilder;
+import com.redhat.service.smartevents.shard.operator.v1.BridgeExecutorService;
+import com.redhat.service.smartevents.shard.operator.v1.resources.BridgeExecutor;
+
+import io.fabric8.kubernetes.api.model.EventBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.quarkus.scheduler.Scheduled;
+
+/**
+ * Scales the deployments of the executors with the lag of their consumer groups, see {@link ExecutorScalingPolicy}.
+ * The lag is read from the Kafka cluster with the credentials of every executor, so that nothing has to be collected
+ * from the executors, including the ones that have been scaled to zero.
+ * <p>
+ * Every scaling is published as a Kubernetes event of the {@link BridgeExecutor}, and counted in the metrics of the
+ * operator along with the lag and the replicas of every executor.
+ */
+@ApplicationScoped
+public class ExecutorAutoscaler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorAutoscaler.class);
+
+    private static final String PROCESSOR_ID_TAG = "processorId";
+    private static final String BRIDGE_ID_TAG = "bridgeId";
+    private static final String DIRECTION_TAG = "direction";
+    private static final String SCALED_UP = "ScaledUp";
+    private static final String SCALED_DOWN = "ScaledDown";
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.min-replicas", defaultValue = "1")
+    int minReplicas;
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.max-replicas", defaultValue = "5")
+    int maxReplicas;
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.lag-per-replica", defaultValue = "1000")
+    long lagPerReplica;
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.scale-up-window", defaultValue = "0s")
+    Duration scaleUpWindow;
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.scale-down-window", defaultValue = "5m")
+    Duration scaleDownWindow;
+
+    @ConfigProperty(name = "event-bridge.executor.autoscaling.idle-timeout", defaultValue = "30m")
+    Duration idleTimeout;
+
+    @ConfigProperty(name = "rhose.metrics-name.operator.executor-consumer-lag")
+    String consumerLagMetricName;
+
+    @ConfigProperty(name = "rhose.metrics-name.operator.executor-replicas")
+    String replicasMetricName;
+
+    @ConfigProperty(name = "rhose.metrics-name.operator.executor-scaling-total-count")
+    String scalingTotalCountMetricName;
+
+    @Inject
+    KubernetesClient kubernetesClient;
+
+    @Inject
+    BridgeExecutorService bridgeExecutorService;
+
+    @Inject
+    ConsumerGroupLagReader consumerGroupLagReader;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    ExecutorScalingPolicy policy;
+
+    private final Map<String, ExecutorScalingPolicy.State> states = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorGauges> gauges = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        policy = new ExecutorScalingPolicy(minReplicas, maxReplicas, lagPerReplica, scaleUpWindow, scaleDownWindow, idleTimeout);
+    }
+
+    @Scheduled(every = "{event-bridge.executor.autoscaling.interval}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void autoscale() {
+        if (!enabled) {
+            return;
+        }
+        List<BridgeExecutor> bridgeExecutors = kubernetesClient.resources(BridgeExecutor.class)
+                .inAnyNamespace()
+                .withLabel(LabelsBuilder.MANAGED_BY_LABEL, LabelsBuilder.V1_OPERATOR_NAME)
+                .list()
+                .getItems();
+
+        Set<String> processorIds = new HashSet<>();
+        for (BridgeExecutor bridgeExecutor : bridgeExecutors) {
+            String processorId = bridgeExecutor.getSpec().getId();
+            processorIds.add(processorId);
+            try {
+                autoscale(bridgeExecutor, Instant.now());
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to autoscale the executor of processor '{}'", processorId, e);
+            }
+        }
+        forget(processorIds);
+    }
+
+    void autoscale(BridgeExecutor bridgeExecutor, Instant now) {
+        // the executors that are not ready are handled by the controller
+        if (bridgeExecutor.getStatus() == null || !bridgeExecutor.getStatus().isReady()) {
+            return;
+        }
+        String processorId = bridgeExecutor.getSpec().getId();
+        Deployment deployment = kubernetesClient.apps().deployments()
+                .inNamespace(bridgeExecutor.getMetadata().getNamespace())
+                .withName(bridgeExecutor.getMetadata().getName())
+                .get();
+        Secret secret = bridgeExecutorService.fetchBridgeExecutorSecret(bridgeExecutor);
+        if (deployment == null || secret == null) {
+            return;
+        }
+
+        ConsumerGroupLag lag = consumerGroupLagReader.read(processorId, decode(secret));
+        int currentReplicas = deployment.getSpec().getReplicas() == null ? 1 : deployment.getSpec().getReplicas();
+        int desiredReplicas = policy.evaluate(states.computeIfAbsent(processorId, id -> new ExecutorScalingPolicy.State()), currentReplicas, lag, now);
+
+        ExecutorGauges executorGauges = gauges.computeIfAbsent(processorId, id -> new ExecutorGauges(bridgeExecutor));
+        executorGauges.lag.set(lag.getLag());
+        executorGauges.replicas.set(desiredReplicas);
+
+        if (desiredReplicas != currentReplicas) {
+            scale(bridgeExecutor, lag, currentReplicas, desiredReplicas);
+        }
+    }
+
+    private void scale(BridgeExecutor bridgeExecutor, ConsumerGroupLag lag, int currentReplicas, int desiredReplicas) {
+        String reason = desiredReplicas > currentReplicas ? SCALED_UP : SCALED_DOWN;
+        String message = String.format("Scaled the executor from %d to %d replicas, the lag of its consumer group is %d records on %d partitions",
+                currentReplicas, desiredReplicas, lag.getLag(), lag.getPartitions());
+        LOGGER.info("BridgeExecutor '{}' in namespace '{}': {}", bridgeExecutor.getMetadata().getName(), bridgeExecutor.getMetadata().getNamespace(), message);
+
+        kubernetesClient.apps().deployments()
+                .inNamespace(bridgeExecutor.getMetadata().getNamespace())
+                .withName(bridgeExecutor.getMetadata().getName())
+                .scale(desiredReplicas);
+
+        meterRegistry.counter(scalingTotalCountMetricName, tags(bridgeExecutor, Tag.of(DIRECTION_TAG, reason))).increment();
+        publishEvent(bridgeExecutor, reason, message);
+    }
+
+    private void publishEvent(BridgeExecutor bridgeExecutor, String reason, String message) {
+        String timestamp = Instant.now().toString();
+        try {
+            kubernetesClient.v1().events().inNamespace(bridgeExecutor.getMetadata().getNamespace()).create(new EventBuilder()
+                    .withNewMetadata()
+                    .withGenerateName(bridgeExecutor.getMetadata().getName() + ".")
+                    .withNamespace(bridgeExecutor.getMetadata().getNamespace())
+                    .endMetadata()
+                    .withNewInvolvedObject()
+                    .withApiVersion(bridgeExecutor.getApiVersion())
+                    .withKind(bridgeExecutor.getKind())
+                    .withName(bridgeExecutor.getMetadata().getName())
+                    .withNamespace(bridgeExecutor.getMetadata().getNamespace())
+                    .withUid(bridgeExecutor.getMetadata().getUid())
+                    .endInvolvedObject()
+                    .withNewSource()
+                    .withComponent(LabelsBuilder.V1_OPERATOR_NAME)
+                    .endSource()
+                    .withType("Normal")
+                    .withReason(reason)
+                    .withMessage(message)
+                    .withFirstTimestamp(timestamp)
+                    .withLastTimestamp(timestamp)
+                    .withCount(1)
+                    .build());
+        } catch (RuntimeException e) {
+            // the event is informative only, the executor has been scaled
+            LOGGER.warn("Failed to publish the event '{}' of BridgeExecutor '{}'", reason, bridgeExecutor.getMetadata().getName(), e);
+        }
+    }
+
+    /**
+     * Drops the samples and the metrics of the executors that do not exist anymore.
+     */
+    private void forget(Set<String> processorIds) {
+        states.keySet().retainAll(processorIds);
+        for (String processorId : new ArrayList<>(gauges.keySet())) {
+            if (!processorIds.contains(processorId)) {
+                gauges.remove(processorId).remove(meterRegistry);
+            }
+        }
+        consumerGroupLagReader.retain(processorIds);
+    }
+
+    private static Map<String, String> decode(Secret secret) {
+        Map<String, String> decoded = new HashMap<>();
+        if (secret.getData() != null) {
+            secret.getData().forEach((key, value) -> decoded.put(key, new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8)));
+        }
+        return decoded;
+    }
+
+    private static List<Tag> tags(BridgeExecutor bridgeExecutor, Tag... others) {
+        List<Tag> tags = new ArrayList<>(List.of(
+                Tag.of(BRIDGE_ID_TAG, bridgeExecutor.getSpec().getBridgeId()),
+                Tag.of(PROCESSOR_ID_TAG, bridgeExecutor.getSpec().getId())));
+        tags.addAll(List.of(others));
+        return tags;
+    }
+
+    private class ExecutorGauges {
+
+        private final AtomicLong lag = new AtomicLong();
+        private final AtomicLong replicas = new AtomicLong();
+        private final List<Gauge> registered = new ArrayList<>();
+
+        private ExecutorGauges(BridgeExecutor bridgeExecutor) {
+            registered.add(Gauge.builder(consumerLagMetricName, lag, AtomicLong::get).tags(tags(bridgeExecutor)).register(meterRegistry));
+            registered.add(Gauge.builder(replicasMetricName, replicas, AtomicLong::get).tags(tags(bridgeExecutor)).register(meterRegistry));
+        }
+
+        private void remove(MeterRegistry registry) {
+            registered.forEach(registry::remove);
+        }
+    }
+}
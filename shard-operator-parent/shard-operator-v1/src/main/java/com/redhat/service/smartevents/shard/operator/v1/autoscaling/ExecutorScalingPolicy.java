@@ -0,0 +1,112 @@
+package com.redhat.service.smartevents.shard.operator.v1.autoscaling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Computes the number of replicas of an executor from the lag of its consumer group. Every replica is meant to handle
+ * up to <code>lagPerReplica</code> pending records, within the min and max number of replicas and never more than the
+ * partitions of the topic, as the other replicas would not get any partition.
+ * <p>
+ * Every change of the replicas rebalances the consumer group, so the recommendations are stabilised: the executor is
+ * scaled up to the lowest recommendation of the scale up window, and down to the highest of the scale down window. With
+ * a min of 0 replicas, an executor without lag whose group has not committed anything for the idle timeout is scaled
+ * to zero: it is scaled up again as soon as a record is written to its topic.
+ */
+public class ExecutorScalingPolicy {
+
+    private final int minReplicas;
+    private final int maxReplicas;
+    private final long lagPerReplica;
+    private final Duration scaleUpWindow;
+    private final Duration scaleDownWindow;
+    private final Duration idleTimeout;
+
+    public ExecutorScalingPolicy(int minReplicas, int maxReplicas, long lagPerReplica, Duration scaleUpWindow, Duration scaleDownWindow, Duration idleTimeout) {
+        if (minReplicas < 0 || maxReplicas < Math.max(1, minReplicas)) {
+            throw new IllegalArgumentException("The max replicas must be at least 1 and not lower than the min replicas, that can not be negative.");
+        }
+        if (lagPerReplica < 1) {
+            throw new IllegalArgumentException("The lag per replica must be at least 1.");
+        }
+        this.minReplicas = minReplicas;
+        this.maxReplicas = maxReplicas;
+        this.lagPerReplica = lagPerReplica;
+        this.scaleUpWindow = scaleUpWindow;
+        this.scaleDownWindow = scaleDownWindow;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * @param state the previous samples of the executor, updated with this one
+     * @param currentReplicas the replicas of the deployment of the executor
+     * @return the replicas the deployment should have
+     */
+    public int evaluate(State state, int currentReplicas, ConsumerGroupLag lag, Instant now) {
+        int recommended = recommend(state, lag, now);
+        state.recommendations.addLast(new Recommendation(now, recommended));
+        state.prune(now.minus(scaleUpWindow.compareTo(scaleDownWindow) > 0 ? scaleUpWindow : scaleDownWindow));
+
+        if (recommended > currentReplicas) {
+            return Math.max(currentReplicas, state.lowestSince(now.minus(scaleUpWindow)));
+        }
+        if (recommended < currentReplicas) {
+            return Math.min(currentReplicas, state.highestSince(now.minus(scaleDownWindow)));
+        }
+        return currentReplicas;
+    }
+
+    private int recommend(State state, ConsumerGroupLag lag, Instant now) {
+        boolean consumed = state.committedOffsets >= 0 && lag.getCommittedOffsets() != state.committedOffsets;
+        if (lag.getLag() > 0 || consumed || state.lastActivity == null) {
+            state.lastActivity = now;
+        }
+        state.committedOffsets = lag.getCommittedOffsets();
+
+        if (minReplicas == 0 && lag.getLag() == 0 && !now.isBefore(state.lastActivity.plus(idleTimeout))) {
+            return 0;
+        }
+        // the partitions are unknown when the topic has none yet
+        int upperBound = lag.getPartitions() > 0 ? Math.min(maxReplicas, lag.getPartitions()) : maxReplicas;
+        long needed = (lag.getLag() + lagPerReplica - 1) / lagPerReplica;
+        return (int) Math.min(upperBound, Math.max(Math.max(1, minReplicas), needed));
+    }
+
+    /**
+     * The samples of an executor.
+     */
+    public static class State {
+
+        private final Deque<Recommendation> recommendations = new ArrayDeque<>();
+        private long committedOffsets = -1;
+        private Instant lastActivity;
+
+        private void prune(Instant oldest) {
+            // the latest recommendation is always kept
+            while (recommendations.size() > 1 && recommendations.peekFirst().time.isBefore(oldest)) {
+                recommendations.removeFirst();
+            }
+        }
+
+        private int lowestSince(Instant since) {
+            return recommendations.stream().filter(r -> !r.time.isBefore(since)).mapToInt(r -> r.replicas).min().orElse(recommendations.getLast().replicas);
+        }
+
+        private int highestSince(Instant since) {
+            return recommendations.stream().filter(r -> !r.time.isBefore(since)).mapToInt(r -> r.replicas).max().orElse(recommendations.getLast().replicas);
+        }
+    }
+
+    private static class Recommendation {
+
+        private final Instant time;
+        private final int replicas;
+
+        private Recommendation(Instant time, int replicas) {
+            this.time = time;
+            this.replicas = replicas;
+        }
+    }
+}
@@ -149,7 +149,7 @@ public class BridgeExecutorController implements Reconciler<BridgeExecutor>,
         }
 
         Deployment deployment = bridgeExecutorService.fetchOrCreateBridgeExecutorDeployment(bridgeExecutor, secret);
-        if (!Readiness.isDeploymentReady(deployment)) {
+        if (!isScaledToZero(deployment) && !Readiness.isDeploymentReady(deployment)) {
             LOGGER.info("Executor deployment BridgeProcessor: '{}' in namespace '{}' is NOT ready",
                     bridgeExecutor.getMetadata().getName(),
                     bridgeExecutor.getMetadata().getNamespace());
@@ -237,6 +237,14 @@ public class BridgeExecutorController implements Reconciler<BridgeExecutor>,
         return UpdateControl.noUpdate();
     }
 
+    /**
+     * An executor scaled to zero by the ExecutorAutoscaler has no pods to be ready, it is scaled up as soon as it has
+     * events to process.
+     */
+    private static boolean isScaledToZero(Deployment deployment) {
+        return deployment.getSpec() != null && Integer.valueOf(0).equals(deployment.getSpec().getReplicas());
+    }
+
     private boolean isTimedOut(BridgeExecutorStatus status) {
         Optional<Date> lastTransitionDate = status.getConditions()
                 .stream()
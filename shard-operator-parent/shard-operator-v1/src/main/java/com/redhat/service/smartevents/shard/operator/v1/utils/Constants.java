@@ -8,7 +8,11 @@ public class Constants {
     public static final String CUSTOMER_ID_CONFIG_ENV_VAR = "EVENT_BRIDGE_CUSTOMER_ID";
     public static final String EVENT_BRIDGE_LOGGING_JSON = "EVENT_BRIDGE_LOGGING_JSON";
     public static final String BRIDGE_INGRESS_WEBHOOK_TECHNICAL_ACCOUNT_ID = "EVENT_BRIDGE_WEBHOOK_TECHNICAL_ACCOUNT_ID";
-    public static final String BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_ENV_VAR = "PROCESSOR_DEFINITION";
+    public static final String BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_ENV_VAR = "PROCESSOR_DEFINITION_FILE";
+    public static final String BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_MOUNT_PATH = "/etc/processor";
+    public static final String BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_NAME = "processor-definition.json";
+    public static final String BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_SECRET_SUFFIX = "-definition";
+    public static final String BRIDGE_EXECUTOR_GROUP_INSTANCE_ID_ENV_VAR = "KAFKA_GROUP_INSTANCE_ID";
     public static final String BRIDGE_EXECUTOR_WEBHOOK_SSO_ENV_VAR = "SSO_SERVER_URL";
     public static final String BRIDGE_EXECUTOR_WEBHOOK_CLIENT_ID_ENV_VAR = "WEBHOOK_CLIENT_ID";
     public static final String BRIDGE_EXECUTOR_WEBHOOK_CLIENT_SECRET_ENV_VAR = "WEBHOOK_CLIENT_SECRET";
@@ -1,6 +1,7 @@
 package com.redhat.service.smartevents.shard.operator.v1;
 
 import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -91,6 +92,7 @@ public class BridgeExecutorServiceTest {
         when(templateProvider.loadBridgeExecutorSecretTemplate(any(), any())).thenCallRealMethod();
         when(templateProvider.loadBridgeExecutorDeploymentTemplate(any(), any())).thenCallRealMethod();
         when(templateProvider.loadBridgeExecutorServiceTemplate(any(), any())).thenCallRealMethod();
+        when(templateProvider.loadBridgeExecutorDefinitionSecretTemplate(any(), any())).thenCallRealMethod();
 
         // Far from ideal... but each test assumes there are no other BridgeExecutor instances in existence.
         // Unfortunately, however, some tests only check that provisioning either progressed to a certain
@@ -130,6 +132,28 @@ public class BridgeExecutorServiceTest {
         assertThat(secret.getData().get(GlobalConfigurationsConstants.KAFKA_ERROR_STRATEGY_ENV_VAR)).isNotEmpty();
         assertThat(secret.getData().get(GlobalConfigurationsConstants.KAFKA_ERROR_TOPIC_ENV_VAR)).isNotEmpty();
         assertThat(secret.getData().get(GlobalConfigurationsConstants.KAFKA_GROUP_ID_ENV_VAR)).isNotEmpty();
+        // a retry tier for each of the delays of the test configuration
+        assertThat(secret.getData().get(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_ENABLED_ENV_VAR_FORMAT, 1))).isNotEmpty();
+        assertThat(secret.getData().get(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_TOPIC_ENV_VAR_FORMAT, 2))).isNotEmpty();
+        assertThat(secret.getData().get(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_DELAY_ENV_VAR_FORMAT, 2))).isNotEmpty();
+        assertThat(secret.getData()).doesNotContainKey(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_ENABLED_ENV_VAR_FORMAT, 3));
+    }
+
+    @Test
+    public void testBridgeExecutorCreationWithTheRetryDelaysOfTheProcessor() {
+        // Given
+        ProcessorDTO dto = TestSupport.newRequestedProcessorDTO();
+        dto.getDefinition().setRetryDelays(List.of("5s", "30s", "5m"));
+
+        // When
+        bridgeExecutorService.createBridgeExecutor(dto);
+
+        // Then
+        Secret secret = fetchBridgeExecutorSecret(dto);
+        assertThat(secret).isNotNull();
+        assertThat(secret.getData().get(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_ENABLED_ENV_VAR_FORMAT, 3))).isNotEmpty();
+        assertThat(new String(Base64.getDecoder().decode(secret.getData().get(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_DELAY_ENV_VAR_FORMAT, 1))))).isEqualTo("5s");
+        assertThat(new String(Base64.getDecoder().decode(secret.getData().get(String.format(GlobalConfigurationsConstants.KAFKA_RETRY_DELAY_ENV_VAR_FORMAT, 3))))).isEqualTo("5m");
     }
 
     @Test
@@ -154,8 +178,18 @@ public class BridgeExecutorServiceTest {
                     List<EnvVar> environmentVariables = deployment.getSpec().getTemplate().getSpec().getContainers().get(0).getEnv();
                     assertThat(environmentVariables.stream().filter(x -> x.getName().equals(Constants.CUSTOMER_ID_CONFIG_ENV_VAR)).findFirst().get().getValue().length())
                             .isGreaterThan(0);
-                    assertThat(environmentVariables.stream().filter(x -> x.getName().equals(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_ENV_VAR)).findFirst().get().getValue().length())
-                            .isGreaterThan(0);
+                    assertThat(environmentVariables.stream().filter(x -> x.getName().equals(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_ENV_VAR)).findFirst().get().getValue())
+                            .isEqualTo(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_MOUNT_PATH + "/" + Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_NAME);
+                    assertThat(environmentVariables.stream().filter(x -> x.getName().equals(Constants.BRIDGE_EXECUTOR_GROUP_INSTANCE_ID_ENV_VAR)).findFirst().get().getValueFrom().getFieldRef()
+                            .getFieldPath()).isEqualTo("metadata.name");
+                    // The processor definition is mounted from the definition Secret of the executor
+                    Secret definitionSecret = kubernetesClient.secrets()
+                            .inNamespace(customerNamespaceProvider.resolveName(dto.getCustomerId()))
+                            .withName(BridgeExecutor.resolveResourceName(dto.getId()) + Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_SECRET_SUFFIX)
+                            .get();
+                    assertThat(definitionSecret).isNotNull();
+                    assertThat(new String(Base64.getDecoder().decode(definitionSecret.getData().get(Constants.BRIDGE_EXECUTOR_PROCESSOR_DEFINITION_FILE_NAME)))).contains(dto.getId());
+                    assertThat(deployment.getSpec().getTemplate().getSpec().getVolumes().get(0).getSecret().getSecretName()).isEqualTo(definitionSecret.getMetadata().getName());
                     assertThat(environmentVariables.stream().filter(x -> x.getName().equals(Constants.BRIDGE_EXECUTOR_WEBHOOK_SSO_ENV_VAR)).findFirst().get().getValue()
                             .length())
                                     .isGreaterThan(0);
@@ -380,6 +414,7 @@ public class BridgeExecutorServiceTest {
         // See https://github.com/quarkiverse/quarkus-operator-sdk/issues/380#issuecomment-1211343353
         reset(templateProvider);
         when(templateProvider.loadBridgeExecutorSecretTemplate(any(), any())).thenCallRealMethod();
+        when(templateProvider.loadBridgeExecutorDefinitionSecretTemplate(any(), any())).thenCallRealMethod();
         when(templateProvider.loadBridgeExecutorDeploymentTemplate(any(), any())).thenThrow(new InternalPlatformException("template-provider-error"));
 
         // When
@@ -0,0 +1,52 @@
+package com.redhat.service.smartevents.shard.operator.v1.autoscaling;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.smartevents.shard.operator.core.providers.GlobalConfigurationsConstants;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsumerGroupLagReaderImplTest {
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition("topic", 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition("topic", 1);
+
+    @Test
+    public void testLagIsTheSumOfTheRecordsNotCommitted() {
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = Map.of(
+                PARTITION_0, new ListOffsetsResult.ListOffsetsResultInfo(100, -1, Optional.empty()),
+                PARTITION_1, new ListOffsetsResult.ListOffsetsResultInfo(40, -1, Optional.empty()));
+
+        // nothing committed on the second partition yet
+        ConsumerGroupLag lag = ConsumerGroupLagReaderImpl.toConsumerGroupLag(endOffsets, Map.of(PARTITION_0, new OffsetAndMetadata(90)));
+
+        assertThat(lag.getPartitions()).isEqualTo(2);
+        assertThat(lag.getLag()).isEqualTo(50);
+        assertThat(lag.getCommittedOffsets()).isEqualTo(90);
+    }
+
+    @Test
+    public void testAdminPropertiesUseTheCredentialsOfTheExecutor() {
+        Properties sasl = ConsumerGroupLagReaderImpl.toAdminProperties(Map.of(
+                GlobalConfigurationsConstants.KAFKA_BOOTSTRAP_SERVERS_ENV_VAR, "kafka:9092",
+                GlobalConfigurationsConstants.KAFKA_SECURITY_PROTOCOL_ENV_VAR, "SASL_SSL",
+                GlobalConfigurationsConstants.KAFKA_CLIENT_ID_ENV_VAR, "client",
+                GlobalConfigurationsConstants.KAFKA_CLIENT_SECRET_ENV_VAR, "secret"));
+        assertThat(sasl.getProperty(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG)).isEqualTo("kafka:9092");
+        assertThat(sasl.getProperty(SaslConfigs.SASL_JAAS_CONFIG)).contains("username=\"client\"").contains("password=\"secret\"");
+
+        Properties plaintext = ConsumerGroupLagReaderImpl.toAdminProperties(Map.of(
+                GlobalConfigurationsConstants.KAFKA_BOOTSTRAP_SERVERS_ENV_VAR, "kafka:9092",
+                GlobalConfigurationsConstants.KAFKA_SECURITY_PROTOCOL_ENV_VAR, "PLAINTEXT"));
+        assertThat(plaintext).doesNotContainKey(SaslConfigs.SASL_JAAS_CONFIG);
+    }
+}
@@ -0,0 +1,78 @@
+package com.redhat.service.smartevents.shard.operator.v1.autoscaling;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExecutorScalingPolicyTest {
+
+    private static final Instant START = Instant.parse("2022-06-01T10:00:00Z");
+
+    @Test
+    public void testReplicasFollowTheLagUpToThePartitions() {
+        ExecutorScalingPolicy policy = new ExecutorScalingPolicy(1, 10, 100, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(30));
+        ExecutorScalingPolicy.State state = new ExecutorScalingPolicy.State();
+
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(6, 0, 0), START)).isEqualTo(1);
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(6, 250, 0), START.plusSeconds(30))).isEqualTo(3);
+        // never more replicas than partitions
+        assertThat(policy.evaluate(state, 3, new ConsumerGroupLag(6, 5000, 10), START.plusSeconds(60))).isEqualTo(6);
+        assertThat(policy.evaluate(state, 6, new ConsumerGroupLag(6, 0, 5010), START.plusSeconds(90))).isEqualTo(1);
+    }
+
+    @Test
+    public void testScaleDownIsStabilised() {
+        ExecutorScalingPolicy policy = new ExecutorScalingPolicy(1, 10, 100, Duration.ZERO, Duration.ofMinutes(5), Duration.ofMinutes(30));
+        ExecutorScalingPolicy.State state = new ExecutorScalingPolicy.State();
+
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(10, 400, 0), START)).isEqualTo(4);
+        // the lag drops, but the executor keeps the highest recommendation of the window
+        assertThat(policy.evaluate(state, 4, new ConsumerGroupLag(10, 150, 250), START.plusSeconds(60))).isEqualTo(4);
+        assertThat(policy.evaluate(state, 4, new ConsumerGroupLag(10, 0, 400), START.plusSeconds(120))).isEqualTo(4);
+        // the recommendation of 4 replicas is out of the window
+        assertThat(policy.evaluate(state, 4, new ConsumerGroupLag(10, 0, 400), START.plusSeconds(330))).isEqualTo(2);
+        assertThat(policy.evaluate(state, 2, new ConsumerGroupLag(10, 0, 400), START.plusSeconds(430))).isEqualTo(1);
+    }
+
+    @Test
+    public void testScaleUpIsStabilised() {
+        ExecutorScalingPolicy policy = new ExecutorScalingPolicy(1, 10, 100, Duration.ofMinutes(1), Duration.ZERO, Duration.ofMinutes(30));
+        ExecutorScalingPolicy.State state = new ExecutorScalingPolicy.State();
+
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(10, 0, 0), START)).isEqualTo(1);
+        // a burst does not scale up until it lasts for the whole window
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(10, 500, 0), START.plusSeconds(30))).isEqualTo(1);
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(10, 500, 100), START.plusSeconds(61))).isEqualTo(5);
+    }
+
+    @Test
+    public void testIdleExecutorsAreScaledToZero() {
+        ExecutorScalingPolicy policy = new ExecutorScalingPolicy(0, 10, 100, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(10));
+        ExecutorScalingPolicy.State state = new ExecutorScalingPolicy.State();
+
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(3, 0, 50), START)).isEqualTo(1);
+        // still consuming
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(3, 0, 60), START.plus(Duration.ofMinutes(5)))).isEqualTo(1);
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(3, 0, 60), START.plus(Duration.ofMinutes(14)))).isEqualTo(1);
+        assertThat(policy.evaluate(state, 1, new ConsumerGroupLag(3, 0, 60), START.plus(Duration.ofMinutes(15)))).isZero();
+        assertThat(policy.evaluate(state, 0, new ConsumerGroupLag(3, 0, 60), START.plus(Duration.ofMinutes(16)))).isZero();
+        // a new record wakes it up
+        assertThat(policy.evaluate(state, 0, new ConsumerGroupLag(3, 1, 60), START.plus(Duration.ofMinutes(17)))).isEqualTo(1);
+    }
+
+    @Test
+    public void testInvalidPolicy() {
+        assertThatThrownBy(() -> new ExecutorScalingPolicy(-1, 10, 100, Duration.ZERO, Duration.ZERO, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExecutorScalingPolicy(3, 2, 100, Duration.ZERO, Duration.ZERO, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExecutorScalingPolicy(0, 0, 100, Duration.ZERO, Duration.ZERO, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExecutorScalingPolicy(1, 2, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}